@@ -0,0 +1,52 @@
+package com.linkedin.datahub.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A {@link PreparsedDocumentProvider} that keeps the parsed and validated documents of the most recently used queries,
+ * keyed by the SHA-256 hash of the query string, so that repeated queries skip parsing and validation.
+ *
+ * <p>Only documents that validated without errors are kept.
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final Cache<String, PreparsedDocumentEntry> _documents;
+
+    public CachingPreparsedDocumentProvider(final long maxSize) {
+        _documents = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(@Nonnull final ExecutionInput executionInput,
+                                             @Nonnull final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        final String hash = hash(executionInput.getQuery());
+        final PreparsedDocumentEntry cached = _documents.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+        final PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            _documents.put(hash, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the lowercase hex SHA-256 hash of a query, as used by persisted query ids.
+     */
+    @Nonnull
+    public static String hash(@Nonnull final String query) {
+        return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+    }
+}
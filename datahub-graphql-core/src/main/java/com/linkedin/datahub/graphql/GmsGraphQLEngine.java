@@ -8,6 +8,7 @@ import com.datahub.authentication.token.StatefulTokenService;
 import com.datahub.authentication.user.NativeUserService;
 import com.datahub.authorization.AuthorizationConfiguration;
 import com.datahub.authorization.role.RoleService;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.linkedin.common.VersionedUrn;
 import com.linkedin.common.urn.Urn;
@@ -232,6 +233,7 @@ import com.linkedin.datahub.graphql.resolvers.view.UpdateViewResolver;
 import com.linkedin.datahub.graphql.types.BrowsableEntityType;
 import com.linkedin.datahub.graphql.types.EntityType;
 import com.linkedin.datahub.graphql.types.LoadableType;
+import com.linkedin.datahub.graphql.types.ProjectableType;
 import com.linkedin.datahub.graphql.types.SearchableEntityType;
 import com.linkedin.datahub.graphql.types.aspect.AspectType;
 import com.linkedin.datahub.graphql.types.assertion.AssertionType;
@@ -296,9 +298,13 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -306,6 +312,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.dataloader.BatchLoaderContextProvider;
+import org.dataloader.BatchLoaderEnvironment;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderOptions;
 
@@ -540,12 +547,18 @@ public class GmsGraphQLEngine {
      * a {@link LoadableType}.
      */
     public Map<String, Function<QueryContext, DataLoader<?, ?>>> loaderSuppliers(final List<LoadableType<?, ?>> loadableTypes) {
-        return loadableTypes
+        final Map<String, Function<QueryContext, DataLoader<?, ?>>> suppliers = new HashMap<>(loadableTypes
             .stream()
             .collect(Collectors.toMap(
                     LoadableType::name,
                     (graphType) -> (context) -> createDataLoader(graphType, context)
-            ));
+            )));
+        loadableTypes.stream()
+            .filter(graphType -> graphType instanceof ProjectableType)
+            .map(graphType -> (ProjectableType<?, ?>) graphType)
+            .forEach(graphType -> suppliers.put(graphType.projectedName(),
+                context -> createProjectedDataLoader(graphType, context)));
+        return suppliers;
     }
 
     public void configureRuntimeWiring(final RuntimeWiring.Builder builder) {
@@ -1604,6 +1617,37 @@ public class GmsGraphQLEngine {
         }), loaderOptions);
     }
 
+    /**
+     * Creates a {@link DataLoader} keyed by {@link ProjectedKey}, which loads the keys of each distinct aspect set
+     * in a single batch. A key requested with several aspect sets in the same batch is loaded once, with all of them.
+     */
+    @VisibleForTesting
+    static <T, K> DataLoader<ProjectedKey<K>, DataFetcherResult<T>> createProjectedDataLoader(
+        final ProjectableType<T, K> graphType, final QueryContext queryContext) {
+        BatchLoaderContextProvider contextProvider = () -> queryContext;
+        DataLoaderOptions loaderOptions = DataLoaderOptions.newOptions().setBatchLoaderContextProvider(contextProvider);
+        return DataLoader.newDataLoader((List<ProjectedKey<K>> keys, BatchLoaderEnvironment context) -> CompletableFuture.supplyAsync(() -> {
+            final Map<K, Set<String>> aspectsByKey = new LinkedHashMap<>();
+            keys.forEach(key -> aspectsByKey.computeIfAbsent(key.getKey(), k -> new HashSet<>()).addAll(key.getAspects()));
+            final Map<Set<String>, List<K>> keysByAspects = new LinkedHashMap<>();
+            aspectsByKey.forEach((key, aspects) -> keysByAspects.computeIfAbsent(aspects, a -> new ArrayList<>()).add(key));
+            final Map<K, DataFetcherResult<T>> resultsByKey = new HashMap<>();
+            keysByAspects.forEach((aspects, batch) -> {
+                try {
+                    log.debug(String.format("Batch loading entities of type: %s, keys: %s, aspects: %s", graphType.name(), batch, aspects));
+                    final List<DataFetcherResult<T>> batchResults = graphType.batchLoad(batch, aspects, context.getContext());
+                    for (int i = 0; i < batch.size(); i++) {
+                        resultsByKey.put(batch.get(i), batchResults.get(i));
+                    }
+                } catch (Exception e) {
+                    log.error(String.format("Failed to load Entities of type: %s, keys: %s", graphType.name(), batch) + " " + e.getMessage());
+                    throw new RuntimeException(String.format("Failed to retrieve entities of type %s", graphType.name()), e);
+                }
+            });
+            return keys.stream().map(key -> resultsByKey.get(key.getKey())).collect(Collectors.toList());
+        }), loaderOptions);
+    }
+
     private void configureIngestionSourceResolvers(final RuntimeWiring.Builder builder) {
         builder.type("IngestionSource", typeWiring -> typeWiring
             .dataFetcher("executions", new IngestionSourceExecutionRequestsResolver(entityClient))
@@ -1,9 +1,14 @@
 package com.linkedin.datahub.graphql;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import com.linkedin.datahub.graphql.exception.DataHubDataFetcherExceptionHandler;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
+import graphql.GraphqlErrorBuilder;
 import graphql.execution.instrumentation.tracing.TracingInstrumentation;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
@@ -14,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -32,17 +38,32 @@ import static graphql.schema.idl.RuntimeWiring.*;
  * schemas, {@link DataLoader}s, & a configured {@link RuntimeWiring}.
  *
  * <p>In addition, it provides a simplified 'execute' API that accepts a 1) query string and 2) set of variables.
+ *
+ * <p>Parsed and validated query documents are cached by query hash, and queries may be registered and then sent by
+ * hash alone, following the Apollo automatic persisted queries protocol. Tracing is enabled for a sampled fraction
+ * of executions.
  */
 public class GraphQLEngine {
 
+    public static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    public static final String PERSISTED_QUERY_HASH_MISMATCH = "provided sha does not match query";
+
     private final GraphQL _graphQL;
+    private final GraphQL _tracingGraphQL;
     private final Map<String, Function<QueryContext, DataLoader<?, ?>>> _dataLoaderSuppliers;
+    private final Cache<String, String> _persistedQueries;
+    private final double _tracingSampleRate;
 
     private GraphQLEngine(@Nonnull final List<String> schemas,
                           @Nonnull final RuntimeWiring runtimeWiring,
-                          @Nonnull final Map<String, Function<QueryContext, DataLoader<?, ?>>> dataLoaderSuppliers) {
+                          @Nonnull final Map<String, Function<QueryContext, DataLoader<?, ?>>> dataLoaderSuppliers,
+                          final long documentCacheSize,
+                          final long persistedQueryCacheSize,
+                          final double tracingSampleRate) {
 
         _dataLoaderSuppliers = dataLoaderSuppliers;
+        _persistedQueries = CacheBuilder.newBuilder().maximumSize(persistedQueryCacheSize).build();
+        _tracingSampleRate = tracingSampleRate;
 
         /*
          * Parse schema
@@ -62,13 +83,44 @@ public class GraphQLEngine {
          */
         _graphQL = new GraphQL.Builder(graphQLSchema)
             .defaultDataFetcherExceptionHandler(new DataHubDataFetcherExceptionHandler())
-            .instrumentation(new TracingInstrumentation())
+            .preparsedDocumentProvider(new CachingPreparsedDocumentProvider(documentCacheSize))
             .build();
+        _tracingGraphQL = _graphQL.transform(builder -> builder.instrumentation(new TracingInstrumentation()));
     }
 
     public ExecutionResult execute(@Nonnull final String query,
                                    @Nullable final Map<String, Object> variables,
                                    @Nonnull final QueryContext context) {
+        return execute(query, null, variables, context);
+    }
+
+    /**
+     * Executes a query given by its text, its persisted query hash, or both.
+     *
+     * <p>A query sent with its hash is registered under it, after which the hash alone is enough. A hash alone that is
+     * not registered results in a {@link #PERSISTED_QUERY_NOT_FOUND} error, upon which clients resend the full query.
+     */
+    public ExecutionResult execute(@Nullable final String query,
+                                   @Nullable final String persistedQueryHash,
+                                   @Nullable final Map<String, Object> variables,
+                                   @Nonnull final QueryContext context) {
+        String resolvedQuery = query;
+        if (persistedQueryHash != null) {
+            if (query == null) {
+                resolvedQuery = _persistedQueries.getIfPresent(persistedQueryHash.toLowerCase());
+                if (resolvedQuery == null) {
+                    return persistedQueryError(PERSISTED_QUERY_NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+                }
+            } else if (persistedQueryHash.equalsIgnoreCase(CachingPreparsedDocumentProvider.hash(query))) {
+                _persistedQueries.put(persistedQueryHash.toLowerCase(), query);
+            } else {
+                return persistedQueryError(PERSISTED_QUERY_HASH_MISMATCH, "INTERNAL_SERVER_ERROR");
+            }
+        }
+        if (resolvedQuery == null) {
+            throw new IllegalArgumentException("Either a query or a persisted query hash is required");
+        }
+
         /*
          * Init DataLoaderRegistry - should be created for each request.
          */
@@ -78,7 +130,7 @@ public class GraphQLEngine {
          * Construct execution input
          */
         ExecutionInput executionInput = ExecutionInput.newExecutionInput()
-            .query(query)
+            .query(resolvedQuery)
             .variables(variables)
             .dataLoaderRegistry(register)
             .context(context)
@@ -87,7 +139,20 @@ public class GraphQLEngine {
         /*
          * Execute GraphQL Query
          */
-        return _graphQL.execute(executionInput);
+        return isTraced() ? _tracingGraphQL.execute(executionInput) : _graphQL.execute(executionInput);
+    }
+
+    private boolean isTraced() {
+        return _tracingSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < _tracingSampleRate;
+    }
+
+    private static ExecutionResult persistedQueryError(@Nonnull final String message, @Nonnull final String code) {
+        return ExecutionResultImpl.newExecutionResult()
+            .addError(GraphqlErrorBuilder.newError()
+                .message(message)
+                .extensions(ImmutableMap.of("code", code))
+                .build())
+            .build();
     }
 
     public GraphQL getGraphQL() {
@@ -106,6 +171,9 @@ public class GraphQLEngine {
         private final List<String> _schemas = new ArrayList<>();
         private final Map<String, Function<QueryContext, DataLoader<?, ?>>> _loaderSuppliers = new HashMap<>();
         private final RuntimeWiring.Builder _runtimeWiringBuilder = newRuntimeWiring();
+        private long _documentCacheSize = 1000;
+        private long _persistedQueryCacheSize = 1000;
+        private double _tracingSampleRate = 1.0;
 
         /**
          * Used to add a schema file containing the GQL types resolved by the engine.
@@ -153,11 +221,36 @@ public class GraphQLEngine {
             return this;
         }
 
+        /**
+         * Used to set the maximum number of parsed and validated query documents kept for reuse.
+         */
+        public Builder setDocumentCacheSize(final long documentCacheSize) {
+            _documentCacheSize = documentCacheSize;
+            return this;
+        }
+
+        /**
+         * Used to set the maximum number of queries registered for execution by persisted query hash.
+         */
+        public Builder setPersistedQueryCacheSize(final long persistedQueryCacheSize) {
+            _persistedQueryCacheSize = persistedQueryCacheSize;
+            return this;
+        }
+
+        /**
+         * Used to set the fraction of executions, between 0 and 1, whose results carry tracing information.
+         */
+        public Builder setTracingSampleRate(final double tracingSampleRate) {
+            _tracingSampleRate = tracingSampleRate;
+            return this;
+        }
+
         /**
          * Builds a {@link GraphQLEngine}.
          */
         public GraphQLEngine build() {
-            return new GraphQLEngine(_schemas, _runtimeWiringBuilder.build(), _loaderSuppliers);
+            return new GraphQLEngine(_schemas, _runtimeWiringBuilder.build(), _loaderSuppliers, _documentCacheSize,
+                _persistedQueryCacheSize, _tracingSampleRate);
         }
     }
 
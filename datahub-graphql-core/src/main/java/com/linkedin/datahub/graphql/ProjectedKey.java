@@ -0,0 +1,14 @@
+package com.linkedin.datahub.graphql;
+
+import java.util.Set;
+import lombok.Data;
+
+/**
+ * Key of an entity loaded with only a subset of its aspects. Entities loaded with different aspects are cached apart,
+ * so that a single request can load the same entity for several selections.
+ */
+@Data
+public class ProjectedKey<K> {
+  private final K key;
+  private final Set<String> aspects;
+}
@@ -3,11 +3,13 @@ package com.linkedin.datahub.graphql.resolvers.load;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.types.ProjectableType;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.DataLoader;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -60,8 +62,15 @@ public class EntityTypeResolver implements DataFetcher<CompletableFuture<Entity>
         final com.linkedin.datahub.graphql.types.EntityType filteredEntity = Iterables.getOnlyElement(_entityTypes.stream()
                 .filter(entity -> javaObject.getClass().isAssignableFrom(entity.objectClass()))
                 .collect(Collectors.toList()));
-        final DataLoader loader = environment.getDataLoaderRegistry().getDataLoader(filteredEntity.name());
         final Object key = filteredEntity.getKeyProvider().apply(resolvedEntity);
+        if (filteredEntity instanceof ProjectableType) {
+            final ProjectableType projectableType = (ProjectableType) filteredEntity;
+            final Set<String> aspects = projectableType.getAspectsToResolve(environment.getSelectionSet());
+            if (aspects != null) {
+                return ProjectedLoadUtils.load(environment, projectableType, aspects, key);
+            }
+        }
+        final DataLoader loader = environment.getDataLoaderRegistry().getDataLoader(filteredEntity.name());
 
         return loader.load(key);
     }
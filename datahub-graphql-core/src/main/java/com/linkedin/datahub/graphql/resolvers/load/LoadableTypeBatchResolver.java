@@ -1,13 +1,16 @@
 package com.linkedin.datahub.graphql.resolvers.load;
 
 import com.linkedin.datahub.graphql.types.LoadableType;
+import com.linkedin.datahub.graphql.types.ProjectableType;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.DataLoader;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Generic GraphQL resolver responsible for
@@ -16,7 +19,8 @@ import java.util.function.Function;
  *    2. Resolving a single {@link LoadableType}.
  *
  *  Note that this resolver expects that {@link DataLoader}s were registered
- *  for the provided {@link LoadableType} under the name provided by {@link LoadableType#name()}
+ *  for the provided {@link LoadableType} under the name provided by {@link LoadableType#name()}, and for a
+ *  {@link ProjectableType} also under {@link ProjectableType#projectedName()}.
  *
  * @param <T> the generated GraphQL POJO corresponding to the resolved type.
  * @param <K> the key type for the DataLoader
@@ -37,6 +41,17 @@ public class LoadableTypeBatchResolver<T, K> implements DataFetcher<CompletableF
         if (keys == null) {
             return null;
         }
+        if (_loadableType instanceof ProjectableType) {
+            final ProjectableType<T, K> projectableType = (ProjectableType<T, K>) _loadableType;
+            final Set<String> aspects = projectableType.getAspectsToResolve(environment.getSelectionSet());
+            if (aspects != null) {
+                final List<CompletableFuture<T>> futures = keys.stream()
+                    .map(key -> ProjectedLoadUtils.load(environment, projectableType, aspects, key))
+                    .collect(Collectors.toList());
+                return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+            }
+        }
         final DataLoader<K, T> loader = environment.getDataLoaderRegistry().getDataLoader(_loadableType.name());
         return loader.loadMany(keys);
     }
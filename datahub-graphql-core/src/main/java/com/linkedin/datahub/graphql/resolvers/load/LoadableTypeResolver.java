@@ -1,10 +1,12 @@
 package com.linkedin.datahub.graphql.resolvers.load;
 
 import com.linkedin.datahub.graphql.types.LoadableType;
+import com.linkedin.datahub.graphql.types.ProjectableType;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.DataLoader;
 
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
@@ -15,7 +17,9 @@ import java.util.function.Function;
  *    2. Resolving a single {@link LoadableType}.
  *
  *  Note that this resolver expects that {@link DataLoader}s were registered
- *  for the provided {@link LoadableType} under the name provided by {@link LoadableType#name()}
+ *  for the provided {@link LoadableType} under the name provided by {@link LoadableType#name()}, and for a
+ *  {@link ProjectableType} also under {@link ProjectableType#projectedName()}, which is used to load only the aspects
+ *  needed by the selected fields of entities the request does not already load in full.
  *
  * @param <T> the generated GraphQL POJO corresponding to the resolved type.
  * @param <K> the key type for the DataLoader
@@ -36,6 +40,13 @@ public class LoadableTypeResolver<T, K> implements DataFetcher<CompletableFuture
         if (key == null) {
             return null;
         }
+        if (_loadableType instanceof ProjectableType) {
+            final ProjectableType<T, K> projectableType = (ProjectableType<T, K>) _loadableType;
+            final Set<String> aspects = projectableType.getAspectsToResolve(environment.getSelectionSet());
+            if (aspects != null) {
+                return ProjectedLoadUtils.load(environment, projectableType, aspects, key);
+            }
+        }
         final DataLoader<K, T> loader = environment.getDataLoaderRegistry().getDataLoader(_loadableType.name());
         return loader.load(key);
     }
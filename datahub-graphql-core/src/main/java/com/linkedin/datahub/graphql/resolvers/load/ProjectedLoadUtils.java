@@ -0,0 +1,39 @@
+package com.linkedin.datahub.graphql.resolvers.load;
+
+import com.linkedin.datahub.graphql.ProjectedKey;
+import com.linkedin.datahub.graphql.types.ProjectableType;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+/**
+ * Loads entities of a {@link ProjectableType} with only the aspects needed by the selected fields.
+ */
+final class ProjectedLoadUtils {
+
+    private ProjectedLoadUtils() { }
+
+    /**
+     * Loads the entity with the given aspects, unless the request already loads it with all of its aspects, in which
+     * case that result is used instead of fetching the entity again.
+     */
+    @Nonnull
+    static <T, K> CompletableFuture<T> load(
+        @Nonnull final DataFetchingEnvironment environment,
+        @Nonnull final ProjectableType<T, K> projectableType,
+        @Nonnull final Set<String> aspects,
+        @Nonnull final K key) {
+        final DataLoader<K, T> fullLoader = environment.getDataLoaderRegistry().getDataLoader(projectableType.name());
+        final Optional<CompletableFuture<T>> loaded = fullLoader.getIfPresent(key);
+        if (loaded.isPresent()) {
+            return loaded.get();
+        }
+        final DataLoader<ProjectedKey<K>, T> loader =
+            environment.getDataLoaderRegistry().getDataLoader(projectableType.projectedName());
+        return loader.load(new ProjectedKey<>(key, aspects));
+    }
+}
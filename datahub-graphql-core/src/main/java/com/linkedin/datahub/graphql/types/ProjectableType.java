@@ -0,0 +1,49 @@
+package com.linkedin.datahub.graphql.types;
+
+import com.linkedin.datahub.graphql.QueryContext;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * GQL graph type that can be loaded with only the aspects needed to resolve the fields selected by a query.
+ *
+ * <p>In addition to the {@link org.dataloader.DataLoader} registered under {@link #name()}, one keyed by
+ * {@link com.linkedin.datahub.graphql.ProjectedKey} is registered under {@link #projectedName()}.
+ *
+ * @param <T>: The GraphQL object type corresponding to the type.
+ * @param <K> the key type for the DataLoader
+ */
+public interface ProjectableType<T, K> extends LoadableType<T, K> {
+
+    /**
+     * Returns the name of the {@link org.dataloader.DataLoader} that loads projections of the type
+     */
+    default String projectedName() {
+        return name() + "Projected";
+    }
+
+    /**
+     * Returns the aspects needed to resolve the fields of the selection set that apply to this type, or null if all
+     * aspects are needed.
+     *
+     * @param selectionSet the selection set of the field resolving to this type
+     */
+    @Nullable
+    Set<String> getAspectsToResolve(@Nonnull final DataFetchingFieldSelectionSet selectionSet);
+
+    /**
+     * Retrieves a list of entities given a list of keys, loading only the given aspects. The list returned is expected
+     * to be of same length of the list of keys, where nulls are provided in place of an entity object if an entity
+     * cannot be found.
+     *
+     * @param keys to retrieve
+     * @param aspects to load for each entity
+     * @param context the {@link QueryContext} corresponding to the request.
+     */
+    List<DataFetcherResult<T>> batchLoad(@Nonnull final List<K> keys, @Nonnull final Set<String> aspects,
+        @Nonnull final QueryContext context) throws Exception;
+}
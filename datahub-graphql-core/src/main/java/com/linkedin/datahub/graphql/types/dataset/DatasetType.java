@@ -1,6 +1,7 @@
 package com.linkedin.datahub.graphql.types.dataset;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.urn.CorpuserUrn;
 import com.linkedin.common.urn.Urn;
@@ -24,6 +25,7 @@ import com.linkedin.datahub.graphql.generated.BatchDatasetUpdateInput;
 import com.linkedin.datahub.graphql.resolvers.ResolverUtils;
 import com.linkedin.datahub.graphql.types.BatchMutableType;
 import com.linkedin.datahub.graphql.types.BrowsableEntityType;
+import com.linkedin.datahub.graphql.types.ProjectableType;
 import com.linkedin.datahub.graphql.types.SearchableEntityType;
 import com.linkedin.datahub.graphql.types.dataset.mappers.DatasetMapper;
 import com.linkedin.datahub.graphql.types.dataset.mappers.DatasetUpdateInputMapper;
@@ -41,6 +43,8 @@ import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.r2.RemoteInvocationException;
 import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -59,7 +63,7 @@ import static com.linkedin.metadata.Constants.*;
 
 
 public class DatasetType implements SearchableEntityType<Dataset, String>, BrowsableEntityType<Dataset, String>,
-        BatchMutableType<DatasetUpdateInput, BatchDatasetUpdateInput, Dataset> {
+        BatchMutableType<DatasetUpdateInput, BatchDatasetUpdateInput, Dataset>, ProjectableType<Dataset, String> {
 
     private static final Set<String> ASPECTS_TO_RESOLVE = ImmutableSet.of(
         DATASET_KEY_ASPECT_NAME,
@@ -83,6 +87,39 @@ public class DatasetType implements SearchableEntityType<Dataset, String>, Brows
         SIBLINGS_ASPECT_NAME
     );
 
+    // Aspects that each Dataset field is mapped from. The key aspect is always loaded.
+    private static final Map<String, Set<String>> FIELD_ASPECTS = ImmutableMap.<String, Set<String>>builder()
+        .put("name", ImmutableSet.of())
+        .put("origin", ImmutableSet.of())
+        .put("platform", ImmutableSet.of())
+        .put("properties", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+        .put("description", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+        .put("uri", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+        .put("editableProperties", ImmutableSet.of(EDITABLE_DATASET_PROPERTIES_ASPECT_NAME))
+        .put("deprecation", ImmutableSet.of(DATASET_DEPRECATION_ASPECT_NAME, DEPRECATION_ASPECT_NAME))
+        .put("schema", ImmutableSet.of(SCHEMA_METADATA_ASPECT_NAME))
+        .put("editableSchemaMetadata", ImmutableSet.of(EDITABLE_SCHEMA_METADATA_ASPECT_NAME))
+        .put("viewProperties", ImmutableSet.of(VIEW_PROPERTIES_ASPECT_NAME))
+        .put("institutionalMemory", ImmutableSet.of(INSTITUTIONAL_MEMORY_ASPECT_NAME))
+        .put("ownership", ImmutableSet.of(OWNERSHIP_ASPECT_NAME))
+        .put("status", ImmutableSet.of(STATUS_ASPECT_NAME))
+        .put("tags", ImmutableSet.of(GLOBAL_TAGS_ASPECT_NAME))
+        .put("globalTags", ImmutableSet.of(GLOBAL_TAGS_ASPECT_NAME))
+        .put("glossaryTerms", ImmutableSet.of(GLOSSARY_TERMS_ASPECT_NAME))
+        .put("container", ImmutableSet.of(CONTAINER_ASPECT_NAME))
+        .put("domain", ImmutableSet.of(DOMAINS_ASPECT_NAME))
+        .put("dataPlatformInstance", ImmutableSet.of(DATA_PLATFORM_INSTANCE_ASPECT_NAME))
+        .put("siblings", ImmutableSet.of(SIBLINGS_ASPECT_NAME))
+        .put("fineGrainedLineages", ImmutableSet.of(UPSTREAM_LINEAGE_ASPECT_NAME))
+        .build();
+
+    // Fields resolved from the urn alone, by resolvers that fetch their own data
+    private static final Set<String> URN_ONLY_FIELDS = ImmutableSet.of(
+        "__typename", "urn", "type", "parentContainers", "usageStats", "statsSummary", "datasetProfiles", "operations",
+        "assertions", "relationships", "lineage", "browsePaths", "health", "schemaMetadata", "subTypes", "aspects",
+        "runs", "privileges", "testResults"
+    );
+
     private static final Set<String> FACET_FIELDS = ImmutableSet.of("origin", "platform");
     private static final String ENTITY_NAME = "dataset";
 
@@ -117,9 +154,35 @@ public class DatasetType implements SearchableEntityType<Dataset, String>, Brows
         return Entity::getUrn;
     }
 
+    @Nullable
+    @Override
+    public Set<String> getAspectsToResolve(@Nonnull final DataFetchingFieldSelectionSet selectionSet) {
+        final Set<String> aspects = new HashSet<>();
+        aspects.add(DATASET_KEY_ASPECT_NAME);
+        for (SelectedField field : selectionSet.getImmediateFields()) {
+            if (!field.getObjectTypeNames().contains(Dataset.class.getSimpleName())
+                || URN_ONLY_FIELDS.contains(field.getName())) {
+                continue;
+            }
+            final Set<String> fieldAspects = FIELD_ASPECTS.get(field.getName());
+            if (fieldAspects == null) {
+                // Fields such as lastIngested depend on every aspect
+                return null;
+            }
+            aspects.addAll(fieldAspects);
+        }
+        return aspects;
+    }
+
     @Override
     public List<DataFetcherResult<Dataset>> batchLoad(@Nonnull final List<String> urnStrs,
         @Nonnull final QueryContext context) {
+        return batchLoad(urnStrs, ASPECTS_TO_RESOLVE, context);
+    }
+
+    @Override
+    public List<DataFetcherResult<Dataset>> batchLoad(@Nonnull final List<String> urnStrs,
+        @Nonnull final Set<String> aspects, @Nonnull final QueryContext context) {
         try {
             final List<Urn> urns = urnStrs.stream()
                 .map(UrnUtils::getUrn)
@@ -129,7 +192,7 @@ public class DatasetType implements SearchableEntityType<Dataset, String>, Brows
                 _entityClient.batchGetV2(
                     Constants.DATASET_ENTITY_NAME,
                     new HashSet<>(urns),
-                    ASPECTS_TO_RESOLVE,
+                    aspects,
                     context.getAuthentication());
 
             final List<EntityResponse> gmsResults = new ArrayList<>();
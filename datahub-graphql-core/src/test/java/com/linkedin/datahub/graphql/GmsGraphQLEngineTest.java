@@ -0,0 +1,56 @@
+package com.linkedin.datahub.graphql;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.datahub.graphql.types.ProjectableType;
+import graphql.execution.DataFetcherResult;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class GmsGraphQLEngineTest {
+
+  private static final Set<String> PROPERTIES = ImmutableSet.of("datasetKey", "datasetProperties");
+  private static final Set<String> TAGS = ImmutableSet.of("datasetKey", "globalTags");
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testProjectedDataLoaderGroupsKeysByAspects() throws Exception {
+    final ProjectableType<String, String> type = mock(ProjectableType.class);
+    when(type.name()).thenReturn("Dataset");
+    when(type.batchLoad(anyList(), anySet(), any(QueryContext.class))).thenAnswer(invocation -> {
+      final List<String> keys = invocation.getArgument(0);
+      final Set<String> aspects = invocation.getArgument(1);
+      return keys.stream()
+          .map(key -> DataFetcherResult.<String>newResult().data(key + ":" + aspects.size()).build())
+          .collect(Collectors.toList());
+    });
+
+    final DataLoader<ProjectedKey<String>, DataFetcherResult<String>> loader =
+        GmsGraphQLEngine.createProjectedDataLoader(type, TestUtils.getMockAllowContext());
+    final CompletableFuture<DataFetcherResult<String>> a = loader.load(new ProjectedKey<>("a", PROPERTIES));
+    final CompletableFuture<DataFetcherResult<String>> b = loader.load(new ProjectedKey<>("b", PROPERTIES));
+    final CompletableFuture<DataFetcherResult<String>> c = loader.load(new ProjectedKey<>("c", TAGS));
+    // The same key selected for different aspects is loaded once, with the aspects of both selections
+    final CompletableFuture<DataFetcherResult<String>> aTags = loader.load(new ProjectedKey<>("a", TAGS));
+    loader.dispatchAndJoin();
+
+    assertEquals(a.get().getData(), "a:3");
+    assertEquals(aTags.get().getData(), "a:3");
+    assertEquals(b.get().getData(), "b:2");
+    assertEquals(c.get().getData(), "c:2");
+    verify(type).batchLoad(eq(ImmutableList.of("a")),
+        eq(ImmutableSet.of("datasetKey", "datasetProperties", "globalTags")), any(QueryContext.class));
+    verify(type).batchLoad(eq(ImmutableList.of("b")), eq(PROPERTIES), any(QueryContext.class));
+    verify(type).batchLoad(eq(ImmutableList.of("c")), eq(TAGS), any(QueryContext.class));
+    verify(type, never()).batchLoad(anyList(), any(QueryContext.class));
+  }
+}
@@ -0,0 +1,82 @@
+package com.linkedin.datahub.graphql;
+
+import graphql.ExecutionResult;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class GraphQLEngineTest {
+
+  private static final String SCHEMA = "type Query { hello(name: String): String }";
+  private static final String QUERY = "query hello($name: String) { hello(name: $name) }";
+
+  private AtomicInteger _calls;
+  private GraphQLEngine _engine;
+
+  @BeforeMethod
+  public void setup() {
+    _calls = new AtomicInteger();
+    _engine = GraphQLEngine.builder()
+        .addSchema(SCHEMA)
+        .configureRuntimeWiring(builder -> builder.type("Query", typeWiring -> typeWiring
+            .dataFetcher("hello", environment -> {
+              _calls.incrementAndGet();
+              return "hello " + environment.getArgument("name");
+            })))
+        .setTracingSampleRate(0)
+        .build();
+  }
+
+  @Test
+  public void testRepeatedQueries() {
+    for (int i = 0; i < 3; i++) {
+      ExecutionResult result = _engine.execute(QUERY, Collections.singletonMap("name", "user" + i),
+          TestUtils.getMockAllowContext());
+      assertTrue(result.getErrors().isEmpty());
+      assertEquals(((Map<?, ?>) result.getData()).get("hello"), "hello user" + i);
+      assertNull(result.getExtensions());
+    }
+    assertEquals(_calls.get(), 3);
+
+    ExecutionResult invalid = _engine.execute("{ goodbye }", null, TestUtils.getMockAllowContext());
+    assertFalse(invalid.getErrors().isEmpty());
+  }
+
+  @Test
+  public void testPersistedQueries() {
+    final String hash = CachingPreparsedDocumentProvider.hash(QUERY);
+    final Map<String, Object> variables = Collections.singletonMap("name", "user");
+
+    ExecutionResult notFound = _engine.execute(null, hash, variables, TestUtils.getMockAllowContext());
+    assertEquals(notFound.getErrors().size(), 1);
+    assertEquals(notFound.getErrors().get(0).getMessage(), GraphQLEngine.PERSISTED_QUERY_NOT_FOUND);
+
+    ExecutionResult registered = _engine.execute(QUERY, hash, variables, TestUtils.getMockAllowContext());
+    assertTrue(registered.getErrors().isEmpty());
+
+    ExecutionResult byHash = _engine.execute(null, hash, variables, TestUtils.getMockAllowContext());
+    assertTrue(byHash.getErrors().isEmpty());
+    assertEquals(((Map<?, ?>) byHash.getData()).get("hello"), "hello user");
+
+    ExecutionResult mismatch = _engine.execute("{ hello }", hash, variables, TestUtils.getMockAllowContext());
+    assertEquals(mismatch.getErrors().get(0).getMessage(), GraphQLEngine.PERSISTED_QUERY_HASH_MISMATCH);
+    assertEquals(_calls.get(), 2);
+  }
+
+  @Test
+  public void testTracingSampleRate() {
+    GraphQLEngine tracingEngine = GraphQLEngine.builder()
+        .addSchema(SCHEMA)
+        .configureRuntimeWiring(builder -> builder.type("Query", typeWiring -> typeWiring
+            .dataFetcher("hello", environment -> "hello")))
+        .setTracingSampleRate(1.0)
+        .build();
+    ExecutionResult result = tracingEngine.execute(QUERY, null, TestUtils.getMockAllowContext());
+    assertTrue(result.getExtensions().containsKey("tracing"));
+  }
+}
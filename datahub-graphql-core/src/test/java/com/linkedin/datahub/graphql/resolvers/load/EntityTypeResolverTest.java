@@ -0,0 +1,128 @@
+package com.linkedin.datahub.graphql.resolvers.load;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.datahub.graphql.ProjectedKey;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.types.EntityType;
+import com.linkedin.datahub.graphql.types.ProjectableType;
+import graphql.language.Field;
+import graphql.language.SelectionSet;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class EntityTypeResolverTest {
+
+  private static final String TEST_DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final Set<String> ASPECTS = ImmutableSet.of("datasetKey", "datasetProperties");
+
+  private interface ProjectableEntityType extends EntityType<Dataset, String>, ProjectableType<Dataset, String> {
+  }
+
+  private final List<List<String>> _fullLoads = new ArrayList<>();
+  private final List<List<ProjectedKey<String>>> _projectedLoads = new ArrayList<>();
+  private ProjectableEntityType _type;
+  private DataLoaderRegistry _registry;
+  private DataFetchingEnvironment _environment;
+  private EntityTypeResolver _resolver;
+
+  @BeforeMethod
+  public void setup() {
+    _fullLoads.clear();
+    _projectedLoads.clear();
+    _type = mock(ProjectableEntityType.class);
+    when(_type.name()).thenReturn("Dataset");
+    when(_type.projectedName()).thenReturn("DatasetProjected");
+    when(_type.objectClass()).thenReturn(Dataset.class);
+    when(_type.getKeyProvider()).thenReturn(Entity::getUrn);
+    when(_type.getAspectsToResolve(any())).thenReturn(ASPECTS);
+
+    _registry = new DataLoaderRegistry();
+    _registry.register("Dataset", DataLoader.newDataLoader((List<String> keys) -> {
+      _fullLoads.add(keys);
+      return CompletableFuture.completedFuture(
+          keys.stream().map(key -> dataset(key, "full")).collect(Collectors.toList()));
+    }));
+    _registry.register("DatasetProjected", DataLoader.newDataLoader((List<ProjectedKey<String>> keys) -> {
+      _projectedLoads.add(keys);
+      return CompletableFuture.completedFuture(
+          keys.stream().map(key -> dataset(key.getKey(), "projected")).collect(Collectors.toList()));
+    }));
+    _environment = mock(DataFetchingEnvironment.class);
+    when(_environment.getDataLoaderRegistry()).thenReturn(_registry);
+    when(_environment.getField()).thenReturn(Field.newField("entity")
+        .selectionSet(SelectionSet.newSelectionSet()
+            .selection(Field.newField("urn").build())
+            .selection(Field.newField("properties").build())
+            .build())
+        .build());
+    _resolver = new EntityTypeResolver(ImmutableList.of(_type), env -> dataset(TEST_DATASET_URN, null));
+  }
+
+  @Test
+  public void testLoadsOnlySelectedAspects() throws Exception {
+    final CompletableFuture<?> result = _resolver.get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(((Dataset) result.get()).getName(), "projected");
+    assertEquals(_projectedLoads, ImmutableList.of(ImmutableList.of(new ProjectedKey<>(TEST_DATASET_URN, ASPECTS))));
+    assertTrue(_fullLoads.isEmpty());
+  }
+
+  @Test
+  public void testLoadsAllAspectsWithoutProjection() throws Exception {
+    when(_type.getAspectsToResolve(any())).thenReturn(null);
+
+    final CompletableFuture<?> result = _resolver.get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(((Dataset) result.get()).getName(), "full");
+    assertTrue(_projectedLoads.isEmpty());
+  }
+
+  @Test
+  public void testReusesEntityLoadedWithAllAspects() throws Exception {
+    _registry.<String, Dataset>getDataLoader("Dataset").load(TEST_DATASET_URN);
+
+    final CompletableFuture<?> result = _resolver.get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(((Dataset) result.get()).getName(), "full");
+    assertTrue(_projectedLoads.isEmpty());
+    assertEquals(_fullLoads, ImmutableList.of(ImmutableList.of(TEST_DATASET_URN)));
+  }
+
+  @Test
+  public void testIdentityFieldsNotLoaded() throws Exception {
+    when(_environment.getField()).thenReturn(Field.newField("entity")
+        .selectionSet(SelectionSet.newSelectionSet().selection(Field.newField("urn").build()).build())
+        .build());
+
+    final CompletableFuture<?> result = _resolver.get(_environment);
+
+    assertEquals(((Dataset) result.get()).getUrn(), TEST_DATASET_URN);
+    assertTrue(_projectedLoads.isEmpty());
+    assertTrue(_fullLoads.isEmpty());
+  }
+
+  private static Dataset dataset(String urn, String name) {
+    final Dataset dataset = new Dataset();
+    dataset.setUrn(urn);
+    dataset.setName(name);
+    return dataset;
+  }
+}
@@ -0,0 +1,103 @@
+package com.linkedin.datahub.graphql.resolvers.load;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.datahub.graphql.ProjectedKey;
+import com.linkedin.datahub.graphql.types.ProjectableType;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class LoadableTypeResolverTest {
+
+  private static final Set<String> ASPECTS = ImmutableSet.of("datasetKey", "datasetProperties");
+
+  private final List<List<String>> _fullLoads = new ArrayList<>();
+  private final List<List<ProjectedKey<String>>> _projectedLoads = new ArrayList<>();
+  private ProjectableType<String, String> _type;
+  private DataLoaderRegistry _registry;
+  private DataFetchingEnvironment _environment;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    _fullLoads.clear();
+    _projectedLoads.clear();
+    _type = mock(ProjectableType.class);
+    when(_type.name()).thenReturn("Dataset");
+    when(_type.projectedName()).thenReturn("DatasetProjected");
+    when(_type.getAspectsToResolve(any())).thenReturn(ASPECTS);
+
+    _registry = new DataLoaderRegistry();
+    _registry.register("Dataset", DataLoader.newDataLoader((List<String> keys) -> {
+      _fullLoads.add(keys);
+      return CompletableFuture.completedFuture(keys.stream().map(key -> "full:" + key).collect(Collectors.toList()));
+    }));
+    _registry.register("DatasetProjected", DataLoader.newDataLoader((List<ProjectedKey<String>> keys) -> {
+      _projectedLoads.add(keys);
+      return CompletableFuture.completedFuture(
+          keys.stream().map(key -> "projected:" + key.getKey()).collect(Collectors.toList()));
+    }));
+    _environment = mock(DataFetchingEnvironment.class);
+    when(_environment.getDataLoaderRegistry()).thenReturn(_registry);
+  }
+
+  @Test
+  public void testLoadsOnlySelectedAspects() throws Exception {
+    final CompletableFuture<String> result = new LoadableTypeResolver<>(_type, env -> "a").get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(result.get(), "projected:a");
+    assertEquals(_projectedLoads, ImmutableList.of(ImmutableList.of(new ProjectedKey<>("a", ASPECTS))));
+    assertTrue(_fullLoads.isEmpty());
+  }
+
+  @Test
+  public void testLoadsAllAspectsWithoutProjection() throws Exception {
+    when(_type.getAspectsToResolve(any())).thenReturn(null);
+
+    final CompletableFuture<String> result = new LoadableTypeResolver<>(_type, env -> "a").get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(result.get(), "full:a");
+    assertTrue(_projectedLoads.isEmpty());
+  }
+
+  @Test
+  public void testReusesEntityLoadedWithAllAspects() throws Exception {
+    final CompletableFuture<String> full = _registry.<String, String>getDataLoader("Dataset").load("a");
+
+    final CompletableFuture<String> result = new LoadableTypeResolver<>(_type, env -> "a").get(_environment);
+    _registry.dispatchAll();
+
+    assertSame(result, full);
+    assertEquals(result.get(), "full:a");
+    assertTrue(_projectedLoads.isEmpty());
+  }
+
+  @Test
+  public void testBatchLoadsOnlySelectedAspects() throws Exception {
+    _registry.<String, String>getDataLoader("Dataset").load("b");
+
+    final CompletableFuture<List<String>> result =
+        new LoadableTypeBatchResolver<>(_type, env -> ImmutableList.of("a", "b", "c")).get(_environment);
+    _registry.dispatchAll();
+
+    assertEquals(result.get(), ImmutableList.of("projected:a", "full:b", "projected:c"));
+    assertEquals(_projectedLoads, ImmutableList.of(
+        ImmutableList.of(new ProjectedKey<>("a", ASPECTS), new ProjectedKey<>("c", ASPECTS))));
+    assertEquals(_fullLoads, ImmutableList.of(ImmutableList.of("b")));
+  }
+}
@@ -0,0 +1,109 @@
+package com.linkedin.datahub.graphql.types.dataset;
+
+import com.datahub.authentication.Authentication;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.FabricType;
+import com.linkedin.common.urn.DataPlatformUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.dataset.DatasetProperties;
+import com.linkedin.entity.Aspect;
+import com.linkedin.entity.EntityResponse;
+import com.linkedin.entity.EnvelopedAspect;
+import com.linkedin.entity.EnvelopedAspectMap;
+import com.linkedin.entity.client.EntityClient;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.key.DatasetKey;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.TestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class DatasetTypeTest {
+
+  private static final String TEST_DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+
+  @Test
+  public void testGetAspectsToResolve() {
+    DatasetType type = new DatasetType(Mockito.mock(EntityClient.class));
+
+    Set<String> aspects = type.getAspectsToResolve(selectionSet(
+        field("urn", "Dataset"), field("name", "Dataset"), field("platform", "Dataset"),
+        field("properties", "Dataset"), field("tags", "Dataset"), field("lineage", "Dataset"),
+        field("schemaMetadata", "Dataset"), field("editableProperties", "Chart")));
+    assertEquals(aspects, ImmutableSet.of(
+        Constants.DATASET_KEY_ASPECT_NAME,
+        Constants.DATASET_PROPERTIES_ASPECT_NAME,
+        Constants.GLOBAL_TAGS_ASPECT_NAME));
+
+    assertNull(type.getAspectsToResolve(selectionSet(field("name", "Dataset"), field("lastIngested", "Dataset"))));
+  }
+
+  @Test
+  public void testBatchLoadProjection() throws Exception {
+    EntityClient client = Mockito.mock(EntityClient.class);
+    Urn datasetUrn = Urn.createFromString(TEST_DATASET_URN);
+    Set<String> aspects = ImmutableSet.of(Constants.DATASET_KEY_ASPECT_NAME, Constants.DATASET_PROPERTIES_ASPECT_NAME);
+
+    Mockito.when(client.batchGetV2(
+        Mockito.eq(Constants.DATASET_ENTITY_NAME),
+        Mockito.eq(ImmutableSet.of(datasetUrn)),
+        Mockito.eq(aspects),
+        Mockito.any(Authentication.class)))
+        .thenReturn(ImmutableMap.of(
+            datasetUrn,
+            new EntityResponse()
+                .setEntityName(Constants.DATASET_ENTITY_NAME)
+                .setUrn(datasetUrn)
+                .setAspects(new EnvelopedAspectMap(ImmutableMap.of(
+                    Constants.DATASET_KEY_ASPECT_NAME,
+                    new EnvelopedAspect().setValue(new Aspect(new DatasetKey()
+                        .setName("test")
+                        .setOrigin(FabricType.PROD)
+                        .setPlatform(new DataPlatformUrn("hive")).data())),
+                    Constants.DATASET_PROPERTIES_ASPECT_NAME,
+                    new EnvelopedAspect().setValue(new Aspect(new DatasetProperties()
+                        .setDescription("test description").data()))
+                )))));
+
+    DatasetType type = new DatasetType(client);
+    QueryContext mockContext = getMockAllowContext();
+    List<DataFetcherResult<Dataset>> result = type.batchLoad(ImmutableList.of(TEST_DATASET_URN), aspects, mockContext);
+
+    Mockito.verify(client, Mockito.times(1)).batchGetV2(
+        Mockito.eq(Constants.DATASET_ENTITY_NAME),
+        Mockito.eq(ImmutableSet.of(datasetUrn)),
+        Mockito.eq(aspects),
+        Mockito.any(Authentication.class));
+
+    Dataset dataset = result.get(0).getData();
+    assertEquals(dataset.getName(), "test");
+    assertEquals(dataset.getProperties().getDescription(), "test description");
+    assertNull(dataset.getSchema());
+  }
+
+  private static DataFetchingFieldSelectionSet selectionSet(SelectedField... fields) {
+    DataFetchingFieldSelectionSet selectionSet = Mockito.mock(DataFetchingFieldSelectionSet.class);
+    Mockito.when(selectionSet.getImmediateFields()).thenReturn(Stream.of(fields).collect(Collectors.toList()));
+    return selectionSet;
+  }
+
+  private static SelectedField field(String name, String objectTypeName) {
+    SelectedField field = Mockito.mock(SelectedField.class);
+    Mockito.when(field.getName()).thenReturn(name);
+    Mockito.when(field.getObjectTypeNames()).thenReturn(ImmutableList.of(objectTypeName));
+    return field;
+  }
+}
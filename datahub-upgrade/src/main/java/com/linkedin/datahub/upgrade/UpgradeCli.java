@@ -3,6 +3,7 @@ package com.linkedin.datahub.upgrade;
 import com.linkedin.datahub.upgrade.impl.DefaultUpgradeManager;
 import com.linkedin.datahub.upgrade.nocode.NoCodeUpgrade;
 import com.linkedin.datahub.upgrade.nocodecleanup.NoCodeCleanupUpgrade;
+import com.linkedin.datahub.upgrade.reencodeaspects.ReencodeAspects;
 import com.linkedin.datahub.upgrade.removeunknownaspects.RemoveUnknownAspects;
 import com.linkedin.datahub.upgrade.restorebackup.RestoreBackup;
 import com.linkedin.datahub.upgrade.restoreindices.RestoreIndices;
@@ -49,6 +50,10 @@ public class UpgradeCli implements CommandLineRunner {
   @Named("removeUnknownAspects")
   private RemoveUnknownAspects removeUnknownAspects;
 
+  @Inject
+  @Named("reencodeAspects")
+  private ReencodeAspects reencodeAspects;
+
   @Override
   public void run(String... cmdLineArgs) {
     _upgradeManager.register(noCodeUpgrade);
@@ -56,6 +61,7 @@ public class UpgradeCli implements CommandLineRunner {
     _upgradeManager.register(restoreIndices);
     _upgradeManager.register(restoreBackup);
     _upgradeManager.register(removeUnknownAspects);
+    _upgradeManager.register(reencodeAspects);
 
     final Args args = new Args();
     new CommandLine(args).setCaseInsensitiveEnumValuesAllowed(true).parseArgs(cmdLineArgs);
@@ -0,0 +1,27 @@
+package com.linkedin.datahub.upgrade.config;
+
+import com.linkedin.datahub.upgrade.reencodeaspects.ReencodeAspects;
+import com.linkedin.metadata.entity.AspectDao;
+import io.ebean.EbeanServer;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+
+@Configuration
+public class ReencodeAspectsConfig {
+  @Autowired
+  ApplicationContext applicationContext;
+
+  @Bean(name = "reencodeAspects")
+  @DependsOn({"ebeanServer", "entityAspectDao"})
+  @Nonnull
+  public ReencodeAspects createInstance() {
+    final EbeanServer ebeanServer = applicationContext.getBean(EbeanServer.class);
+    final AspectDao aspectDao = applicationContext.getBean("entityAspectDao", AspectDao.class);
+    return new ReencodeAspects(ebeanServer, aspectDao);
+  }
+}
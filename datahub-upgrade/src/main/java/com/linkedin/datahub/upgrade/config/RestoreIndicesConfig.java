@@ -1,13 +1,20 @@
 package com.linkedin.datahub.upgrade.config;
 
 import com.linkedin.datahub.upgrade.restoreindices.RestoreIndices;
+import com.linkedin.metadata.entity.AspectDao;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import com.linkedin.metadata.service.UpdateIndicesService;
+import com.linkedin.metadata.systemmetadata.SystemMetadataService;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
 import io.ebean.EbeanServer;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,8 +26,13 @@ public class RestoreIndicesConfig {
   @Autowired
   ApplicationContext applicationContext;
 
+  @Value("${featureFlags.graphServiceDiffModeEnabled:false}")
+  private boolean graphServiceDiffModeEnabled;
+
   @Bean(name = "restoreIndices")
-  @DependsOn({"ebeanServer", "entityService", "searchService", "graphService", "entityRegistry"})
+  @DependsOn({"ebeanServer", "entityService", "searchService", "graphService", "entityRegistry", "entityAspectDao",
+      "elasticSearchBulkProcessor", "systemMetadataService", "timeseriesAspectService",
+      "searchDocumentTransformer"})
   @Nonnull
   public RestoreIndices createInstance() {
     final EbeanServer ebeanServer = applicationContext.getBean(EbeanServer.class);
@@ -28,8 +40,17 @@ public class RestoreIndicesConfig {
     final EntitySearchService entitySearchService = applicationContext.getBean(EntitySearchService.class);
     final GraphService graphService = applicationContext.getBean(GraphService.class);
     final EntityRegistry entityRegistry = applicationContext.getBean(EntityRegistry.class);
+    final AspectDao aspectDao = applicationContext.getBean("entityAspectDao", AspectDao.class);
+    final ESBulkProcessor bulkProcessor = applicationContext.getBean(ESBulkProcessor.class);
+
+    final UpdateIndicesService updateIndicesService = new UpdateIndicesService(graphService, entitySearchService,
+        applicationContext.getBean(TimeseriesAspectService.class),
+        applicationContext.getBean(SystemMetadataService.class),
+        entityRegistry,
+        applicationContext.getBean(SearchDocumentTransformer.class));
+    updateIndicesService.setGraphDiffMode(graphServiceDiffModeEnabled);
 
     return new RestoreIndices(ebeanServer, entityService, entityRegistry, entitySearchService,
-        graphService);
+        graphService, aspectDao, updateIndicesService, bulkProcessor);
   }
 }
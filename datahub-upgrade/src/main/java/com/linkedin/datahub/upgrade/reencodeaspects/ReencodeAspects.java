@@ -0,0 +1,50 @@
+package com.linkedin.datahub.upgrade.reencodeaspects;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.upgrade.Upgrade;
+import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.metadata.entity.AspectDao;
+import io.ebean.EbeanServer;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Rewrites the stored aspects in the format of an aspect codec, by default the one GMS is configured to write new
+ * aspects with. Rows in the old and new format are both readable, so this can run while GMS is serving.
+ */
+public class ReencodeAspects implements Upgrade {
+  public static final String CODEC_ARG_NAME = "codec";
+  public static final String BATCH_SIZE_ARG_NAME = "batchSize";
+  public static final String BATCH_DELAY_MS_ARG_NAME = "batchDelayMs";
+  public static final String ASPECT_NAME_ARG_NAME = "aspectName";
+  public static final String URN_LIKE_ARG_NAME = "urnLike";
+
+  private final List<UpgradeStep> _steps;
+
+  public ReencodeAspects(final EbeanServer server, final AspectDao aspectDao) {
+    _steps = buildSteps(server, aspectDao);
+  }
+
+  @Override
+  public String id() {
+    return this.getClass().getSimpleName();
+  }
+
+  @Override
+  public List<UpgradeStep> steps() {
+    return _steps;
+  }
+
+  private List<UpgradeStep> buildSteps(final EbeanServer server, final AspectDao aspectDao) {
+    final List<UpgradeStep> steps = new ArrayList<>();
+    steps.add(new ReencodeAspectsStep(server, aspectDao));
+    return steps;
+  }
+
+  @Override
+  public List<UpgradeCleanupStep> cleanupSteps() {
+    return ImmutableList.of();
+  }
+}
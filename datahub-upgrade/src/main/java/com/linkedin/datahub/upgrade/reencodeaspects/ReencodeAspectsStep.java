@@ -0,0 +1,193 @@
+package com.linkedin.datahub.upgrade.reencodeaspects;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.restoreindices.SendMAEStep;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.codec.AspectCodec;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import io.ebean.EbeanServer;
+import io.ebean.ExpressionList;
+import io.ebean.Transaction;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Walks every version of every aspect in primary key order with keyset pagination and rewrites the rows that are not
+ * yet in the format of the target codec, one transaction per page.
+ *
+ * A row is only rewritten if its stored value has not changed since it was read. The row is read again with a lock
+ * within the page's transaction and compared with the value that was re-encoded, so an aspect ingested concurrently is
+ * never overwritten with its previous value, even when an update keeps its version and createdOn. Such rows are
+ * already written with the codec GMS is configured with.
+ */
+@Slf4j
+public class ReencodeAspectsStep implements UpgradeStep {
+
+  private static final String UPDATE_SQL = String.format(
+      "UPDATE metadata_aspect_v2 SET %s = :metadata WHERE %s = :urn AND %s = :aspect AND %s = :version",
+      EbeanAspectV2.METADATA_COLUMN, EbeanAspectV2.URN_COLUMN, EbeanAspectV2.ASPECT_COLUMN,
+      EbeanAspectV2.VERSION_COLUMN);
+
+  private static final int DEFAULT_BATCH_SIZE = 500;
+  private static final long DEFAULT_BATCH_DELAY_MS = 100;
+
+  private final EbeanServer _server;
+  private final AspectDao _aspectDao;
+
+  public ReencodeAspectsStep(final EbeanServer server, final AspectDao aspectDao) {
+    _server = server;
+    _aspectDao = aspectDao;
+  }
+
+  @Override
+  public String id() {
+    return this.getClass().getSimpleName();
+  }
+
+  @Override
+  public int retryCount() {
+    return 0;
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      final Map<String, Optional<String>> parsedArgs = context.parsedArgs();
+      final AspectCodec codec = SendMAEStep.containsKey(parsedArgs, ReencodeAspects.CODEC_ARG_NAME)
+          ? AspectCodecs.forName(parsedArgs.get(ReencodeAspects.CODEC_ARG_NAME).get())
+          : _aspectDao.getAspectCodec();
+      final int batchSize = SendMAEStep.containsKey(parsedArgs, ReencodeAspects.BATCH_SIZE_ARG_NAME)
+          ? Integer.parseInt(parsedArgs.get(ReencodeAspects.BATCH_SIZE_ARG_NAME).get()) : DEFAULT_BATCH_SIZE;
+      final long batchDelayMs = SendMAEStep.containsKey(parsedArgs, ReencodeAspects.BATCH_DELAY_MS_ARG_NAME)
+          ? Long.parseLong(parsedArgs.get(ReencodeAspects.BATCH_DELAY_MS_ARG_NAME).get()) : DEFAULT_BATCH_DELAY_MS;
+      final String aspectName = parsedArgs.getOrDefault(ReencodeAspects.ASPECT_NAME_ARG_NAME, Optional.empty())
+          .orElse(null);
+      final String urnLike = parsedArgs.getOrDefault(ReencodeAspects.URN_LIKE_ARG_NAME, Optional.empty())
+          .orElse(null);
+      context.report().addLine(String.format("Re-encoding aspects with codec %s", codec.getName()));
+
+      final Progress progress = new Progress();
+      EbeanAspectV2.PrimaryKey lastKey = null;
+      try {
+        List<EbeanAspectV2> page = getPage(aspectName, urnLike, lastKey, batchSize);
+        while (!page.isEmpty()) {
+          reencodePage(page, codec, progress);
+          lastKey = page.get(page.size() - 1).getKey();
+          context.report().addLine(String.format(
+              "Read %s rows, rewrote %s (%s changed concurrently and were skipped), %s chars before, %s after. "
+                  + "Last key: urn %s, aspect %s, version %s.", progress.rowsRead, progress.rowsRewritten,
+              progress.rowsChanged, progress.bytesBefore, progress.bytesAfter, lastKey.getUrn(), lastKey.getAspect(),
+              lastKey.getVersion()));
+          page = getPage(aspectName, urnLike, lastKey, batchSize);
+          if (batchDelayMs > 0) {
+            Thread.sleep(batchDelayMs);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      } catch (Exception e) {
+        context.report().addLine(String.format("Failed to re-encode aspects after %s rows: %s", progress.rowsRead, e));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+
+      context.report().addLine(String.format("Finished re-encoding aspects: read %s rows, rewrote %s.",
+          progress.rowsRead, progress.rowsRewritten));
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+
+  /**
+   * Rewrites the rows of one page that are not in the format of the codec yet, in one transaction. Rows whose stored
+   * value differs from the one in the page are left alone.
+   */
+  @VisibleForTesting
+  void reencodePage(@Nonnull List<EbeanAspectV2> page, @Nonnull AspectCodec codec, @Nonnull Progress progress) {
+    try (Transaction transaction = _server.beginTransaction()) {
+      for (EbeanAspectV2 row : page) {
+        final String metadata = row.getMetadata();
+        if (codec.isEncoded(metadata)) {
+          continue;
+        }
+        final String reencoded = codec.encode(AspectCodecs.decode(metadata));
+        // Holds the row until the page is committed, so it cannot change between the check and the update
+        final EbeanAspectV2 current = _server.find(EbeanAspectV2.class)
+            .setId(row.getKey())
+            .forUpdate()
+            .findOne();
+        if (current == null || !metadata.equals(current.getMetadata())) {
+          progress.rowsChanged++;
+          continue;
+        }
+        _server.createSqlUpdate(UPDATE_SQL)
+            .setParameter("metadata", reencoded)
+            .setParameter("urn", row.getKey().getUrn())
+            .setParameter("aspect", row.getKey().getAspect())
+            .setParameter("version", row.getKey().getVersion())
+            .execute();
+        progress.rowsRewritten++;
+        progress.bytesBefore += metadata.length();
+        progress.bytesAfter += reencoded.length();
+      }
+      transaction.commit();
+    }
+    progress.rowsRead += page.size();
+  }
+
+  // Running totals over the pages re-encoded so far
+  @VisibleForTesting
+  static class Progress {
+    int rowsRead;
+    int rowsRewritten;
+    int rowsChanged;
+    long bytesBefore;
+    long bytesAfter;
+  }
+
+  private List<EbeanAspectV2> getPage(@Nullable String aspectName, @Nullable String urnLike,
+      @Nullable EbeanAspectV2.PrimaryKey lastKey, int batchSize) {
+    ExpressionList<EbeanAspectV2> exp = _server.find(EbeanAspectV2.class)
+        .select(EbeanAspectV2.ALL_COLUMNS)
+        .where();
+    if (aspectName != null) {
+      exp = exp.eq(EbeanAspectV2.ASPECT_COLUMN, aspectName);
+    }
+    if (urnLike != null) {
+      exp = exp.like(EbeanAspectV2.URN_COLUMN, urnLike);
+    }
+    if (lastKey != null) {
+      // Seek past the last row using the primary key order (urn, aspect, version)
+      exp = exp.or()
+          .gt(EbeanAspectV2.URN_COLUMN, lastKey.getUrn())
+          .and()
+          .eq(EbeanAspectV2.URN_COLUMN, lastKey.getUrn())
+          .gt(EbeanAspectV2.ASPECT_COLUMN, lastKey.getAspect())
+          .endAnd()
+          .and()
+          .eq(EbeanAspectV2.URN_COLUMN, lastKey.getUrn())
+          .eq(EbeanAspectV2.ASPECT_COLUMN, lastKey.getAspect())
+          .gt(EbeanAspectV2.VERSION_COLUMN, lastKey.getVersion())
+          .endAnd()
+          .endOr();
+    }
+    return exp.orderBy()
+        .asc(EbeanAspectV2.URN_COLUMN)
+        .orderBy()
+        .asc(EbeanAspectV2.ASPECT_COLUMN)
+        .orderBy()
+        .asc(EbeanAspectV2.VERSION_COLUMN)
+        .setMaxRows(batchSize)
+        .findList();
+  }
+}
@@ -0,0 +1,51 @@
+package com.linkedin.datahub.upgrade.restoreindices;
+
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
+import java.util.function.Function;
+
+
+/**
+ * Fails the streaming mode of RestoreIndices before any index is cleared when the aspects are not stored by Ebean.
+ *
+ * Streaming reads aspects in (urn, aspect) order, which Cassandra cannot serve since it orders partitions by token.
+ */
+public class CheckStreamingBackendStep implements UpgradeStep {
+
+  private final AspectDao _aspectDao;
+
+  public CheckStreamingBackendStep(final AspectDao aspectDao) {
+    _aspectDao = aspectDao;
+  }
+
+  @Override
+  public String id() {
+    return "CheckStreamingBackendStep";
+  }
+
+  @Override
+  public int retryCount() {
+    return 0;
+  }
+
+  @Override
+  public boolean skip(UpgradeContext context) {
+    return !SendMAEStep.containsKey(context.parsedArgs(), RestoreIndices.STREAM_ARG_NAME);
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      if (!(_aspectDao instanceof EbeanAspectDao)) {
+        context.report().addLine(String.format("Streaming restore requires the Ebean backend, run without the %s "
+            + "argument to restore indices from this storage.", RestoreIndices.STREAM_ARG_NAME));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+}
@@ -6,10 +6,13 @@ import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearGraphServiceStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearSearchServiceStep;
+import com.linkedin.metadata.entity.AspectDao;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.service.UpdateIndicesService;
 import io.ebean.EbeanServer;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,13 +27,16 @@ public class RestoreIndices implements Upgrade {
   public static final String WRITER_POOL_SIZE = "WRITER_POOL_SIZE";
   public static final String URN_ARG_NAME = "urn";
   public static final String URN_LIKE_ARG_NAME = "urnLike";
+  public static final String STREAM_ARG_NAME = "stream";
 
   private final List<UpgradeStep> _steps;
 
   public RestoreIndices(final EbeanServer server, final EntityService entityService,
       final EntityRegistry entityRegistry, final EntitySearchService entitySearchService,
-      final GraphService graphService) {
-    _steps = buildSteps(server, entityService, entityRegistry, entitySearchService, graphService);
+      final GraphService graphService, final AspectDao aspectDao, final UpdateIndicesService updateIndicesService,
+      final ESBulkProcessor bulkProcessor) {
+    _steps = buildSteps(server, entityService, entityRegistry, entitySearchService, graphService, aspectDao,
+        updateIndicesService, bulkProcessor);
   }
 
   @Override
@@ -45,11 +51,15 @@ public class RestoreIndices implements Upgrade {
 
   private List<UpgradeStep> buildSteps(final EbeanServer server, final EntityService entityService,
       final EntityRegistry entityRegistry, final EntitySearchService entitySearchService,
-      final GraphService graphService) {
+      final GraphService graphService, final AspectDao aspectDao, final UpdateIndicesService updateIndicesService,
+      final ESBulkProcessor bulkProcessor) {
     final List<UpgradeStep> steps = new ArrayList<>();
+    // Checked first, so that an unsupported streaming run fails before the indices are cleared
+    steps.add(new CheckStreamingBackendStep(aspectDao));
     steps.add(new ClearSearchServiceStep(entitySearchService, false));
     steps.add(new ClearGraphServiceStep(graphService, false));
     steps.add(new SendMAEStep(server, entityService, entityRegistry));
+    steps.add(new StreamIndicesStep(aspectDao, entityService, updateIndicesService, bulkProcessor));
     return steps;
   }
 
@@ -63,6 +63,12 @@ public class SendMAEStep implements UpgradeStep {
     return 0;
   }
 
+  @Override
+  public boolean skip(UpgradeContext context) {
+    // Streaming mode writes the indices directly instead of sending MAEs
+    return containsKey(context.parsedArgs(), RestoreIndices.STREAM_ARG_NAME);
+  }
+
   private List<RestoreIndicesResult> iterateFutures(List<Future<RestoreIndicesResult>> futures) {
     List<RestoreIndicesResult> result = new ArrayList<>();
     for (Future<RestoreIndicesResult> future: new ArrayList<>(futures)) {
@@ -0,0 +1,268 @@
+package com.linkedin.datahub.upgrade.restoreindices;
+
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.nocode.NoCodeUpgrade;
+import com.linkedin.entity.EntityResponse;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
+import com.linkedin.metadata.key.DataHubUpgradeKey;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.service.UpdateIndicesService;
+import com.linkedin.metadata.utils.EntityKeyUtils;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.upgrade.DataHubUpgradeResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.common.unit.TimeValue;
+
+
+/**
+ * Rebuilds the search, graph and system metadata indices straight from the aspects table, without producing
+ * MetadataChangeLogs to Kafka.
+ *
+ * Rows are read in (urn, aspect) order with keyset pagination, so every page costs the same regardless of how far into
+ * the table it is. Each page is converted and written on a worker pool while the next page is read. Once the bulk
+ * processor has answered every write of a page without failures, its last key is persisted as a checkpoint, which a
+ * later run resumes from unless the clean argument is given.
+ */
+@Slf4j
+public class StreamIndicesStep implements UpgradeStep {
+
+  public static final String UPGRADE_ID = "restore-indices-stream";
+
+  private static final String LAST_URN_KEY = "lastUrn";
+  private static final String LAST_ASPECT_KEY = "lastAspect";
+  private static final String ROWS_KEY = "rowsMigrated";
+  private static final String ARGS_KEY = "args";
+  private static final String STATE_KEY = "state";
+  private static final String STATE_IN_PROGRESS = "IN_PROGRESS";
+  private static final String STATE_SUCCEEDED = "SUCCEEDED";
+
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final int DEFAULT_THREADS = 4;
+  private static final TimeValue WRITE_TIMEOUT = TimeValue.timeValueMinutes(10);
+
+  private final AspectDao _aspectDao;
+  private final EntityService _entityService;
+  private final UpdateIndicesService _updateIndicesService;
+  private final ESBulkProcessor _bulkProcessor;
+  private final Urn _upgradeUrn;
+
+  public StreamIndicesStep(final AspectDao aspectDao, final EntityService entityService,
+      final UpdateIndicesService updateIndicesService, final ESBulkProcessor bulkProcessor) {
+    _aspectDao = aspectDao;
+    _entityService = entityService;
+    _updateIndicesService = updateIndicesService;
+    _bulkProcessor = bulkProcessor;
+    _upgradeUrn = EntityKeyUtils.convertEntityKeyToUrn(new DataHubUpgradeKey().setId(UPGRADE_ID),
+        Constants.DATA_HUB_UPGRADE_ENTITY_NAME);
+  }
+
+  @Override
+  public String id() {
+    return "StreamIndicesStep";
+  }
+
+  @Override
+  public int retryCount() {
+    return 0;
+  }
+
+  @Override
+  public boolean skip(UpgradeContext context) {
+    return !SendMAEStep.containsKey(context.parsedArgs(), RestoreIndices.STREAM_ARG_NAME);
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      final RestoreIndicesArgs args = getArgs(context.parsedArgs());
+      final String argsDescription = String.format("aspectName=%s, urn=%s, urnLike=%s", args.aspectName, args.urn,
+          args.urnLike);
+
+      String lastUrn = null;
+      String lastAspect = null;
+      int rowsMigrated = 0;
+      final Map<String, String> checkpoint = readCheckpoint();
+      if (!context.parsedArgs().containsKey(NoCodeUpgrade.CLEAN_ARG_NAME)
+          && STATE_IN_PROGRESS.equals(checkpoint.get(STATE_KEY))
+          && argsDescription.equals(checkpoint.get(ARGS_KEY))) {
+        lastUrn = checkpoint.get(LAST_URN_KEY);
+        lastAspect = checkpoint.get(LAST_ASPECT_KEY);
+        rowsMigrated = Integer.parseInt(checkpoint.getOrDefault(ROWS_KEY, "0"));
+        context.report().addLine(String.format("Resuming from urn %s, aspect %s after %s rows.", lastUrn, lastAspect,
+            rowsMigrated));
+      }
+
+      final ExecutorService executor = Executors.newFixedThreadPool(args.numThreads);
+      final AtomicInteger ignored = new AtomicInteger();
+      final long startTime = System.currentTimeMillis();
+      final int startRows = rowsMigrated;
+      try {
+        List<EbeanAspectV2> page = _aspectDao.getAspectsAfter(args, lastUrn, lastAspect);
+        while (!page.isEmpty()) {
+          final long failedWrites = _bulkProcessor.getFailedRequestCount();
+          final List<CompletableFuture<Void>> futures = submitPage(page, args.numThreads, executor, context, ignored);
+
+          // Read the next page while the current one is being indexed
+          final EbeanAspectV2.PrimaryKey lastKey = page.get(page.size() - 1).getKey();
+          final List<EbeanAspectV2> nextPage = _aspectDao.getAspectsAfter(args, lastKey.getUrn(), lastKey.getAspect());
+
+          CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+          // The checkpoint must not get ahead of the index: only persist it once every write of the page is answered
+          if (!_bulkProcessor.flushAndWait(WRITE_TIMEOUT)) {
+            throw new IllegalStateException(String.format("Index writes were not answered within %s", WRITE_TIMEOUT));
+          }
+          if (_bulkProcessor.getFailedRequestCount() > failedWrites) {
+            throw new IllegalStateException(String.format("%s index writes failed",
+                _bulkProcessor.getFailedRequestCount() - failedWrites));
+          }
+
+          rowsMigrated += page.size();
+          lastUrn = lastKey.getUrn();
+          lastAspect = lastKey.getAspect();
+          writeCheckpoint(STATE_IN_PROGRESS, argsDescription, lastUrn, lastAspect, rowsMigrated);
+          reportProgress(context, rowsMigrated, rowsMigrated - startRows, ignored.get(), startTime);
+          page = nextPage;
+        }
+      } catch (Exception e) {
+        context.report().addLine(String.format("Failed to stream index updates, rerun to resume from the last "
+            + "checkpoint: %s", e));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      } finally {
+        executor.shutdown();
+      }
+
+      writeCheckpoint(STATE_SUCCEEDED, argsDescription, lastUrn, lastAspect, rowsMigrated);
+      context.report().addLine(String.format("Finished streaming index updates for %s rows, %s ignored.", rowsMigrated,
+          ignored.get()));
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+
+  /**
+   * Splits the page into one chunk per worker and converts and applies each chunk on the executor.
+   */
+  private List<CompletableFuture<Void>> submitPage(List<EbeanAspectV2> page, int numThreads, ExecutorService executor,
+      UpgradeContext context, AtomicInteger ignored) {
+    final int chunkSize = Math.max(1, (page.size() + numThreads - 1) / numThreads);
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int start = 0; start < page.size(); start += chunkSize) {
+      final List<EbeanAspectV2> chunk = page.subList(start, Math.min(page.size(), start + chunkSize));
+      futures.add(CompletableFuture.runAsync(() -> {
+        for (EbeanAspectV2 aspect : chunk) {
+          final MetadataChangeLog event =
+              _entityService.buildRestateMetadataChangeLog(aspect, context.report()::addLine);
+          if (event == null) {
+            ignored.incrementAndGet();
+            continue;
+          }
+          try {
+            _updateIndicesService.handleChangeEvent(event);
+          } catch (Exception e) {
+            context.report().addLine(String.format("Failed to update indices for urn %s, aspect %s: %s",
+                aspect.getKey().getUrn(), aspect.getKey().getAspect(), e));
+            ignored.incrementAndGet();
+          }
+        }
+      }, executor));
+    }
+    return futures;
+  }
+
+  private static void reportProgress(UpgradeContext context, int rowsMigrated, int rowsThisRun, int ignored,
+      long startTime) {
+    final float seconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000f;
+    context.report().addLine(String.format("Streamed index updates for %s rows (%s ignored) at %.2f rows/sec.",
+        rowsMigrated, ignored, rowsThisRun / seconds));
+  }
+
+  private RestoreIndicesArgs getArgs(final Map<String, Optional<String>> parsedArgs) {
+    final RestoreIndicesArgs result = new RestoreIndicesArgs();
+    result.batchSize = getInt(parsedArgs, DEFAULT_BATCH_SIZE, RestoreIndices.BATCH_SIZE_ARG_NAME);
+    result.numThreads = getInt(parsedArgs, DEFAULT_THREADS, RestoreIndices.NUM_THREADS_ARG_NAME);
+    if (SendMAEStep.containsKey(parsedArgs, RestoreIndices.ASPECT_NAME_ARG_NAME)) {
+      result.aspectName = parsedArgs.get(RestoreIndices.ASPECT_NAME_ARG_NAME).get();
+    }
+    if (SendMAEStep.containsKey(parsedArgs, RestoreIndices.URN_ARG_NAME)) {
+      result.urn = parsedArgs.get(RestoreIndices.URN_ARG_NAME).get();
+    }
+    if (SendMAEStep.containsKey(parsedArgs, RestoreIndices.URN_LIKE_ARG_NAME)) {
+      result.urnLike = parsedArgs.get(RestoreIndices.URN_LIKE_ARG_NAME).get();
+    }
+    return result;
+  }
+
+  private static int getInt(final Map<String, Optional<String>> parsedArgs, int defaultVal, String argKey) {
+    if (SendMAEStep.containsKey(parsedArgs, argKey)) {
+      return Integer.parseInt(parsedArgs.get(argKey).get());
+    }
+    return defaultVal;
+  }
+
+  private Map<String, String> readCheckpoint() {
+    try {
+      final EntityResponse response = _entityService.getEntityV2(Constants.DATA_HUB_UPGRADE_ENTITY_NAME, _upgradeUrn,
+          Collections.singleton(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME));
+      if (response != null && response.getAspects().containsKey(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME)) {
+        final DataHubUpgradeResult result = new DataHubUpgradeResult(
+            response.getAspects().get(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME).getValue().data());
+        if (result.hasResult()) {
+          return result.getResult();
+        }
+      }
+    } catch (Exception e) {
+      log.error("Failed to read restore indices checkpoint, starting from the beginning", e);
+    }
+    return Collections.emptyMap();
+  }
+
+  private void writeCheckpoint(String state, String argsDescription, @Nullable String lastUrn,
+      @Nullable String lastAspect, int rowsMigrated) {
+    final StringMap result = new StringMap();
+    result.put(STATE_KEY, state);
+    result.put(ARGS_KEY, argsDescription);
+    result.put(ROWS_KEY, String.valueOf(rowsMigrated));
+    if (lastUrn != null && lastAspect != null) {
+      result.put(LAST_URN_KEY, lastUrn);
+      result.put(LAST_ASPECT_KEY, lastAspect);
+    }
+
+    final MetadataChangeProposal proposal = new MetadataChangeProposal();
+    proposal.setEntityUrn(_upgradeUrn);
+    proposal.setEntityType(Constants.DATA_HUB_UPGRADE_ENTITY_NAME);
+    proposal.setAspectName(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME);
+    proposal.setAspect(GenericRecordUtils.serializeAspect(
+        new DataHubUpgradeResult().setTimestampMs(System.currentTimeMillis()).setResult(result)));
+    proposal.setChangeType(ChangeType.UPSERT);
+
+    final AuditStamp auditStamp = new AuditStamp()
+        .setActor(UrnUtils.getUrn(Constants.SYSTEM_ACTOR))
+        .setTime(System.currentTimeMillis());
+    _entityService.ingestProposal(proposal, auditStamp, false);
+  }
+}
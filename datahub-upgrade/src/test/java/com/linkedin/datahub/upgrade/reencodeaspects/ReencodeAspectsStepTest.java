@@ -0,0 +1,141 @@
+package com.linkedin.datahub.upgrade.reencodeaspects;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.data.DataMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeReport;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import io.ebean.EbeanServer;
+import io.ebean.EbeanServerFactory;
+import io.ebean.config.ServerConfig;
+import io.ebean.datasource.DataSourceConfig;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class ReencodeAspectsStepTest {
+
+  private static final String ASPECT_NAME = "corpUserInfo";
+  private static final String URN_1 = "urn:li:corpuser:a";
+  private static final String URN_2 = "urn:li:corpuser:b";
+  private static final String URN_3 = "urn:li:corpuser:c";
+  private static final Timestamp CREATED_ON = new Timestamp(1625792689000L);
+
+  private EbeanServer _server;
+  private ReencodeAspectsStep _step;
+
+  @BeforeMethod
+  public void setup() {
+    _server = createTestServer();
+    _step = new ReencodeAspectsStep(_server, mock(AspectDao.class));
+  }
+
+  @Test
+  public void testReencodesEveryRow() {
+    insert(URN_1, 0, json("a@test.com"));
+    insert(URN_1, 1, json("a-old@test.com"));
+    insert(URN_2, 0, json("b@test.com"));
+    insert(URN_3, 0, json("c@test.com"));
+
+    assertEquals(run(AspectCodecs.DEFLATE_PSON.getName()), UpgradeStepResult.Result.SUCCEEDED);
+
+    final List<EbeanAspectV2> rows = _server.find(EbeanAspectV2.class).findList();
+    assertEquals(rows.size(), 4);
+    for (EbeanAspectV2 row : rows) {
+      assertTrue(AspectCodecs.DEFLATE_PSON.isEncoded(row.getMetadata()), "Not re-encoded: " + row.getKey().getUrn());
+    }
+    assertEquals(AspectCodecs.decode(read(URN_1, 1).getMetadata()), dataMap("a-old@test.com"));
+    assertEquals(AspectCodecs.decode(read(URN_3, 0).getMetadata()), dataMap("c@test.com"));
+
+    // Rows already in the target format are left as they are
+    final String encoded = read(URN_2, 0).getMetadata();
+    assertEquals(run(AspectCodecs.DEFLATE_PSON.getName()), UpgradeStepResult.Result.SUCCEEDED);
+    assertEquals(read(URN_2, 0).getMetadata(), encoded);
+  }
+
+  @Test
+  public void testConvertsBackToJson() {
+    insert(URN_1, 0, AspectCodecs.DEFLATE_PSON.encode(dataMap("a@test.com")));
+    insert(URN_2, 0, json("b@test.com"));
+
+    assertEquals(run(AspectCodecs.JSON.getName()), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertFalse(AspectCodecs.DEFLATE_PSON.isEncoded(read(URN_1, 0).getMetadata()));
+    assertEquals(AspectCodecs.JSON.decode(read(URN_1, 0).getMetadata()), dataMap("a@test.com"));
+    assertEquals(read(URN_2, 0).getMetadata(), json("b@test.com"));
+  }
+
+  @Test
+  public void testSkipsRowsChangedSinceRead() {
+    insert(URN_1, 0, json("a@test.com"));
+    insert(URN_2, 0, json("b@test.com"));
+    final List<EbeanAspectV2> page = _server.find(EbeanAspectV2.class).findList();
+
+    // The latest version is overwritten in place, keeping its version and createdOn
+    final EbeanAspectV2 updated = read(URN_1, 0);
+    updated.setMetadata(json("a-new@test.com"));
+    _server.update(updated);
+
+    final ReencodeAspectsStep.Progress progress = new ReencodeAspectsStep.Progress();
+    _step.reencodePage(page, AspectCodecs.DEFLATE_PSON, progress);
+
+    assertEquals(progress.rowsRead, 2);
+    assertEquals(progress.rowsRewritten, 1);
+    assertEquals(progress.rowsChanged, 1);
+    assertEquals(read(URN_1, 0).getMetadata(), json("a-new@test.com"));
+    assertTrue(AspectCodecs.DEFLATE_PSON.isEncoded(read(URN_2, 0).getMetadata()));
+  }
+
+  private UpgradeStepResult.Result run(String codecName) {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(ImmutableMap.of(ReencodeAspects.CODEC_ARG_NAME, Optional.of(codecName),
+        ReencodeAspects.BATCH_SIZE_ARG_NAME, Optional.of("2"), ReencodeAspects.BATCH_DELAY_MS_ARG_NAME,
+        Optional.of("0")));
+    when(context.report()).thenReturn(mock(UpgradeReport.class));
+    return _step.executable().apply(context).result();
+  }
+
+  private void insert(String urn, long version, String metadata) {
+    _server.save(new EbeanAspectV2(urn, ASPECT_NAME, version, metadata, CREATED_ON, "urn:li:corpuser:tester", null,
+        null));
+  }
+
+  private EbeanAspectV2 read(String urn, long version) {
+    return _server.find(EbeanAspectV2.class, new EbeanAspectV2.PrimaryKey(urn, ASPECT_NAME, version));
+  }
+
+  private static DataMap dataMap(String email) {
+    final DataMap dataMap = new DataMap();
+    dataMap.put("active", true);
+    dataMap.put("email", email);
+    return dataMap;
+  }
+
+  private static String json(String email) {
+    return AspectCodecs.JSON.encode(dataMap(email));
+  }
+
+  private static EbeanServer createTestServer() {
+    final DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    dataSourceConfig.setUsername("tester");
+    dataSourceConfig.setPassword("");
+    dataSourceConfig.setUrl("jdbc:h2:mem:;IGNORECASE=TRUE;");
+    dataSourceConfig.setDriver("org.h2.Driver");
+
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setName("gma");
+    serverConfig.setDataSourceConfig(dataSourceConfig);
+    serverConfig.setDdlGenerate(true);
+    serverConfig.setDdlRun(true);
+    return EbeanServerFactory.create(serverConfig);
+  }
+}
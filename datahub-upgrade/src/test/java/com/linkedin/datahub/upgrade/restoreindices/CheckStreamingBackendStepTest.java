@@ -0,0 +1,36 @@
+package com.linkedin.datahub.upgrade.restoreindices;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeReport;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.metadata.entity.cassandra.CassandraAspectDao;
+import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
+import java.util.Optional;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class CheckStreamingBackendStepTest {
+
+  @Test
+  public void testOnlyStreamsFromEbean() {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(ImmutableMap.of(RestoreIndices.STREAM_ARG_NAME, Optional.of("true")));
+    when(context.report()).thenReturn(mock(UpgradeReport.class));
+
+    final CheckStreamingBackendStep ebeanStep = new CheckStreamingBackendStep(mock(EbeanAspectDao.class));
+    assertFalse(ebeanStep.skip(context));
+    assertEquals(ebeanStep.executable().apply(context).result(), UpgradeStepResult.Result.SUCCEEDED);
+
+    final CheckStreamingBackendStep cassandraStep = new CheckStreamingBackendStep(mock(CassandraAspectDao.class));
+    assertEquals(cassandraStep.executable().apply(context).result(), UpgradeStepResult.Result.FAILED);
+    verify(context.report()).addLine(contains("requires the Ebean backend"));
+
+    // Without the stream argument, RestoreIndices sends MAEs from any storage
+    when(context.parsedArgs()).thenReturn(ImmutableMap.of());
+    assertTrue(cassandraStep.skip(context));
+  }
+}
@@ -0,0 +1,155 @@
+package com.linkedin.datahub.upgrade.restoreindices;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeReport;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.entity.Aspect;
+import com.linkedin.entity.EntityResponse;
+import com.linkedin.entity.EnvelopedAspect;
+import com.linkedin.entity.EnvelopedAspectMap;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.service.UpdateIndicesService;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.upgrade.DataHubUpgradeResult;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.elasticsearch.common.unit.TimeValue;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class StreamIndicesStepTest {
+
+  private static final String URN_1 = "urn:li:corpuser:a";
+  private static final String URN_2 = "urn:li:corpuser:b";
+  private static final String URN_3 = "urn:li:corpuser:c";
+  private static final String ARGS_DESCRIPTION = "aspectName=null, urn=null, urnLike=null";
+
+  private AspectDao _aspectDao;
+  private EntityService _entityService;
+  private UpdateIndicesService _updateIndicesService;
+  private ESBulkProcessor _bulkProcessor;
+  private UpgradeContext _context;
+  private StreamIndicesStep _step;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _aspectDao = mock(AspectDao.class);
+    _entityService = mock(EntityService.class);
+    _updateIndicesService = mock(UpdateIndicesService.class);
+    _bulkProcessor = mock(ESBulkProcessor.class);
+    when(_bulkProcessor.flushAndWait(any(TimeValue.class))).thenReturn(true);
+    when(_entityService.buildRestateMetadataChangeLog(any(EbeanAspectV2.class), any()))
+        .thenReturn(new MetadataChangeLog());
+
+    _context = mock(UpgradeContext.class);
+    when(_context.parsedArgs()).thenReturn(ImmutableMap.of(RestoreIndices.STREAM_ARG_NAME, Optional.of("true"),
+        RestoreIndices.BATCH_SIZE_ARG_NAME, Optional.of("2")));
+    when(_context.report()).thenReturn(mock(UpgradeReport.class));
+
+    _step = new StreamIndicesStep(_aspectDao, _entityService, _updateIndicesService, _bulkProcessor);
+  }
+
+  @Test
+  public void testCheckpointsEveryPageAndFinishesWithLastKey() {
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), isNull(), isNull()))
+        .thenReturn(ImmutableList.of(aspect(URN_1), aspect(URN_2)));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_2), eq("corpUserInfo")))
+        .thenReturn(ImmutableList.of(aspect(URN_3)));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_3), eq("corpUserInfo")))
+        .thenReturn(Collections.emptyList());
+
+    assertEquals(_step.executable().apply(_context).result(), UpgradeStepResult.Result.SUCCEEDED);
+    verify(_updateIndicesService, times(3)).handleChangeEvent(any(MetadataChangeLog.class));
+
+    final List<Map<String, String>> checkpoints = capturedCheckpoints();
+    assertEquals(checkpoints.size(), 3);
+    assertEquals(checkpoints.get(0).get("state"), "IN_PROGRESS");
+    assertEquals(checkpoints.get(0).get("lastUrn"), URN_2);
+    assertEquals(checkpoints.get(0).get("rowsMigrated"), "2");
+    assertEquals(checkpoints.get(1).get("lastUrn"), URN_3);
+    assertEquals(checkpoints.get(1).get("rowsMigrated"), "3");
+    assertEquals(checkpoints.get(2).get("state"), "SUCCEEDED");
+    assertEquals(checkpoints.get(2).get("lastUrn"), URN_3);
+    assertEquals(checkpoints.get(2).get("lastAspect"), "corpUserInfo");
+    assertEquals(checkpoints.get(2).get("rowsMigrated"), "3");
+  }
+
+  @Test
+  public void testResumesFromCheckpoint() throws Exception {
+    final StringMap checkpoint = new StringMap(ImmutableMap.of("state", "IN_PROGRESS", "args", ARGS_DESCRIPTION,
+        "lastUrn", URN_2, "lastAspect", "corpUserInfo", "rowsMigrated", "2"));
+    final EnvelopedAspectMap aspects = new EnvelopedAspectMap();
+    aspects.put(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME, new EnvelopedAspect()
+        .setValue(new Aspect(new DataHubUpgradeResult().setTimestampMs(0L).setResult(checkpoint).data())));
+    when(_entityService.getEntityV2(eq(Constants.DATA_HUB_UPGRADE_ENTITY_NAME), any(), any()))
+        .thenReturn(new EntityResponse().setAspects(aspects));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_2), eq("corpUserInfo")))
+        .thenReturn(ImmutableList.of(aspect(URN_3)));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_3), eq("corpUserInfo")))
+        .thenReturn(Collections.emptyList());
+
+    assertEquals(_step.executable().apply(_context).result(), UpgradeStepResult.Result.SUCCEEDED);
+    verify(_aspectDao, never()).getAspectsAfter(any(RestoreIndicesArgs.class), isNull(), isNull());
+    verify(_updateIndicesService, times(1)).handleChangeEvent(any(MetadataChangeLog.class));
+
+    final List<Map<String, String>> checkpoints = capturedCheckpoints();
+    assertEquals(checkpoints.get(checkpoints.size() - 1).get("state"), "SUCCEEDED");
+    assertEquals(checkpoints.get(checkpoints.size() - 1).get("rowsMigrated"), "3");
+  }
+
+  @Test
+  public void testNoCheckpointWhenWritesFail() {
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), isNull(), isNull()))
+        .thenReturn(ImmutableList.of(aspect(URN_1), aspect(URN_2)));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_2), eq("corpUserInfo")))
+        .thenReturn(Collections.emptyList());
+    when(_bulkProcessor.getFailedRequestCount()).thenReturn(0L, 1L);
+
+    assertEquals(_step.executable().apply(_context).result(), UpgradeStepResult.Result.FAILED);
+    verify(_entityService, never()).ingestProposal(any(MetadataChangeProposal.class), any(), anyBoolean());
+  }
+
+  @Test
+  public void testNoCheckpointWhenWritesAreNotAnswered() throws Exception {
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), isNull(), isNull()))
+        .thenReturn(ImmutableList.of(aspect(URN_1)));
+    when(_aspectDao.getAspectsAfter(any(RestoreIndicesArgs.class), eq(URN_1), eq("corpUserInfo")))
+        .thenReturn(Collections.emptyList());
+    when(_bulkProcessor.flushAndWait(any(TimeValue.class))).thenReturn(false);
+
+    assertEquals(_step.executable().apply(_context).result(), UpgradeStepResult.Result.FAILED);
+    verify(_entityService, never()).ingestProposal(any(MetadataChangeProposal.class), any(), anyBoolean());
+  }
+
+  private List<Map<String, String>> capturedCheckpoints() {
+    final ArgumentCaptor<MetadataChangeProposal> captor = ArgumentCaptor.forClass(MetadataChangeProposal.class);
+    verify(_entityService, atLeastOnce()).ingestProposal(captor.capture(), any(), anyBoolean());
+    return captor.getAllValues().stream()
+        .map(proposal -> GenericRecordUtils.deserializeAspect(proposal.getAspect().getValue(),
+            proposal.getAspect().getContentType(), DataHubUpgradeResult.class).getResult())
+        .collect(Collectors.toList());
+  }
+
+  private static EbeanAspectV2 aspect(String urn) {
+    return new EbeanAspectV2(urn, "corpUserInfo", 0L, "{}", null, null, null, null);
+  }
+}
@@ -4,10 +4,13 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.models.annotation.AspectAnnotation;
+import com.linkedin.metadata.models.extractor.FieldExtractionPlan;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -23,6 +26,9 @@ public class AspectSpec {
   private final Map<String, RelationshipFieldSpec> _relationshipFieldSpecs;
   private final Map<String, TimeseriesFieldSpec> _timeseriesFieldSpecs;
   private final Map<String, TimeseriesFieldCollectionSpec> _timeseriesFieldCollectionSpecs;
+  // Extracts the values of all of the above in one pass over an aspect
+  @EqualsAndHashCode.Exclude
+  private final FieldExtractionPlan _fieldExtractionPlan;
 
   // Classpath & Pegasus-specific: Temporary.
   private final RecordDataSchema _schema;
@@ -53,6 +59,11 @@ public class AspectSpec {
     _timeseriesFieldCollectionSpecs = timeseriesFieldCollectionSpecs.stream()
         .collect(Collectors.toMap(spec -> spec.getTimeseriesFieldCollectionAnnotation().getCollectionName(), spec -> spec,
             (val1, val2) -> val1));
+    _fieldExtractionPlan = FieldExtractionPlan.compile(
+        Stream.<Collection<? extends FieldSpec>>of(_searchableFieldSpecs.values(), _searchScoreFieldSpecs.values(),
+            _relationshipFieldSpecs.values(), _timeseriesFieldSpecs.values(), _timeseriesFieldCollectionSpecs.values())
+            .flatMap(Collection::stream)
+            .collect(Collectors.toList()));
     _schema = schema;
     _aspectClass = aspectClass;
   }
@@ -113,6 +124,10 @@ public class AspectSpec {
     return new ArrayList<>(_timeseriesFieldCollectionSpecs.values());
   }
 
+  public FieldExtractionPlan getFieldExtractionPlan() {
+    return _fieldExtractionPlan;
+  }
+
   public RecordDataSchema getPegasusSchema() {
     return _schema;
   }
@@ -0,0 +1,167 @@
+package com.linkedin.metadata.models.extractor;
+
+import com.datahub.util.RecordUtils;
+import com.linkedin.data.template.AbstractArrayTemplate;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.models.FieldSpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Extracts the values of a fixed set of {@link FieldSpec}s from a record in a single traversal.
+ *
+ * The paths of the field specs are compiled into a trie of path components. A field on the path of several specs, e.g.
+ * the array of fields of schemaMetadata, is read once, and each of its elements is visited once for all the specs
+ * below it rather than once per spec. The extracted values are the same as those of extracting each spec on its own
+ * with {@link RecordUtils#getFieldValue}.
+ */
+public class FieldExtractionPlan {
+
+  private static final String ARRAY_WILDCARD = "*";
+  private static final int MAX_VALUE_LENGTH = 200;
+
+  private final Node _root = new Node();
+  private final Map<FieldSpec, Integer> _numArrayWildcards = new LinkedHashMap<>();
+
+  private FieldExtractionPlan() {
+  }
+
+  /**
+   * Compiles the extraction plan of the given field specs. Specs of different kinds can be mixed.
+   */
+  @Nonnull
+  public static FieldExtractionPlan compile(@Nonnull Collection<? extends FieldSpec> fieldSpecs) {
+    final FieldExtractionPlan plan = new FieldExtractionPlan();
+    for (FieldSpec fieldSpec : fieldSpecs) {
+      final List<String> pathComponents = fieldSpec.getPath().getPathComponents();
+      Node node = plan._root;
+      node.subtreeSpecs.add(fieldSpec);
+      for (String pathComponent : pathComponents) {
+        node = node.children.computeIfAbsent(pathComponent, Node::new);
+        node.subtreeSpecs.add(fieldSpec);
+      }
+      node.specs.add(fieldSpec);
+      plan._numArrayWildcards.put(fieldSpec,
+          (int) pathComponents.stream().filter(ARRAY_WILDCARD::equals).count());
+    }
+    return plan;
+  }
+
+  /**
+   * Extracts the value of each field spec of the plan from the input record. Arrays are flattened and maps are
+   * converted into a list of key=value entries, see {@link FieldExtractor#extractFields}.
+   */
+  @Nonnull
+  public Map<FieldSpec, List<Object>> extract(@Nonnull RecordTemplate record) {
+    final Map<FieldSpec, Object> values = new IdentityHashMap<>();
+    collect(_root, record, values);
+
+    final Map<FieldSpec, List<Object>> extractedFields = new HashMap<>();
+    _numArrayWildcards.forEach(
+        (fieldSpec, numArrayWildcards) -> extractedFields.put(fieldSpec,
+            toValueList(values.get(fieldSpec), numArrayWildcards)));
+    return extractedFields;
+  }
+
+  // Records the value of every spec ending at the node, then descends into its children
+  private static void collect(@Nonnull Node node, @Nonnull Object reference, @Nonnull Map<FieldSpec, Object> values) {
+    for (FieldSpec fieldSpec : node.specs) {
+      values.put(fieldSpec, reference);
+    }
+    for (Node child : node.children.values()) {
+      if (child.isArrayWildcard) {
+        collect(child, reference, values);
+      } else {
+        step(child, reference, values);
+      }
+    }
+  }
+
+  // Moves from the reference to the child field the node stands for
+  @SuppressWarnings("rawtypes")
+  private static void step(@Nonnull Node node, @Nonnull Object reference, @Nonnull Map<FieldSpec, Object> values) {
+    if (node.isArrayIndex) {
+      throw new UnsupportedOperationException(
+          String.format("Array indexing is not supported for %s (from %s)", node.pathComponent, reference));
+    }
+    if (reference instanceof AbstractArrayTemplate) {
+      // The rest of the path is applied to each element, keeping the values of the elements that have one
+      final Map<FieldSpec, Object> elementValues = new IdentityHashMap<>();
+      final Map<FieldSpec, List<Object>> valueLists = new IdentityHashMap<>();
+      node.subtreeSpecs.forEach(fieldSpec -> valueLists.put(fieldSpec, new ArrayList<>()));
+      for (Object element : (AbstractArrayTemplate) reference) {
+        elementValues.clear();
+        step(node, element, elementValues);
+        elementValues.forEach((fieldSpec, value) -> valueLists.get(fieldSpec).add(value));
+      }
+      values.putAll(valueLists);
+      return;
+    }
+    final Object value = RecordUtils.getChildValue(reference, node.pathComponent);
+    if (value != null) {
+      collect(node, value, values);
+    }
+  }
+
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  private static List<Object> toValueList(Object value, int numArrayWildcards) {
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    // Not an array field
+    if (numArrayWildcards == 0) {
+      // For maps, convert it into a list of the form key=value (Filter out long values)
+      if (value instanceof Map) {
+        final List<Object> entries = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          final String entryValue = entry.getValue().toString();
+          if (entryValue.length() < MAX_VALUE_LENGTH) {
+            entries.add(entry.getKey().toString() + "=" + entryValue);
+          }
+        }
+        return entries;
+      }
+      return Collections.singletonList(value);
+    }
+    List<Object> valueList = (List<Object>) value;
+    // If the field is a nested list of values, flatten it
+    for (int i = 0; i < numArrayWildcards - 1; i++) {
+      final List<Object> flattened = new ArrayList<>();
+      for (Object nested : valueList) {
+        flattened.addAll((List<Object>) nested);
+      }
+      valueList = flattened;
+    }
+    return valueList;
+  }
+
+  private static class Node {
+    private final String pathComponent;
+    private final boolean isArrayWildcard;
+    private final boolean isArrayIndex;
+    // Specs whose path ends at this node
+    private final List<FieldSpec> specs = new ArrayList<>();
+    // Specs whose path goes through or ends at this node
+    private final List<FieldSpec> subtreeSpecs = new ArrayList<>();
+    private final Map<String, Node> children = new LinkedHashMap<>();
+
+    private Node() {
+      this("");
+    }
+
+    private Node(@Nonnull String pathComponent) {
+      this.pathComponent = pathComponent;
+      this.isArrayWildcard = ARRAY_WILDCARD.equals(pathComponent);
+      this.isArrayIndex = !pathComponent.isEmpty() && pathComponent.chars().allMatch(Character::isDigit);
+    }
+  }
+}
@@ -1,19 +1,14 @@
 package com.linkedin.metadata.models.extractor;
 
-import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.RecordTemplate;
-import com.datahub.util.RecordUtils;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.FieldSpec;
-import com.linkedin.util.Pair;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 
@@ -22,49 +17,37 @@ import javax.annotation.Nonnull;
  */
 public class FieldExtractor {
 
-  private static final String ARRAY_WILDCARD = "*";
-  private static final int MAX_VALUE_LENGTH = 200;
-
   private FieldExtractor() {
   }
 
-  private static long getNumArrayWildcards(PathSpec pathSpec) {
-    return pathSpec.getPathComponents().stream().filter(ARRAY_WILDCARD::equals).count();
-  }
-
   // Extract the value of each field in the field specs from the input record
+  @SuppressWarnings("unchecked")
   public static <T extends FieldSpec> Map<T, List<Object>> extractFields(@Nonnull RecordTemplate record, List<T> fieldSpecs) {
-    final Map<T, List<Object>> extractedFields = new HashMap<>();
+    return (Map<T, List<Object>>) (Map<?, ?>) FieldExtractionPlan.compile(fieldSpecs).extract(record);
+  }
+
+  /**
+   * Extracts the value of every field spec of the aspect, of all kinds, in a single traversal of the aspect using the
+   * extraction plan compiled with the aspect spec. Use {@link #selectFields} to pick the values of one kind of spec.
+   */
+  @Nonnull
+  public static Map<FieldSpec, List<Object>> extractFields(@Nonnull RecordTemplate record,
+      @Nonnull AspectSpec aspectSpec) {
+    return aspectSpec.getFieldExtractionPlan().extract(record);
+  }
+
+  /**
+   * Returns the values of the given field specs out of the values extracted by {@link #extractFields(RecordTemplate,
+   * AspectSpec)}.
+   */
+  @Nonnull
+  public static <T extends FieldSpec> Map<T, List<Object>> selectFields(
+      @Nonnull Map<FieldSpec, List<Object>> extractedFields, @Nonnull List<T> fieldSpecs) {
+    final Map<T, List<Object>> selectedFields = new HashMap<>();
     for (T fieldSpec : fieldSpecs) {
-      Optional<Object> value = RecordUtils.getFieldValue(record, fieldSpec.getPath());
-      if (!value.isPresent()) {
-        extractedFields.put(fieldSpec, Collections.emptyList());
-      } else {
-        long numArrayWildcards = getNumArrayWildcards(fieldSpec.getPath());
-        // Not an array field
-        if (numArrayWildcards == 0) {
-          // For maps, convert it into a list of the form key=value (Filter out long values)
-          if (value.get() instanceof Map) {
-            extractedFields.put(fieldSpec, ((Map<?, ?>) value.get()).entrySet()
-                .stream()
-                .map(entry -> new Pair<>(entry.getKey().toString(), entry.getValue().toString()))
-                .filter(entry -> entry.getValue().length() < MAX_VALUE_LENGTH)
-                .map(entry -> entry.getKey() + "=" + entry.getValue())
-                .collect(Collectors.toList()));
-          } else {
-            extractedFields.put(fieldSpec, Collections.singletonList(value.get()));
-          }
-        } else {
-          List<Object> valueList = (List<Object>) value.get();
-          // If the field is a nested list of values, flatten it
-          for (int i = 0; i < numArrayWildcards - 1; i++) {
-            valueList = valueList.stream().flatMap(v -> ((List<Object>) v).stream()).collect(Collectors.toList());
-          }
-          extractedFields.put(fieldSpec, valueList);
-        }
-      }
+      selectedFields.put(fieldSpec, extractedFields.getOrDefault(fieldSpec, Collections.emptyList()));
     }
-    return extractedFields;
+    return selectedFields;
   }
 
   public static <T extends FieldSpec> Map<T, List<Object>> extractFieldsFromSnapshot(RecordTemplate snapshot,
@@ -406,6 +406,24 @@ public class RecordUtils {
             memberName));
   }
 
+  /**
+   * Returns the value of a single field of a record, or member of a union, i.e. a single step of
+   * {@link #getFieldValue(Object, PathSpec)}. Fetching a field with a default value returns the default value.
+   *
+   * @param reference {@link RecordTemplate} or {@link UnionTemplate} to reference
+   * @param fieldName name of the field or union member to reference
+   * @return value of the field or member, or null if it is not set
+   */
+  @Nullable
+  public static Object getChildValue(@Nonnull Object reference, @Nonnull String fieldName) {
+    if (reference instanceof RecordTemplate) {
+      return invokeMethod((RecordTemplate) reference, fieldName);
+    } else if (reference instanceof UnionTemplate) {
+      return getUnionMember((UnionTemplate) reference, fieldName);
+    }
+    throw new UnsupportedOperationException(String.format("Failed at extracting %s from %s", fieldName, reference));
+  }
+
   /**
    * Helper method for referencing array of RecordTemplate objects. Referencing a particular index or range of indices of an array is not supported.
    *
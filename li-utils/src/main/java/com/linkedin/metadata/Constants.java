@@ -260,6 +260,7 @@ public class Constants {
   public static final String IS_MEMBER_OF_NATIVE_GROUP_RELATIONSHIP_NAME = "IsMemberOfNativeGroup";
 
   public static final String CHANGE_EVENT_PLATFORM_EVENT_NAME = "entityChangeEvent";
+  public static final String ACCESS_TOKEN_REVOKED_PLATFORM_EVENT_NAME = "accessTokenRevokedEvent";
 
   /**
    * User Status
@@ -0,0 +1,335 @@
+package com.linkedin.metadata;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+
+
+/**
+ * Rebinds Avro datums built against one schema onto a structurally compatible schema in a single traversal, without
+ * serializing them. Typical uses are moving a record between the com.linkedin and com.linkedin.pegasus2avro namespaces,
+ * or up to a newer version of the same schema.
+ *
+ * A converter is compiled once per (source, target) schema pair and cached. The resolution rules follow the Avro
+ * specification for the cases our schemas need:
+ * - record fields are matched by name, and target fields missing from the source take their default value
+ * - named types inside unions are matched by their simple name, ignoring the namespace
+ * - numeric types are promoted
+ * Pairs that need anything else do not compile. For those, {@link #rebind} returns null and callers should fall back
+ * to a serialize / deserialize round trip.
+ */
+final class AvroRecordRebinder {
+
+  private static final int MAX_CACHED_PAIRS = 1024;
+
+  private static final Map<SchemaPair, Optional<Converter>> CONVERTERS = new ConcurrentHashMap<>();
+
+  private static final Converter IDENTITY = datum -> datum;
+
+  private AvroRecordRebinder() {
+    // Util class
+  }
+
+  /**
+   * Rebinds a record onto the target schema.
+   *
+   * @param record the record to rebind
+   * @param target the schema the returned record should use
+   * @return the rebound record, or null if the record's schema cannot be resolved against {@code target}
+   */
+  @Nullable
+  static IndexedRecord rebind(@Nonnull IndexedRecord record, @Nonnull Schema target) {
+    final Optional<Converter> converter = getConverter(record.getSchema(), target);
+    if (!converter.isPresent()) {
+      return null;
+    }
+    try {
+      return (IndexedRecord) converter.get().convert(record);
+    } catch (RuntimeException e) {
+      // Datum does not match its declared schema, e.g. an enum symbol unknown to the target
+      return null;
+    }
+  }
+
+  @Nonnull
+  private static Optional<Converter> getConverter(@Nonnull Schema source, @Nonnull Schema target) {
+    final SchemaPair pair = new SchemaPair(source, target);
+    Optional<Converter> converter = CONVERTERS.get(pair);
+    if (converter == null) {
+      // Schemas are keyed by identity, so guard against callers that re-parse schemas for every call
+      if (CONVERTERS.size() >= MAX_CACHED_PAIRS) {
+        CONVERTERS.clear();
+      }
+      converter = CONVERTERS.computeIfAbsent(pair, ignored -> compile(source, target));
+    }
+    return converter;
+  }
+
+  @Nonnull
+  private static Optional<Converter> compile(@Nonnull Schema source, @Nonnull Schema target) {
+    try {
+      return Optional.of(compile(source, target, new HashMap<>()));
+    } catch (IncompatibleSchemaException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Nonnull
+  private static Converter compile(@Nonnull Schema source, @Nonnull Schema target,
+      @Nonnull Map<SchemaPair, Converter> compiled) {
+    final SchemaPair pair = new SchemaPair(source, target);
+    final Converter existing = compiled.get(pair);
+    if (existing != null) {
+      // Recursive schema, the converter is already being compiled further up the stack
+      return existing;
+    }
+
+    if (source.getType() == Schema.Type.UNION) {
+      return compileFromUnion(source, target, compiled);
+    }
+
+    switch (target.getType()) {
+      case RECORD:
+        return compileRecord(source, target, compiled);
+      case UNION:
+        final Schema branch = findBranch(source, target);
+        return compile(source, branch, compiled);
+      case ARRAY:
+        requireType(source, Schema.Type.ARRAY);
+        return compileArray(compile(source.getElementType(), target.getElementType(), compiled), target);
+      case MAP:
+        requireType(source, Schema.Type.MAP);
+        return compileMap(compile(source.getValueType(), target.getValueType(), compiled));
+      case ENUM:
+        requireType(source, Schema.Type.ENUM);
+        return datum -> {
+          final String symbol = datum.toString();
+          if (!target.hasEnumSymbol(symbol)) {
+            throw new IncompatibleSchemaException();
+          }
+          return new GenericData.EnumSymbol(target, symbol);
+        };
+      case FIXED:
+        requireType(source, Schema.Type.FIXED);
+        if (source.getFixedSize() != target.getFixedSize()) {
+          throw new IncompatibleSchemaException();
+        }
+        return datum -> new GenericData.Fixed(target, ((GenericFixed) datum).bytes());
+      case BYTES:
+        requireType(source, Schema.Type.BYTES);
+        return datum -> ((ByteBuffer) datum).duplicate();
+      default:
+        return compilePrimitive(source.getType(), target.getType());
+    }
+  }
+
+  @Nonnull
+  private static Converter compileRecord(@Nonnull Schema source, @Nonnull Schema target,
+      @Nonnull Map<SchemaPair, Converter> compiled) {
+    requireType(source, Schema.Type.RECORD);
+    final RecordConverter converter = new RecordConverter(target);
+    compiled.put(new SchemaPair(source, target), converter);
+
+    final List<Schema.Field> targetFields = target.getFields();
+    final int[] sourcePositions = new int[targetFields.size()];
+    final Converter[] fieldConverters = new Converter[targetFields.size()];
+    for (Schema.Field targetField : targetFields) {
+      final Schema.Field sourceField = source.getField(targetField.name());
+      final int pos = targetField.pos();
+      if (sourceField == null) {
+        if (targetField.defaultValue() == null) {
+          throw new IncompatibleSchemaException();
+        }
+        sourcePositions[pos] = -1;
+      } else {
+        sourcePositions[pos] = sourceField.pos();
+        fieldConverters[pos] = compile(sourceField.schema(), targetField.schema(), compiled);
+      }
+    }
+    converter.init(sourcePositions, fieldConverters);
+    return converter;
+  }
+
+  @Nonnull
+  private static Converter compileFromUnion(@Nonnull Schema source, @Nonnull Schema target,
+      @Nonnull Map<SchemaPair, Converter> compiled) {
+    final List<Schema> sourceBranches = source.getTypes();
+    final Converter[] branchConverters = new Converter[sourceBranches.size()];
+    for (int i = 0; i < sourceBranches.size(); i++) {
+      branchConverters[i] = compile(sourceBranches.get(i), target, compiled);
+    }
+    return datum -> branchConverters[GenericData.get().resolveUnion(source, datum)].convert(datum);
+  }
+
+  @Nonnull
+  private static Converter compileArray(@Nonnull Converter elementConverter, @Nonnull Schema target) {
+    if (elementConverter == IDENTITY) {
+      return IDENTITY;
+    }
+    return datum -> {
+      final Collection<?> elements = (Collection<?>) datum;
+      final GenericData.Array<Object> result = new GenericData.Array<>(elements.size(), target);
+      for (Object element : elements) {
+        result.add(element == null ? null : elementConverter.convert(element));
+      }
+      return result;
+    };
+  }
+
+  @Nonnull
+  private static Converter compileMap(@Nonnull Converter valueConverter) {
+    if (valueConverter == IDENTITY) {
+      return IDENTITY;
+    }
+    return datum -> {
+      final Map<?, ?> entries = (Map<?, ?>) datum;
+      final Map<Object, Object> result = new HashMap<>(entries.size() * 4 / 3 + 1);
+      for (Map.Entry<?, ?> entry : entries.entrySet()) {
+        final Object value = entry.getValue();
+        result.put(entry.getKey(), value == null ? null : valueConverter.convert(value));
+      }
+      return result;
+    };
+  }
+
+  @Nonnull
+  private static Converter compilePrimitive(@Nonnull Schema.Type source, @Nonnull Schema.Type target) {
+    if (source == target) {
+      return IDENTITY;
+    }
+    switch (target) {
+      case LONG:
+        if (source == Schema.Type.INT) {
+          return datum -> ((Number) datum).longValue();
+        }
+        break;
+      case FLOAT:
+        if (source == Schema.Type.INT || source == Schema.Type.LONG) {
+          return datum -> ((Number) datum).floatValue();
+        }
+        break;
+      case DOUBLE:
+        if (source == Schema.Type.INT || source == Schema.Type.LONG || source == Schema.Type.FLOAT) {
+          return datum -> ((Number) datum).doubleValue();
+        }
+        break;
+      default:
+        break;
+    }
+    throw new IncompatibleSchemaException();
+  }
+
+  /**
+   * Finds the branch of a target union that a non-union source schema resolves to: the first branch with the same
+   * type (and simple name for named types), otherwise the first branch the source can be promoted to.
+   */
+  @Nonnull
+  private static Schema findBranch(@Nonnull Schema source, @Nonnull Schema targetUnion) {
+    for (Schema branch : targetUnion.getTypes()) {
+      if (branch.getType() == source.getType() && (!isNamed(source) || branch.getName().equals(source.getName()))) {
+        return branch;
+      }
+    }
+    for (Schema branch : targetUnion.getTypes()) {
+      if (!isNamed(branch) && branch.getType() != Schema.Type.UNION) {
+        try {
+          compilePrimitive(source.getType(), branch.getType());
+          return branch;
+        } catch (IncompatibleSchemaException e) {
+          // Try the next branch
+        }
+      }
+    }
+    throw new IncompatibleSchemaException();
+  }
+
+  private static boolean isNamed(@Nonnull Schema schema) {
+    return schema.getType() == Schema.Type.RECORD || schema.getType() == Schema.Type.ENUM
+        || schema.getType() == Schema.Type.FIXED;
+  }
+
+  private static void requireType(@Nonnull Schema schema, @Nonnull Schema.Type type) {
+    if (schema.getType() != type) {
+      throw new IncompatibleSchemaException();
+    }
+  }
+
+  private interface Converter {
+    Object convert(Object datum);
+  }
+
+  private static final class RecordConverter implements Converter {
+    private final Schema _target;
+    private int[] _sourcePositions;
+    private Converter[] _fieldConverters;
+
+    private RecordConverter(@Nonnull Schema target) {
+      _target = target;
+    }
+
+    private void init(@Nonnull int[] sourcePositions, @Nonnull Converter[] fieldConverters) {
+      _sourcePositions = sourcePositions;
+      _fieldConverters = fieldConverters;
+    }
+
+    @Override
+    public Object convert(Object datum) {
+      final IndexedRecord source = (IndexedRecord) datum;
+      final GenericData.Record result = new GenericData.Record(_target);
+      final List<Schema.Field> fields = _target.getFields();
+      for (int i = 0; i < _sourcePositions.length; i++) {
+        if (_sourcePositions[i] < 0) {
+          final Schema.Field field = fields.get(i);
+          result.put(i, GenericData.get().deepCopy(field.schema(), GenericData.get().getDefaultValue(field)));
+        } else {
+          final Object value = source.get(_sourcePositions[i]);
+          result.put(i, value == null ? null : _fieldConverters[i].convert(value));
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Pair of schemas compared by identity, since deep schema equality is far more expensive than the conversion itself.
+   */
+  private static final class SchemaPair {
+    private final Schema _source;
+    private final Schema _target;
+
+    private SchemaPair(@Nonnull Schema source, @Nonnull Schema target) {
+      _source = source;
+      _target = target;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof SchemaPair)) {
+        return false;
+      }
+      final SchemaPair other = (SchemaPair) o;
+      return _source == other._source && _target == other._target;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(_source) + System.identityHashCode(_target);
+    }
+  }
+
+  private static final class IncompatibleSchemaException extends RuntimeException {
+    private IncompatibleSchemaException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -16,6 +16,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumReader;
@@ -81,6 +83,8 @@ public class EventUtils {
   private static final Schema RENAMED_FMCP_AVRO_SCHEMA =
       com.linkedin.pegasus2avro.mxe.FailedMetadataChangeProposal.SCHEMA$;
 
+  private static final Map<Class<?>, Schema> ASPECT_SPECIFIC_ORIGINAL_SCHEMAS = new ConcurrentHashMap<>();
+
   private EventUtils() {
     // Util class
   }
@@ -228,7 +232,8 @@ public class EventUtils {
       @Nonnull Class<T> clazz, @Nonnull RecordTemplate event)
       throws NoSuchFieldException, IOException, IllegalAccessException {
     final Schema newSchema = (Schema) clazz.getField("SCHEMA$").get(null);
-    final Schema originalSchema = getAvroSchemaFromResource(getAvroResourcePath(clazz));
+    final Schema originalSchema =
+        ASPECT_SPECIFIC_ORIGINAL_SCHEMAS.computeIfAbsent(clazz, key -> getAvroSchemaFromResource(getAvroResourcePath(key)));
     final GenericRecord original = DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), originalSchema);
     return (MXE) renameSchemaNamespace(original, originalSchema, newSchema);
   }
@@ -280,15 +285,17 @@ public class EventUtils {
   }
 
   /**
-   * Converts original MXE into a renamed namespace
-   * Does a double convert that should not be necessary since we're already converting prior to calling this method
-   * in most spots
+   * Converts original MXE into a renamed namespace, resolving it against the latest schema along the way
    */
   @Nonnull
-  @Deprecated
   private static GenericRecord renameSchemaNamespace(@Nonnull GenericRecord original, @Nonnull Schema originalSchema,
       @Nonnull Schema newSchema) throws IOException {
 
+    final GenericRecord rebound = (GenericRecord) AvroRecordRebinder.rebind(original, newSchema);
+    if (rebound != null) {
+      return rebound;
+    }
+
     // Step 1: Updates to the latest original schema
     final GenericRecord record = changeSchema(original, original.getSchema(), originalSchema);
 
@@ -303,6 +310,11 @@ public class EventUtils {
   private static GenericRecord renameSchemaNamespace(@Nonnull GenericRecord original, @Nonnull Schema newSchema)
       throws IOException {
 
+    final GenericRecord rebound = (GenericRecord) AvroRecordRebinder.rebind(original, newSchema);
+    if (rebound != null) {
+      return rebound;
+    }
+
     return changeSchema(original, newSchema, newSchema);
   }
 
@@ -318,7 +330,7 @@ public class EventUtils {
    * @throws IOException
    */
   @Nonnull
-  private static GenericRecord changeSchema(@Nonnull GenericRecord record, @Nonnull Schema writerSchema,
+  static GenericRecord changeSchema(@Nonnull GenericRecord record, @Nonnull Schema writerSchema,
       @Nonnull Schema readerSchema) throws IOException {
     try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
       BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(os, null);
@@ -2,6 +2,7 @@ package com.linkedin.metadata;
 
 import com.datahub.util.RecordUtils;
 import com.linkedin.common.urn.CorpuserUrn;
+import com.linkedin.data.avro.DataTranslator;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.mxe.FailedMetadataChangeEvent;
 import com.linkedin.mxe.MetadataAuditEvent;
@@ -9,6 +10,7 @@ import com.linkedin.mxe.MetadataChangeEvent;
 import java.io.IOException;
 import java.io.InputStream;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumReader;
@@ -77,6 +79,57 @@ public class EventUtilsTests {
     assertNotNull(record.get("metadataChangeEvent"));
   }
 
+  @Test
+  public void testRebindMatchesRoundTrip() throws IOException {
+    MetadataChangeEvent event = recordTemplateFromResource("test-pegasus2avro-mce.json", MetadataChangeEvent.class);
+    Schema originalSchema = new Schema.Parser().parse(
+        getClass().getClassLoader().getResourceAsStream("avro/com/linkedin/mxe/MetadataChangeEvent.avsc"));
+    Schema renamedSchema = com.linkedin.pegasus2avro.mxe.MetadataChangeEvent.SCHEMA$;
+    GenericRecord original = DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), originalSchema);
+
+    GenericRecord rebound = (GenericRecord) AvroRecordRebinder.rebind(original, renamedSchema);
+    GenericRecord roundTripped = EventUtils.changeSchema(original, renamedSchema, renamedSchema);
+
+    assertNotNull(rebound);
+    assertEquals(rebound.getSchema(), renamedSchema);
+    assertEquals(rebound.toString(), roundTripped.toString());
+
+    // And back again, as the consumers do
+    GenericRecord restored = (GenericRecord) AvroRecordRebinder.rebind(rebound, originalSchema);
+    assertNotNull(restored);
+    assertEquals(restored.toString(), original.toString());
+  }
+
+  @Test
+  public void testRebindResolvesSchemaEvolution() {
+    Schema source = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Event\","
+        + "\"namespace\":\"com.linkedin.pegasus2avro.test\",\"fields\":["
+        + "{\"name\":\"count\",\"type\":\"int\"},"
+        + "{\"name\":\"payload\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"Payload\","
+        + "\"fields\":[{\"name\":\"value\",\"type\":\"string\"}]}],\"default\":null}]}");
+    Schema target = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Event\","
+        + "\"namespace\":\"com.linkedin.test\",\"fields\":["
+        + "{\"name\":\"count\",\"type\":\"long\"},"
+        + "{\"name\":\"payload\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"Payload\","
+        + "\"fields\":[{\"name\":\"value\",\"type\":\"string\"}]}],\"default\":null},"
+        + "{\"name\":\"tag\",\"type\":\"string\",\"default\":\"none\"}]}");
+
+    GenericRecord payload = new GenericData.Record(source.getField("payload").schema().getTypes().get(1));
+    payload.put("value", "foo");
+    GenericRecord record = new GenericData.Record(source);
+    record.put("count", 5);
+    record.put("payload", payload);
+
+    GenericRecord rebound = (GenericRecord) AvroRecordRebinder.rebind(record, target);
+
+    assertNotNull(rebound);
+    assertEquals(rebound.getSchema(), target);
+    assertEquals(rebound.get("count"), 5L);
+    assertEquals(((GenericRecord) rebound.get("payload")).getSchema().getFullName(), "com.linkedin.test.Payload");
+    assertEquals(((GenericRecord) rebound.get("payload")).get("value").toString(), "foo");
+    assertEquals(rebound.get("tag").toString(), "none");
+  }
+
   private GenericRecord genericRecordFromResource(String resourcePath, Schema schema) throws IOException {
     InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath);
     JsonDecoder decoder = DecoderFactory.get().jsonDecoder(schema, is);
@@ -5,6 +5,7 @@ import datahub.event.MetadataChangeProposalWrapper;
 import datahub.event.UpsertAspectRequest;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -16,7 +17,8 @@ import javax.annotation.concurrent.ThreadSafe;
  * An interface implemented by all metadata emitters to DataHub.
  * Typical usage:
  * 1. Construct the emitter using the native constructor or builder for the Emitter.
- * 2. Call `emitter.emit(mcpw, callback)` for each event you want to send
+ * 2. Call `emitter.emit(mcpw, callback)` for each event you want to send, or `emitter.emitBatch(mcpws, callback)`
+ *    for many events at once
  * 3. Wait for all events to be sent by inspecting the futures returned by each call or using callbacks
  * 4. Call `emitter.close()` to finalize.
  */
@@ -63,6 +65,34 @@ public interface Emitter extends Closeable {
     return emit(mcp, null);
   }
 
+  /**
+   * Asynchronously emit a list of {@link MetadataChangeProposalWrapper} events. Emitters that support it send them in
+   * as few requests as possible, the default implementation emits them one by one.
+   * @param mcpws
+   * @param callback if not null, is called from the IO thread once for each event. Should be a quick operation.
+   * @return a {@link Future} for each event, in the order of the list
+   * @throws IOException
+   */
+  default List<Future<MetadataWriteResponse>> emitBatch(@Nonnull List<MetadataChangeProposalWrapper> mcpws,
+      Callback callback) throws IOException {
+    List<Future<MetadataWriteResponse>> futures = new ArrayList<>(mcpws.size());
+    for (MetadataChangeProposalWrapper mcpw : mcpws) {
+      futures.add(emit(mcpw, callback));
+    }
+    return futures;
+  }
+
+  /**
+   * Asynchronously emit a list of {@link MetadataChangeProposalWrapper} events.
+   * @param mcpws
+   * @return a {@link Future} for each event, in the order of the list
+   * @throws IOException
+   */
+  default List<Future<MetadataWriteResponse>> emitBatch(@Nonnull List<MetadataChangeProposalWrapper> mcpws)
+      throws IOException {
+    return emitBatch(mcpws, null);
+  }
+
   /**
    * Test that the emitter can establish a valid connection to the DataHub platform
    * @return true if a valid connection can be established, false or throws one of the exceptions otherwise
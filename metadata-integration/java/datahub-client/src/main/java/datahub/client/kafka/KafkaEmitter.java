@@ -78,8 +78,10 @@ public class KafkaEmitter implements Emitter {
 
       @Override
       public void onCompletion(RecordMetadata metadata, Exception exception) {
-        MetadataWriteResponse response = mapResponse(metadata, exception);
-        datahubCallback.onCompletion(response);
+        if (datahubCallback != null) {
+          MetadataWriteResponse response = mapResponse(metadata, exception);
+          datahubCallback.onCompletion(response);
+        }
       }
     };
     log.debug("Emit: topic: {} \n record: {}", KafkaEmitter.DEFAULT_MCP_KAFKA_TOPIC, record);
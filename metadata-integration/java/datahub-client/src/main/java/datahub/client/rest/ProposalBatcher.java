@@ -0,0 +1,181 @@
+package datahub.client.rest;
+
+import com.linkedin.mxe.MetadataChangeProposal;
+import datahub.client.Callback;
+import datahub.client.MetadataWriteResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Groups proposals into batches for the {@link RestEmitter}. A batch is sent as soon as it reaches the maximum batch
+ * size, or once the linger time has passed since its first proposal. At most a fixed number of batches are in flight;
+ * when the window is full, the caller that completes the next batch blocks until a response frees a slot.
+ */
+@Slf4j
+class ProposalBatcher implements Closeable {
+
+  /**
+   * A proposal waiting for its batch to be sent, together with its caller's callback and future.
+   */
+  @Getter
+  @RequiredArgsConstructor
+  static class Pending {
+    private final MetadataChangeProposal proposal;
+    private final Callback callback;
+    private final CompletableFuture<MetadataWriteResponse> future = new CompletableFuture<>();
+
+    void complete(MetadataWriteResponse response) {
+      future.complete(response);
+      if (callback != null) {
+        try {
+          callback.onCompletion(response);
+        } catch (Exception e) {
+          log.error("Error executing user callback on completion.", e);
+        }
+      }
+    }
+
+    void fail(Throwable exception) {
+      future.completeExceptionally(exception);
+      if (callback != null) {
+        try {
+          callback.onFailure(exception);
+        } catch (Exception e) {
+          log.error("Error executing user callback on failure.", e);
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  interface BatchSender {
+    /**
+     * Sends the batch asynchronously, completing each of its proposals and then running {@code onDone}.
+     */
+    void send(List<Pending> batch, Runnable onDone) throws IOException;
+  }
+
+  private final BatchSender sender;
+  private final int maxBatchSize;
+  private final int lingerMs;
+  private final int maxInFlightBatches;
+  private final Semaphore inFlight;
+  private final ScheduledExecutorService lingerScheduler;
+  private List<Pending> pending = new ArrayList<>();
+  private ScheduledFuture<?> lingerTask;
+
+  ProposalBatcher(BatchSender sender, int maxBatchSize, int lingerMs, int maxInFlightBatches) {
+    this.sender = sender;
+    this.maxBatchSize = maxBatchSize;
+    this.lingerMs = lingerMs;
+    this.maxInFlightBatches = maxInFlightBatches;
+    this.inFlight = new Semaphore(maxInFlightBatches);
+    this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "datahub-rest-emitter-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Adds the proposals to the current batch, sending every batch they fill. With a zero linger time the remainder is
+   * sent right away, otherwise it waits for more proposals until the linger time is up.
+   */
+  void add(List<Pending> proposals) throws IOException {
+    for (Pending proposal : proposals) {
+      List<Pending> full = null;
+      synchronized (this) {
+        pending.add(proposal);
+        if (pending.size() >= maxBatchSize) {
+          full = takePending();
+        } else if (lingerMs > 0 && lingerTask == null) {
+          lingerTask = lingerScheduler.schedule(this::flushQuietly, lingerMs, TimeUnit.MILLISECONDS);
+        }
+      }
+      if (full != null) {
+        dispatch(full);
+      }
+    }
+    if (lingerMs <= 0) {
+      flush();
+    }
+  }
+
+  /**
+   * Sends the current batch, if any, without waiting for it to fill up.
+   */
+  void flush() throws IOException {
+    final List<Pending> batch;
+    synchronized (this) {
+      batch = takePending();
+    }
+    if (!batch.isEmpty()) {
+      dispatch(batch);
+    }
+  }
+
+  /**
+   * Sends the current batch and waits for all batches in flight to complete.
+   */
+  @Override
+  public void close() throws IOException {
+    lingerScheduler.shutdownNow();
+    flush();
+    try {
+      inFlight.acquire(maxInFlightBatches);
+      inFlight.release(maxInFlightBatches);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for batches in flight");
+    }
+  }
+
+  private List<Pending> takePending() {
+    if (lingerTask != null) {
+      lingerTask.cancel(false);
+      lingerTask = null;
+    }
+    final List<Pending> batch = pending;
+    pending = new ArrayList<>();
+    return batch;
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException e) {
+      log.error("Failed to send batch of metadata change proposals", e);
+    }
+  }
+
+  private void dispatch(List<Pending> batch) throws IOException {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting to send a batch");
+      batch.forEach(proposal -> proposal.fail(exception));
+      throw exception;
+    }
+    try {
+      sender.send(batch, inFlight::release);
+    } catch (IOException | RuntimeException e) {
+      inFlight.release();
+      batch.forEach(proposal -> proposal.fail(e));
+      throw e;
+    }
+  }
+}
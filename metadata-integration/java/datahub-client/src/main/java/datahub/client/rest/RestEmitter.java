@@ -4,27 +4,36 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.template.JacksonDataTemplateCodec;
 import com.linkedin.mxe.MetadataChangeProposal;
@@ -69,11 +78,20 @@ import java.security.NoSuchAlgorithmException;
  *                                                .extraHeaders(Collections.singletonMap("Custom-Header", "custom-val")
  *                                                .customizeHttpAsyncClient(c :: c.setConnectionTimeToLive(30, TimeUnit.SECONDS))
  *                                                );
+ *
+ * Many proposals are best sent with `emitBatch`, which groups them into ingestProposalBatch requests of up to
+ * `maxBatchSize` proposals with at most `maxInFlightBatches` requests awaiting a response. Setting `batchLingerMs`
+ * batches single `emit` calls the same way. A batch is written all or nothing, so when the server rejects one without
+ * writing any of it, its proposals are sent one by one and only those rejected on their own fail.
  */
 public class RestEmitter implements Emitter {
 
+  private static final String ACTION_INGEST_PROPOSAL_BATCH = "ingestProposalBatch";
+  private static final String ROUTING_EXCEPTION_CLASS = "com.linkedin.restli.server.RoutingException";
+
   private final RestEmitterConfig config;
   private final String ingestProposalUrl;
+  private final String ingestProposalBatchUrl;
   private final String ingestOpenApiUrl;
   private final String configUrl;
 
@@ -81,6 +99,9 @@ public class RestEmitter implements Emitter {
   private final JacksonDataTemplateCodec dataTemplateCodec = new JacksonDataTemplateCodec(objectMapper.getFactory());
   private final CloseableHttpAsyncClient httpClient;
   private final EventFormatter eventFormatter;
+  private final ProposalBatcher batcher;
+  // Cleared when the server turns out not to have the ingestProposalBatch action
+  private volatile boolean batchActionSupported = true;
 
   /**
    * The default constructor, prefer using the `create` factory method.
@@ -110,9 +131,12 @@ public class RestEmitter implements Emitter {
     this.httpClient = this.config.getAsyncHttpClientBuilder().build();
     this.httpClient.start();
     this.ingestProposalUrl = this.config.getServer() + "/aspects?action=ingestProposal";
+    this.ingestProposalBatchUrl = this.config.getServer() + "/aspects?action=" + ACTION_INGEST_PROPOSAL_BATCH;
     this.ingestOpenApiUrl = config.getServer() + "/openapi/entities/v1/";
     this.configUrl = this.config.getServer() + "/config";
     this.eventFormatter = this.config.getEventFormatter();
+    this.batcher = new ProposalBatcher(this::postBatch, config.getMaxBatchSize(), config.getBatchLingerMs(),
+        config.getMaxInFlightBatches());
   }
 
   private static MetadataWriteResponse mapResponse(HttpResponse response) {
@@ -185,6 +209,11 @@ public class RestEmitter implements Emitter {
   @Override
   public Future<MetadataWriteResponse> emit(MetadataChangeProposal mcp, Callback callback)
       throws IOException {
+    if (this.config.getBatchLingerMs() > 0) {
+      ProposalBatcher.Pending pending = new ProposalBatcher.Pending(mcp, callback);
+      this.batcher.add(Collections.singletonList(pending));
+      return pending.getFuture();
+    }
     DataMap map = new DataMap();
     map.put("proposal", mcp.data());
     String serializedMCP = dataTemplateCodec.mapToString(map);
@@ -192,8 +221,147 @@ public class RestEmitter implements Emitter {
     return this.postGeneric(this.ingestProposalUrl, serializedMCP, mcp, callback);
   }
 
-  private Future<MetadataWriteResponse> postGeneric(String urlStr, String payloadJson, Object originalRequest,
-      Callback callback) throws IOException {
+  @Override
+  public List<Future<MetadataWriteResponse>> emitBatch(List<MetadataChangeProposalWrapper> mcpws, Callback callback)
+      throws IOException {
+    List<ProposalBatcher.Pending> pending = new ArrayList<>(mcpws.size());
+    for (MetadataChangeProposalWrapper mcpw : mcpws) {
+      pending.add(new ProposalBatcher.Pending(this.eventFormatter.convert(mcpw), callback));
+    }
+    this.batcher.add(pending);
+    List<Future<MetadataWriteResponse>> futures = new ArrayList<>(pending.size());
+    pending.forEach(p -> futures.add(p.getFuture()));
+    return futures;
+  }
+
+  private void postBatch(List<ProposalBatcher.Pending> batch, Runnable onDone) throws IOException {
+    if (!this.batchActionSupported) {
+      postEach(batch, onDone);
+      return;
+    }
+    DataList proposals = new DataList();
+    batch.forEach(pending -> proposals.add(pending.getProposal().data()));
+    DataMap map = new DataMap();
+    map.put("proposals", proposals);
+    String serializedMCPs = dataTemplateCodec.mapToString(map);
+    log.debug("Emit: URL: {}, Batch size: {}\n", this.ingestProposalBatchUrl, batch.size());
+    HttpPost httpPost = createRestliPost(this.ingestProposalBatchUrl);
+    httpPost.setEntity(createEntity(serializedMCPs));
+    FutureCallback<HttpResponse> httpCallback = new FutureCallback<HttpResponse>() {
+      @Override
+      public void completed(HttpResponse response) {
+        MetadataWriteResponse writeResponse = mapResponse(response);
+        int status = response.getStatusLine().getStatusCode();
+        if (isBatchActionMissing(status, writeResponse.getResponseContent())) {
+          log.warn("Server does not support ingestProposalBatch, falling back to one request per proposal");
+          batchActionSupported = false;
+          postEach(batch, onDone);
+          return;
+        }
+        if (status == HttpStatus.SC_UNPROCESSABLE_ENTITY) {
+          // Nothing in the batch was written, so each proposal is sent on its own and only the ones that are rejected
+          // again fail
+          log.debug("Batch of {} proposals was not committed, sending them one by one: {}", batch.size(),
+              writeResponse.getResponseContent());
+          postEach(batch, onDone);
+          return;
+        }
+        try {
+          completeBatch(batch, writeResponse);
+        } finally {
+          onDone.run();
+        }
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        try {
+          batch.forEach(pending -> pending.fail(ex));
+        } finally {
+          onDone.run();
+        }
+      }
+
+      @Override
+      public void cancelled() {
+        failed(new RuntimeException("Cancelled"));
+      }
+    };
+    httpClient.execute(httpPost, httpCallback);
+  }
+
+  // Only a missing resource, or a rest.li routing error naming the action, means that the server does not have it.
+  // Any other bad request is about the proposals themselves.
+  private boolean isBatchActionMissing(int status, String responseContent) {
+    if (status == HttpStatus.SC_NOT_FOUND) {
+      return true;
+    }
+    if (status != HttpStatus.SC_BAD_REQUEST || responseContent == null) {
+      return false;
+    }
+    try {
+      JsonNode error = objectMapper.readTree(responseContent);
+      return ROUTING_EXCEPTION_CLASS.equals(error.path("exceptionClass").asText())
+          && error.path("message").asText().contains(ACTION_INGEST_PROPOSAL_BATCH);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  // Maps the response of a batch request to one response per proposal, carrying the urn the server returned for it
+  private void completeBatch(List<ProposalBatcher.Pending> batch, MetadataWriteResponse batchResponse) {
+    JsonNode urns = null;
+    if (batchResponse.isSuccess() && batchResponse.getResponseContent() != null) {
+      try {
+        urns = objectMapper.readTree(batchResponse.getResponseContent()).path("value");
+      } catch (IOException e) {
+        log.warn("Wasn't able to read the urns of the batch response", e);
+      }
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      if (!batchResponse.isSuccess()) {
+        batch.get(i).complete(batchResponse);
+        continue;
+      }
+      batch.get(i).complete(MetadataWriteResponse.builder()
+          .success(true)
+          .responseContent(urns != null && urns.has(i) ? urns.get(i).asText() : null)
+          .underlyingResponse(batchResponse.getUnderlyingResponse())
+          .build());
+    }
+  }
+
+  private void postEach(List<ProposalBatcher.Pending> batch, Runnable onDone) {
+    AtomicInteger remaining = new AtomicInteger(batch.size());
+    for (ProposalBatcher.Pending pending : batch) {
+      Callback callback = new Callback() {
+        @Override
+        public void onCompletion(MetadataWriteResponse response) {
+          pending.complete(response);
+          if (remaining.decrementAndGet() == 0) {
+            onDone.run();
+          }
+        }
+
+        @Override
+        public void onFailure(Throwable exception) {
+          pending.fail(exception);
+          if (remaining.decrementAndGet() == 0) {
+            onDone.run();
+          }
+        }
+      };
+      DataMap map = new DataMap();
+      map.put("proposal", pending.getProposal().data());
+      try {
+        this.postGeneric(this.ingestProposalUrl, dataTemplateCodec.mapToString(map), pending.getProposal(), callback);
+      } catch (IOException e) {
+        callback.onFailure(e);
+      }
+    }
+  }
+
+  private HttpPost createRestliPost(String urlStr) {
     HttpPost httpPost = new HttpPost(urlStr);
     httpPost.setHeader("Content-Type", "application/json");
     httpPost.setHeader("X-RestLi-Protocol-Version", "2.0.0");
@@ -202,7 +370,26 @@ public class RestEmitter implements Emitter {
     if (this.config.getToken() != null) {
       httpPost.setHeader("Authorization", "Bearer " + this.config.getToken());
     }
-    httpPost.setEntity(new StringEntity(payloadJson));
+    return httpPost;
+  }
+
+  private HttpEntity createEntity(String payloadJson) throws IOException {
+    if (!this.config.isGzipRequests()) {
+      return new StringEntity(payloadJson);
+    }
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(payloadJson.getBytes(StandardCharsets.UTF_8));
+    }
+    ByteArrayEntity entity = new ByteArrayEntity(compressed.toByteArray());
+    entity.setContentEncoding("gzip");
+    return entity;
+  }
+
+  private Future<MetadataWriteResponse> postGeneric(String urlStr, String payloadJson, Object originalRequest,
+      Callback callback) throws IOException {
+    HttpPost httpPost = createRestliPost(urlStr);
+    httpPost.setEntity(createEntity(payloadJson));
     AtomicReference<MetadataWriteResponse> responseAtomicReference = new AtomicReference<>();
     CountDownLatch responseLatch = new CountDownLatch(1);
     FutureCallback<HttpResponse> httpCallback = new FutureCallback<HttpResponse>() {
@@ -267,7 +454,11 @@ public class RestEmitter implements Emitter {
 
   @Override
   public void close() throws IOException {
-    this.httpClient.close();
+    try {
+      this.batcher.close();
+    } finally {
+      this.httpClient.close();
+    }
   }
 
   @Override
@@ -286,7 +477,7 @@ public class RestEmitter implements Emitter {
     if (this.config.getToken() != null) {
       httpPost.setHeader("Authorization", "Bearer " + this.config.getToken());
     }
-    httpPost.setEntity(new StringEntity(objectMapper.writeValueAsString(payload)));
+    httpPost.setEntity(createEntity(objectMapper.writeValueAsString(payload)));
     AtomicReference<MetadataWriteResponse> responseAtomicReference = new AtomicReference<>();
     CountDownLatch responseLatch = new CountDownLatch(1);
     FutureCallback<HttpResponse> httpCallback = new FutureCallback<HttpResponse>() {
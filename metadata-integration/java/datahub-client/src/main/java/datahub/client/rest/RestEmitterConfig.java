@@ -23,6 +23,9 @@ public class RestEmitterConfig {
   public static final int DEFAULT_READ_TIMEOUT_SEC = 10;
   public static final String DEFAULT_AUTH_TOKEN = null;
   public static final String CLIENT_VERSION_PROPERTY = "clientVersion";
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+  public static final int DEFAULT_BATCH_LINGER_MS = 0;
+  public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
 
   @Builder.Default
   private final String server = "http://localhost:8080";
@@ -40,6 +43,32 @@ public class RestEmitterConfig {
 
   private final HttpAsyncClientBuilder asyncHttpClientBuilder;
 
+  /**
+   * Maximum number of proposals sent in a single ingestProposalBatch request.
+   */
+  @Builder.Default
+  private final int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  /**
+   * How long a batch waits to fill up before it is sent. When positive, single proposals passed to `emit` are batched
+   * as well; when zero, they are sent one per request and only `emitBatch` batches.
+   */
+  @Builder.Default
+  private final int batchLingerMs = DEFAULT_BATCH_LINGER_MS;
+
+  /**
+   * Maximum number of batch requests awaiting a response, beyond which emitting blocks. Raising it past the http
+   * client's connections per route (2 by default) only queues requests inside the client.
+   */
+  @Builder.Default
+  private final int maxInFlightBatches = DEFAULT_MAX_IN_FLIGHT_BATCHES;
+
+  /**
+   * Whether to gzip request bodies. The server, or a proxy in front of it, must accept gzip content encoding.
+   */
+  @Builder.Default
+  private final boolean gzipRequests = false;
+
   @Builder.Default
   private final EventFormatter eventFormatter = new EventFormatter(EventFormatter.Format.PEGASUS_JSON);
 
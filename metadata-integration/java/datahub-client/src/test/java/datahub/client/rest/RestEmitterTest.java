@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
+import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -27,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import javax.net.ssl.SSLHandshakeException;
 
@@ -48,6 +50,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.RequestDefinition;
+import org.mockserver.model.StringBody;
 
 import static org.mockserver.model.HttpRequest.*;
 
@@ -369,6 +372,200 @@ public class RestEmitterTest {
     }
   }
 
+  @Test
+  public void testEmitBatch() throws Exception {
+    TestDataHubServer testDataHubServer = new TestDataHubServer();
+    Integer port = testDataHubServer.getMockServer().getPort();
+    RestEmitter emitter = RestEmitter.create(b -> b.server("http://localhost:" + port).maxBatchSize(2));
+
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposalBatch"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(200)
+            .withBody("{\"value\":[\"urn:li:dataset:first\",\"urn:li:dataset:second\"]}"));
+
+    List<MetadataChangeProposalWrapper> mcpws = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      mcpws.add(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo-" + i));
+    }
+    CountDownLatch latch = new CountDownLatch(mcpws.size());
+    List<Future<MetadataWriteResponse>> futures = emitter.emitBatch(mcpws, new Callback() {
+      @Override
+      public void onCompletion(MetadataWriteResponse response) {
+        latch.countDown();
+      }
+
+      @Override
+      public void onFailure(Throwable exception) {
+        Assert.fail("Should not be called");
+      }
+    });
+
+    Assert.assertEquals(4, futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      MetadataWriteResponse response = futures.get(i).get();
+      Assert.assertTrue(response.isSuccess());
+      Assert.assertEquals(i % 2 == 0 ? "urn:li:dataset:first" : "urn:li:dataset:second", response.getResponseContent());
+    }
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    RequestDefinition[] recordedRequests =
+        testDataHubServer.getMockServer().retrieveRecordedRequests(request().withPath("/aspects").withMethod("POST"));
+    Assert.assertEquals(2, recordedRequests.length);
+    emitter.close();
+  }
+
+  @Test
+  public void testEmitBatchFallsBackWithoutBatchAction() throws Exception {
+    TestDataHubServer testDataHubServer = new TestDataHubServer();
+    Integer port = testDataHubServer.getMockServer().getPort();
+    RestEmitter emitter = RestEmitter.create(b -> b.server("http://localhost:" + port));
+
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposalBatch"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(404));
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposal"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(200));
+
+    List<MetadataChangeProposalWrapper> mcpws = Arrays.asList(
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo"),
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:bar"));
+    for (Future<MetadataWriteResponse> future : emitter.emitBatch(mcpws)) {
+      Assert.assertTrue(future.get().isSuccess());
+    }
+    for (Future<MetadataWriteResponse> future : emitter.emitBatch(mcpws)) {
+      Assert.assertTrue(future.get().isSuccess());
+    }
+    Assert.assertEquals(1, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposalBatch")).length);
+    Assert.assertEquals(4, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposal")).length);
+    emitter.close();
+  }
+
+  @Test
+  public void testEmitBatchFallsBackOnRoutingError() throws Exception {
+    TestDataHubServer testDataHubServer = new TestDataHubServer();
+    Integer port = testDataHubServer.getMockServer().getPort();
+    RestEmitter emitter = RestEmitter.create(b -> b.server("http://localhost:" + port));
+
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposalBatch"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(400)
+            .withBody("{\"exceptionClass\":\"com.linkedin.restli.server.RoutingException\",\"message\":"
+                + "\"POST operation named ingestProposalBatch not supported on resource\",\"status\":400}"));
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposal"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(200));
+
+    for (Future<MetadataWriteResponse> future : emitter.emitBatch(
+        Collections.singletonList(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo")))) {
+      Assert.assertTrue(future.get().isSuccess());
+    }
+    Assert.assertEquals(1, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposal")).length);
+    emitter.close();
+  }
+
+  @Test
+  public void testEmitBatchKeepsBatchActionOnBadRequest() throws Exception {
+    TestDataHubServer testDataHubServer = new TestDataHubServer();
+    Integer port = testDataHubServer.getMockServer().getPort();
+    RestEmitter emitter = RestEmitter.create(b -> b.server("http://localhost:" + port));
+
+    // A bad request for another reason, even one that mentions the action, does not switch off batching
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposalBatch"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(400)
+            .withBody("{\"exceptionClass\":\"com.linkedin.restli.server.RestLiServiceException\",\"message\":"
+                + "\"Parameter 'proposals' of ingestProposalBatch is invalid\",\"status\":400}"));
+
+    List<MetadataChangeProposalWrapper> mcpws =
+        Collections.singletonList(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo"));
+    for (int i = 0; i < 2; i++) {
+      for (Future<MetadataWriteResponse> future : emitter.emitBatch(mcpws)) {
+        Assert.assertFalse(future.get().isSuccess());
+      }
+    }
+    Assert.assertEquals(2, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposalBatch")).length);
+    Assert.assertEquals(0, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposal")).length);
+    emitter.close();
+  }
+
+  @Test
+  public void testEmitBatchSendsEachProposalWhenNothingCommitted() throws Exception {
+    TestDataHubServer testDataHubServer = new TestDataHubServer();
+    Integer port = testDataHubServer.getMockServer().getPort();
+    RestEmitter emitter = RestEmitter.create(b -> b.server("http://localhost:" + port));
+
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposalBatch"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(422));
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposal")
+            .withBody(StringBody.subString("urn:li:dataset:bad")), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(422));
+    testDataHubServer.getMockServer()
+        .when(request().withMethod("POST")
+            .withPath("/aspects")
+            .withQueryStringParameter("action", "ingestProposal"), Times.unlimited())
+        .respond(org.mockserver.model.HttpResponse.response().withStatusCode(200));
+
+    List<Future<MetadataWriteResponse>> futures = emitter.emitBatch(Arrays.asList(
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo"),
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:bad"),
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:bar")));
+    Assert.assertTrue(futures.get(0).get().isSuccess());
+    Assert.assertFalse(futures.get(1).get().isSuccess());
+    Assert.assertTrue(futures.get(2).get().isSuccess());
+
+    // The next batch is sent as a batch again
+    emitter.emitBatch(Collections.singletonList(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo")))
+        .get(0).get();
+    Assert.assertEquals(2, testDataHubServer.getMockServer().retrieveRecordedRequests(
+        request().withPath("/aspects").withQueryStringParameter("action", "ingestProposalBatch")).length);
+    emitter.close();
+  }
+
+  @Test
+  public void testBatchLingerAndGzip() throws Exception {
+    RestEmitter emitter = RestEmitter.create(b -> b.asyncHttpClientBuilder(mockHttpClientFactory)
+        .batchLingerMs(60000)
+        .maxBatchSize(2)
+        .gzipRequests(true));
+    emitter.emit(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo"), null);
+    Mockito.verify(mockClient, Mockito.never()).execute(Mockito.any(), Mockito.any());
+
+    emitter.emit(getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:bar"), null);
+    Mockito.verify(mockClient).execute(postArgumentCaptor.capture(), callbackCaptor.capture());
+    HttpPost testPost = postArgumentCaptor.getValue();
+    Assert.assertTrue(testPost.getURI().toString().endsWith("/aspects?action=ingestProposalBatch"));
+    Assert.assertEquals("gzip", testPost.getEntity().getContentEncoding().getValue());
+    String contentString;
+    try (InputStream is = new GZIPInputStream(testPost.getEntity().getContent())) {
+      contentString = new Scanner(is, "UTF-8").useDelimiter("\\A").next();
+    }
+    Map<?, ?> content = new ObjectMapper().readValue(contentString, Map.class);
+    Assert.assertEquals(2, ((List<?>) content.get("proposals")).size());
+  }
+
   @Test
   public void testUserAgentHeader() throws IOException, ExecutionException, InterruptedException {
     TestDataHubServer testDataHubServer = new TestDataHubServer();
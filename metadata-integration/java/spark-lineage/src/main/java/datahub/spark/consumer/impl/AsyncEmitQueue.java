@@ -0,0 +1,326 @@
+package datahub.spark.consumer.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.template.JacksonDataTemplateCodec;
+import com.linkedin.mxe.MetadataChangeProposal;
+
+import datahub.client.Emitter;
+import datahub.client.MetadataWriteResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers metadata change proposals to DataHub from a background thread, so that the Spark listener bus thread
+ * only ever enqueues them.
+ *
+ * The queue is bounded. When it is full, enqueuing waits up to a timeout for room, and then either drops the proposal
+ * or, with the spill policy, appends it to a local file that is replayed once the queue has drained. The delivery
+ * thread sends proposals in batches, each batch sent concurrently over the one long-lived emitter and awaited before
+ * the next, which bounds the requests in flight.
+ *
+ * The spill file outlives the application: proposals still spilled when it ends, or when it is killed mid-replay,
+ * are delivered by the next queue started on the same file. Only one queue at a time spills to a file, enforced with
+ * a lock on a sibling file, and any other queue configured with it drops proposals instead. A replay interrupted
+ * midway is started over, so proposals can be delivered twice, which upserts tolerate.
+ */
+@Slf4j
+public class AsyncEmitQueue implements Closeable {
+
+  public enum OverflowPolicy {
+    DROP, SPILL
+  }
+
+  private static final long POLL_TIMEOUT_MS = 200;
+
+  private final Emitter emitter;
+  private final BlockingQueue<MetadataChangeProposal> queue;
+  private final int batchSize;
+  private final long enqueueTimeoutMs;
+  private final long requestTimeoutMs;
+  private final OverflowPolicy overflowPolicy;
+  private final Path spillFile;
+  private final Path replayFile;
+  private final FileChannel spillLockChannel;
+  private final FileLock spillFileLock;
+  private final Object spillLock = new Object();
+  private final JacksonDataTemplateCodec templateCodec = new JacksonDataTemplateCodec();
+  private final JacksonDataCodec dataCodec = new JacksonDataCodec();
+  private final Thread deliveryThread;
+  private final AtomicLong numDropped = new AtomicLong();
+  private final AtomicLong numFailed = new AtomicLong();
+  private volatile boolean running = true;
+
+  public AsyncEmitQueue(Emitter emitter, int capacity, int batchSize, long enqueueTimeoutMs, long requestTimeoutMs,
+      OverflowPolicy overflowPolicy, Path spillFile) {
+    this.emitter = emitter;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.enqueueTimeoutMs = enqueueTimeoutMs;
+    this.requestTimeoutMs = requestTimeoutMs;
+    this.overflowPolicy = overflowPolicy;
+    this.spillFile = spillFile;
+    this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+    this.spillLockChannel = overflowPolicy == OverflowPolicy.SPILL ? openLockChannel(spillFile) : null;
+    this.spillFileLock = spillLockChannel != null ? tryLock(spillLockChannel, spillFile) : null;
+    this.deliveryThread = new Thread(this::deliver, "datahub-lineage-emitter");
+    this.deliveryThread.setDaemon(true);
+    this.deliveryThread.start();
+  }
+
+  /**
+   * Queues the proposal for delivery, waiting at most the enqueue timeout for room before applying the overflow
+   * policy.
+   */
+  public void enqueue(MetadataChangeProposal mcp) {
+    if (!running) {
+      overflow(mcp);
+      return;
+    }
+    try {
+      if (queue.offer(mcp, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    overflow(mcp);
+  }
+
+  public long getNumDropped() {
+    return numDropped.get();
+  }
+
+  public long getNumFailed() {
+    return numFailed.get();
+  }
+
+  /**
+   * Whether proposals that do not fit in the queue are spilled, which requires holding the lock on the spill file.
+   */
+  public boolean isSpilling() {
+    return spillFileLock != null && spillFileLock.isValid();
+  }
+
+  /**
+   * Stops accepting proposals and waits up to the given timeout for the queued and spilled ones to be delivered,
+   * then closes the emitter.
+   */
+  public void close(long timeoutMs) throws IOException {
+    running = false;
+    try {
+      deliveryThread.join(timeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (deliveryThread.isAlive()) {
+      deliveryThread.interrupt();
+    }
+    final List<MetadataChangeProposal> undelivered = new ArrayList<>();
+    queue.drainTo(undelivered);
+    undelivered.forEach(this::overflow);
+    if (numDropped.get() > 0 || numFailed.get() > 0) {
+      log.warn("DataHub lineage emitter dropped {} and failed to deliver {} metadata change proposals",
+          numDropped.get(), numFailed.get());
+    }
+    if (isSpilling() && (Files.exists(spillFile) || Files.exists(replayFile))) {
+      log.warn("Undelivered metadata change proposals are left in {}, to be delivered by the next application "
+          + "spilling to it", spillFile);
+    }
+    releaseSpillLock();
+    emitter.close();
+  }
+
+  @Override
+  public void close() throws IOException {
+    close(TimeUnit.SECONDS.toMillis(30));
+  }
+
+  private void deliver() {
+    final List<MetadataChangeProposal> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        final MetadataChangeProposal first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          replaySpilled();
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        send(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("Failed to deliver metadata to DataHub", e);
+      } finally {
+        batch.clear();
+      }
+    }
+    // Both a replay file left behind and the spill file may be waiting
+    while (replaySpilled()) {
+      continue;
+    }
+  }
+
+  private void send(List<MetadataChangeProposal> batch) throws InterruptedException {
+    final List<Future<MetadataWriteResponse>> futures = new ArrayList<>(batch.size());
+    for (MetadataChangeProposal mcp : batch) {
+      try {
+        futures.add(emitter.emit(mcp, null));
+      } catch (IOException e) {
+        numFailed.incrementAndGet();
+        log.error("Failed to emit metadata to DataHub", e);
+      }
+    }
+    for (Future<MetadataWriteResponse> future : futures) {
+      try {
+        final MetadataWriteResponse response = future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        if (!response.isSuccess()) {
+          numFailed.incrementAndGet();
+          log.error("Failed to emit metadata to DataHub: {}", response);
+        } else {
+          log.debug("Emitted metadata to DataHub: {}", response);
+        }
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        numFailed.incrementAndGet();
+        log.error("Failed to emit metadata to DataHub", e);
+      }
+    }
+  }
+
+  private void overflow(MetadataChangeProposal mcp) {
+    if (isSpilling()) {
+      synchronized (spillLock) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+          writer.write(templateCodec.dataTemplateToString(mcp));
+          writer.newLine();
+          return;
+        } catch (IOException e) {
+          log.error("Failed to spill metadata change proposal to {}", spillFile, e);
+        }
+      }
+    }
+    if (numDropped.incrementAndGet() == 1) {
+      log.warn("DataHub lineage emitter queue is full, dropping metadata change proposals");
+    }
+  }
+
+  // Moves the spilled proposals aside and delivers them, proposals spilled in the meantime go to a new file. A replay
+  // file left behind by an earlier queue or an interrupted replay is delivered first. Returns whether a file was
+  // replayed in full.
+  private boolean replaySpilled() {
+    if (!isSpilling()) {
+      return false;
+    }
+    synchronized (spillLock) {
+      if (!Files.exists(replayFile)) {
+        if (!Files.exists(spillFile)) {
+          return false;
+        }
+        try {
+          Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+          log.error("Failed to replay spilled metadata change proposals from {}", spillFile, e);
+          return false;
+        }
+      }
+    }
+
+    final List<MetadataChangeProposal> batch = new ArrayList<>(batchSize);
+    try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          batch.add(new MetadataChangeProposal(dataCodec.stringToMap(line)));
+        } catch (IOException e) {
+          // A line cut short when the application writing it was killed
+          numFailed.incrementAndGet();
+          log.error("Failed to read spilled metadata change proposal from {}", replayFile, e);
+        }
+        if (batch.size() == batchSize) {
+          send(batch);
+          batch.clear();
+        }
+      }
+      send(batch);
+      Files.delete(replayFile);
+      return true;
+    } catch (IOException e) {
+      log.error("Failed to replay spilled metadata change proposals from {}", replayFile, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private static FileChannel openLockChannel(Path spillFile) {
+    try {
+      return FileChannel.open(spillFile.resolveSibling(spillFile.getFileName() + ".lock"), StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      log.error("Failed to lock spill file {}, dropping metadata change proposals that do not fit in the queue",
+          spillFile, e);
+      return null;
+    }
+  }
+
+  private static FileLock tryLock(FileChannel channel, Path spillFile) {
+    FileLock lock = null;
+    try {
+      lock = channel.tryLock();
+    } catch (IOException | OverlappingFileLockException e) {
+      log.debug("Failed to lock spill file {}", spillFile, e);
+    }
+    if (lock == null) {
+      log.warn("Spill file {} is in use by another application, dropping metadata change proposals that do not fit "
+          + "in the queue", spillFile);
+      closeQuietly(channel);
+    }
+    return lock;
+  }
+
+  private void releaseSpillLock() {
+    if (spillFileLock != null) {
+      synchronized (spillLock) {
+        try {
+          spillFileLock.release();
+        } catch (IOException e) {
+          log.debug("Failed to release the lock on spill file {}", spillFile, e);
+        }
+      }
+    }
+    if (spillLockChannel != null) {
+      closeQuietly(spillLockChannel);
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Failed to close spill lock file", e);
+    }
+  }
+}
@@ -2,7 +2,6 @@ package datahub.spark.consumer.impl;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -33,7 +32,9 @@ public class CoalesceJobsEmitter extends McpEmitter {
   private static final String PARENT_JOB_KEY = "parent.datajob_urn";
   private final String parentJobUrn;
   private AppStartEvent appStartEvent = null;
-  private final ArrayList<SQLQueryExecStartEvent> sqlQueryExecStartEvents = new ArrayList<>();
+  // Datasets of all SQL executions of the app, rather than the executions themselves, which can be many
+  private final Set<DatasetUrn> inputDatasets = new TreeSet<DatasetUrn>(new DataSetUrnComparator());
+  private final Set<DatasetUrn> outputDatasets = new TreeSet<DatasetUrn>(new DataSetUrnComparator());
 
   public CoalesceJobsEmitter(Config datahubConf) {
     super(datahubConf);
@@ -49,7 +50,8 @@ public class CoalesceJobsEmitter extends McpEmitter {
       emit(this.appStartEvent.asMetadataEvents());
     } else if (evt instanceof SQLQueryExecStartEvent) {
       SQLQueryExecStartEvent sqlQueryExecStartEvent = (SQLQueryExecStartEvent) evt;
-      sqlQueryExecStartEvents.add(sqlQueryExecStartEvent);
+      inputDatasets.addAll(sqlQueryExecStartEvent.getInputDatasets());
+      outputDatasets.addAll(sqlQueryExecStartEvent.getOuputDatasets());
       log.debug("SQLQueryExecStartEvent received for processing. for app: " + sqlQueryExecStartEvent.getAppId() + ":"
           + sqlQueryExecStartEvent.getAppName() + "sqlID: " + sqlQueryExecStartEvent.getSqlQueryExecId());
     } else if (evt instanceof AppEndEvent) {
@@ -69,10 +71,6 @@ public class CoalesceJobsEmitter extends McpEmitter {
 
     DataJobUrn jobUrn = new DataJobUrn(appStartEvent.getFlowUrn(), appStartEvent.getAppName());
 
-    Set<DatasetUrn> inSet = new TreeSet<DatasetUrn>(new DataSetUrnComparator());
-    sqlQueryExecStartEvents.forEach(x -> inSet.addAll(x.getInputDatasets()));
-    Set<DatasetUrn> outSet = new TreeSet<DatasetUrn>(new DataSetUrnComparator());
-    sqlQueryExecStartEvents.forEach(x -> outSet.addAll(x.getOuputDatasets()));
     DataJobUrnArray upStreamjobs = new DataJobUrnArray();
     try {
       if (parentJobUrn != null) {
@@ -85,8 +83,8 @@ public class CoalesceJobsEmitter extends McpEmitter {
       log.warn(PARENT_JOB_KEY + " is not a valid Datajob URN. Skipping setting up upstream job.");
     }
 
-    DataJobInputOutput jobio = new DataJobInputOutput().setInputDatasets(new DatasetUrnArray(inSet))
-        .setOutputDatasets(new DatasetUrnArray(outSet)).setInputDatajobs(upStreamjobs);
+    DataJobInputOutput jobio = new DataJobInputOutput().setInputDatasets(new DatasetUrnArray(inputDatasets))
+        .setOutputDatasets(new DatasetUrnArray(outputDatasets)).setInputDatajobs(upStreamjobs);
 
     MetadataChangeProposalWrapper<?> mcpJobIO = MetadataChangeProposalWrapper
         .create(b -> b.entityType("dataJob").entityUrn(jobUrn).upsert().aspect(jobio));
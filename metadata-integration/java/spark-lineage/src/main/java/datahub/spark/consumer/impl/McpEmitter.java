@@ -1,17 +1,18 @@
 package datahub.spark.consumer.impl;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 import com.typesafe.config.Config;
 
 import datahub.client.Emitter;
 import datahub.client.rest.RestEmitter;
 import datahub.client.rest.RestEmitterConfig;
+import datahub.event.EventFormatter;
 import datahub.event.MetadataChangeProposalWrapper;
 import datahub.spark.model.LineageConsumer;
 import datahub.spark.model.LineageEvent;
@@ -23,10 +24,22 @@ public class McpEmitter implements LineageConsumer {
 
   private String emitterType;
   private Optional<RestEmitterConfig> restEmitterConfig;
+  private final Optional<AsyncEmitQueue> emitQueue;
+  private final long closeTimeoutMs;
+  private final EventFormatter eventFormatter = new EventFormatter();
   private static final String TRANSPORT_KEY = "transport";
   private static final String GMS_URL_KEY = "rest.server";
   private static final String GMS_AUTH_TOKEN = "rest.token";
   private static final String DISABLE_SSL_VERIFICATION_KEY = "rest.disable_ssl_verification";
+  private static final String QUEUE_SIZE_KEY = "emitter.queue_size";
+  private static final String BATCH_SIZE_KEY = "emitter.batch_size";
+  private static final String ENQUEUE_TIMEOUT_KEY = "emitter.enqueue_timeout_ms";
+  private static final String REQUEST_TIMEOUT_KEY = "emitter.request_timeout_sec";
+  private static final String CLOSE_TIMEOUT_KEY = "emitter.close_timeout_sec";
+  private static final String OVERFLOW_POLICY_KEY = "emitter.overflow_policy";
+  private static final String SPILL_DIR_KEY = "emitter.spill_dir";
+  private static final String SPILL_FILE_KEY = "emitter.spill_file";
+
   private Optional<Emitter> getEmitter() {
     Optional<Emitter> emitter = Optional.empty();
     switch (emitterType) {
@@ -44,30 +57,20 @@ public class McpEmitter implements LineageConsumer {
     return emitter;
   }
 
+  /**
+   * Queues the proposals for delivery by the background thread of the emitter, never blocking for longer than the
+   * enqueue timeout.
+   */
   protected void emit(List<MetadataChangeProposalWrapper> mcpws) {
-    Optional<Emitter> emitter = getEmitter();
-    if (emitter.isPresent()) {
-      mcpws.stream().map(mcpw -> {
+    if (emitQueue.isPresent()) {
+      mcpws.forEach(mcpw -> {
         try {
           log.debug("emitting mcpw: " + mcpw);
-          return emitter.get().emit(mcpw);
+          emitQueue.get().enqueue(eventFormatter.convert(mcpw));
         } catch (IOException ioException) {
           log.error("Failed to emit metadata to DataHub", ioException);
-          return null;
-        }
-      }).filter(Objects::nonNull).collect(Collectors.toList()).forEach(future -> {
-        try {
-          log.info(future.get().toString());
-        } catch (InterruptedException | ExecutionException e) {
-          // log error, but don't impact thread
-          log.error("Failed to emit metadata to DataHub", e);
         }
       });
-      try {
-        emitter.get().close();
-      } catch (IOException e) {
-        log.error("Issue while closing emitter" + e);
-      }
     }
   }
 
@@ -97,6 +100,23 @@ public class McpEmitter implements LineageConsumer {
           log.error("DataHub Transport {} not recognized. DataHub Lineage emission will not work", emitterType);
           break;
       }
+
+      // One emitter, and with it one http client, for the lifetime of the application
+      emitQueue = getEmitter().map(emitter -> new AsyncEmitQueue(emitter,
+          getInt(datahubConf, QUEUE_SIZE_KEY, 10000),
+          getInt(datahubConf, BATCH_SIZE_KEY, 100),
+          getInt(datahubConf, ENQUEUE_TIMEOUT_KEY, 100),
+          TimeUnit.SECONDS.toMillis(getInt(datahubConf, REQUEST_TIMEOUT_KEY, 30)),
+          AsyncEmitQueue.OverflowPolicy.valueOf((datahubConf.hasPath(OVERFLOW_POLICY_KEY)
+              ? datahubConf.getString(OVERFLOW_POLICY_KEY) : "drop").toUpperCase(Locale.ROOT)),
+          Paths.get(datahubConf.hasPath(SPILL_DIR_KEY) ? datahubConf.getString(SPILL_DIR_KEY)
+              : System.getProperty("java.io.tmpdir"), datahubConf.hasPath(SPILL_FILE_KEY)
+              ? datahubConf.getString(SPILL_FILE_KEY) : "datahub-lineage.spill")));
+      closeTimeoutMs = TimeUnit.SECONDS.toMillis(getInt(datahubConf, CLOSE_TIMEOUT_KEY, 30));
+  }
+
+  private static int getInt(Config datahubConf, String key, int defaultValue) {
+    return datahubConf.hasPath(key) ? datahubConf.getInt(key) : defaultValue;
   }
 
   @Override
@@ -104,10 +124,14 @@ public class McpEmitter implements LineageConsumer {
     emit(evt.asMetadataEvents());
   }
 
+  /**
+   * Delivers the proposals still queued, waiting up to the close timeout, and closes the emitter.
+   */
   @Override
   public void close() throws IOException {
-    // Nothing to close at this point
-    
+    if (emitQueue.isPresent()) {
+      emitQueue.get().close(closeTimeoutMs);
+    }
   }
 
  
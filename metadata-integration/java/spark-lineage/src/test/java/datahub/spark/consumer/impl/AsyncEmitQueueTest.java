@@ -0,0 +1,204 @@
+package datahub.spark.consumer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.JacksonDataTemplateCodec;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.mxe.MetadataChangeProposal;
+
+import datahub.client.Emitter;
+import datahub.client.MetadataWriteResponse;
+
+public class AsyncEmitQueueTest {
+
+  private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+  private final List<String> emitted = Collections.synchronizedList(new ArrayList<>());
+  private final CountDownLatch firstEmit = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private Path spillDir;
+  private Path spillFile;
+
+  @Before
+  public void setup() throws IOException {
+    spillDir = Files.createTempDirectory("datahub-lineage-test");
+    spillFile = spillDir.resolve("lineage.spill");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    release.countDown();
+    for (Path file : Files.newDirectoryStream(spillDir)) {
+      Files.delete(file);
+    }
+    Files.delete(spillDir);
+  }
+
+  @Test
+  public void testDropsWhenQueueIsFull() throws Exception {
+    AsyncEmitQueue queue = queue(AsyncEmitQueue.OverflowPolicy.DROP);
+    fillWhileDelivering(queue, "a1", "a2", "a3", "a4");
+
+    assertEquals(2, queue.getNumDropped());
+    assertFalse(Files.exists(spillFile));
+
+    release.countDown();
+    queue.close(TIMEOUT_MS);
+    assertEquals(Arrays.asList("a1", "a2"), sorted(emitted));
+    assertEquals(0, queue.getNumFailed());
+  }
+
+  @Test
+  public void testSpillsWhenQueueIsFullAndReplaysOnceDrained() throws Exception {
+    AsyncEmitQueue queue = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    assertTrue(queue.isSpilling());
+    fillWhileDelivering(queue, "a1", "a2", "a3", "a4");
+
+    assertEquals(0, queue.getNumDropped());
+    assertEquals(2, Files.readAllLines(spillFile, StandardCharsets.UTF_8).size());
+
+    release.countDown();
+    queue.close(TIMEOUT_MS);
+    assertEquals(Arrays.asList("a1", "a2", "a3", "a4"), sorted(emitted));
+    assertFalse(Files.exists(spillFile));
+    assertFalse(Files.exists(replayFile()));
+  }
+
+  @Test
+  public void testCloseDrainsQueue() throws Exception {
+    AsyncEmitQueue queue = new AsyncEmitQueue(emitter(), 10, 2, 10, TIMEOUT_MS, AsyncEmitQueue.OverflowPolicy.DROP,
+        spillFile);
+    queue.enqueue(proposal("a1"));
+    assertTrue(firstEmit.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    for (int i = 2; i <= 6; i++) {
+      queue.enqueue(proposal("a" + i));
+    }
+
+    release.countDown();
+    queue.close(TIMEOUT_MS);
+    assertEquals(Arrays.asList("a1", "a2", "a3", "a4", "a5", "a6"), sorted(emitted));
+    assertEquals(0, queue.getNumDropped());
+  }
+
+  @Test
+  public void testProposalsLeftOnCloseAreDeliveredByNextQueue() throws Exception {
+    AsyncEmitQueue queue = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    fillWhileDelivering(queue, "a1", "a2", "a3");
+
+    // The delivery of a1 does not complete in time, the queued and spilled proposals are left in the spill file
+    queue.close(100);
+    assertEquals(2, Files.readAllLines(spillFile, StandardCharsets.UTF_8).size());
+
+    release.countDown();
+    AsyncEmitQueue next = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    next.close(TIMEOUT_MS);
+    assertTrue(emitted.containsAll(Arrays.asList("a2", "a3")));
+    assertFalse(Files.exists(spillFile));
+  }
+
+  @Test
+  public void testReplaysFilesLeftByEarlierApplication() throws Exception {
+    JacksonDataTemplateCodec codec = new JacksonDataTemplateCodec();
+    // A replay that was interrupted, and a spill file whose last line was cut short
+    Files.write(replayFile(), Collections.singletonList(codec.dataTemplateToString(proposal("a1"))),
+        StandardCharsets.UTF_8);
+    Files.write(spillFile, Arrays.asList(codec.dataTemplateToString(proposal("a2")),
+        codec.dataTemplateToString(proposal("a3")), "{\"entityType\":"), StandardCharsets.UTF_8);
+    release.countDown();
+
+    AsyncEmitQueue queue = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    queue.close(TIMEOUT_MS);
+    assertEquals(Arrays.asList("a1", "a2", "a3"), sorted(emitted));
+    assertEquals(1, queue.getNumFailed());
+    assertFalse(Files.exists(spillFile));
+    assertFalse(Files.exists(replayFile()));
+  }
+
+  @Test
+  public void testSpillFileUsedByOneQueueAtATime() throws Exception {
+    release.countDown();
+    AsyncEmitQueue queue = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    AsyncEmitQueue other = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    assertTrue(queue.isSpilling());
+    assertFalse(other.isSpilling());
+    other.close(TIMEOUT_MS);
+    queue.close(TIMEOUT_MS);
+    assertFalse(queue.isSpilling());
+
+    AsyncEmitQueue next = queue(AsyncEmitQueue.OverflowPolicy.SPILL);
+    assertTrue(next.isSpilling());
+    next.close(TIMEOUT_MS);
+  }
+
+  // Sends the first proposal, and enqueues the others while its delivery is held up
+  private void fillWhileDelivering(AsyncEmitQueue queue, String... aspectNames) throws Exception {
+    queue.enqueue(proposal(aspectNames[0]));
+    assertTrue(firstEmit.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    for (int i = 1; i < aspectNames.length; i++) {
+      queue.enqueue(proposal(aspectNames[i]));
+    }
+  }
+
+  private AsyncEmitQueue queue(AsyncEmitQueue.OverflowPolicy overflowPolicy) throws IOException {
+    return new AsyncEmitQueue(emitter(), 1, 1, 10, TIMEOUT_MS, overflowPolicy, spillFile);
+  }
+
+  // Records the proposals it delivers, holding up their delivery until released
+  private Emitter emitter() throws IOException {
+    Emitter emitter = mock(Emitter.class);
+    when(emitter.emit(any(MetadataChangeProposal.class), any())).thenAnswer(invocation -> {
+      MetadataChangeProposal mcp = invocation.getArgument(0);
+      firstEmit.countDown();
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        emitted.add(mcp.getAspectName());
+        return MetadataWriteResponse.builder().build();
+      });
+    });
+    return emitter;
+  }
+
+  private Path replayFile() {
+    return spillDir.resolve("lineage.spill.replay");
+  }
+
+  private static List<String> sorted(List<String> aspectNames) {
+    List<String> sorted = new ArrayList<>(aspectNames);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  private static MetadataChangeProposal proposal(String aspectName) {
+    return new MetadataChangeProposal()
+        .setEntityUrn(UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)"))
+        .setEntityType("dataset")
+        .setAspectName(aspectName)
+        .setChangeType(ChangeType.UPSERT);
+  }
+}
@@ -1,6 +1,8 @@
 package com.linkedin.metadata.entity;
 
 import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.entity.codec.AspectCodec;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
 import io.ebean.PagedList;
@@ -89,6 +91,18 @@ public interface AspectDao {
     @Nonnull
     PagedList<EbeanAspectV2> getPagedAspects(final RestoreIndicesArgs args);
 
+    /**
+     * Returns up to args.batchSize latest aspects ordered by (urn, aspect), starting right after the given (urn, aspect)
+     * position. Unlike {@link #getPagedAspects(RestoreIndicesArgs)} the cost of a page does not grow with its offset.
+     *
+     * @param args filters and page size, args.start is ignored
+     * @param lastUrn urn of the last row of the previous page, null to start from the beginning
+     * @param lastAspect aspect name of the last row of the previous page, null to start from the beginning
+     */
+    @Nonnull
+    List<EbeanAspectV2> getAspectsAfter(final RestoreIndicesArgs args, @Nullable final String lastUrn,
+        @Nullable final String lastAspect);
+
     int deleteUrn(@Nonnull final String urn);
 
     @Nonnull
@@ -114,6 +128,15 @@ public interface AspectDao {
 
     void setWritable(boolean canWrite);
 
+    /**
+     * Returns the codec new aspects are to be stored with. Rows written with any other codec stay readable, see
+     * {@link AspectCodecs#decode(String)}.
+     */
+    @Nonnull
+    default AspectCodec getAspectCodec() {
+        return AspectCodecs.JSON;
+    }
+
     @Nonnull
     <T> T runInTransactionWithRetry(@Nonnull final Supplier<T> block, final int maxTransactionRetry);
 }
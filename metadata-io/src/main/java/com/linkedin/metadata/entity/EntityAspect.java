@@ -1,5 +1,7 @@
 package com.linkedin.metadata.entity;
 
+import com.linkedin.data.DataMap;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -30,6 +32,7 @@ public class EntityAspect {
 
     private long version;
 
+    // As stored, in the format of whichever AspectCodec wrote the row. Only decoded when asked for.
     private String metadata;
 
     private String systemMetadata;
@@ -40,6 +43,25 @@ public class EntityAspect {
 
     private String createdFor;
 
+    /**
+     * Returns the aspect as JSON, decoding it first if it is stored in another format. Prefer
+     * {@link #getMetadataDataMap()} unless JSON is really needed.
+     */
+    public String getMetadata() {
+        return metadata == null ? null : AspectCodecs.toJson(metadata);
+    }
+
+    /**
+     * Returns the aspect as stored, without decoding it.
+     */
+    public String getEncodedMetadata() {
+        return metadata;
+    }
+
+    public DataMap getMetadataDataMap() {
+        return metadata == null ? null : AspectCodecs.decode(metadata);
+    }
+
     public EntityAspectIdentifier toAspectIdentifier() {
         return new EntityAspectIdentifier(getUrn(), getAspect(), getVersion());
     }
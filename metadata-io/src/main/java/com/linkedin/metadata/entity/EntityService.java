@@ -73,6 +73,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -149,6 +150,21 @@ public class EntityService {
     boolean didUpdate;
   }
 
+  /**
+   * A proposal that has been validated and deserialized, ready to be written within a batch transaction.
+   */
+  @Value
+  private static class PreparedProposal {
+    MetadataChangeProposal mcp;
+    Urn urn;
+    AspectSpec aspectSpec;
+    SystemMetadata systemMetadata;
+    @Nullable
+    RecordTemplate aspect;
+    @Nullable
+    Patch patch;
+  }
+
   private static final int DEFAULT_MAX_TRANSACTION_RETRY = 3;
 
   protected final AspectDao _aspectDao;
@@ -210,7 +226,7 @@ public class EntityService {
       }
 
       final RecordTemplate aspectRecord =
-          EntityUtils.toAspectRecord(urn, aspectName, aspectEntry.getMetadata(), getEntityRegistry());
+          EntityUtils.toAspectRecord(urn, aspectName, aspectEntry.getEncodedMetadata(), getEntityRegistry());
       urnToAspects.putIfAbsent(urn, new ArrayList<>());
       urnToAspects.get(urn).add(aspectRecord);
     });
@@ -225,7 +241,7 @@ public class EntityService {
     final Map<String, RecordTemplate> result = new HashMap<>();
     batchGetResults.forEach((key, aspectEntry) -> {
       final String aspectName = key.getAspect();
-      final RecordTemplate aspectRecord = EntityUtils.toAspectRecord(urn, aspectName, aspectEntry.getMetadata(), getEntityRegistry());
+      final RecordTemplate aspectRecord = EntityUtils.toAspectRecord(urn, aspectName, aspectEntry.getEncodedMetadata(), getEntityRegistry());
       result.put(aspectName, aspectRecord);
     });
     return result;
@@ -251,7 +267,7 @@ public class EntityService {
     final EntityAspectIdentifier primaryKey = new EntityAspectIdentifier(urn.toString(), aspectName, version);
     final Optional<EntityAspect> maybeAspect = Optional.ofNullable(_aspectDao.getAspect(primaryKey));
     return maybeAspect.map(
-        aspect -> EntityUtils.toAspectRecord(urn, aspectName, aspect.getMetadata(), getEntityRegistry())).orElse(null);
+        aspect -> EntityUtils.toAspectRecord(urn, aspectName, aspect.getEncodedMetadata(), getEntityRegistry())).orElse(null);
   }
 
   /**
@@ -457,7 +473,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
     final EntityAspectIdentifier primaryKey = new EntityAspectIdentifier(urn.toString(), aspectName, version);
     final Optional<EntityAspect> maybeAspect = Optional.ofNullable(_aspectDao.getAspect(primaryKey));
     RecordTemplate aspectRecord =
-        maybeAspect.map(aspect -> EntityUtils.toAspectRecord(urn, aspectName, aspect.getMetadata(), getEntityRegistry()))
+        maybeAspect.map(aspect -> EntityUtils.toAspectRecord(urn, aspectName, aspect.getEncodedMetadata(), getEntityRegistry()))
             .orElse(null);
 
     if (aspectRecord == null) {
@@ -590,39 +606,52 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
       @Nonnull final AuditStamp auditStamp,
       @Nonnull final SystemMetadata providedSystemMetadata) {
 
-    return _aspectDao.runInTransactionWithRetry(() -> {
-      final String urnStr = urn.toString();
-      final String aspectName = aspectSpec.getName();
-      EntityAspect latest = _aspectDao.getLatestAspect(urnStr, aspectName);
-      if (latest == null) {
-        //TODO: best effort mint
-        RecordTemplate defaultTemplate = _entityRegistry.getAspectTemplateEngine().getDefaultTemplate(aspectSpec.getName());
-
-        if (defaultTemplate != null) {
-          latest = new EntityAspect();
-          latest.setAspect(aspectName);
-          latest.setMetadata(EntityUtils.toJsonAspect(defaultTemplate));
-          latest.setUrn(urnStr);
-          latest.setVersion(ASPECT_LATEST_VERSION);
-          latest.setCreatedOn(new Timestamp(auditStamp.getTime()));
-          latest.setCreatedBy(auditStamp.getActor().toString());
-        } else {
-          throw new UnsupportedOperationException("Patch not supported for empty aspect for aspect name: " + aspectName);
-        }
-      }
-
-      long nextVersion = _aspectDao.getNextVersion(urnStr, aspectName);
-      try {
-        RecordTemplate currentValue = EntityUtils.toAspectRecord(urn, aspectName, latest.getMetadata(), _entityRegistry);
-        RecordTemplate updatedValue =  _entityRegistry.getAspectTemplateEngine().applyPatch(currentValue, jsonPatch, aspectSpec);
+    return _aspectDao.runInTransactionWithRetry(
+        () -> patchAspectToLocalDBNoTransaction(urn, aspectSpec, jsonPatch, auditStamp, providedSystemMetadata),
+        DEFAULT_MAX_TRANSACTION_RETRY);
+  }
 
-        validateAspect(urn, updatedValue);
-        return ingestAspectToLocalDBNoTransaction(urn, aspectName, ignored -> updatedValue, auditStamp, providedSystemMetadata,
-            latest, nextVersion);
-      } catch (JsonProcessingException | JsonPatchException e) {
-        throw new IllegalStateException(e);
+  /**
+   * Same as patchAspectToLocalDB but expects to be called from within an open transaction
+   */
+  @Nonnull
+  private UpdateAspectResult patchAspectToLocalDBNoTransaction(
+      @Nonnull final Urn urn,
+      @Nonnull final AspectSpec aspectSpec,
+      @Nonnull final Patch jsonPatch,
+      @Nonnull final AuditStamp auditStamp,
+      @Nonnull final SystemMetadata providedSystemMetadata) {
+    final String urnStr = urn.toString();
+    final String aspectName = aspectSpec.getName();
+    EntityAspect latest = _aspectDao.getLatestAspect(urnStr, aspectName);
+    if (latest == null) {
+      //TODO: best effort mint
+      RecordTemplate defaultTemplate = _entityRegistry.getAspectTemplateEngine().getDefaultTemplate(aspectSpec.getName());
+
+      if (defaultTemplate != null) {
+        latest = new EntityAspect();
+        latest.setAspect(aspectName);
+        latest.setMetadata(EntityUtils.toJsonAspect(defaultTemplate));
+        latest.setUrn(urnStr);
+        latest.setVersion(ASPECT_LATEST_VERSION);
+        latest.setCreatedOn(new Timestamp(auditStamp.getTime()));
+        latest.setCreatedBy(auditStamp.getActor().toString());
+      } else {
+        throw new UnsupportedOperationException("Patch not supported for empty aspect for aspect name: " + aspectName);
       }
-    }, DEFAULT_MAX_TRANSACTION_RETRY);
+    }
+
+    long nextVersion = _aspectDao.getNextVersion(urnStr, aspectName);
+    try {
+      RecordTemplate currentValue = EntityUtils.toAspectRecord(urn, aspectName, latest.getEncodedMetadata(), _entityRegistry);
+      RecordTemplate updatedValue =  _entityRegistry.getAspectTemplateEngine().applyPatch(currentValue, jsonPatch, aspectSpec);
+
+      validateAspect(urn, updatedValue);
+      return ingestAspectToLocalDBNoTransaction(urn, aspectName, ignored -> updatedValue, auditStamp, providedSystemMetadata,
+          latest, nextVersion);
+    } catch (JsonProcessingException | JsonPatchException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   /**
@@ -750,7 +779,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
         return ingestAspectToLocalDBNoTransaction(urn, aspectName, ignored -> newValue, auditStamp,
             internalSystemMetadata, latest, nextVersion);
       }
-      RecordTemplate oldValue = EntityUtils.toAspectRecord(urn, aspectName, latest.getMetadata(), getEntityRegistry());
+      RecordTemplate oldValue = EntityUtils.toAspectRecord(urn, aspectName, latest.getEncodedMetadata(), getEntityRegistry());
       SystemMetadata oldMetadata = EntityUtils.parseSystemMetadata(latest.getSystemMetadata());
       return new UpdateAspectResult(urn, oldValue, oldValue, oldMetadata, oldMetadata, MetadataAuditOperation.UPDATE, auditStamp,
           latest.getVersion());
@@ -896,6 +925,129 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
     return new IngestProposalResult(entityUrn, didUpdate);
   }
 
+  /**
+   * Ingest a batch of {@link MetadataChangeProposal}s. Behaves like {@link #ingestProposal} applied to each proposal in
+   * order, except that every proposal bound for the primary store is written within a single transaction, and change
+   * logs are produced only once that transaction has committed. Every proposal is validated before anything is written,
+   * so a single invalid proposal fails the whole batch.
+   *
+   * Any failure before the transaction has committed is thrown as a {@link ProposalsNotCommittedException}, telling
+   * callers that none of the proposals were written and that they can be retried. Failures after the commit, while
+   * producing change logs, are thrown as is.
+   *
+   * @param mcps the proposals to ingest
+   * @param auditStamp an audit stamp representing the time and actor proposing the changes
+   * @param async a flag to control whether we commit to primary store or just write to proposal log before returning
+   * @return a list of {@link IngestProposalResult}, in the same order as the provided proposals
+   */
+  public List<IngestProposalResult> ingestProposals(@Nonnull List<MetadataChangeProposal> mcps,
+      AuditStamp auditStamp, final boolean async) {
+
+    final List<PreparedProposal> proposals;
+    List<UpdateAspectResult> writeResults = Collections.emptyList();
+    try {
+      proposals = mcps.stream()
+          .map(mcp -> prepareProposal(mcp, async))
+          .collect(Collectors.toList());
+
+      final List<PreparedProposal> toWrite = proposals.stream()
+          .filter(proposal -> !async && !proposal.getAspectSpec().isTimeseries())
+          .collect(Collectors.toList());
+
+      if (!toWrite.isEmpty()) {
+        Timer.Context ingestToLocalDBTimer = MetricUtils.timer(this.getClass(), "ingestProposalsToLocalDB").time();
+        writeResults = _aspectDao.runInTransactionWithRetry(() -> toWrite.stream()
+            .map(proposal -> ingestProposalToLocalDBNoTransaction(proposal, auditStamp))
+            .collect(Collectors.toList()), DEFAULT_MAX_TRANSACTION_RETRY);
+        ingestToLocalDBTimer.stop();
+        MetricUtils.counter(this.getClass(), "ingestProposalsToLocalDBCount").inc(toWrite.size());
+      }
+    } catch (RuntimeException e) {
+      throw new ProposalsNotCommittedException(e);
+    }
+
+    final List<IngestProposalResult> results = new ArrayList<>(proposals.size());
+    final Iterator<UpdateAspectResult> writeResultIterator = writeResults.iterator();
+    for (PreparedProposal proposal : proposals) {
+      final MetadataChangeProposal mcp = proposal.getMcp();
+      final AspectSpec aspectSpec = proposal.getAspectSpec();
+      if (aspectSpec.isTimeseries()) {
+        boolean didUpdate = emitChangeLog(null, null, proposal.getAspect(), mcp.getSystemMetadata(), mcp,
+            proposal.getUrn(), auditStamp, aspectSpec);
+        results.add(new IngestProposalResult(proposal.getUrn(), didUpdate));
+      } else if (async) {
+        // When async is turned on, we write to proposal log and return without waiting
+        _producer.produceMetadataChangeProposal(mcp);
+        results.add(new IngestProposalResult(mcp.getEntityUrn(), false));
+      } else {
+        final UpdateAspectResult result = writeResultIterator.next();
+        // Apply retention policies asynchronously if there was an update to existing aspect value
+        if (result.getOldValue() != result.getNewValue() && result.getOldValue() != null && _retentionService != null) {
+          _retentionService.applyRetention(proposal.getUrn(), aspectSpec.getName(),
+              Optional.of(new RetentionService.RetentionContext(Optional.of(result.maxVersion))));
+        }
+        boolean didUpdate = emitChangeLog(result.getOldValue(), result.getOldSystemMetadata(), result.getNewValue(),
+            result.getNewSystemMetadata(), mcp, proposal.getUrn(), auditStamp, aspectSpec);
+        results.add(new IngestProposalResult(proposal.getUrn(), didUpdate));
+      }
+    }
+    return results;
+  }
+
+  private PreparedProposal prepareProposal(@Nonnull MetadataChangeProposal mcp, final boolean async) {
+    EntitySpec entitySpec = getEntityRegistry().getEntitySpec(mcp.getEntityType());
+    Urn entityUrn = EntityKeyUtils.getUrnFromProposal(mcp, entitySpec.getKeyAspectSpec());
+    AspectSpec aspectSpec = validateAspect(mcp, entitySpec);
+
+    if (!isValidChangeType(mcp.getChangeType(), aspectSpec)) {
+      throw new UnsupportedOperationException("ChangeType not supported: " + mcp.getChangeType() + " for aspect " + mcp.getAspectName());
+    }
+
+    SystemMetadata systemMetadata = generateSystemMetadataIfEmpty(mcp.getSystemMetadata());
+    systemMetadata.setRegistryName(aspectSpec.getRegistryName());
+    systemMetadata.setRegistryVersion(aspectSpec.getRegistryVersion().toString());
+
+    if (async && !aspectSpec.isTimeseries()) {
+      // Deserialization and validation happen when the proposal is consumed from the proposal log
+      return new PreparedProposal(mcp, entityUrn, aspectSpec, systemMetadata, null, null);
+    }
+
+    switch (mcp.getChangeType()) {
+      case UPSERT:
+        RecordTemplate aspect = convertToRecordTemplate(mcp, aspectSpec);
+        if (!aspectSpec.isTimeseries()) {
+          validateUrn(entityUrn);
+          validateAspect(entityUrn, aspect);
+        }
+        return new PreparedProposal(mcp, entityUrn, aspectSpec, systemMetadata, aspect, null);
+      case PATCH:
+        if (!supportsPatch(aspectSpec)) {
+          throw new UnsupportedOperationException("Aspect: " + aspectSpec.getName() + " does not currently support patch "
+              + "operations.");
+        }
+        return new PreparedProposal(mcp, entityUrn, aspectSpec, systemMetadata, null, convertToJsonPatch(mcp));
+      default:
+        // Should never reach since we throw error above
+        throw new UnsupportedOperationException("ChangeType not supported: " + mcp.getChangeType());
+    }
+  }
+
+  private UpdateAspectResult ingestProposalToLocalDBNoTransaction(@Nonnull PreparedProposal proposal,
+      @Nonnull AuditStamp auditStamp) {
+    final Urn urn = proposal.getUrn();
+    final String aspectName = proposal.getAspectSpec().getName();
+    if (proposal.getPatch() != null) {
+      return patchAspectToLocalDBNoTransaction(urn, proposal.getAspectSpec(), proposal.getPatch(), auditStamp,
+          proposal.getSystemMetadata());
+    }
+    final RecordTemplate aspect = proposal.getAspect();
+    final String urnStr = urn.toString();
+    final EntityAspect latest = _aspectDao.getLatestAspect(urnStr, aspectName);
+    final long nextVersion = _aspectDao.getNextVersion(urnStr, aspectName);
+    return ingestAspectToLocalDBNoTransaction(urn, aspectName, ignored -> aspect, auditStamp,
+        proposal.getSystemMetadata(), latest, nextVersion);
+  }
+
   private AspectSpec validateAspect(MetadataChangeProposal mcp, EntitySpec entitySpec) {
     if (!mcp.hasAspectName() || !mcp.hasAspect()) {
       throw new UnsupportedOperationException("Aspect and aspect name is required for create and update operations");
@@ -1147,6 +1299,55 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
     return result;
   }
 
+  /**
+   * Builds the RESTATE {@link MetadataChangeLog} that {@link #restoreIndices} would emit for a latest aspect row,
+   * without producing it. Used by callers that apply the change log to the indices themselves.
+   *
+   * @return the change log, or null if the row does not map to a known entity and aspect and should be ignored
+   */
+  @Nullable
+  public MetadataChangeLog buildRestateMetadataChangeLog(@Nonnull EbeanAspectV2 aspect, @Nonnull Consumer<String> logger) {
+    final Urn urn;
+    try {
+      urn = Urn.createFromString(aspect.getKey().getUrn());
+    } catch (Exception e) {
+      logger.accept(String.format("Failed to bind Urn with value %s into Urn object: %s. Ignoring row.",
+          aspect.getKey().getUrn(), e));
+      return null;
+    }
+
+    final String entityName = urn.getEntityType();
+    final EntitySpec entitySpec;
+    try {
+      entitySpec = _entityRegistry.getEntitySpec(entityName);
+    } catch (Exception e) {
+      logger.accept(String.format("Failed to find entity with name %s in Entity Registry: %s. Ignoring row.",
+          entityName, e));
+      return null;
+    }
+
+    final String aspectName = aspect.getKey().getAspect();
+    if (entitySpec.getAspectSpec(aspectName) == null) {
+      logger.accept(String.format("Failed to find aspect with name %s associated with entity named %s", aspectName,
+          entityName));
+      return null;
+    }
+
+    final RecordTemplate aspectRecord;
+    try {
+      aspectRecord = EntityUtils.toAspectRecord(entityName, aspectName, aspect.getMetadata(), _entityRegistry);
+    } catch (Exception e) {
+      logger.accept(String.format("Failed to deserialize row %s for entity %s, aspect %s: %s. Ignoring row.",
+          aspect.getMetadata(), entityName, aspectName, e));
+      return null;
+    }
+
+    return buildMetadataChangeLog(urn, entityName, aspectName, null, aspectRecord, null,
+        EntityUtils.parseSystemMetadata(aspect.getSystemMetadata()),
+        new AuditStamp().setActor(UrnUtils.getUrn(SYSTEM_ACTOR)).setTime(System.currentTimeMillis()),
+        ChangeType.RESTATE);
+  }
+
   /**
    * Updates a particular version of an aspect & optionally emits a {@link com.linkedin.mxe.MetadataAuditEvent}.
    *
@@ -1288,6 +1489,16 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
       @Nonnull final AspectSpec aspectSpec, @Nullable final RecordTemplate oldAspectValue,
       @Nullable final RecordTemplate newAspectValue, @Nullable final SystemMetadata oldSystemMetadata,
       @Nullable final SystemMetadata newSystemMetadata, @Nonnull AuditStamp auditStamp, @Nonnull final ChangeType changeType) {
+    final MetadataChangeLog metadataChangeLog = buildMetadataChangeLog(urn, entityName, aspectName, oldAspectValue,
+        newAspectValue, oldSystemMetadata, newSystemMetadata, auditStamp, changeType);
+    produceMetadataChangeLog(urn, aspectSpec, metadataChangeLog);
+  }
+
+  @Nonnull
+  private MetadataChangeLog buildMetadataChangeLog(@Nonnull final Urn urn, @Nonnull String entityName,
+      @Nonnull String aspectName, @Nullable final RecordTemplate oldAspectValue,
+      @Nullable final RecordTemplate newAspectValue, @Nullable final SystemMetadata oldSystemMetadata,
+      @Nullable final SystemMetadata newSystemMetadata, @Nonnull AuditStamp auditStamp, @Nonnull final ChangeType changeType) {
     final MetadataChangeLog metadataChangeLog = new MetadataChangeLog();
     metadataChangeLog.setEntityType(entityName);
     metadataChangeLog.setEntityUrn(urn);
@@ -1306,7 +1517,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
     if (oldSystemMetadata != null) {
       metadataChangeLog.setPreviousSystemMetadata(oldSystemMetadata);
     }
-    produceMetadataChangeLog(urn, aspectSpec, metadataChangeLog);
+    return metadataChangeLog;
   }
 
   public RecordTemplate getLatestAspect(@Nonnull final Urn urn, @Nonnull final String aspectName) {
@@ -1655,7 +1866,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
       if (!filterMatch(latestSystemMetadata, conditions)) {
         return null;
       }
-      String latestMetadata = latest.getMetadata();
+      String latestMetadata = latest.getEncodedMetadata();
 
       // 3. Check if this is a key aspect
       Boolean isKeyAspect = false;
@@ -1680,7 +1891,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
           maxVersion = maxVersion - 1;
         } else {
           survivingAspect = candidateAspect;
-          previousMetadata = survivingAspect.getMetadata();
+          previousMetadata = survivingAspect.getEncodedMetadata();
         }
       }
 
@@ -1692,7 +1903,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
         // if there was a surviving aspect, copy its information into the latest row
         // eBean does not like us updating a pkey column (version) for the surviving aspect
         // as a result we copy information from survivingAspect to latest and delete survivingAspect
-        latest.setMetadata(survivingAspect.getMetadata());
+        latest.setMetadata(survivingAspect.getEncodedMetadata());
         latest.setSystemMetadata(survivingAspect.getSystemMetadata());
         latest.setCreatedOn(survivingAspect.getCreatedOn());
         latest.setCreatedBy(survivingAspect.getCreatedBy());
@@ -1829,7 +2040,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
 
       // Aspect found. Now turn it into an EnvelopedAspect
       final com.linkedin.entity.Aspect aspect = RecordUtils.toRecordTemplate(com.linkedin.entity.Aspect.class, currAspectEntry
-          .getMetadata());
+          .getMetadataDataMap());
       final EnvelopedAspect envelopedAspect = new EnvelopedAspect();
       envelopedAspect.setName(currAspectEntry.getAspect());
       envelopedAspect.setVersion(currAspectEntry.getVersion());
@@ -1888,7 +2099,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
 
     // 2. Compare the latest existing and new.
     final RecordTemplate oldValue =
-        latest == null ? null : EntityUtils.toAspectRecord(urn, aspectName, latest.getMetadata(), getEntityRegistry());
+        latest == null ? null : EntityUtils.toAspectRecord(urn, aspectName, latest.getEncodedMetadata(), getEntityRegistry());
     final RecordTemplate newValue = updateLambda.apply(Optional.ofNullable(oldValue));
 
     // 3. If there is no difference between existing and new, we just update
@@ -1908,10 +2119,10 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
 
     // 4. Save the newValue as the latest version
     log.debug("Ingesting aspect with name {}, urn {}", aspectName, urn);
-    long versionOfOld = _aspectDao.saveLatestAspect(urn.toString(), aspectName, latest == null ? null : EntityUtils.toJsonAspect(oldValue),
+    long versionOfOld = _aspectDao.saveLatestAspect(urn.toString(), aspectName, latest == null ? null : encodeAspect(oldValue),
         latest == null ? null : latest.getCreatedBy(), latest == null ? null : latest.getCreatedFor(),
         latest == null ? null : latest.getCreatedOn(), latest == null ? null : latest.getSystemMetadata(),
-        EntityUtils.toJsonAspect(newValue), auditStamp.getActor().toString(),
+        encodeAspect(newValue), auditStamp.getActor().toString(),
         auditStamp.hasImpersonator() ? auditStamp.getImpersonator().toString() : null,
         new Timestamp(auditStamp.getTime()), EntityUtils.toJsonAspect(providedSystemMetadata), nextVersion);
 
@@ -1920,6 +2131,11 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
         MetadataAuditOperation.UPDATE, auditStamp, versionOfOld);
   }
 
+  @Nonnull
+  private String encodeAspect(@Nonnull final RecordTemplate aspect) {
+    return _aspectDao.getAspectCodec().encode(aspect.data());
+  }
+
   @Nonnull
   private Map<String, EntityAspect> getLatestAspectForUrn(@Nonnull final Urn urn, @Nonnull final Set<String> aspectNames) {
     Set<Urn> urns = new HashSet<>();
@@ -1949,7 +2165,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
 
       final EntityAspect oldAspect = _aspectDao.getAspect(urn.toString(), aspectName, version);
       final RecordTemplate oldValue =
-          oldAspect == null ? null : EntityUtils.toAspectRecord(urn, aspectName, oldAspect.getMetadata(), getEntityRegistry());
+          oldAspect == null ? null : EntityUtils.toAspectRecord(urn, aspectName, oldAspect.getEncodedMetadata(), getEntityRegistry());
 
       SystemMetadata oldSystemMetadata =
           oldAspect == null ? new SystemMetadata() : EntityUtils.parseSystemMetadata(oldAspect.getSystemMetadata());
@@ -1959,7 +2175,7 @@ private Map<Urn, List<EnvelopedAspect>> getCorrespondingAspects(Set<EntityAspect
       newSystemMetadata.setLastObserved(System.currentTimeMillis());
 
       log.debug("Updating aspect with name {}, urn {}", aspectName, urn);
-      _aspectDao.saveAspect(urn.toString(), aspectName, EntityUtils.toJsonAspect(value), auditStamp.getActor().toString(),
+      _aspectDao.saveAspect(urn.toString(), aspectName, encodeAspect(value), auditStamp.getActor().toString(),
           auditStamp.hasImpersonator() ? auditStamp.getImpersonator().toString() : null,
           new Timestamp(auditStamp.getTime()), EntityUtils.toJsonAspect(newSystemMetadata), version, oldAspect == null);
 
@@ -7,6 +7,7 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.entity.EnvelopedAspect;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.validation.RecordTemplateValidator;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
@@ -34,29 +35,30 @@ public class EntityUtils {
   public static RecordTemplate toAspectRecord(
       @Nonnull final Urn entityUrn,
       @Nonnull final String aspectName,
-      @Nonnull final String jsonAspect,
+      @Nonnull final String storedAspect,
       @Nonnull final EntityRegistry entityRegistry) {
-    return toAspectRecord(PegasusUtils.urnToEntityName(entityUrn), aspectName, jsonAspect, entityRegistry);
+    return toAspectRecord(PegasusUtils.urnToEntityName(entityUrn), aspectName, storedAspect, entityRegistry);
   }
 
   /**
    * @param entityName
    * @param aspectName
-   * @param jsonAspect
+   * @param storedAspect the aspect as stored, JSON or encoded by any aspect codec
    * @param entityRegistry
    * @return a RecordTemplate which has been validated, validation errors are logged as warnings
    */
   public static RecordTemplate toAspectRecord(
       @Nonnull final String entityName,
       @Nonnull final String aspectName,
-      @Nonnull final String jsonAspect,
+      @Nonnull final String storedAspect,
       @Nonnull final EntityRegistry entityRegistry) {
     final EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
     final AspectSpec aspectSpec = entitySpec.getAspectSpec(aspectName);
     //TODO: aspectSpec can be null here
     Preconditions.checkState(aspectSpec != null, String.format("Aspect %s could not be found", aspectName));
     final RecordDataSchema aspectSchema = aspectSpec.getPegasusSchema();
-    RecordTemplate aspectRecord = RecordUtils.toRecordTemplate(aspectSpec.getDataTemplateClass(), jsonAspect);
+    RecordTemplate aspectRecord =
+        RecordUtils.toRecordTemplate(aspectSpec.getDataTemplateClass(), AspectCodecs.decode(storedAspect));
     RecordTemplateValidator.validate(aspectRecord, validationFailure -> {
       log.warn(String.format("Failed to validate record %s against its schema.", aspectRecord));
     });
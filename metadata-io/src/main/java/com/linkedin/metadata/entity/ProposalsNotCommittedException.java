@@ -0,0 +1,11 @@
+package com.linkedin.metadata.entity;
+
+/**
+ * Exception thrown when a batch of proposals failed before anything was committed to the primary store, so the batch
+ * can be retried without producing duplicate writes or change logs.
+ */
+public class ProposalsNotCommittedException extends RuntimeException {
+  public ProposalsNotCommittedException(final Throwable cause) {
+    super(cause.getMessage(), cause);
+  }
+}
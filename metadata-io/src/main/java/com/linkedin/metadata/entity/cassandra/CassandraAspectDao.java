@@ -4,8 +4,11 @@ import com.datahub.util.exception.ModelConversionException;
 import com.datahub.util.exception.RetryLimitReached;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
@@ -26,6 +29,8 @@ import com.linkedin.metadata.entity.AspectMigrationsDao;
 import com.linkedin.metadata.entity.EntityAspect;
 import com.linkedin.metadata.entity.EntityAspectIdentifier;
 import com.linkedin.metadata.entity.ListResult;
+import com.linkedin.metadata.entity.codec.AspectCodec;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
 import com.linkedin.metadata.query.ExtraInfo;
@@ -33,11 +38,17 @@ import com.linkedin.metadata.query.ExtraInfoArray;
 import com.linkedin.metadata.query.ListResultMetadata;
 import java.net.URISyntaxException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -52,12 +63,30 @@ import static com.linkedin.metadata.Constants.*;
 @Slf4j
 public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
 
+  // Number of concurrent requests used by batch reads when none is configured
+  private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 32;
+
   private final CqlSession _cqlSession;
   private boolean _canWrite = true;
   private boolean _connectionValidated = false;
 
+  // Codec new aspects are stored with, rows written with other codecs are still read
+  private AspectCodec _aspectCodec = AspectCodecs.JSON;
+
+  // Bounds the number of in-flight async requests issued by batch reads
+  private final Semaphore _concurrentRequests;
+
+  // Prepared lazily, since the table may not exist yet when the dao is created
+  private volatile PreparedStatement _batchGetStatement;
+  private volatile PreparedStatement _maxVersionsStatement;
+
   public CassandraAspectDao(@Nonnull final CqlSession cqlSession) {
+    this(cqlSession, DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  public CassandraAspectDao(@Nonnull final CqlSession cqlSession, final int maxConcurrentRequests) {
     _cqlSession = cqlSession;
+    _concurrentRequests = new Semaphore(Math.max(1, maxConcurrentRequests));
   }
 
   public void setConnectionValidated(boolean validated) {
@@ -121,18 +150,8 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
   }
 
   private Map<String, Long> getMaxVersions(@Nonnull final String urn, @Nonnull final Set<String> aspectNames) {
-    SimpleStatement ss = selectFrom(CassandraAspect.TABLE_NAME)
-        .selectors(
-            Selector.column(CassandraAspect.URN_COLUMN),
-            Selector.column(CassandraAspect.ASPECT_COLUMN),
-            Selector.function("max", Selector.column(CassandraAspect.VERSION_COLUMN)).as(CassandraAspect.VERSION_COLUMN))
-        .whereColumn(CassandraAspect.URN_COLUMN).isEqualTo(literal(urn))
-        .whereColumn(CassandraAspect.ASPECT_COLUMN).in(aspectNamesToLiterals(aspectNames))
-        .groupBy(ImmutableList.of(Selector.column(CassandraAspect.URN_COLUMN), Selector.column(CassandraAspect.ASPECT_COLUMN)))
-        .build();
-
-    ResultSet rs = _cqlSession.execute(ss);
-    Map<String, Long> aspectVersions = rs.all().stream()
+    final BoundStatement statement = getMaxVersionsStatement().bind(urn, new ArrayList<>(aspectNames));
+    final Map<String, Long> aspectVersions = join(executeAsync(statement)).stream()
         .collect(Collectors.toMap(
             row -> row.getString(CassandraAspect.ASPECT_COLUMN),
             row -> row.getLong(CassandraAspect.VERSION_COLUMN)));
@@ -143,7 +162,6 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
         aspectVersions.put(aspect, -1L);
       }
     }
-
     return aspectVersions;
   }
 
@@ -154,16 +172,113 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
     _cqlSession.execute(statement);
   }
 
-  // TODO: can further improve by running the sub queries in parallel
-  // TODO: look into supporting pagination
+  /**
+   * Fetches all keys with one request per urn (partition), selecting the requested aspects and versions of that urn.
+   * Requests are sent asynchronously, with at most a bounded number in flight at the same time.
+   */
   @Override
   @Nonnull
   public Map<EntityAspectIdentifier, EntityAspect> batchGet(@Nonnull final Set<EntityAspectIdentifier> keys) {
     validateConnection();
-    return keys.stream()
-        .map(this::getAspect)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toMap(EntityAspect::toAspectIdentifier, aspect -> aspect));
+    if (keys.isEmpty()) {
+      return new HashMap<>();
+    }
+
+    final Map<String, List<EntityAspectIdentifier>> keysByUrn = keys.stream()
+        .collect(Collectors.groupingBy(EntityAspectIdentifier::getUrn));
+
+    final PreparedStatement statement = getBatchGetStatement();
+    final List<CompletableFuture<List<Row>>> futures = new ArrayList<>(keysByUrn.size());
+    keysByUrn.forEach((urn, urnKeys) -> {
+      final Set<String> aspects = new HashSet<>();
+      final Set<Long> versions = new HashSet<>();
+      urnKeys.forEach(key -> {
+        aspects.add(key.getAspect());
+        versions.add(key.getVersion());
+      });
+      futures.add(executeAsync(statement.bind(urn, new ArrayList<>(aspects), new ArrayList<>(versions))));
+    });
+
+    // The IN clauses select the cross product of aspects and versions, so keep only the keys that were asked for
+    final Map<EntityAspectIdentifier, EntityAspect> result = new HashMap<>();
+    for (CompletableFuture<List<Row>> future : futures) {
+      for (Row row : join(future)) {
+        final EntityAspect aspect = CassandraAspect.rowToEntityAspect(row);
+        final EntityAspectIdentifier key = aspect.toAspectIdentifier();
+        if (keys.contains(key)) {
+          result.put(key, aspect);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  private PreparedStatement getBatchGetStatement() {
+    if (_batchGetStatement == null) {
+      _batchGetStatement = _cqlSession.prepare(selectFrom(CassandraAspect.TABLE_NAME)
+          .all()
+          .whereColumn(CassandraAspect.URN_COLUMN).isEqualTo(bindMarker())
+          .whereColumn(CassandraAspect.ASPECT_COLUMN).in(bindMarker())
+          .whereColumn(CassandraAspect.VERSION_COLUMN).in(bindMarker())
+          .build());
+    }
+    return _batchGetStatement;
+  }
+
+  @Nonnull
+  private PreparedStatement getMaxVersionsStatement() {
+    if (_maxVersionsStatement == null) {
+      _maxVersionsStatement = _cqlSession.prepare(selectFrom(CassandraAspect.TABLE_NAME)
+          .selectors(
+              Selector.column(CassandraAspect.URN_COLUMN),
+              Selector.column(CassandraAspect.ASPECT_COLUMN),
+              Selector.function("max", Selector.column(CassandraAspect.VERSION_COLUMN)).as(CassandraAspect.VERSION_COLUMN))
+          .whereColumn(CassandraAspect.URN_COLUMN).isEqualTo(bindMarker())
+          .whereColumn(CassandraAspect.ASPECT_COLUMN).in(bindMarker())
+          .groupBy(ImmutableList.of(Selector.column(CassandraAspect.URN_COLUMN), Selector.column(CassandraAspect.ASPECT_COLUMN)))
+          .build());
+    }
+    return _maxVersionsStatement;
+  }
+
+  /**
+   * Executes the statement asynchronously once a request slot is free, and collects every page of its result.
+   */
+  @Nonnull
+  private CompletableFuture<List<Row>> executeAsync(@Nonnull final BoundStatement statement) {
+    try {
+      _concurrentRequests.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting to send a Cassandra request", e);
+    }
+    final List<Row> rows = new ArrayList<>();
+    return collectRows(_cqlSession.executeAsync(statement), rows)
+        .whenComplete((result, throwable) -> _concurrentRequests.release())
+        .toCompletableFuture();
+  }
+
+  private CompletionStage<List<Row>> collectRows(@Nonnull final CompletionStage<AsyncResultSet> stage,
+      @Nonnull final List<Row> rows) {
+    return stage.thenCompose(resultSet -> {
+      resultSet.currentPage().forEach(rows::add);
+      if (resultSet.hasMorePages()) {
+        return collectRows(resultSet.fetchNextPage(), rows);
+      }
+      return CompletableFuture.completedFuture(rows);
+    });
+  }
+
+  private static List<Row> join(@Nonnull final CompletableFuture<List<Row>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof DriverException) {
+        throw (DriverException) e.getCause();
+      }
+      throw e;
+    }
   }
 
   @Override
@@ -430,6 +545,15 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
     return null;
   }
 
+  @Override
+  @Nonnull
+  public List<EbeanAspectV2> getAspectsAfter(final RestoreIndicesArgs args, @Nullable final String lastUrn,
+      @Nullable final String lastAspect) {
+    // Not implemented: partitions are ordered by token, not by urn. RestoreIndices checks for the Ebean backend
+    // before streaming, see CheckStreamingBackendStep
+    return Collections.emptyList();
+  }
+
 
   @Override
   @Nonnull
@@ -541,7 +665,7 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
               .value(CassandraAspect.ASPECT_COLUMN, literal(aspect.getAspect()))
               .value(CassandraAspect.VERSION_COLUMN, literal(aspect.getVersion()))
               .value(CassandraAspect.SYSTEM_METADATA_COLUMN, literal(aspect.getSystemMetadata()))
-              .value(CassandraAspect.METADATA_COLUMN, literal(aspect.getMetadata()))
+              .value(CassandraAspect.METADATA_COLUMN, literal(aspect.getEncodedMetadata()))
               .value(CassandraAspect.CREATED_ON_COLUMN, literal(aspect.getCreatedOn().getTime()))
               .value(CassandraAspect.CREATED_FOR_COLUMN, literal(aspect.getCreatedFor()))
               .value(CassandraAspect.ENTITY_COLUMN, literal(entity))
@@ -551,7 +675,7 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
     } else {
 
       UpdateWithAssignments uwa = update(CassandraAspect.TABLE_NAME)
-              .setColumn(CassandraAspect.METADATA_COLUMN, literal(aspect.getMetadata()))
+              .setColumn(CassandraAspect.METADATA_COLUMN, literal(aspect.getEncodedMetadata()))
               .setColumn(CassandraAspect.SYSTEM_METADATA_COLUMN, literal(aspect.getSystemMetadata()))
               .setColumn(CassandraAspect.CREATED_ON_COLUMN, literal(aspect.getCreatedOn().getTime()))
               .setColumn(CassandraAspect.CREATED_BY_COLUMN, literal(aspect.getCreatedBy()))
@@ -571,6 +695,24 @@ public class CassandraAspectDao implements AspectDao, AspectMigrationsDao {
     _canWrite = canWrite;
   }
 
+  /**
+   * Only JSON is supported. The ReencodeAspects upgrade, which converts stored rows between codecs, only runs against
+   * the relational store, so rows written in any other format could never be converted back.
+   */
+  public void setAspectCodec(@Nonnull AspectCodec aspectCodec) {
+    if (aspectCodec != AspectCodecs.JSON) {
+      throw new IllegalArgumentException(String.format("Aspect codec %s is not supported with Cassandra, only %s is",
+          aspectCodec.getName(), AspectCodecs.JSON.getName()));
+    }
+    _aspectCodec = aspectCodec;
+  }
+
+  @Nonnull
+  @Override
+  public AspectCodec getAspectCodec() {
+    return _aspectCodec;
+  }
+
   @Override
   public void saveAspect(
       @Nonnull final String urn,
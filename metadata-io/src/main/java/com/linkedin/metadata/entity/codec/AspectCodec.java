@@ -0,0 +1,32 @@
+package com.linkedin.metadata.entity.codec;
+
+import com.linkedin.data.DataMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Converts aspects between their {@link DataMap} and the string stored in the metadata column of the aspects table.
+ *
+ * Every format but JSON starts the stored string with a marker that JSON never starts with, so rows written with
+ * different codecs can live in the same table and each row is decoded with the codec that wrote it, see
+ * {@link AspectCodecs#decode(String)}.
+ */
+public interface AspectCodec {
+
+  /**
+   * Name of the codec, as used in configuration.
+   */
+  @Nonnull
+  String getName();
+
+  @Nonnull
+  String encode(@Nonnull DataMap dataMap);
+
+  @Nonnull
+  DataMap decode(@Nonnull String storedValue);
+
+  /**
+   * Whether the stored value was written by this codec.
+   */
+  boolean isEncoded(@Nonnull String storedValue);
+}
@@ -0,0 +1,59 @@
+package com.linkedin.metadata.entity.codec;
+
+import com.linkedin.data.DataMap;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The known {@link AspectCodec}s, and decoding of stored aspects whichever codec wrote them.
+ */
+public class AspectCodecs {
+  public static final AspectCodec JSON = new JsonAspectCodec();
+  public static final AspectCodec DEFLATE_PSON = new DeflatePsonAspectCodec();
+
+  // Codecs with a marker come first, JSON decodes anything else as it did before codecs existed
+  private static final List<AspectCodec> CODECS = Arrays.asList(DEFLATE_PSON, JSON);
+
+  private AspectCodecs() {
+  }
+
+  @Nonnull
+  public static AspectCodec forName(@Nonnull String name) {
+    return CODECS.stream()
+        .filter(codec -> codec.getName().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown aspect codec %s", name)));
+  }
+
+  /**
+   * Returns the codec the stored value was written with.
+   */
+  @Nonnull
+  public static AspectCodec getCodec(@Nonnull String storedValue) {
+    for (AspectCodec codec : CODECS) {
+      if (codec.isEncoded(storedValue)) {
+        return codec;
+      }
+    }
+    return JSON;
+  }
+
+  @Nonnull
+  public static DataMap decode(@Nonnull String storedValue) {
+    return getCodec(storedValue).decode(storedValue);
+  }
+
+  /**
+   * Returns the stored value as JSON, as is if it already is JSON.
+   */
+  @Nonnull
+  public static String toJson(@Nonnull String storedValue) {
+    final AspectCodec codec = getCodec(storedValue);
+    if (codec == JSON) {
+      return storedValue;
+    }
+    return JSON.encode(codec.decode(storedValue));
+  }
+}
@@ -0,0 +1,80 @@
+package com.linkedin.metadata.entity.codec;
+
+import com.datahub.util.exception.ModelConversionException;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Stores aspects in the binary PSON encoding of their {@link DataMap}, compressed with deflate. Decoding PSON skips
+ * the JSON tokenizer and number parsing, and wide aspects such as schemaMetadata, which repeat the same field names in
+ * every element, typically shrink by an order of magnitude.
+ *
+ * The metadata columns are text, so the compressed bytes are stored in base64 after {@link #MARKER}.
+ */
+public class DeflatePsonAspectCodec implements AspectCodec {
+  public static final String NAME = "pson-deflate";
+  public static final String MARKER = "$pd1$";
+
+  private static final PsonDataCodec DATA_CODEC = new PsonDataCodec();
+
+  private final int _compressionLevel;
+
+  public DeflatePsonAspectCodec() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  /**
+   * @param compressionLevel deflate level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+   */
+  public DeflatePsonAspectCodec(int compressionLevel) {
+    _compressionLevel = compressionLevel;
+  }
+
+  @Nonnull
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Nonnull
+  @Override
+  public String encode(@Nonnull DataMap dataMap) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final Deflater deflater = new Deflater(_compressionLevel);
+    try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+      DATA_CODEC.writeMap(dataMap, out);
+    } catch (IOException e) {
+      throw new ModelConversionException("Failed to serialize DataMap: " + dataMap, e);
+    } finally {
+      deflater.end();
+    }
+    return MARKER + Base64.getEncoder().encodeToString(bytes.toByteArray());
+  }
+
+  @Nonnull
+  @Override
+  public DataMap decode(@Nonnull String storedValue) {
+    final byte[] compressed = Base64.getDecoder().decode(storedValue.substring(MARKER.length()));
+    try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+      return DATA_CODEC.readMap(in);
+    } catch (IOException e) {
+      throw new ModelConversionException("Failed to deserialize DataMap encoded with " + NAME, e);
+    }
+  }
+
+  @Override
+  public boolean isEncoded(@Nonnull String storedValue) {
+    return storedValue.startsWith(MARKER);
+  }
+}
@@ -0,0 +1,49 @@
+package com.linkedin.metadata.entity.codec;
+
+import com.datahub.util.exception.ModelConversionException;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Stores aspects as plain JSON, the format of every row written before aspect codecs were introduced.
+ */
+public class JsonAspectCodec implements AspectCodec {
+  public static final String NAME = "json";
+
+  private static final JacksonDataCodec DATA_CODEC = new JacksonDataCodec();
+
+  @Nonnull
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Nonnull
+  @Override
+  public String encode(@Nonnull DataMap dataMap) {
+    try {
+      return DATA_CODEC.mapToString(dataMap);
+    } catch (IOException e) {
+      throw new ModelConversionException("Failed to serialize DataMap: " + dataMap, e);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public DataMap decode(@Nonnull String storedValue) {
+    try {
+      return DATA_CODEC.stringToMap(storedValue);
+    } catch (IOException e) {
+      throw new ModelConversionException("Failed to deserialize DataMap: " + storedValue, e);
+    }
+  }
+
+  @Override
+  public boolean isEncoded(@Nonnull String storedValue) {
+    // Aspects are records, so their JSON is always an object
+    return storedValue.startsWith("{");
+  }
+}
@@ -9,6 +9,8 @@ import com.linkedin.metadata.entity.AspectMigrationsDao;
 import com.linkedin.metadata.entity.EntityAspect;
 import com.linkedin.metadata.entity.EntityAspectIdentifier;
 import com.linkedin.metadata.entity.ListResult;
+import com.linkedin.metadata.entity.codec.AspectCodec;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
 import com.linkedin.metadata.query.ExtraInfo;
 import com.linkedin.metadata.query.ExtraInfoArray;
@@ -31,9 +33,14 @@ import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -60,8 +67,23 @@ public class EbeanAspectDao implements AspectDao, AspectMigrationsDao {
   // more testing.
   private int _queryKeysCount = 375; // 0 means no pagination on keys
 
+  // Codec new aspects are stored with, rows written with other codecs are still read
+  private AspectCodec _aspectCodec = AspectCodecs.JSON;
+
+  // Executor used to run the paged sub queries of a batch get concurrently, null means run them serially
+  private final ExecutorService _batchGetExecutor;
+
+  // Batch get lookups of past versions currently being fetched, shared with concurrent callers asking for the same keys
+  private final ConcurrentHashMap<EbeanAspectV2.PrimaryKey, CompletableFuture<EbeanAspectV2>> _inFlightBatchGets =
+      new ConcurrentHashMap<>();
+
   public EbeanAspectDao(@Nonnull final EbeanServer server) {
+    this(server, null);
+  }
+
+  public EbeanAspectDao(@Nonnull final EbeanServer server, @Nullable final ExecutorService batchGetExecutor) {
     _server = server;
+    _batchGetExecutor = batchGetExecutor;
   }
 
   @Override
@@ -69,6 +91,16 @@ public class EbeanAspectDao implements AspectDao, AspectMigrationsDao {
     _canWrite = canWrite;
   }
 
+  public void setAspectCodec(@Nonnull AspectCodec aspectCodec) {
+    _aspectCodec = aspectCodec;
+  }
+
+  @Nonnull
+  @Override
+  public AspectCodec getAspectCodec() {
+    return _aspectCodec;
+  }
+
   /**
    * Return the {@link EbeanServer} server instance used for customized queries.
    * Only used in tests.
@@ -254,18 +286,91 @@ public class EbeanAspectDao implements AspectDao, AspectMigrationsDao {
     }
 
     final Set<EbeanAspectV2.PrimaryKey> ebeanKeys = keys.stream().map(EbeanAspectV2.PrimaryKey::fromAspectIdentifier).collect(Collectors.toSet());
+    final int keysCount = _queryKeysCount == 0 ? ebeanKeys.size() : _queryKeysCount;
     final List<EbeanAspectV2> records;
-    if (_queryKeysCount == 0) {
-      records = batchGet(ebeanKeys, ebeanKeys.size());
+    if (_server.currentTransaction() != null) {
+      // Reads inside a transaction must stay on the transaction's connection, so no fan out and no sharing of
+      // results with callers that can't see uncommitted rows.
+      records = batchGet(ebeanKeys, keysCount);
     } else {
-      records = batchGet(ebeanKeys, _queryKeysCount);
+      records = batchGetCoalesced(ebeanKeys, keysCount);
     }
     return records.stream().collect(Collectors.toMap(record -> record.getKey().toAspectIdentifier(), EbeanAspectV2::toEntityAspect));
   }
 
   /**
-   * BatchGet that allows pagination on keys to avoid large queries.
-   * TODO: can further improve by running the sub queries in parallel
+   * BatchGet that shares in-flight lookups of past versions with concurrent callers. Keys that another thread is
+   * already fetching are awaited instead of being queried again, the remaining keys are fetched by this caller.
+   *
+   * <p>Latest versions are always fetched by the caller: a lookup started before the caller's own write committed would
+   * return the row as it was before that write.
+   *
+   * @param keys a set of keys with urn, aspect and version
+   * @param keysCount the max number of keys for each sub query
+   */
+  @Nonnull
+  private List<EbeanAspectV2> batchGetCoalesced(@Nonnull final Set<EbeanAspectV2.PrimaryKey> keys, final int keysCount) {
+    final Set<EbeanAspectV2.PrimaryKey> latest = new HashSet<>();
+    final Map<EbeanAspectV2.PrimaryKey, CompletableFuture<EbeanAspectV2>> owned = new HashMap<>();
+    final Map<EbeanAspectV2.PrimaryKey, CompletableFuture<EbeanAspectV2>> awaited = new HashMap<>();
+    for (EbeanAspectV2.PrimaryKey key : keys) {
+      if (key.getVersion() == ASPECT_LATEST_VERSION) {
+        latest.add(key);
+        continue;
+      }
+      final CompletableFuture<EbeanAspectV2> future = new CompletableFuture<>();
+      final CompletableFuture<EbeanAspectV2> existing = _inFlightBatchGets.putIfAbsent(key, future);
+      if (existing == null) {
+        owned.put(key, future);
+      } else {
+        awaited.put(key, existing);
+      }
+    }
+
+    final List<EbeanAspectV2> result = new ArrayList<>(keys.size());
+    try {
+      if (!owned.isEmpty() || !latest.isEmpty()) {
+        final Set<EbeanAspectV2.PrimaryKey> fetchedKeys = new HashSet<>(latest);
+        fetchedKeys.addAll(owned.keySet());
+        final List<EbeanAspectV2> fetched = batchGet(fetchedKeys, keysCount);
+        for (EbeanAspectV2 record : fetched) {
+          final CompletableFuture<EbeanAspectV2> future = owned.get(record.getKey());
+          if (future != null) {
+            future.complete(record);
+          }
+        }
+        result.addAll(fetched);
+      }
+    } catch (RuntimeException e) {
+      owned.values().forEach(future -> future.completeExceptionally(e));
+      throw e;
+    } finally {
+      // Keys that were not found resolve to null so waiting callers skip them as well.
+      owned.forEach((key, future) -> {
+        future.complete(null);
+        _inFlightBatchGets.remove(key, future);
+      });
+    }
+
+    for (Map.Entry<EbeanAspectV2.PrimaryKey, CompletableFuture<EbeanAspectV2>> entry : awaited.entrySet()) {
+      final EbeanAspectV2 record;
+      try {
+        record = entry.getValue().join();
+      } catch (CompletionException e) {
+        // The owning caller failed, retry this key ourselves rather than propagating someone else's error.
+        result.addAll(batchGet(Collections.singleton(entry.getKey()), keysCount));
+        continue;
+      }
+      if (record != null) {
+        result.add(record);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * BatchGet that allows pagination on keys to avoid large queries. When a batch get executor is configured the sub
+   * queries are run concurrently on it, each on its own pooled connection, and the results are merged.
    *
    * @param keys a set of keys with urn, aspect and version
    * @param keysCount the max number of keys for each sub query
@@ -274,17 +379,40 @@ public class EbeanAspectDao implements AspectDao, AspectMigrationsDao {
   private List<EbeanAspectV2> batchGet(@Nonnull final Set<EbeanAspectV2.PrimaryKey> keys, final int keysCount) {
     validateConnection();
 
-    int position = 0;
+    final List<EbeanAspectV2.PrimaryKey> keyList = new ArrayList<>(keys);
+    final int totalPageCount = QueryUtils.getTotalPageCount(keyList.size(), keysCount);
+
+    if (_batchGetExecutor == null || totalPageCount <= 1 || _server.currentTransaction() != null) {
+      int position = 0;
+      final List<EbeanAspectV2> finalResult = batchGetUnion(keyList, keysCount, position);
+
+      while (QueryUtils.hasMore(position, keysCount, totalPageCount)) {
+        position += keysCount;
+        final List<EbeanAspectV2> oneStatementResult = batchGetUnion(keyList, keysCount, position);
+        finalResult.addAll(oneStatementResult);
+      }
 
-    final int totalPageCount = QueryUtils.getTotalPageCount(keys.size(), keysCount);
-    final List<EbeanAspectV2> finalResult = batchGetUnion(new ArrayList<>(keys), keysCount, position);
+      return finalResult;
+    }
 
-    while (QueryUtils.hasMore(position, keysCount, totalPageCount)) {
-      position += keysCount;
-      final List<EbeanAspectV2> oneStatementResult = batchGetUnion(new ArrayList<>(keys), keysCount, position);
-      finalResult.addAll(oneStatementResult);
+    final List<CompletableFuture<List<EbeanAspectV2>>> futures = new ArrayList<>(totalPageCount);
+    for (int page = 0; page < totalPageCount; page++) {
+      final int position = page * keysCount;
+      futures.add(CompletableFuture.supplyAsync(() -> batchGetUnion(keyList, keysCount, position), _batchGetExecutor));
     }
 
+    final List<EbeanAspectV2> finalResult = new ArrayList<>(keyList.size());
+    try {
+      for (CompletableFuture<List<EbeanAspectV2>> future : futures) {
+        finalResult.addAll(future.join());
+      }
+    } catch (CompletionException e) {
+      futures.forEach(future -> future.cancel(false));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
     return finalResult;
   }
 
@@ -432,6 +560,42 @@ public class EbeanAspectDao implements AspectDao, AspectMigrationsDao {
             .findPagedList();
   }
 
+  @Override
+  @Nonnull
+  public List<EbeanAspectV2> getAspectsAfter(final RestoreIndicesArgs args, @Nullable final String lastUrn,
+      @Nullable final String lastAspect) {
+    validateConnection();
+    ExpressionList<EbeanAspectV2> exp = _server.find(EbeanAspectV2.class)
+        .select(EbeanAspectV2.ALL_COLUMNS)
+        .where()
+        .eq(EbeanAspectV2.VERSION_COLUMN, ASPECT_LATEST_VERSION);
+    if (args.aspectName != null) {
+      exp = exp.eq(EbeanAspectV2.ASPECT_COLUMN, args.aspectName);
+    }
+    if (args.urn != null) {
+      exp = exp.eq(EbeanAspectV2.URN_COLUMN, args.urn);
+    }
+    if (args.urnLike != null) {
+      exp = exp.like(EbeanAspectV2.URN_COLUMN, args.urnLike);
+    }
+    if (lastUrn != null && lastAspect != null) {
+      // Seek past the last row using the primary key order: urn > lastUrn OR (urn = lastUrn AND aspect > lastAspect)
+      exp = exp.or()
+          .gt(EbeanAspectV2.URN_COLUMN, lastUrn)
+          .and()
+          .eq(EbeanAspectV2.URN_COLUMN, lastUrn)
+          .gt(EbeanAspectV2.ASPECT_COLUMN, lastAspect)
+          .endAnd()
+          .endOr();
+    }
+    return exp.orderBy()
+        .asc(EbeanAspectV2.URN_COLUMN)
+        .orderBy()
+        .asc(EbeanAspectV2.ASPECT_COLUMN)
+        .setMaxRows(args.batchSize)
+        .findList();
+  }
+
   @Override
   @Nonnull
   public Iterable<String> listAllUrns(int start, int pageSize) {
@@ -140,7 +140,7 @@ public class EbeanAspectV2 extends Model {
         aspect.getUrn(),
         aspect.getAspect(),
         aspect.getVersion(),
-        aspect.getMetadata(),
+        aspect.getEncodedMetadata(),
         aspect.getCreatedOn(),
         aspect.getCreatedBy(),
         aspect.getCreatedFor(),
@@ -4,6 +4,7 @@ import com.linkedin.common.urn.Urn;
 import com.datahub.util.RecordUtils;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.RetentionService;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.retention.BulkApplyRetentionArgs;
 import com.linkedin.metadata.entity.retention.BulkApplyRetentionResult;
 import com.linkedin.retention.DataHubRetentionConfig;
@@ -248,7 +249,7 @@ public class EbeanRetentionService extends RetentionService {
         .findList()
         .stream()
         .collect(Collectors.toMap(EbeanAspectV2::getUrn,
-            row -> RecordUtils.toRecordTemplate(DataHubRetentionConfig.class, row.getMetadata())));
+            row -> RecordUtils.toRecordTemplate(DataHubRetentionConfig.class, AspectCodecs.decode(row.getMetadata()))));
   }
 
   private ExpressionList<EbeanAspectV2> queryCandidates(@Nullable String urn,
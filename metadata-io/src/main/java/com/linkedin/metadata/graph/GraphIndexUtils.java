@@ -1,10 +1,9 @@
-package com.linkedin.metadata.kafka.hook;
+package com.linkedin.metadata.graph;
 
 import com.datahub.util.RecordUtils;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.RecordTemplate;
-import com.linkedin.metadata.graph.Edge;
 import com.linkedin.metadata.models.RelationshipFieldSpec;
 import com.linkedin.mxe.MetadataChangeLog;
 import lombok.extern.slf4j.Slf4j;
@@ -2,6 +2,7 @@ package com.linkedin.metadata.graph;
 
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
@@ -32,6 +33,14 @@ public interface GraphService {
    */
   void addEdge(final Edge edge);
 
+  /**
+   * Adds the given edges to the graph, like {@link #addEdge} does for each of them. Implementations can write them in
+   * batches, which is what this should be preferred for when adding many edges.
+   */
+  default void addEdges(@Nonnull final List<Edge> edges) {
+    edges.forEach(this::addEdge);
+  }
+
   /**
    * Remove an edge from the graph.
    * @param edge the edge to delete
@@ -204,6 +213,18 @@ public interface GraphService {
   void removeEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
       @Nonnull final RelationshipFilter relationshipFilter);
 
+  /**
+   * Replaces the outgoing edges of the given relationship types of a node with the given edges, all of which have the
+   * node as their source. Equivalent to removing these edges from the node and then adding the new ones, which is
+   * what this does by default.
+   */
+  default void replaceEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final List<Edge> edges) {
+    removeEdgesFromNode(urn, relationshipTypes,
+        newRelationshipFilter(new Filter().setOr(new ConjunctiveCriterionArray()), RelationshipDirection.OUTGOING));
+    addEdges(edges);
+  }
+
   void configure();
 
   /**
@@ -0,0 +1,52 @@
+package com.linkedin.metadata.graph;
+
+import com.linkedin.common.urn.Urn;
+import java.util.Collection;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Stores the multi-hop lineage of entities, i.e. every entity reachable upstream or downstream together with its
+ * degree and paths, so that impact analysis can read it back instead of walking the graph.
+ *
+ * Entries are computed lazily by the first lineage request for an entity, and dropped shortly after a lineage edge
+ * touching any entity in them changes.
+ */
+public interface LineageClosureIndex {
+
+  /**
+   * Creates the backing index if it does not exist yet.
+   */
+  void configure();
+
+  /**
+   * Returns the stored lineage of an entity, restricted to {@code maxHops}, if it was computed with at least that many
+   * hops and has not been invalidated since.
+   */
+  @Nonnull
+  Optional<EntityLineageResult> getLineage(@Nonnull Urn urn, @Nonnull LineageDirection direction, int maxHops);
+
+  /**
+   * Stores the lineage of an entity computed with up to {@code maxHops} hops.
+   *
+   * @param computationStartMillis time the lineage was started to be read from the graph, changes applied to the graph
+   *                               after it may be missing from the lineage
+   */
+  void putLineage(@Nonnull Urn urn, @Nonnull LineageDirection direction, int maxHops,
+      @Nonnull EntityLineageResult lineage, long computationStartMillis);
+
+  /**
+   * Drops every stored lineage that includes one of the endpoints of the given lineage edges. Edges of other
+   * relationship types are ignored.
+   */
+  void onEdgesChanged(@Nonnull Collection<Edge> edges);
+
+  /**
+   * Drops every stored lineage that includes the given entity, if any of the relationship types is a lineage one.
+   *
+   * @param relationshipTypes types of the relationships of the entity that changed, or null if all of them did
+   */
+  void onNodeChanged(@Nonnull Urn urn, @Nullable Collection<String> relationshipTypes);
+}
@@ -2,6 +2,7 @@ package com.linkedin.metadata.graph.elastic;
 
 import com.codahale.metrics.Timer;
 import com.datahub.util.exception.ESQueryException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.linkedin.common.UrnArray;
@@ -15,6 +16,7 @@ import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
 import com.linkedin.metadata.graph.LineageRelationship;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
@@ -24,6 +26,7 @@ import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -32,12 +35,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
@@ -50,6 +55,7 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
 
@@ -58,15 +64,20 @@ import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDE
  * A search DAO for Elasticsearch backend.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class ESGraphQueryDAO {
 
   private final RestHighLevelClient client;
   private final LineageRegistry lineageRegistry;
   private final IndexConvention indexConvention;
+  // Runs the searches of one lineage hop concurrently, bounded by the pool size
+  private final ExecutorService lineageExecutor;
+  private final long lineageTimeoutMillis;
+  // Number of edges fetched per search_after page
+  private final int edgePageSize;
 
   private static final int MAX_ELASTIC_RESULT = 10000;
   private static final int BATCH_SIZE = 1000;
+  private static final int DEFAULT_LINEAGE_PARALLELISM = 8;
   private static final int TIMEOUT_SECS = 10;
   private static final String SOURCE = "source";
   private static final String DESTINATION = "destination";
@@ -74,6 +85,35 @@ public class ESGraphQueryDAO {
   private static final String SEARCH_EXECUTIONS_METRIC = "num_elasticSearch_reads";
   private static final String CREATED_ON = "createdOn";
   private static final String CREATED_ACTOR = "createdActor";
+  // Sort on the fields identifying an edge, used to page through edges with search_after
+  private static final List<String> EDGE_SORT_FIELDS =
+      ImmutableList.of(SOURCE + ".urn", DESTINATION + ".urn", RELATIONSHIP_TYPE);
+
+  public ESGraphQueryDAO(@Nonnull RestHighLevelClient client, @Nonnull LineageRegistry lineageRegistry,
+      @Nonnull IndexConvention indexConvention) {
+    this(client, lineageRegistry, indexConvention, DEFAULT_LINEAGE_PARALLELISM, TIMEOUT_SECS);
+  }
+
+  public ESGraphQueryDAO(@Nonnull RestHighLevelClient client, @Nonnull LineageRegistry lineageRegistry,
+      @Nonnull IndexConvention indexConvention, int lineageParallelism, int lineageTimeoutSeconds) {
+    this(client, lineageRegistry, indexConvention, lineageParallelism, lineageTimeoutSeconds, MAX_ELASTIC_RESULT);
+  }
+
+  @VisibleForTesting
+  ESGraphQueryDAO(@Nonnull RestHighLevelClient client, @Nonnull LineageRegistry lineageRegistry,
+      @Nonnull IndexConvention indexConvention, int lineageParallelism, int lineageTimeoutSeconds, int edgePageSize) {
+    this.client = client;
+    this.lineageRegistry = lineageRegistry;
+    this.indexConvention = indexConvention;
+    this.lineageTimeoutMillis = TimeUnit.SECONDS.toMillis(lineageTimeoutSeconds);
+    this.edgePageSize = edgePageSize;
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.lineageExecutor = Executors.newFixedThreadPool(Math.max(1, lineageParallelism), runnable -> {
+      final Thread thread = new Thread(runnable, "es-graph-lineage-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
 
   @Nonnull
   public static void addFilterToQueryBuilder(@Nonnull Filter filter, String node, BoolQueryBuilder rootQuery) {
@@ -92,8 +132,6 @@ public class ESGraphQueryDAO {
   }
 
   private SearchResponse executeSearchQuery(@Nonnull final QueryBuilder query, final int offset, final int count) {
-    SearchRequest searchRequest = new SearchRequest();
-
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 
     searchSourceBuilder.from(offset);
@@ -101,6 +139,27 @@ public class ESGraphQueryDAO {
 
     searchSourceBuilder.query(query);
 
+    return executeSearchQuery(searchSourceBuilder);
+  }
+
+  // Fetches the page of edges sorted after the given sort values, or the first page if they are null
+  private SearchResponse executeSearchAfterQuery(@Nonnull final QueryBuilder query,
+      @Nullable final Object[] searchAfter, final int count) {
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+
+    searchSourceBuilder.size(count);
+    searchSourceBuilder.query(query);
+    EDGE_SORT_FIELDS.forEach(field -> searchSourceBuilder.sort(field, SortOrder.ASC));
+    if (searchAfter != null) {
+      searchSourceBuilder.searchAfter(searchAfter);
+    }
+
+    return executeSearchQuery(searchSourceBuilder);
+  }
+
+  private SearchResponse executeSearchQuery(@Nonnull final SearchSourceBuilder searchSourceBuilder) {
+    SearchRequest searchRequest = new SearchRequest();
+
     searchRequest.source(searchSourceBuilder);
 
     searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
@@ -125,6 +184,28 @@ public class ESGraphQueryDAO {
     return executeSearchQuery(finalQuery, offset, count);
   }
 
+  /**
+   * Returns the document ids of all edges of the given relationship types going out of the given node.
+   */
+  @Nonnull
+  public Set<String> getOutgoingEdgeDocIds(@Nonnull final Filter sourceEntityFilter,
+      @Nonnull final List<String> relationshipTypes) {
+    final BoolQueryBuilder finalQuery = buildQuery(null, sourceEntityFilter, null,
+        new Filter().setOr(new ConjunctiveCriterionArray()), relationshipTypes,
+        new RelationshipFilter().setDirection(RelationshipDirection.OUTGOING));
+
+    final Set<String> docIds = new HashSet<>();
+    Object[] searchAfter = null;
+    while (true) {
+      SearchHit[] hits = executeSearchAfterQuery(finalQuery, searchAfter, edgePageSize).getHits().getHits();
+      Arrays.stream(hits).map(SearchHit::getId).forEach(docIds::add);
+      if (hits.length < edgePageSize) {
+        return docIds;
+      }
+      searchAfter = hits[hits.length - 1].getSortValues();
+    }
+  }
+
   public static BoolQueryBuilder buildQuery(@Nullable final List<String> sourceTypes, @Nonnull final Filter sourceEntityFilter,
       @Nullable final List<String> destinationTypes, @Nonnull final Filter destinationEntityFilter,
       @Nonnull final List<String> relationshipTypes, @Nonnull final RelationshipFilter relationshipFilter) {
@@ -161,13 +242,14 @@ public class ESGraphQueryDAO {
       int maxHops) {
     List<LineageRelationship> result = new ArrayList<>();
     long currentTime = System.currentTimeMillis();
-    long remainingTime = TIMEOUT_SECS * 1000;
+    long remainingTime = lineageTimeoutMillis;
     long timeoutTime = currentTime + remainingTime;
 
     // Do a Level-order BFS
     Set<Urn> visitedEntities = ConcurrentHashMap.newKeySet();
     visitedEntities.add(entityUrn);
-    UrnArrayArray existingPaths = new UrnArrayArray();
+    // Paths from the source to every discovered entity, each entity points back to the paths of its parent
+    Map<Urn, UrnArrayArray> existingPaths = new ConcurrentHashMap<>();
     List<Urn> currentLevel = ImmutableList.of(entityUrn);
 
     for (int i = 0; i < maxHops; i++) {
@@ -183,7 +265,8 @@ public class ESGraphQueryDAO {
 
       // Do one hop on the lineage graph
       List<LineageRelationship> oneHopRelationships =
-          getLineageRelationshipsInBatches(currentLevel, direction, graphFilters, visitedEntities, i + 1, remainingTime, existingPaths);
+          getLineageRelationshipsInBatches(currentLevel, direction, graphFilters, visitedEntities, i + 1, timeoutTime,
+              existingPaths);
       result.addAll(oneHopRelationships);
       currentLevel = oneHopRelationships.stream().map(LineageRelationship::getEntity).collect(Collectors.toList());
       currentTime = System.currentTimeMillis();
@@ -204,12 +287,14 @@ public class ESGraphQueryDAO {
   // Get 1-hop lineage relationships asynchronously in batches with timeout
   @WithSpan
   public List<LineageRelationship> getLineageRelationshipsInBatches(@Nonnull List<Urn> entityUrns,
-      @Nonnull LineageDirection direction, GraphFilters graphFilters, Set<Urn> visitedEntities, int numHops, long remainingTime, UrnArrayArray existingPaths) {
+      @Nonnull LineageDirection direction, GraphFilters graphFilters, Set<Urn> visitedEntities, int numHops,
+      long timeoutTime, Map<Urn, UrnArrayArray> existingPaths) {
     List<List<Urn>> batches = Lists.partition(entityUrns, BATCH_SIZE);
     return ConcurrencyUtils.getAllCompleted(batches.stream()
         .map(batchUrns -> CompletableFuture.supplyAsync(
-            () -> getLineageRelationships(batchUrns, direction, graphFilters, visitedEntities, numHops, existingPaths)))
-        .collect(Collectors.toList()), remainingTime, TimeUnit.MILLISECONDS)
+            () -> getLineageRelationships(batchUrns, direction, graphFilters, visitedEntities, numHops, timeoutTime,
+                existingPaths), lineageExecutor))
+        .collect(Collectors.toList()), timeoutTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS)
         .stream()
         .flatMap(List::stream)
         .collect(Collectors.toList());
@@ -218,7 +303,8 @@ public class ESGraphQueryDAO {
   // Get 1-hop lineage relationships
   @WithSpan
   private List<LineageRelationship> getLineageRelationships(@Nonnull List<Urn> entityUrns,
-      @Nonnull LineageDirection direction, GraphFilters graphFilters, Set<Urn> visitedEntities, int numHops, UrnArrayArray existingPaths) {
+      @Nonnull LineageDirection direction, GraphFilters graphFilters, Set<Urn> visitedEntities, int numHops,
+      long timeoutTime, Map<Urn, UrnArrayArray> existingPaths) {
     Map<String, List<Urn>> urnsPerEntityType = entityUrns.stream().collect(Collectors.groupingBy(Urn::getEntityType));
     Map<String, List<EdgeInfo>> edgesPerEntityType = urnsPerEntityType.keySet()
         .stream()
@@ -228,23 +314,40 @@ public class ESGraphQueryDAO {
     // Get all relation types relevant to the set of urns to hop from
     urnsPerEntityType.forEach((entityType, urns) -> finalQuery.should(
         getQueryForLineage(urns, edgesPerEntityType.getOrDefault(entityType, Collections.emptyList()), graphFilters)));
-    SearchResponse response = executeSearchQuery(finalQuery, 0, MAX_ELASTIC_RESULT);
     Set<Urn> entityUrnSet = new HashSet<>(entityUrns);
     // Get all valid edges given the set of urns to hop from
     Set<Pair<String, EdgeInfo>> validEdges = edgesPerEntityType.entrySet()
         .stream()
         .flatMap(entry -> entry.getValue().stream().map(edgeInfo -> Pair.of(entry.getKey(), edgeInfo)))
         .collect(Collectors.toSet());
-    return extractRelationships(entityUrnSet, response, validEdges, visitedEntities, numHops, existingPaths);
+
+    // Page through all matching edges, a single hop can have far more edges than one search returns
+    List<LineageRelationship> result = new ArrayList<>();
+    Object[] searchAfter = null;
+    while (true) {
+      SearchResponse response = executeSearchAfterQuery(finalQuery, searchAfter, edgePageSize);
+      SearchHit[] hits = response.getHits().getHits();
+      result.addAll(extractRelationships(entityUrnSet, hits, validEdges, visitedEntities, numHops, existingPaths));
+      if (hits.length < edgePageSize) {
+        break;
+      }
+      if (System.currentTimeMillis() > timeoutTime) {
+        log.info("Timed out while paging through lineage edges of {} urns at hop {}. Returning edges found so far",
+            entityUrns.size(), numHops);
+        break;
+      }
+      searchAfter = hits[hits.length - 1].getSortValues();
+    }
+    return result;
   }
 
-  private UrnArrayArray getAndUpdatePaths(UrnArrayArray existingPaths, Urn parentUrn, Urn childUrn, RelationshipDirection direction) {
+  // Extends the paths of the parent with the child and records them as the paths of the child
+  private UrnArrayArray getAndUpdatePaths(Map<Urn, UrnArrayArray> existingPaths, Urn parentUrn, Urn childUrn,
+      RelationshipDirection direction) {
     try {
-      UrnArrayArray currentPaths = existingPaths.stream()
-          .filter(path -> path.get(direction == RelationshipDirection.OUTGOING ? 0 : path.size() - 1).equals(parentUrn))
-          .collect(Collectors.toCollection(UrnArrayArray::new));
+      UrnArrayArray currentPaths = existingPaths.get(parentUrn);
       UrnArrayArray resultPaths = new UrnArrayArray();
-      if (currentPaths.size() > 0) {
+      if (currentPaths != null) {
         for (UrnArray path : currentPaths) {
           UrnArray copyOfPath = path.clone();
           if (direction == RelationshipDirection.OUTGOING) {
@@ -253,7 +356,6 @@ public class ESGraphQueryDAO {
             copyOfPath.add(childUrn);
           }
           resultPaths.add(copyOfPath);
-          existingPaths.add(copyOfPath);
         }
       } else {
         UrnArray path = new UrnArray();
@@ -263,8 +365,8 @@ public class ESGraphQueryDAO {
           path.addAll(ImmutableList.of(parentUrn, childUrn));
         }
         resultPaths.add(path);
-        existingPaths.add(path);
       }
+      existingPaths.put(childUrn, resultPaths);
       return resultPaths;
     } catch (CloneNotSupportedException e) {
       log.error(String.format("Failed to create paths for parentUrn %s and childUrn %s", parentUrn, childUrn), e);
@@ -275,10 +377,10 @@ public class ESGraphQueryDAO {
   // Given set of edges and the search response, extract all valid edges that originate from the input entityUrns
   @WithSpan
   private List<LineageRelationship> extractRelationships(@Nonnull Set<Urn> entityUrns,
-      @Nonnull SearchResponse searchResponse, Set<Pair<String, EdgeInfo>> validEdges, Set<Urn> visitedEntities,
-      int numHops, UrnArrayArray existingPaths) {
+      @Nonnull SearchHit[] hits, Set<Pair<String, EdgeInfo>> validEdges, Set<Urn> visitedEntities,
+      int numHops, Map<Urn, UrnArrayArray> existingPaths) {
     final List<LineageRelationship> result = new LinkedList<>();
-    for (SearchHit hit : searchResponse.getHits().getHits()) {
+    for (SearchHit hit : hits) {
       final Map<String, Object> document = hit.getSourceAsMap();
       final Urn sourceUrn = UrnUtils.getUrn(((Map<String, Object>) document.get(SOURCE)).get("urn").toString());
       final Urn destinationUrn =
@@ -293,9 +395,10 @@ public class ESGraphQueryDAO {
       if (entityUrns.contains(sourceUrn)) {
         // Skip if already visited
         // Skip if edge is not a valid outgoing edge
+        // Batches of the same hop run concurrently, so claim the entity atomically
         if (!visitedEntities.contains(destinationUrn) && validEdges.contains(
-            Pair.of(sourceUrn.getEntityType(), new EdgeInfo(type, RelationshipDirection.OUTGOING, destinationUrn.getEntityType().toLowerCase())))) {
-          visitedEntities.add(destinationUrn);
+            Pair.of(sourceUrn.getEntityType(), new EdgeInfo(type, RelationshipDirection.OUTGOING, destinationUrn.getEntityType().toLowerCase())))
+            && visitedEntities.add(destinationUrn)) {
           final UrnArrayArray paths = getAndUpdatePaths(existingPaths, sourceUrn, destinationUrn, RelationshipDirection.OUTGOING);
           final LineageRelationship relationship = createLineageRelationship(type, destinationUrn, numHops, paths, createdOn, createdActor);
           result.add(relationship);
@@ -307,8 +410,8 @@ public class ESGraphQueryDAO {
         // Skip if already visited
         // Skip if edge is not a valid outgoing edge
         if (!visitedEntities.contains(sourceUrn) && validEdges.contains(
-            Pair.of(destinationUrn.getEntityType(), new EdgeInfo(type, RelationshipDirection.INCOMING, sourceUrn.getEntityType().toLowerCase())))) {
-          visitedEntities.add(sourceUrn);
+            Pair.of(destinationUrn.getEntityType(), new EdgeInfo(type, RelationshipDirection.INCOMING, sourceUrn.getEntityType().toLowerCase())))
+            && visitedEntities.add(sourceUrn)) {
           final UrnArrayArray paths = getAndUpdatePaths(existingPaths, destinationUrn, sourceUrn, RelationshipDirection.INCOMING);
           final LineageRelationship relationship = createLineageRelationship(type, sourceUrn, numHops, paths, createdOn, createdActor);
           result.add(relationship);
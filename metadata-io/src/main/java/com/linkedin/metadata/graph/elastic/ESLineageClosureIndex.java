@@ -0,0 +1,306 @@
+package com.linkedin.metadata.graph.elastic;
+
+import com.datahub.util.RecordUtils;
+import com.datahub.util.exception.ESQueryException;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.EntityLineageResult;
+import com.linkedin.metadata.graph.LineageClosureIndex;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineageRelationship;
+import com.linkedin.metadata.graph.LineageRelationshipArray;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+
+/**
+ * {@link LineageClosureIndex} backed by an Elasticsearch index holding one document per (entity, direction). Each
+ * document lists every entity in the lineage as an indexed keyword, which is what invalidation queries on, and keeps
+ * the lineage itself as an unindexed JSON string.
+ *
+ * Being shared, the index is invalidated by whichever MAE consumer applies a lineage change and read by every GMS
+ * replica. Invalidations are collected for a short while and applied by a background thread with a single delete by
+ * query, so that consuming lineage changes does not wait on the index. A lineage computed concurrently with a change
+ * can be stored after the change invalidated it, so every invalidation is applied a second time after a grace period,
+ * and lineages whose computation took longer than half of it are not stored at all. Entries also expire after a
+ * maximum age, which bounds staleness should the second invalidation be lost, e.g. on shutdown.
+ */
+@Slf4j
+public class ESLineageClosureIndex implements LineageClosureIndex {
+  public static final String INDEX_NAME = "graph_lineage_closure_v1";
+
+  private static final String URN = "urn";
+  private static final String DIRECTION = "direction";
+  private static final String MAX_HOPS = "maxHops";
+  private static final String MEMBERS = "members";
+  private static final String LINEAGE = "lineage";
+  private static final String COMPUTED_ON = "computedOn";
+  // Maximum number of urns per terms query of an invalidation
+  private static final int MAX_INVALIDATION_TERMS = 10000;
+
+  private final RestHighLevelClient searchClient;
+  private final ESIndexBuilder indexBuilder;
+  private final IndexConvention indexConvention;
+  private final ESBulkProcessor bulkProcessor;
+  private final Set<String> lineageRelationshipTypes;
+  // Lineages with more relationships are computed on demand every time rather than stored
+  private final int maxRelationships;
+  private final long maxAgeMillis;
+  private final long invalidationBatchMillis;
+  private final long invalidationGraceMillis;
+  private final Set<String> pendingInvalidations = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean invalidationScheduled = new AtomicBoolean(false);
+  private final ScheduledExecutorService invalidationExecutor;
+
+  public ESLineageClosureIndex(@Nonnull RestHighLevelClient searchClient, @Nonnull ESIndexBuilder indexBuilder,
+      @Nonnull IndexConvention indexConvention, @Nonnull ESBulkProcessor bulkProcessor,
+      @Nonnull LineageRegistry lineageRegistry, @Nonnull Collection<String> entityNames, int maxRelationships,
+      long maxAgeMillis, long invalidationBatchMillis, long invalidationGraceMillis) {
+    this.searchClient = searchClient;
+    this.indexBuilder = indexBuilder;
+    this.indexConvention = indexConvention;
+    this.bulkProcessor = bulkProcessor;
+    this.lineageRelationshipTypes = entityNames.stream()
+        .flatMap(entityName -> Arrays.stream(LineageDirection.values())
+            .flatMap(direction -> lineageRegistry.getLineageRelationships(entityName, direction).stream()))
+        .map(LineageRegistry.EdgeInfo::getType)
+        .collect(Collectors.toSet());
+    this.maxRelationships = maxRelationships;
+    this.maxAgeMillis = maxAgeMillis;
+    this.invalidationBatchMillis = invalidationBatchMillis;
+    this.invalidationGraceMillis = invalidationGraceMillis;
+    this.invalidationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "lineage-closure-invalidation");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void configure() {
+    log.info("Setting up lineage closure index");
+    try {
+      indexBuilder.buildIndex(indexConvention.getIndexName(INDEX_NAME), getMappings(), Collections.emptyMap());
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to set up lineage closure index", e);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Optional<EntityLineageResult> getLineage(@Nonnull Urn urn, @Nonnull LineageDirection direction,
+      int maxHops) {
+    final GetResponse response;
+    try {
+      response = searchClient.get(new GetRequest(indexConvention.getIndexName(INDEX_NAME), toDocId(urn, direction)),
+          RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      throw new ESQueryException("Failed to read lineage closure of " + urn, e);
+    }
+    if (!response.isExists()) {
+      MetricUtils.counter(this.getClass(), "closure_miss").inc();
+      return Optional.empty();
+    }
+
+    final Map<String, Object> document = response.getSourceAsMap();
+    final int storedMaxHops = ((Number) document.get(MAX_HOPS)).intValue();
+    final long computedOn = ((Number) document.get(COMPUTED_ON)).longValue();
+    if (storedMaxHops < maxHops || System.currentTimeMillis() - computedOn > maxAgeMillis) {
+      MetricUtils.counter(this.getClass(), "closure_miss").inc();
+      return Optional.empty();
+    }
+
+    MetricUtils.counter(this.getClass(), "closure_hit").inc();
+    final EntityLineageResult lineage =
+        RecordUtils.toRecordTemplate(EntityLineageResult.class, document.get(LINEAGE).toString());
+    if (storedMaxHops > maxHops) {
+      final LineageRelationshipArray relationships = lineage.getRelationships()
+          .stream()
+          .filter(relationship -> relationship.getDegree() <= maxHops)
+          .collect(Collectors.toCollection(LineageRelationshipArray::new));
+      lineage.setRelationships(relationships).setTotal(relationships.size()).setCount(relationships.size());
+    }
+    return Optional.of(lineage);
+  }
+
+  @Override
+  public void putLineage(@Nonnull Urn urn, @Nonnull LineageDirection direction, int maxHops,
+      @Nonnull EntityLineageResult lineage, long computationStartMillis) {
+    if (lineage.getRelationships().size() > maxRelationships) {
+      MetricUtils.counter(this.getClass(), "closure_too_large").inc();
+      return;
+    }
+    // The second pass of an invalidation that raced with this computation has to run after the lineage is stored
+    if (System.currentTimeMillis() - computationStartMillis > invalidationGraceMillis / 2) {
+      MetricUtils.counter(this.getClass(), "closure_too_slow").inc();
+      return;
+    }
+
+    final ObjectNode document = JsonNodeFactory.instance.objectNode();
+    document.put(URN, urn.toString());
+    document.put(DIRECTION, direction.toString());
+    document.put(MAX_HOPS, maxHops);
+    document.put(COMPUTED_ON, computationStartMillis);
+    final ArrayNode members = document.putArray(MEMBERS);
+    final Set<Urn> memberUrns = new HashSet<>();
+    for (LineageRelationship relationship : lineage.getRelationships()) {
+      memberUrns.add(relationship.getEntity());
+      // Paths can go through entities that are not relationships themselves, e.g. siblings
+      relationship.getPaths().forEach(memberUrns::addAll);
+    }
+    memberUrns.forEach(member -> members.add(member.toString()));
+    document.put(LINEAGE, RecordUtils.toJsonString(lineage));
+
+    bulkProcessor.add(new IndexRequest(indexConvention.getIndexName(INDEX_NAME)).id(toDocId(urn, direction))
+        .source(document.toString(), XContentType.JSON));
+  }
+
+  @Override
+  public void onEdgesChanged(@Nonnull Collection<Edge> edges) {
+    final Set<Urn> urns = new HashSet<>();
+    for (Edge edge : edges) {
+      if (lineageRelationshipTypes.contains(edge.getRelationshipType())) {
+        urns.add(edge.getSource());
+        urns.add(edge.getDestination());
+      }
+    }
+    invalidate(urns);
+  }
+
+  @Override
+  public void onNodeChanged(@Nonnull Urn urn, @Nullable Collection<String> relationshipTypes) {
+    if (relationshipTypes == null || relationshipTypes.stream().anyMatch(lineageRelationshipTypes::contains)) {
+      invalidate(Collections.singleton(urn));
+    }
+  }
+
+  /**
+   * Applies pending invalidations right away instead of waiting for the background thread, and stops it. Second passes
+   * that are still waiting for their grace period are dropped, those entries expire after the maximum age instead.
+   */
+  public void close() {
+    invalidationExecutor.shutdownNow();
+    flushInvalidations();
+  }
+
+  /**
+   * Queues the deletion of the lineage of the given entities, and of every lineage they are part of. Any lineage that
+   * used a changed edge includes both of its endpoints, either as the entity the lineage is for or as a member.
+   */
+  private void invalidate(@Nonnull Set<Urn> urns) {
+    if (urns.isEmpty()) {
+      return;
+    }
+    urns.forEach(urn -> pendingInvalidations.add(urn.toString()));
+    if (invalidationScheduled.compareAndSet(false, true)) {
+      try {
+        invalidationExecutor.schedule(this::flushInvalidations, invalidationBatchMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        // Shutting down, apply the invalidation on the caller's thread
+        flushInvalidations();
+      }
+    }
+  }
+
+  /**
+   * Deletes the lineages of every entity invalidated since the last flush, and schedules the second pass for them.
+   */
+  @VisibleForTesting
+  void flushInvalidations() {
+    invalidationScheduled.set(false);
+    final List<String> urns = new ArrayList<>();
+    final Iterator<String> iterator = pendingInvalidations.iterator();
+    while (iterator.hasNext()) {
+      urns.add(iterator.next());
+      iterator.remove();
+    }
+    if (urns.isEmpty()) {
+      return;
+    }
+    deleteLineagesContaining(urns);
+    try {
+      invalidationExecutor.schedule(() -> deleteLineagesContaining(urns), invalidationGraceMillis,
+          TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.info("Skipping the second invalidation pass of {} urns on shutdown", urns.size());
+    }
+  }
+
+  private void deleteLineagesContaining(@Nonnull List<String> urns) {
+    for (List<String> values : Lists.partition(urns, MAX_INVALIDATION_TERMS)) {
+      final BoolQueryBuilder query = QueryBuilders.boolQuery()
+          .should(QueryBuilders.termsQuery(URN, values))
+          .should(QueryBuilders.termsQuery(MEMBERS, values))
+          .minimumShouldMatch(1);
+      MetricUtils.counter(this.getClass(), "closure_invalidation").inc();
+      bulkProcessor.deleteByQuery(query, indexConvention.getIndexName(INDEX_NAME));
+    }
+  }
+
+  @Nonnull
+  private static Map<String, Object> getMappings() {
+    final Map<String, Object> keyword = ImmutableMap.of("type", "keyword");
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(URN, keyword);
+    properties.put(DIRECTION, keyword);
+    properties.put(MEMBERS, keyword);
+    properties.put(MAX_HOPS, ImmutableMap.of("type", "integer"));
+    properties.put(COMPUTED_ON, ImmutableMap.of("type", "long"));
+    properties.put(LINEAGE, ImmutableMap.of("type", "text", "index", false));
+    return ImmutableMap.of("properties", properties);
+  }
+
+  @Nonnull
+  private static String toDocId(@Nonnull Urn urn, @Nonnull LineageDirection direction) {
+    final String rawDocId = direction + "|" + urn;
+    try {
+      final MessageDigest md = MessageDigest.getInstance("MD5");
+      return Base64.getEncoder().encodeToString(md.digest(rawDocId.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      return rawDocId;
+    }
+  }
+}
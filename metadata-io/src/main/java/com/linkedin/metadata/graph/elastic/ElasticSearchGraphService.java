@@ -3,6 +3,8 @@ package com.linkedin.metadata.graph.elastic;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.graph.Edge;
@@ -35,9 +37,12 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -61,6 +66,25 @@ public class ElasticSearchGraphService implements GraphService {
   private static final String DOC_DELIMETER = "--";
   public static final String INDEX_NAME = "graph_service_v1";
   private static final Map<String, Object> EMPTY_HASH = new HashMap<>();
+  // Long enough for queued bulk requests to be flushed and refreshed into search results
+  private static final long RECENT_EDGES_TTL_SECONDS = 60;
+  private static final long RECENT_EDGES_MAX_SIZE = 100000;
+
+  // Ids of the edges most recently written per source node and relationship type, see replaceEdgesFromNode
+  private final Cache<String, Set<String>> _recentEdgeDocIds = CacheBuilder.newBuilder()
+      .expireAfterWrite(RECENT_EDGES_TTL_SECONDS, TimeUnit.SECONDS)
+      .maximumSize(RECENT_EDGES_MAX_SIZE)
+      .build();
+
+  private boolean _edgeReplacementMode;
+
+  /**
+   * Sets whether {@link #replaceEdgesFromNode} deletes the edges that are no longer present by id through the bulk
+   * processor, instead of by a delete by query that flushes the bulk processor and blocks until it completes.
+   */
+  public void setEdgeReplacementMode(boolean edgeReplacementMode) {
+    _edgeReplacementMode = edgeReplacementMode;
+  }
 
   private String toDocument(@Nonnull final Edge edge) {
     final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
@@ -272,6 +296,48 @@ public class ElasticSearchGraphService implements GraphService {
     );
   }
 
+  /**
+   * In edge replacement mode, looks up the ids of the current edges of the node and submits deletes for the ones that
+   * are not among the new edges, along with upserts of the new edges, all as bulk requests. Since document ids are
+   * derived from source, relationship type and destination, an unchanged edge maps to the same document and is simply
+   * overwritten.
+   *
+   * Edges written shortly before may not be visible to search yet, so the ids of the edges last written for each
+   * source node and relationship type are also kept for a while and treated as current. This relies on all changes to
+   * a node being applied by the same consumer, as is the case with a partitioned MCL topic.
+   */
+  @Override
+  public void replaceEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final List<Edge> edges) {
+    if (!_edgeReplacementMode) {
+      GraphService.super.replaceEdgesFromNode(urn, relationshipTypes, edges);
+      return;
+    }
+
+    final Map<String, Set<String>> newDocIdsByType = new HashMap<>();
+    relationshipTypes.forEach(relationshipType -> newDocIdsByType.put(relationshipType, new HashSet<>()));
+    edges.forEach(edge -> newDocIdsByType.computeIfAbsent(edge.getRelationshipType(), type -> new HashSet<>())
+        .add(toDocId(edge)));
+
+    final Set<String> staleDocIds = _graphReadDAO.getOutgoingEdgeDocIds(createUrnFilter(urn), relationshipTypes);
+    for (String relationshipType : relationshipTypes) {
+      final Set<String> recentDocIds = _recentEdgeDocIds.getIfPresent(toRecentEdgesKey(urn, relationshipType));
+      if (recentDocIds != null) {
+        staleDocIds.addAll(recentDocIds);
+      }
+    }
+    newDocIdsByType.values().forEach(staleDocIds::removeAll);
+
+    staleDocIds.forEach(_graphWriteDAO::deleteDocument);
+    edges.forEach(this::addEdge);
+    newDocIdsByType.forEach((relationshipType, docIds) ->
+        _recentEdgeDocIds.put(toRecentEdgesKey(urn, relationshipType), docIds));
+  }
+
+  private static String toRecentEdgesKey(@Nonnull final Urn urn, @Nonnull final String relationshipType) {
+    return urn.toString() + DOC_DELIMETER + relationshipType;
+  }
+
   @Override
   public void configure() {
     log.info("Setting up elastic graph index");
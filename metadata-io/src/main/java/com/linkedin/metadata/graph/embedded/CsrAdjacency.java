@@ -0,0 +1,174 @@
+package com.linkedin.metadata.graph.embedded;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Immutable adjacency of one relationship type in one direction, in compressed sparse row form over the nodes that have
+ * edges of the type. Those nodes are {@code nodes[0] .. nodes[numNodes - 1]}, sorted ascending, and the neighbors of
+ * {@code nodes[i]} are {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}, sorted ascending. A relationship type
+ * only used by a few nodes of a large graph therefore costs little, at the price of a binary search per lookup.
+ *
+ * The arrays are int buffers outside the Java heap, either direct buffers or regions of a memory-mapped snapshot, so
+ * graphs with tens of millions of edges cost neither heap nor garbage collection time. Only absolute reads are used,
+ * which makes instances safe to share between threads.
+ */
+final class CsrAdjacency {
+
+  static final CsrAdjacency EMPTY =
+      new CsrAdjacency(IntBuffer.wrap(new int[0]), IntBuffer.wrap(new int[]{0}), IntBuffer.wrap(new int[0]));
+
+  private final IntBuffer _nodes;
+  private final IntBuffer _offsets;
+  private final IntBuffer _targets;
+
+  CsrAdjacency(@Nonnull IntBuffer nodes, @Nonnull IntBuffer offsets, @Nonnull IntBuffer targets) {
+    _nodes = nodes;
+    _offsets = offsets;
+    _targets = targets;
+  }
+
+  /**
+   * Allocates an adjacency for the given number of nodes with edges and of edges, to be filled with {@link #setNode},
+   * {@link #setOffset} and {@link #setTarget}.
+   */
+  @Nonnull
+  static CsrAdjacency allocate(int numNodes, int numEdges) {
+    return new CsrAdjacency(allocateInts(numNodes), allocateInts(numNodes + 1), allocateInts(numEdges));
+  }
+
+  /**
+   * Maps an adjacency written by {@link #writeTo} at the given position of a snapshot file.
+   *
+   * @return the adjacency, whose sections end at {@code position + } {@link #sizeInBytes()}
+   */
+  @Nonnull
+  static CsrAdjacency map(@Nonnull FileChannel channel, long position) throws IOException {
+    final ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+    channel.read(header, position);
+    header.flip();
+    final int numNodes = header.getInt();
+    final int numTargets = header.getInt();
+    final long nodesPosition = position + header.capacity();
+    final long offsetsPosition = nodesPosition + (long) numNodes * Integer.BYTES;
+    final long targetsPosition = offsetsPosition + (numNodes + 1L) * Integer.BYTES;
+    return new CsrAdjacency(
+        channel.map(FileChannel.MapMode.READ_ONLY, nodesPosition, (long) numNodes * Integer.BYTES).asIntBuffer(),
+        channel.map(FileChannel.MapMode.READ_ONLY, offsetsPosition, (numNodes + 1L) * Integer.BYTES).asIntBuffer(),
+        channel.map(FileChannel.MapMode.READ_ONLY, targetsPosition, (long) numTargets * Integer.BYTES).asIntBuffer());
+  }
+
+  /**
+   * @return the number of nodes with edges
+   */
+  int numNodes() {
+    return _nodes.limit();
+  }
+
+  int numEdges() {
+    return _targets.limit();
+  }
+
+  /**
+   * @return the node with edges at the given index
+   */
+  int node(int index) {
+    return _nodes.get(index);
+  }
+
+  /**
+   * @return the index of the node among the nodes with edges, or -1 if it has none
+   */
+  int indexOf(int node) {
+    int low = 0;
+    int high = _nodes.limit() - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int value = _nodes.get(mid);
+      if (value < node) {
+        low = mid + 1;
+      } else if (value > node) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return the position of the first neighbor of the node at the given index, or 0 for an index of -1
+   */
+  int start(int index) {
+    return index < 0 ? 0 : _offsets.get(index);
+  }
+
+  /**
+   * @return the position after the last neighbor of the node at the given index, or 0 for an index of -1
+   */
+  int end(int index) {
+    return index < 0 ? 0 : _offsets.get(index + 1);
+  }
+
+  int target(int position) {
+    return _targets.get(position);
+  }
+
+  boolean contains(int node, int target) {
+    final int index = indexOf(node);
+    int low = start(index);
+    int high = end(index) - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int value = _targets.get(mid);
+      if (value < target) {
+        low = mid + 1;
+      } else if (value > target) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void setNode(int index, int node) {
+    _nodes.put(index, node);
+  }
+
+  void setOffset(int index, int offset) {
+    _offsets.put(index, offset);
+  }
+
+  void setTarget(int position, int target) {
+    _targets.put(position, target);
+  }
+
+  long sizeInBytes() {
+    return (2L + _nodes.limit() + _offsets.limit() + _targets.limit()) * Integer.BYTES;
+  }
+
+  void writeTo(@Nonnull DataOutputStream output) throws IOException {
+    output.writeInt(_nodes.limit());
+    output.writeInt(_targets.limit());
+    for (int i = 0; i < _nodes.limit(); i++) {
+      output.writeInt(_nodes.get(i));
+    }
+    for (int i = 0; i < _offsets.limit(); i++) {
+      output.writeInt(_offsets.get(i));
+    }
+    for (int i = 0; i < _targets.limit(); i++) {
+      output.writeInt(_targets.get(i));
+    }
+  }
+
+  @Nonnull
+  private static IntBuffer allocateInts(int size) {
+    return ByteBuffer.allocateDirect(size * Integer.BYTES).asIntBuffer();
+  }
+}
@@ -0,0 +1,766 @@
+package com.linkedin.metadata.graph.embedded;
+
+import com.codahale.metrics.Timer;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.UrnArrayArray;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.EntityLineageResult;
+import com.linkedin.metadata.graph.GraphFilters;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineageRelationship;
+import com.linkedin.metadata.graph.LineageRelationshipArray;
+import com.linkedin.metadata.graph.RelatedEntitiesResult;
+import com.linkedin.metadata.graph.RelatedEntity;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * {@link GraphService} keeping the whole relationship graph in process, so that traversals cost no network round
+ * trips and it can be used without any external service.
+ *
+ * Urns are dictionary encoded to dense int ids. Each relationship type has an adjacency in both directions, held as a
+ * compressed sparse row structure over the nodes with edges of the type, outside the heap (see {@link CsrAdjacency}),
+ * with a small delta of recent writes on top. Once the delta grows past a threshold it is compacted into a new base in
+ * the background, without blocking reads. A lineage hop is then a scan of a few int ranges per entity.
+ *
+ * Each instance keeps its own graph current from the MCL topic, and records per partition the offset up to which the
+ * change log has been applied. The graph can be written to a snapshot file along with those offsets and memory-mapped
+ * back on startup, to resume consuming where the snapshot was taken. While the graph is not ready, e.g. being rebuilt
+ * because there was no usable snapshot, reads fail rather than return partial results. Edge timestamps, actors and
+ * properties are not kept.
+ */
+@Slf4j
+public class EmbeddedGraphService implements GraphService {
+
+  private static final int SNAPSHOT_MAGIC = 0x44484547;
+  private static final int SNAPSHOT_VERSION = 3;
+  private static final int HEADER_BYTES = 4 * Integer.BYTES;
+  private static final int SNAPSHOT_URN_CHUNK_SIZE = 65536;
+
+  private final LineageRegistry _lineageRegistry;
+  // Number of edges added or removed after which an adjacency is rebuilt
+  private final int _compactionThreshold;
+  private final ReadWriteLock _lock = new ReentrantReadWriteLock();
+  // Incremented on every change, used to skip snapshots of an unchanged graph
+  private final AtomicLong _version = new AtomicLong();
+  // Incremented whenever the graph is cleared, after which its node ids are reused
+  private long _clears = 0;
+  // Builds compacted adjacencies without holding the lock, its thread stops when idle
+  private final ExecutorService _compactionExecutor = new ThreadPoolExecutor(0, 1, 60, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(), runnable -> {
+        final Thread thread = new Thread(runnable, "embedded-graph-compaction");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private final Map<String, Integer> _urnIds = new HashMap<>();
+  private final List<String> _urns = new ArrayList<>();
+  private int[] _nodeEntityTypes = new int[1024];
+  private final Map<String, Integer> _entityTypeIds = new HashMap<>();
+  private final List<String> _entityTypes = new ArrayList<>();
+  private final Map<String, Integer> _relationshipTypeIds = new HashMap<>();
+  private final List<String> _relationshipTypes = new ArrayList<>();
+  private final List<RelationshipAdjacency> _outgoing = new ArrayList<>();
+  private final List<RelationshipAdjacency> _incoming = new ArrayList<>();
+  // Next offset to apply for each partition of the MCL topic
+  private final Map<Integer, Long> _offsets = new HashMap<>();
+
+  private volatile boolean _ready = true;
+  private ScheduledExecutorService _snapshotExecutor;
+
+  public EmbeddedGraphService(@Nonnull LineageRegistry lineageRegistry, int compactionThreshold) {
+    _lineageRegistry = lineageRegistry;
+    _compactionThreshold = compactionThreshold;
+  }
+
+  @Override
+  public LineageRegistry getLineageRegistry() {
+    return _lineageRegistry;
+  }
+
+  @Override
+  public void addEdge(@Nonnull final Edge edge) {
+    _lock.writeLock().lock();
+    try {
+      final int source = getOrCreateNode(edge.getSource());
+      final int destination = getOrCreateNode(edge.getDestination());
+      final int relationshipType = getOrCreateRelationshipType(edge.getRelationshipType());
+      if (_outgoing.get(relationshipType).add(source, destination)) {
+        _incoming.get(relationshipType).add(destination, source);
+        onChange(relationshipType);
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeEdge(@Nonnull final Edge edge) {
+    _lock.writeLock().lock();
+    try {
+      final Integer source = _urnIds.get(edge.getSource().toString());
+      final Integer destination = _urnIds.get(edge.getDestination().toString());
+      final Integer relationshipType = _relationshipTypeIds.get(edge.getRelationshipType());
+      if (source != null && destination != null && relationshipType != null) {
+        removeEdge(source, destination, relationshipType);
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Nonnull
+  @Override
+  public RelatedEntitiesResult findRelatedEntities(@Nullable final List<String> sourceTypes,
+      @Nonnull final Filter sourceEntityFilter, @Nullable final List<String> destinationTypes,
+      @Nonnull final Filter destinationEntityFilter, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter, final int offset, final int count) {
+    if (sourceTypes != null && sourceTypes.isEmpty() || destinationTypes != null && destinationTypes.isEmpty()) {
+      return new RelatedEntitiesResult(offset, 0, 0, Collections.emptyList());
+    }
+
+    checkReady();
+    final Set<RelatedEntity> relatedEntities = new LinkedHashSet<>();
+    _lock.readLock().lock();
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "findRelatedEntities").time()) {
+      final List<Integer> relationshipTypeIds = relationshipTypes.stream()
+          .map(_relationshipTypeIds::get)
+          .filter(id -> id != null)
+          .collect(Collectors.toList());
+      final RelationshipDirection direction = relationshipFilter.getDirection();
+      final BitSet allowedSourceTypes = toEntityTypeIds(sourceTypes);
+      final BitSet allowedDestinationTypes = toEntityTypeIds(destinationTypes);
+
+      for (int source : getCandidateNodes(sourceEntityFilter)) {
+        if (!matches(source, allowedSourceTypes, sourceEntityFilter)) {
+          continue;
+        }
+        for (int relationshipType : relationshipTypeIds) {
+          final String relationshipTypeName = _relationshipTypes.get(relationshipType);
+          for (RelationshipAdjacency adjacency : getAdjacencies(relationshipType, direction)) {
+            adjacency.forEachNeighbor(source, destination -> {
+              if (matches(destination, allowedDestinationTypes, destinationEntityFilter)) {
+                relatedEntities.add(new RelatedEntity(relationshipTypeName, _urns.get(destination)));
+              }
+            });
+          }
+        }
+      }
+    } finally {
+      _lock.readLock().unlock();
+    }
+
+    final List<RelatedEntity> page = relatedEntities.stream()
+        .skip(Math.max(0, offset))
+        .limit(Math.max(0, count))
+        .collect(Collectors.toList());
+    return new RelatedEntitiesResult(offset, page.size(), relatedEntities.size(), page);
+  }
+
+  /**
+   * Level-order BFS from the entity, following the lineage edges the {@link LineageRegistry} defines for the type of
+   * each visited entity. Matches the relationships, degrees and paths returned by the Elasticsearch implementation.
+   */
+  @Nonnull
+  @Override
+  public EntityLineageResult getLineage(@Nonnull Urn entityUrn, @Nonnull LineageDirection direction,
+      GraphFilters graphFilters, int offset, int count, int maxHops) {
+    checkReady();
+    final List<int[]> discovered = new ArrayList<>();
+    // Urns of the discovered entities and their parents, resolved under the lock so records are built outside of it
+    final Map<Integer, String> urns = new HashMap<>();
+    final List<String> relationshipTypes;
+    _lock.readLock().lock();
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "getLineage").time()) {
+      final Integer start = _urnIds.get(entityUrn.toString());
+      if (start != null) {
+        traverseLineage(start, direction, graphFilters, maxHops, discovered);
+        urns.put(start, _urns.get(start));
+        discovered.forEach(step -> urns.put(step[0], _urns.get(step[0])));
+      }
+      relationshipTypes = new ArrayList<>(_relationshipTypes);
+    } finally {
+      _lock.readLock().unlock();
+    }
+
+    final Map<Integer, UrnArray> paths = new HashMap<>();
+    final LineageRelationshipArray relationships = new LineageRelationshipArray();
+    for (int[] step : discovered) {
+      final int node = step[0];
+      final int parent = step[1];
+      final Urn nodeUrn = UrnUtils.getUrn(urns.get(node));
+      // Paths of the entity are those of its parent extended with it, the start entity has a path of its own
+      final UrnArray path = new UrnArray(paths.getOrDefault(parent,
+          new UrnArray(Collections.singletonList(UrnUtils.getUrn(urns.get(parent))))));
+      if (step[3] == 1) {
+        path.add(0, nodeUrn);
+      } else {
+        path.add(nodeUrn);
+      }
+      paths.put(node, path);
+      if (relationships.size() < offset + count) {
+        relationships.add(new LineageRelationship().setType(relationshipTypes.get(step[2]))
+            .setEntity(nodeUrn)
+            .setDegree(step[4])
+            .setPaths(new UrnArrayArray(Collections.singletonList(path))));
+      }
+    }
+
+    final List<LineageRelationship> page = offset >= relationships.size() ? Collections.emptyList()
+        : relationships.subList(offset, Math.min(offset + count, relationships.size()));
+    return new EntityLineageResult().setStart(offset)
+        .setCount(page.size())
+        .setTotal(discovered.size())
+        .setRelationships(new LineageRelationshipArray(page));
+  }
+
+  // Appends a {node, parent, relationship type, outgoing (1) or incoming (0), degree} step per discovered entity
+  private void traverseLineage(int start, @Nonnull LineageDirection direction, @Nullable GraphFilters graphFilters,
+      int maxHops, @Nonnull List<int[]> discovered) {
+    final BitSet allowedTypes =
+        toEntityTypeIds(graphFilters == null || graphFilters.getAllowedEntityTypes() == null
+            || graphFilters.getAllowedEntityTypes().isEmpty() ? null : graphFilters.getAllowedEntityTypes());
+    final Map<Integer, List<LineageRegistry.EdgeInfo>> edgesPerEntityType = new HashMap<>();
+    final BitSet visited = new BitSet(_urns.size());
+    visited.set(start);
+    int[] currentLevel = {start};
+
+    for (int hop = 1; hop <= maxHops && currentLevel.length > 0; hop++) {
+      final int degree = hop;
+      final int firstOfLevel = discovered.size();
+      for (int node : currentLevel) {
+        final int entityType = _nodeEntityTypes[node];
+        if (allowedTypes != null && !allowedTypes.get(entityType)) {
+          continue;
+        }
+        final List<LineageRegistry.EdgeInfo> edges = edgesPerEntityType.computeIfAbsent(entityType,
+            type -> _lineageRegistry.getLineageRelationships(_entityTypes.get(type), direction));
+        for (LineageRegistry.EdgeInfo edge : edges) {
+          final Integer relationshipType = _relationshipTypeIds.get(edge.getType());
+          if (relationshipType == null) {
+            continue;
+          }
+          final boolean outgoing = edge.getDirection() == RelationshipDirection.OUTGOING;
+          final RelationshipAdjacency adjacency =
+              outgoing ? _outgoing.get(relationshipType) : _incoming.get(relationshipType);
+          adjacency.forEachNeighbor(node, neighbor -> {
+            final int neighborType = _nodeEntityTypes[neighbor];
+            if (visited.get(neighbor) || !_entityTypes.get(neighborType).equalsIgnoreCase(edge.getOpposingEntityType())
+                || allowedTypes != null && !allowedTypes.get(neighborType)) {
+              return;
+            }
+            visited.set(neighbor);
+            discovered.add(new int[]{neighbor, node, relationshipType, outgoing ? 1 : 0, degree});
+          });
+        }
+      }
+      currentLevel = discovered.subList(firstOfLevel, discovered.size()).stream().mapToInt(step -> step[0]).toArray();
+    }
+  }
+
+  @Override
+  public void removeNode(@Nonnull final Urn urn) {
+    _lock.writeLock().lock();
+    try {
+      final Integer node = _urnIds.get(urn.toString());
+      if (node == null) {
+        return;
+      }
+      for (int relationshipType = 0; relationshipType < _relationshipTypes.size(); relationshipType++) {
+        removeEdges(node, relationshipType, RelationshipDirection.UNDIRECTED);
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    _lock.writeLock().lock();
+    try {
+      final Integer node = _urnIds.get(urn.toString());
+      if (node == null) {
+        return;
+      }
+      for (String relationshipTypeName : relationshipTypes) {
+        final Integer relationshipType = _relationshipTypeIds.get(relationshipTypeName);
+        if (relationshipType != null) {
+          removeEdges(node, relationshipType, relationshipFilter.getDirection());
+        }
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void configure() {
+    // Nothing to set up
+  }
+
+  @Override
+  public void clear() {
+    _lock.writeLock().lock();
+    try {
+      _urnIds.clear();
+      _urns.clear();
+      _nodeEntityTypes = new int[1024];
+      _entityTypeIds.clear();
+      _entityTypes.clear();
+      _relationshipTypeIds.clear();
+      _relationshipTypes.clear();
+      _outgoing.clear();
+      _incoming.clear();
+      _offsets.clear();
+      _clears++;
+      _version.incrementAndGet();
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean supportsMultiHop() {
+    return true;
+  }
+
+  /**
+   * Sets whether the graph is complete enough to serve reads, which fail while it is not.
+   */
+  public void setReady(boolean ready) {
+    _ready = ready;
+  }
+
+  public boolean isReady() {
+    return _ready;
+  }
+
+  /**
+   * Records that the change log of the partition has been applied up to the given offset, exclusive.
+   */
+  public void setOffset(int partition, long offset) {
+    _lock.writeLock().lock();
+    try {
+      _offsets.put(partition, offset);
+      _version.incrementAndGet();
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the next offset to apply for each partition of the change log, empty if the graph was not built from it
+   */
+  @Nonnull
+  public Map<Integer, Long> getOffsets() {
+    _lock.readLock().lock();
+    try {
+      return new HashMap<>(_offsets);
+    } finally {
+      _lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Writes the current graph to the given file, replacing it atomically. The lock is only held to freeze the deltas
+   * of the adjacencies, which takes constant time per adjacency, and to copy the urn dictionary a chunk at a time. The
+   * compacted bases are built from the frozen deltas and written without it, and replace the current ones.
+   */
+  public void writeSnapshot(@Nonnull Path path) throws IOException {
+    final int numNodes;
+    final long clears;
+    final List<String> entityTypes;
+    final List<String> relationshipTypes;
+    final Map<Integer, Long> offsets;
+    final List<RelationshipAdjacency> adjacencies = new ArrayList<>();
+    final List<RelationshipAdjacency.Compaction> compactions = new ArrayList<>();
+    _lock.writeLock().lock();
+    try {
+      for (int relationshipType = 0; relationshipType < _relationshipTypes.size(); relationshipType++) {
+        adjacencies.add(_outgoing.get(relationshipType));
+        adjacencies.add(_incoming.get(relationshipType));
+      }
+      adjacencies.forEach(adjacency -> compactions.add(adjacency.freeze()));
+      numNodes = _urns.size();
+      clears = _clears;
+      entityTypes = new ArrayList<>(_entityTypes);
+      relationshipTypes = new ArrayList<>(_relationshipTypes);
+      offsets = new HashMap<>(_offsets);
+    } finally {
+      _lock.writeLock().unlock();
+    }
+
+    final List<CsrAdjacency> bases =
+        compactions.stream().map(RelationshipAdjacency.Compaction::build).collect(Collectors.toList());
+    _lock.writeLock().lock();
+    try {
+      for (int i = 0; i < adjacencies.size(); i++) {
+        adjacencies.get(i).finishCompaction(compactions.get(i), bases.get(i));
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+
+    final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+      output.writeInt(SNAPSHOT_MAGIC);
+      output.writeInt(SNAPSHOT_VERSION);
+      output.writeInt(numNodes);
+      output.writeInt(relationshipTypes.size());
+      for (CsrAdjacency base : bases) {
+        base.writeTo(output);
+      }
+      writeStrings(output, entityTypes);
+      writeStrings(output, relationshipTypes);
+      output.writeInt(offsets.size());
+      for (Map.Entry<Integer, Long> offset : offsets.entrySet()) {
+        output.writeInt(offset.getKey());
+        output.writeLong(offset.getValue());
+      }
+      // Nodes are only ever appended, so those the bases refer to keep their urn and type until the graph is cleared
+      for (int start = 0; start < numNodes; start += SNAPSHOT_URN_CHUNK_SIZE) {
+        final int end = Math.min(numNodes, start + SNAPSHOT_URN_CHUNK_SIZE);
+        final List<String> urns;
+        final int[] nodeEntityTypes;
+        _lock.readLock().lock();
+        try {
+          if (_clears != clears) {
+            throw new IOException("The graph was cleared while its snapshot was being written to " + path);
+          }
+          urns = new ArrayList<>(_urns.subList(start, end));
+          nodeEntityTypes = Arrays.copyOfRange(_nodeEntityTypes, start, end);
+        } finally {
+          _lock.readLock().unlock();
+        }
+        for (int i = 0; i < urns.size(); i++) {
+          output.writeUTF(urns.get(i));
+          output.writeInt(nodeEntityTypes[i]);
+        }
+      }
+    }
+    Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    log.info("Wrote graph snapshot of {} nodes and {} relationship types to {}", numNodes, relationshipTypes.size(),
+        path);
+  }
+
+  /**
+   * Replaces the graph with the one of the given snapshot file. The adjacencies are memory-mapped rather than read,
+   * so loading costs little beyond reading the urn dictionary.
+   */
+  public void loadSnapshot(@Nonnull Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+      if (header.readInt() != SNAPSHOT_MAGIC || header.readInt() != SNAPSHOT_VERSION) {
+        throw new IOException("Not a graph snapshot of a supported version: " + path);
+      }
+      final int numNodes = header.readInt();
+      final int numRelationshipTypes = header.readInt();
+
+      // Mappings stay valid after the channel is closed
+      final List<RelationshipAdjacency> outgoing = new ArrayList<>();
+      final List<RelationshipAdjacency> incoming = new ArrayList<>();
+      long position = HEADER_BYTES;
+      for (int relationshipType = 0; relationshipType < numRelationshipTypes; relationshipType++) {
+        final CsrAdjacency outgoingBase = CsrAdjacency.map(channel, position);
+        position += outgoingBase.sizeInBytes();
+        final CsrAdjacency incomingBase = CsrAdjacency.map(channel, position);
+        position += incomingBase.sizeInBytes();
+        outgoing.add(new RelationshipAdjacency(outgoingBase));
+        incoming.add(new RelationshipAdjacency(incomingBase));
+      }
+
+      channel.position(position);
+      final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      final List<String> entityTypes = readStrings(input);
+      final List<String> relationshipTypes = readStrings(input);
+      final Map<Integer, Long> offsets = new HashMap<>();
+      final int numOffsets = input.readInt();
+      for (int i = 0; i < numOffsets; i++) {
+        offsets.put(input.readInt(), input.readLong());
+      }
+      final List<String> urns = new ArrayList<>(numNodes);
+      final int[] nodeEntityTypes = new int[Math.max(numNodes, 1024)];
+      for (int node = 0; node < numNodes; node++) {
+        urns.add(input.readUTF());
+        nodeEntityTypes[node] = input.readInt();
+      }
+
+      _lock.writeLock().lock();
+      try {
+        clear();
+        _urns.addAll(urns);
+        for (int node = 0; node < urns.size(); node++) {
+          _urnIds.put(urns.get(node), node);
+        }
+        _nodeEntityTypes = nodeEntityTypes;
+        _entityTypes.addAll(entityTypes);
+        for (int entityType = 0; entityType < entityTypes.size(); entityType++) {
+          _entityTypeIds.put(entityTypes.get(entityType), entityType);
+        }
+        _relationshipTypes.addAll(relationshipTypes);
+        for (int relationshipType = 0; relationshipType < relationshipTypes.size(); relationshipType++) {
+          _relationshipTypeIds.put(relationshipTypes.get(relationshipType), relationshipType);
+        }
+        _outgoing.addAll(outgoing);
+        _incoming.addAll(incoming);
+        _offsets.putAll(offsets);
+      } finally {
+        _lock.writeLock().unlock();
+      }
+      log.info("Loaded graph snapshot of {} nodes and {} relationship types from {}", numNodes, numRelationshipTypes,
+          path);
+    }
+  }
+
+  /**
+   * Writes a snapshot to the given file at a fixed interval, skipping it while the graph is unchanged or not ready.
+   */
+  public synchronized void scheduleSnapshots(@Nonnull Path path, long intervalSeconds) {
+    if (_snapshotExecutor != null) {
+      _snapshotExecutor.shutdown();
+    }
+    _snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "embedded-graph-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final AtomicLong snapshotVersion = new AtomicLong(_version.get());
+    _snapshotExecutor.scheduleWithFixedDelay(() -> {
+      final long version = _version.get();
+      if (!_ready || version == snapshotVersion.get()) {
+        return;
+      }
+      try {
+        writeSnapshot(path);
+        snapshotVersion.set(version);
+      } catch (IOException | RuntimeException e) {
+        log.error("Failed to write graph snapshot to {}", path, e);
+      }
+    }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  private void checkReady() {
+    if (!_ready) {
+      throw new IllegalStateException("The embedded graph is being built and cannot serve reads yet");
+    }
+  }
+
+  private void removeEdges(int node, int relationshipType, @Nonnull RelationshipDirection direction) {
+    if (direction != RelationshipDirection.INCOMING) {
+      for (int destination : _outgoing.get(relationshipType).neighbors(node)) {
+        removeEdge(node, destination, relationshipType);
+      }
+    }
+    if (direction != RelationshipDirection.OUTGOING) {
+      for (int source : _incoming.get(relationshipType).neighbors(node)) {
+        removeEdge(source, node, relationshipType);
+      }
+    }
+  }
+
+  private void removeEdge(int source, int destination, int relationshipType) {
+    if (_outgoing.get(relationshipType).remove(source, destination)) {
+      _incoming.get(relationshipType).remove(destination, source);
+      onChange(relationshipType);
+    }
+  }
+
+  private void onChange(int relationshipType) {
+    _version.incrementAndGet();
+    compactIfNeeded(_outgoing.get(relationshipType));
+    compactIfNeeded(_incoming.get(relationshipType));
+  }
+
+  // Freezes the delta of the adjacency once it is large, and folds it into a new base in the background
+  private void compactIfNeeded(@Nonnull RelationshipAdjacency adjacency) {
+    if (adjacency.deltaSize() <= _compactionThreshold || adjacency.isCompacting()) {
+      return;
+    }
+    MetricUtils.counter(this.getClass(), "compaction").inc();
+    adjacency.setCompacting(true);
+    final RelationshipAdjacency.Compaction compaction = adjacency.freeze();
+    _compactionExecutor.execute(() -> {
+      CsrAdjacency compacted = null;
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "compaction_latency").time()) {
+        compacted = compaction.build();
+      } catch (RuntimeException e) {
+        // The frozen deltas stay on top of the base and are folded by the next compaction
+        MetricUtils.counter(this.getClass(), "compaction_failure").inc();
+        log.error("Failed to compact an adjacency of the embedded graph", e);
+      }
+      _lock.writeLock().lock();
+      try {
+        if (compacted != null) {
+          adjacency.finishCompaction(compaction, compacted);
+        }
+        adjacency.setCompacting(false);
+      } finally {
+        _lock.writeLock().unlock();
+      }
+    });
+  }
+
+  private int getOrCreateNode(@Nonnull Urn urn) {
+    final String urnString = urn.toString();
+    final Integer existing = _urnIds.get(urnString);
+    if (existing != null) {
+      return existing;
+    }
+    final int node = _urns.size();
+    _urns.add(urnString);
+    _urnIds.put(urnString, node);
+    if (node == _nodeEntityTypes.length) {
+      _nodeEntityTypes = Arrays.copyOf(_nodeEntityTypes, node * 2);
+    }
+    _nodeEntityTypes[node] = _entityTypeIds.computeIfAbsent(urn.getEntityType(), entityType -> {
+      _entityTypes.add(entityType);
+      return _entityTypes.size() - 1;
+    });
+    return node;
+  }
+
+  private int getOrCreateRelationshipType(@Nonnull String relationshipType) {
+    return _relationshipTypeIds.computeIfAbsent(relationshipType, type -> {
+      _relationshipTypes.add(type);
+      _outgoing.add(new RelationshipAdjacency());
+      _incoming.add(new RelationshipAdjacency());
+      return _relationshipTypes.size() - 1;
+    });
+  }
+
+  @Nonnull
+  private List<RelationshipAdjacency> getAdjacencies(int relationshipType, @Nonnull RelationshipDirection direction) {
+    switch (direction) {
+      case OUTGOING:
+        return Collections.singletonList(_outgoing.get(relationshipType));
+      case INCOMING:
+        return Collections.singletonList(_incoming.get(relationshipType));
+      default:
+        return Arrays.asList(_outgoing.get(relationshipType), _incoming.get(relationshipType));
+    }
+  }
+
+  // Ids of the entity types, or null for any type
+  @Nullable
+  private BitSet toEntityTypeIds(@Nullable List<String> entityTypes) {
+    if (entityTypes == null) {
+      return null;
+    }
+    final BitSet ids = new BitSet(_entityTypes.size());
+    entityTypes.stream().map(_entityTypeIds::get).filter(id -> id != null).forEach(ids::set);
+    return ids;
+  }
+
+  // Nodes the filter is restricted to when every conjunction requires an urn, all nodes otherwise
+  @Nonnull
+  private Iterable<Integer> getCandidateNodes(@Nonnull Filter filter) {
+    final List<ConjunctiveCriterion> conjunctions = filter.hasOr() ? filter.getOr() : Collections.emptyList();
+    final Set<Integer> candidates = new LinkedHashSet<>();
+    for (ConjunctiveCriterion conjunction : conjunctions) {
+      final Criterion urnCriterion = conjunction.getAnd()
+          .stream()
+          .filter(criterion -> "urn".equals(criterion.getField()))
+          .findFirst()
+          .orElse(null);
+      if (urnCriterion == null) {
+        return allNodes();
+      }
+      final Integer node = _urnIds.get(urnCriterion.getValue());
+      if (node != null) {
+        candidates.add(node);
+      }
+    }
+    return conjunctions.isEmpty() ? allNodes() : candidates;
+  }
+
+  @Nonnull
+  private Iterable<Integer> allNodes() {
+    final int numNodes = _urns.size();
+    return () -> IntStream.range(0, numNodes).iterator();
+  }
+
+  private boolean matches(int node, @Nullable BitSet allowedTypes, @Nonnull Filter filter) {
+    if (allowedTypes != null && !allowedTypes.get(_nodeEntityTypes[node])) {
+      return false;
+    }
+    if (!filter.hasOr() || filter.getOr().isEmpty()) {
+      return true;
+    }
+    return filter.getOr().stream().anyMatch(conjunction -> conjunction.getAnd().stream().allMatch(criterion -> {
+      if (criterion.getCondition() != Condition.EQUAL) {
+        throw new RuntimeException("Currently embedded graph filter only supports EQUAL condition " + criterion);
+      }
+      switch (criterion.getField()) {
+        case "urn":
+          return _urns.get(node).equals(criterion.getValue());
+        case "entityType":
+          return _entityTypes.get(_nodeEntityTypes[node]).equals(criterion.getValue());
+        default:
+          return false;
+      }
+    }));
+  }
+
+  private static void writeStrings(@Nonnull DataOutputStream output, @Nonnull List<String> strings)
+      throws IOException {
+    output.writeInt(strings.size());
+    for (String string : strings) {
+      output.writeUTF(string);
+    }
+  }
+
+  @Nonnull
+  private static List<String> readStrings(@Nonnull DataInputStream input) throws IOException {
+    final int size = input.readInt();
+    final List<String> strings = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      strings.add(input.readUTF());
+    }
+    return strings;
+  }
+}
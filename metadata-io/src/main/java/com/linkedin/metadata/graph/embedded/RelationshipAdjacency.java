@@ -0,0 +1,359 @@
+package com.linkedin.metadata.graph.embedded;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Adjacency of one relationship type in one direction: an immutable {@link CsrAdjacency} base, the deltas frozen for
+ * a compaction in progress, and the active delta of the edges added and removed since. Writes only touch the small
+ * on-heap active delta.
+ *
+ * A compaction freezes the active delta in constant time, then folds the base and the frozen deltas, which no longer
+ * change, into a new base without holding the {@link EmbeddedGraphService} lock. Everything else is not thread-safe,
+ * the lock guards all other access.
+ */
+final class RelationshipAdjacency {
+
+  private CsrAdjacency _base;
+  // Oldest first, each relative to the base and the deltas before it
+  private List<Delta> _frozen = Collections.emptyList();
+  private Delta _active = new Delta();
+  private boolean _compacting = false;
+
+  RelationshipAdjacency() {
+    this(CsrAdjacency.EMPTY);
+  }
+
+  RelationshipAdjacency(@Nonnull CsrAdjacency base) {
+    _base = base;
+  }
+
+  /**
+   * @return the number of edges added or removed since the last freeze
+   */
+  int deltaSize() {
+    return _active.size();
+  }
+
+  boolean contains(int node, int target) {
+    final Boolean contained = _active.lookup(node, target);
+    return contained != null ? contained : contains(_base, _frozen, node, target);
+  }
+
+  /**
+   * @return whether the edge was not there before
+   */
+  boolean add(int node, int target) {
+    if (contains(node, target)) {
+      return false;
+    }
+    // Either the edge was removed by the active delta, or it is not in the layers below it
+    if (!_active.unremove(node, target)) {
+      _active.add(node, target);
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the edge was there before
+   */
+  boolean remove(int node, int target) {
+    if (_active.unadd(node, target)) {
+      return true;
+    }
+    return contains(_base, _frozen, node, target) && _active.remove(node, target);
+  }
+
+  /**
+   * Calls the consumer with each neighbor of the node, in ascending order.
+   */
+  void forEachNeighbor(int node, @Nonnull IntConsumer consumer) {
+    if (isTouched(_frozen, _active, node)) {
+      for (int target : neighbors(_base, _frozen, _active, node)) {
+        consumer.accept(target);
+      }
+      return;
+    }
+    final int index = _base.indexOf(node);
+    final int end = _base.end(index);
+    for (int i = _base.start(index); i < end; i++) {
+      consumer.accept(_base.target(i));
+    }
+  }
+
+  /**
+   * @return the neighbors of the node, in ascending order
+   */
+  @Nonnull
+  int[] neighbors(int node) {
+    return neighbors(_base, _frozen, _active, node);
+  }
+
+  boolean isCompacting() {
+    return _compacting;
+  }
+
+  void setCompacting(boolean compacting) {
+    _compacting = compacting;
+  }
+
+  /**
+   * Freezes the active delta, so that it and the earlier frozen ones can be folded into a new base by the returned
+   * compaction without the lock.
+   */
+  @Nonnull
+  Compaction freeze() {
+    if (_active.size() > 0) {
+      final List<Delta> frozen = new ArrayList<>(_frozen);
+      frozen.add(_active);
+      _frozen = Collections.unmodifiableList(frozen);
+      _active = new Delta();
+    }
+    return new Compaction(_base, _frozen);
+  }
+
+  /**
+   * Replaces the base and the deltas the compaction was built from with its result, unless another compaction has
+   * replaced the base in the meantime. Deltas frozen since the compaction started stay on top of the new base.
+   */
+  void finishCompaction(@Nonnull Compaction compaction, @Nonnull CsrAdjacency compacted) {
+    if (_base != compaction._base) {
+      return;
+    }
+    _base = compacted;
+    _frozen = Collections.unmodifiableList(new ArrayList<>(_frozen.subList(compaction._deltas.size(), _frozen.size())));
+  }
+
+  /**
+   * Base and frozen deltas of an adjacency, none of which change any more, to be folded into a new base.
+   */
+  static final class Compaction {
+
+    private final CsrAdjacency _base;
+    private final List<Delta> _deltas;
+
+    private Compaction(@Nonnull CsrAdjacency base, @Nonnull List<Delta> deltas) {
+      _base = base;
+      _deltas = deltas;
+    }
+
+    /**
+     * @return a base holding the edges of the base and the deltas, which is the base itself if there are no deltas
+     */
+    @Nonnull
+    CsrAdjacency build() {
+      if (_deltas.isEmpty()) {
+        return _base;
+      }
+
+      // Nodes with edges in the base or added by a delta, ascending, and how many edges each of them ends up with
+      final int[] candidates = mergeSorted(_base, addedNodes(_deltas));
+      final int[] degrees = new int[candidates.length];
+      long numEdges = 0;
+      int numNodes = 0;
+      for (int i = 0; i < candidates.length; i++) {
+        final int node = candidates[i];
+        if (isTouched(_deltas, null, node)) {
+          degrees[i] = neighbors(_base, _deltas, null, node).length;
+        } else {
+          final int index = _base.indexOf(node);
+          degrees[i] = _base.end(index) - _base.start(index);
+        }
+        numEdges += degrees[i];
+        numNodes += degrees[i] > 0 ? 1 : 0;
+      }
+      if (numEdges > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Too many edges for a single relationship type: " + numEdges);
+      }
+
+      final CsrAdjacency compacted = CsrAdjacency.allocate(numNodes, (int) numEdges);
+      int index = 0;
+      int offset = 0;
+      for (int i = 0; i < candidates.length; i++) {
+        if (degrees[i] == 0) {
+          continue;
+        }
+        final int node = candidates[i];
+        compacted.setNode(index, node);
+        compacted.setOffset(index++, offset);
+        if (isTouched(_deltas, null, node)) {
+          for (int target : neighbors(_base, _deltas, null, node)) {
+            compacted.setTarget(offset++, target);
+          }
+        } else {
+          final int baseIndex = _base.indexOf(node);
+          final int end = _base.end(baseIndex);
+          for (int position = _base.start(baseIndex); position < end; position++) {
+            compacted.setTarget(offset++, _base.target(position));
+          }
+        }
+      }
+      compacted.setOffset(numNodes, offset);
+      return compacted;
+    }
+
+    @Nonnull
+    private static int[] addedNodes(@Nonnull List<Delta> deltas) {
+      return deltas.stream()
+          .flatMap(delta -> delta._added.keySet().stream())
+          .mapToInt(Integer::intValue)
+          .sorted()
+          .distinct()
+          .toArray();
+    }
+
+    // Union of the nodes of the base and the given sorted nodes, ascending
+    @Nonnull
+    private static int[] mergeSorted(@Nonnull CsrAdjacency base, @Nonnull int[] nodes) {
+      final int[] merged = new int[base.numNodes() + nodes.length];
+      int size = 0;
+      int i = 0;
+      int j = 0;
+      while (i < base.numNodes() || j < nodes.length) {
+        final int node;
+        if (j == nodes.length || i < base.numNodes() && base.node(i) < nodes[j]) {
+          node = base.node(i++);
+        } else if (i == base.numNodes() || nodes[j] < base.node(i)) {
+          node = nodes[j++];
+        } else {
+          node = base.node(i++);
+          j++;
+        }
+        merged[size++] = node;
+      }
+      return Arrays.copyOf(merged, size);
+    }
+  }
+
+  private static boolean contains(@Nonnull CsrAdjacency base, @Nonnull List<Delta> deltas, int node, int target) {
+    for (int i = deltas.size() - 1; i >= 0; i--) {
+      final Boolean contained = deltas.get(i).lookup(node, target);
+      if (contained != null) {
+        return contained;
+      }
+    }
+    return base.contains(node, target);
+  }
+
+  private static boolean isTouched(@Nonnull List<Delta> deltas, @Nullable Delta active, int node) {
+    if (active != null && active.touches(node)) {
+      return true;
+    }
+    for (Delta delta : deltas) {
+      if (delta.touches(node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Neighbors of the node in the base with the deltas applied in order, ascending
+  @Nonnull
+  private static int[] neighbors(@Nonnull CsrAdjacency base, @Nonnull List<Delta> deltas, @Nullable Delta active,
+      int node) {
+    final int index = base.indexOf(node);
+    if (!isTouched(deltas, active, node)) {
+      final int[] neighbors = new int[base.end(index) - base.start(index)];
+      for (int i = 0; i < neighbors.length; i++) {
+        neighbors[i] = base.target(base.start(index) + i);
+      }
+      return neighbors;
+    }
+
+    final Set<Integer> neighbors = new TreeSet<>();
+    final int end = base.end(index);
+    for (int i = base.start(index); i < end; i++) {
+      neighbors.add(base.target(i));
+    }
+    deltas.forEach(delta -> delta.applyTo(node, neighbors));
+    if (active != null) {
+      active.applyTo(node, neighbors);
+    }
+    return neighbors.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Edges added to and removed from the layers below, i.e. the base and the deltas before it.
+   */
+  private static final class Delta {
+
+    private final Map<Integer, Set<Integer>> _added = new HashMap<>();
+    private final Map<Integer, Set<Integer>> _removed = new HashMap<>();
+    private int _size = 0;
+
+    int size() {
+      return _size;
+    }
+
+    boolean touches(int node) {
+      return _added.containsKey(node) || _removed.containsKey(node);
+    }
+
+    /**
+     * @return whether the delta adds the edge, removes it, or null if it leaves it to the layers below
+     */
+    @Nullable
+    Boolean lookup(int node, int target) {
+      if (_added.getOrDefault(node, Collections.emptySet()).contains(target)) {
+        return true;
+      }
+      if (_removed.getOrDefault(node, Collections.emptySet()).contains(target)) {
+        return false;
+      }
+      return null;
+    }
+
+    void add(int node, int target) {
+      put(_added, node, target);
+    }
+
+    boolean remove(int node, int target) {
+      return put(_removed, node, target);
+    }
+
+    // Drops an edge added by this delta
+    boolean unadd(int node, int target) {
+      return drop(_added, node, target);
+    }
+
+    // Drops the removal of an edge of the layers below
+    boolean unremove(int node, int target) {
+      return drop(_removed, node, target);
+    }
+
+    void applyTo(int node, @Nonnull Set<Integer> neighbors) {
+      neighbors.removeAll(_removed.getOrDefault(node, Collections.emptySet()));
+      neighbors.addAll(_added.getOrDefault(node, Collections.emptySet()));
+    }
+
+    private boolean put(@Nonnull Map<Integer, Set<Integer>> edges, int node, int target) {
+      if (!edges.computeIfAbsent(node, k -> new TreeSet<>()).add(target)) {
+        return false;
+      }
+      _size++;
+      return true;
+    }
+
+    private boolean drop(@Nonnull Map<Integer, Set<Integer>> edges, int node, int target) {
+      final Set<Integer> targets = edges.get(node);
+      if (targets == null || !targets.remove(target)) {
+        return false;
+      }
+      if (targets.isEmpty()) {
+        edges.remove(node);
+      }
+      _size--;
+      return true;
+    }
+  }
+}
@@ -4,7 +4,10 @@ import com.codahale.metrics.Timer;
 import com.datahub.util.Statement;
 import com.datahub.util.exception.RetryLimitReached;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 import com.linkedin.common.urn.Urn;
 
 import com.linkedin.metadata.graph.Edge;
@@ -27,11 +30,17 @@ import com.linkedin.metadata.utils.metrics.MetricUtils;
 
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -55,9 +64,15 @@ import org.neo4j.driver.internal.InternalRelationship;
 public class Neo4jGraphService implements GraphService {
 
   private static final int MAX_TRANSACTION_RETRY = 3;
+  // Edges written per transaction. A batch locks the stripes of up to twice as many urns, so batches are kept small
+  // enough that concurrent batches rarely share a stripe
+  private static final int MAX_BATCH_SIZE = 100;
+  // Far more stripes than the urns of a batch squared, locks are only allocated for stripes in use
+  private static final int URN_LOCK_STRIPES = 1 << 20;
   private final LineageRegistry _lineageRegistry;
   private final Driver _driver;
   private SessionConfig _sessionConfig;
+  private final Striped<Lock> _urnLocks = Striped.lazyWeakLock(URN_LOCK_STRIPES);
 
   public Neo4jGraphService(@Nonnull LineageRegistry lineageRegistry, @Nonnull Driver driver) {
     this(lineageRegistry, driver, SessionConfig.defaultConfig());
@@ -76,35 +91,89 @@ public class Neo4jGraphService implements GraphService {
 
   @Override
   public void addEdge(@Nonnull final Edge edge) {
+    addEdges(Collections.singletonList(edge));
+  }
 
-    log.debug(String.format("Adding Edge source: %s, destination: %s, type: %s",
-        edge.getSource(),
-        edge.getDestination(),
-        edge.getRelationshipType()));
-
-    final String sourceType = edge.getSource().getEntityType();
-    final String destinationType = edge.getDestination().getEntityType();
+  /**
+   * Adds the edges in batches of {@link #MAX_BATCH_SIZE}, each written in one transaction by one UNWIND statement per
+   * source type, destination type and relationship type. Labels and relationship types can not be parameters.
+   */
+  @Override
+  public void addEdges(@Nonnull final List<Edge> edges) {
+    log.debug(String.format("Adding %d Edges", edges.size()));
 
-    final List<Statement> statements = new ArrayList<>();
+    for (List<Edge> batch : Lists.partition(edges, MAX_BATCH_SIZE)) {
+      executeStatements(getAddEdgesStatements(batch), getUrns(batch));
+    }
+  }
 
-    // Add/Update source & destination node first
-    statements.add(getOrInsertNode(edge.getSource()));
-    statements.add(getOrInsertNode(edge.getDestination()));
+  /**
+   * Removes the outgoing edges of the given relationship types and adds the new ones of the first batch in a single
+   * transaction, so readers never see the node without its edges.
+   */
+  @Override
+  public void replaceEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final List<Edge> edges) {
+    final List<List<Edge>> batches = Lists.partition(edges, MAX_BATCH_SIZE);
+    final List<Edge> firstBatch = batches.isEmpty() ? Collections.emptyList() : batches.get(0);
 
-    // Add/Update relationship
-    final String mergeRelationshipTemplate =
-        "MATCH (source:%s {urn: $sourceUrn}),(destination:%s {urn: $destinationUrn}) MERGE (source)-[r:%s]->(destination) SET r = $properties";
-    final String statement =
-        String.format(mergeRelationshipTemplate, sourceType, destinationType, edge.getRelationshipType());
+    final List<Statement> statements = new ArrayList<>();
+    // As in removeEdgesFromNode, an empty list of relationship types removes the outgoing edges of every type
+    String relationshipTypeFilter = "";
+    if (relationshipTypes.size() > 0) {
+      relationshipTypeFilter = ":" + StringUtils.join(relationshipTypes, "|");
+    }
+    final Map<String, Object> params = new HashMap<>();
+    params.put("urn", urn.toString());
+    statements.add(buildStatement(String.format("MATCH (src {urn: $urn})-[r%s]->(dest) DELETE r",
+        relationshipTypeFilter), params));
+    statements.addAll(getAddEdgesStatements(firstBatch));
+    final Set<String> urns = getUrns(firstBatch);
+    urns.add(urn.toString());
+    executeStatements(statements, urns);
+
+    for (List<Edge> batch : batches.subList(Math.min(1, batches.size()), batches.size())) {
+      executeStatements(getAddEdgesStatements(batch), getUrns(batch));
+    }
+  }
 
-    final Map<String, Object> paramsMerge = new HashMap<>();
-    paramsMerge.put("sourceUrn", edge.getSource().toString());
-    paramsMerge.put("destinationUrn", edge.getDestination().toString());
-    paramsMerge.put("properties", new HashMap<>());
+  @Nonnull
+  private List<Statement> getAddEdgesStatements(@Nonnull final List<Edge> edges) {
+    final String mergeEdgesTemplate = "UNWIND $edges AS edge "
+        + "MERGE (source:%s {urn: edge.sourceUrn}) "
+        + "MERGE (destination:%s {urn: edge.destinationUrn}) "
+        + "MERGE (source)-[r:%s]->(destination) SET r = edge.properties";
+
+    final Map<List<String>, List<Map<String, Object>>> rowsByLabels = new LinkedHashMap<>();
+    for (Edge edge : edges) {
+      final Map<String, Object> row = new HashMap<>();
+      row.put("sourceUrn", edge.getSource().toString());
+      row.put("destinationUrn", edge.getDestination().toString());
+      row.put("properties", new HashMap<>());
+      rowsByLabels.computeIfAbsent(Arrays.asList(edge.getSource().getEntityType(),
+          edge.getDestination().getEntityType(), edge.getRelationshipType()), k -> new ArrayList<>()).add(row);
+    }
 
-    statements.add(buildStatement(statement, paramsMerge));
+    return rowsByLabels.entrySet()
+        .stream()
+        .map(entry -> {
+          final List<String> labels = entry.getKey();
+          final Map<String, Object> params = new HashMap<>();
+          params.put("edges", entry.getValue());
+          return buildStatement(String.format(mergeEdgesTemplate, labels.get(0), labels.get(1), labels.get(2)),
+              params);
+        })
+        .collect(Collectors.toList());
+  }
 
-    executeStatements(statements);
+  @Nonnull
+  private static Set<String> getUrns(@Nonnull final List<Edge> edges) {
+    final Set<String> urns = new HashSet<>();
+    for (Edge edge : edges) {
+      urns.add(edge.getSource().toString());
+      urns.add(edge.getDestination().toString());
+    }
+    return urns;
   }
 
   @Override
@@ -296,7 +365,8 @@ public class Neo4jGraphService implements GraphService {
     final Map<String, Object> params = new HashMap<>();
     params.put("urn", urn.toString());
 
-    runQuery(buildStatement(statement, params)).consume();
+    executeStatements(Collections.singletonList(buildStatement(statement, params)),
+        Collections.singleton(urn.toString()));
   }
 
   public void removeEdgesFromNode(
@@ -328,7 +398,8 @@ public class Neo4jGraphService implements GraphService {
     final Map<String, Object> params = new HashMap<>();
     params.put("urn", urn.toString());
 
-    runQuery(buildStatement(statement, params)).consume();
+    executeStatements(Collections.singletonList(buildStatement(statement, params)),
+        Collections.singleton(urn.toString()));
   }
 
   public void removeNodesMatchingLabel(@Nonnull String labelPattern) {
@@ -384,16 +455,29 @@ public class Neo4jGraphService implements GraphService {
   }
 
   /**
-   * Executes a list of statements with parameters in one transaction.
+   * Executes a list of statements with parameters in one transaction, retrying the whole transaction on failure.
+   *
+   * Writes to the same nodes are serialized by locking the stripes of their urns, which avoids most of the deadlocks
+   * concurrent MERGEs of a node run into, while writes to unrelated nodes proceed in parallel. Nodes a statement only
+   * touches through a relationship, such as the neighbours of a removed node, are not locked. Neo4j detects the
+   * deadlocks these can still cause and the transaction is retried.
    *
    * @param statements List of statements with parameters to be executed in order
+   * @param urns urns of all nodes the statements create, merge or delete
    */
-  private synchronized ExecutionResult executeStatements(@Nonnull List<Statement> statements) {
+  private ExecutionResult executeStatements(@Nonnull List<Statement> statements, @Nonnull Collection<String> urns) {
+    if (statements.isEmpty()) {
+      return new ExecutionResult(0, 0);
+    }
     int retry = 0;
     final StopWatch stopWatch = new StopWatch();
     stopWatch.start();
     Exception lastException;
-    try (final Session session = _driver.session(_sessionConfig)) {
+    // Stripes are returned in a fixed order, so threads locking overlapping sets of them can not deadlock
+    final List<Lock> locks = ImmutableList.copyOf(_urnLocks.bulkGet(urns));
+    locks.forEach(Lock::lock);
+    try (final Session session = _driver.session(_sessionConfig);
+        Timer.Context ignored = MetricUtils.timer(this.getClass(), "executeStatements").time()) {
       do {
         try {
           session.writeTransaction(tx -> {
@@ -405,9 +489,12 @@ public class Neo4jGraphService implements GraphService {
           lastException = null;
           break;
         } catch (Neo4jException e) {
+          MetricUtils.counter(this.getClass(), "transactionRetry").inc();
           lastException = e;
         }
       } while (++retry <= MAX_TRANSACTION_RETRY);
+    } finally {
+      Lists.reverse(locks).forEach(Lock::unlock);
     }
 
     if (lastException != null) {
@@ -502,22 +589,6 @@ public class Neo4jGraphService implements GraphService {
     return joiner.length() <= 2 ? "" : joiner.toString();
   }
 
-  /**
-   * Gets Node based on Urn, if not exist, creates placeholder node.
-   */
-  @Nonnull
-  private Statement getOrInsertNode(@Nonnull Urn urn) {
-    final String nodeType = urn.getEntityType();
-
-    final String mergeTemplate = "MERGE (node:%s {urn: $urn}) RETURN node";
-    final String statement = String.format(mergeTemplate, nodeType);
-
-    final Map<String, Object> params = new HashMap<>();
-    params.put("urn", urn.toString());
-
-    return buildStatement(statement, params);
-  }
-
   @Override
   public boolean supportsMultiHop() {
     return true;
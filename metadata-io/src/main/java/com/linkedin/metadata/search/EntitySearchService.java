@@ -37,6 +37,15 @@ public interface EntitySearchService {
    */
   void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId);
 
+  /**
+   * Updates or inserts the given search document.
+   *
+   * @param entityName name of the entity
+   * @param document the document to update / insert, as UTF-8 JSON
+   * @param docId the ID of the document
+   */
+  void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId);
+
   /**
    * Deletes the document with the given document ID from the index.
    *
@@ -70,6 +79,23 @@ public interface EntitySearchService {
   SearchResult search(@Nonnull String entityName, @Nonnull String input, @Nullable Filter postFilters,
       @Nullable SortCriterion sortCriterion, int from, int size);
 
+  /**
+   * Gets a list of documents of several entities that match given search request, with a single request to the search
+   * backend. The hits of all entities are ranked together, and the aggregations include the number of results per
+   * entity under the name "entity".
+   *
+   * @param entityNames names of the entities to search
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param from index to start the search from
+   * @param size the number of search hits to return
+   * @return a {@link com.linkedin.metadata.dao.SearchResult} that contains a list of matched documents and related search result metadata
+   */
+  @Nonnull
+  SearchResult searchAcrossEntities(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size);
+
   /**
    * Gets a list of documents after applying the input filters.
    *
@@ -8,6 +8,7 @@ import com.linkedin.data.template.StringArray;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.graph.EntityLineageResult;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageClosureIndex;
 import com.linkedin.metadata.graph.LineageDirection;
 import com.linkedin.metadata.graph.LineageRelationship;
 import com.linkedin.metadata.graph.LineageRelationshipArray;
@@ -17,6 +18,7 @@ import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.cache.CachedEntityLineageResult;
+import com.linkedin.metadata.search.cache.SingleFlight;
 import com.linkedin.metadata.search.utils.FilterUtils;
 import com.linkedin.metadata.search.utils.QueryUtils;
 import com.linkedin.metadata.search.utils.SearchUtils;
@@ -26,6 +28,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -38,6 +41,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.springframework.cache.Cache;
 
 
@@ -49,6 +53,11 @@ public class LineageSearchService {
   @Nullable
   private final Cache cache;
   private final boolean cacheEnabled;
+  @Nullable
+  private LineageClosureIndex _lineageClosureIndex;
+  // Concurrent lineage requests for the same source share a single graph traversal
+  private final SingleFlight<Triple<Urn, LineageDirection, Integer>, EntityLineageResult> lineageSingleFlight =
+      new SingleFlight<>("getLineage", LINEAGE_SINGLE_FLIGHT_TIMEOUT_MS);
 
   private static final String DEGREE_FILTER = "degree";
   private static final String DEGREE_FILTER_INPUT = "degree.keyword";
@@ -60,6 +69,15 @@ public class LineageSearchService {
   private static final int MAX_TERMS = 50000;
   private static final SearchFlags SKIP_CACHE = new SearchFlags().setSkipCache(true);
   private static final long DAY_IN_MS = 24 * 60 * 60 * 1000;
+  private static final long LINEAGE_SINGLE_FLIGHT_TIMEOUT_MS = 60000;
+
+  /**
+   * Sets the index of precomputed lineage to read multi-hop lineage from before walking the graph, or null if there
+   * is none.
+   */
+  public void setLineageClosureIndex(@Nullable LineageClosureIndex lineageClosureIndex) {
+    _lineageClosureIndex = lineageClosureIndex;
+  }
 
   /**
    * Gets a list of documents that match given search request that is related to the input entity
@@ -85,11 +103,14 @@ public class LineageSearchService {
         ? cache.get(Pair.of(sourceUrn, direction), CachedEntityLineageResult.class) : null;
     EntityLineageResult lineageResult;
     if (cachedLineageResult == null) {
-      maxHops = maxHops != null ? maxHops : 1000;
-      lineageResult = _graphService.getLineage(sourceUrn, direction, 0, MAX_RELATIONSHIPS, maxHops);
-      if (cacheEnabled) {
-        cache.put(Pair.of(sourceUrn, direction), new CachedEntityLineageResult(lineageResult, System.currentTimeMillis()));
-      }
+      final int hops = maxHops != null ? maxHops : 1000;
+      lineageResult = lineageSingleFlight.execute(Triple.of(sourceUrn, direction, hops), () -> {
+        EntityLineageResult result = getLineage(sourceUrn, direction, hops);
+        if (cacheEnabled) {
+          cache.put(Pair.of(sourceUrn, direction), new CachedEntityLineageResult(result, System.currentTimeMillis()));
+        }
+        return result;
+      });
     } else {
       lineageResult = cachedLineageResult.getEntityLineageResult();
       if (System.currentTimeMillis() - cachedLineageResult.getTimestamp() > DAY_IN_MS) {
@@ -97,18 +118,33 @@ public class LineageSearchService {
       }
     }
 
-    // set schemaField relationship entity to be its reference urn
+    // set schemaField relationship entity to be its reference urn. The lineage result may be shared with concurrent
+    // requests and the cache, so it is left untouched
     LineageRelationshipArray updatedRelationships = convertSchemaFieldRelationships(lineageResult);
-    lineageResult.setRelationships(updatedRelationships);
 
     // Filter hopped result based on the set of entities to return and inputFilters before sending to search
     List<LineageRelationship> lineageRelationships =
-        filterRelationships(lineageResult, new HashSet<>(entities), inputFilters);
+        filterRelationships(updatedRelationships, new HashSet<>(entities), inputFilters);
 
     return getSearchResultInBatches(lineageRelationships, input != null ? input : "*", inputFilters, sortCriterion,
         from, size);
   }
 
+  // Reads the lineage from the closure index if it has it, and stores lineage walked from the graph in it
+  private EntityLineageResult getLineage(@Nonnull Urn sourceUrn, @Nonnull LineageDirection direction, int maxHops) {
+    if (_lineageClosureIndex == null) {
+      return _graphService.getLineage(sourceUrn, direction, 0, MAX_RELATIONSHIPS, maxHops);
+    }
+    Optional<EntityLineageResult> precomputed = _lineageClosureIndex.getLineage(sourceUrn, direction, maxHops);
+    if (precomputed.isPresent()) {
+      return precomputed.get();
+    }
+    final long computationStartMillis = System.currentTimeMillis();
+    EntityLineageResult result = _graphService.getLineage(sourceUrn, direction, 0, MAX_RELATIONSHIPS, maxHops);
+    _lineageClosureIndex.putLineage(sourceUrn, direction, maxHops, result, computationStartMillis);
+    return result;
+  }
+
   // Necessary so we don't filter out schemaField entities and so that we search to get the parent reference entity
   private LineageRelationshipArray convertSchemaFieldRelationships(EntityLineageResult lineageResult) {
     return lineageResult.getRelationships().stream().map(relationship -> {
@@ -214,9 +250,9 @@ public class LineageSearchService {
     return urn;
   }
 
-  private List<LineageRelationship> filterRelationships(@Nonnull EntityLineageResult lineageResult,
+  private List<LineageRelationship> filterRelationships(@Nonnull List<LineageRelationship> relationships,
       @Nonnull Set<String> entities, @Nullable Filter inputFilters) {
-    Stream<LineageRelationship> relationshipsFilteredByEntities = lineageResult.getRelationships().stream();
+    Stream<LineageRelationship> relationshipsFilteredByEntities = relationships.stream();
     if (!entities.isEmpty()) {
       relationshipsFilteredByEntities = relationshipsFilteredByEntities.filter(
           relationship -> entities.contains(relationship.getEntity().getEntityType()));
@@ -43,18 +43,34 @@ import static com.linkedin.metadata.search.utils.FilterUtils.rankFilterGroups;
 public class AllEntitiesSearchAggregator {
 
   private static final int DEFAULT_MAX_AGGREGATION_VALUES = 20;
+  private static final String ENTITY_AGGREGATION = "entity";
 
   private final EntitySearchService _entitySearchService;
   private final SearchRanker _searchRanker;
   private final EntityDocCountCache _entityDocCountCache;
   private final CachingEntitySearchService _cachingEntitySearchService;
   private final int _maxAggregationValueCount;
+  private final boolean _multiIndexQuery;
 
   public AllEntitiesSearchAggregator(
       EntityRegistry entityRegistry,
       EntitySearchService entitySearchService,
       CachingEntitySearchService cachingEntitySearchService,
       SearchRanker searchRanker) {
+    this(entityRegistry, entitySearchService, cachingEntitySearchService, searchRanker, false);
+  }
+
+  /**
+   * @param multiIndexQuery whether to search all entities with a single request by default, see
+   *     {@link EntitySearchService#searchAcrossEntities}. Requests may override it with their search flags.
+   */
+  public AllEntitiesSearchAggregator(
+      EntityRegistry entityRegistry,
+      EntitySearchService entitySearchService,
+      CachingEntitySearchService cachingEntitySearchService,
+      SearchRanker searchRanker,
+      boolean multiIndexQuery) {
+    _multiIndexQuery = multiIndexQuery;
     _entitySearchService = Objects.requireNonNull(entitySearchService);
     _searchRanker = Objects.requireNonNull(searchRanker);
     _cachingEntitySearchService = Objects.requireNonNull(cachingEntitySearchService);
@@ -86,6 +102,11 @@ public class AllEntitiesSearchAggregator {
       querySize = _entitySearchService.maxResultSize() - from;
     }
 
+    if (isMultiIndexQuery(searchFlags)) {
+      return searchAcrossEntities(nonEmptyEntities, input, postFilters, sortCriterion, from, size, queryFrom,
+          querySize, searchFlags);
+    }
+
     // 2. Get search results for each entity
     Map<String, SearchResult> searchResults =
         getSearchResultsForEachEntity(nonEmptyEntities, input, postFilters, sortCriterion, queryFrom, querySize,
@@ -120,21 +141,74 @@ public class AllEntitiesSearchAggregator {
       });
     }
 
+    // 4. Rank results across entities
+    List<SearchEntity> rankedResult = _searchRanker.rank(matchedResults);
+    SearchResult finalResult = getFinalSearchResult(rankedResult, numEntities, aggregations, numResultsPerEntity, from,
+        size);
+
+    postProcessTimer.stop();
+    return finalResult;
+  }
+
+  private boolean isMultiIndexQuery(@Nullable SearchFlags searchFlags) {
+    if (searchFlags != null && searchFlags.hasMultiIndexQuery()) {
+      return searchFlags.isMultiIndexQuery();
+    }
+    return _multiIndexQuery;
+  }
+
+  /**
+   * Searches all entities with a single request. The hits come back ranked across entities by the search backend.
+   */
+  @WithSpan
+  private SearchResult searchAcrossEntities(@Nonnull List<String> entities, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size, int queryFrom,
+      int querySize, @Nullable SearchFlags searchFlags) {
+    if (entities.isEmpty()) {
+      return getEmptySearchResult(from, size);
+    }
+
+    SearchResult searchResult;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "searchAcrossEntities").time()) {
+      searchResult = _cachingEntitySearchService.searchAcrossEntities(entities, input, postFilters, sortCriterion,
+          queryFrom, querySize, searchFlags);
+    }
+
+    Timer.Context postProcessTimer = MetricUtils.timer(this.getClass(), "postProcessTimer").time();
+
+    Map<String, Long> numResultsPerEntity = new HashMap<>();
+    entities.forEach(entity -> numResultsPerEntity.put(entity, 0L));
+    Map<String, AggregationMetadata> aggregations = new HashMap<>();
+    searchResult.getMetadata().getAggregations().forEach(metadata -> {
+      if (ENTITY_AGGREGATION.equals(metadata.getName())) {
+        numResultsPerEntity.putAll(metadata.getAggregations());
+      } else {
+        aggregations.put(metadata.getName(), metadata);
+      }
+    });
+
+    SearchResult finalResult = getFinalSearchResult(searchResult.getEntities(), searchResult.getNumEntities(),
+        aggregations, numResultsPerEntity, from, size);
+
+    postProcessTimer.stop();
+    return finalResult;
+  }
+
+  private SearchResult getFinalSearchResult(@Nonnull List<SearchEntity> rankedResult, int numEntities,
+      @Nonnull Map<String, AggregationMetadata> aggregations, @Nonnull Map<String, Long> numResultsPerEntity, int from,
+      int size) {
     // Trim the aggregations / filters after merging.
     Map<String, AggregationMetadata> finalAggregations = trimMergedAggregations(aggregations);
 
     // Finally, Add a custom Entity aggregation (appears as the first filter) -- this should never be truncated
-    finalAggregations.put("entity", new AggregationMetadata().setName("entity")
+    finalAggregations.put(ENTITY_AGGREGATION, new AggregationMetadata().setName(ENTITY_AGGREGATION)
         .setDisplayName("Type")
         .setAggregations(new LongMap(numResultsPerEntity))
         .setFilterValues(new FilterValueArray(SearchUtil.convertToFilters(numResultsPerEntity, Collections.emptySet()))));
 
-    // 4. Rank results across entities
-    List<SearchEntity> rankedResult = _searchRanker.rank(matchedResults);
     SearchResultMetadata finalMetadata =
         new SearchResultMetadata().setAggregations(new AggregationMetadataArray(rankFilterGroups(finalAggregations)));
 
-    postProcessTimer.stop();
     return new SearchResult().setEntities(new SearchEntityArray(rankedResult))
         .setNumEntities(numEntities)
         .setFrom(from)
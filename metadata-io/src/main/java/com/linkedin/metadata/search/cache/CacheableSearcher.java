@@ -9,10 +9,12 @@ import com.linkedin.metadata.utils.metrics.MetricUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import org.javatuples.Pair;
 import org.springframework.cache.Cache;
 
 
@@ -31,6 +33,16 @@ public class CacheableSearcher<K> {
   @Nullable
   private final SearchFlags searchFlags;
   private final boolean enableCache;
+  // Supplies the cache generation of the searched entity types, entries cached under another generation are misses
+  private final LongSupplier cacheGeneration;
+  // Coalesces concurrent misses on the same key and generation, shared by all searchers over the same cache
+  @Nullable
+  private final SingleFlight<Object, SearchResult> singleFlight;
+
+  public CacheableSearcher(@Nonnull Cache cache, int batchSize, Function<QueryPagination, SearchResult> searcher,
+      Function<QueryPagination, K> cacheKeyGenerator, @Nullable SearchFlags searchFlags, boolean enableCache) {
+    this(cache, batchSize, searcher, cacheKeyGenerator, searchFlags, enableCache, () -> 0L, null);
+  }
 
   @Value
   public static class QueryPagination {
@@ -90,12 +102,14 @@ public class CacheableSearcher<K> {
       if (enableCache()) {
         Timer.Context cacheAccess = MetricUtils.timer(this.getClass(), "getBatch_cache_access").time();
         K cacheKey = cacheKeyGenerator.apply(batch);
-        result = cache.get(cacheKey, SearchResult.class);
+        // Read the generation before searching, so results of a search racing with a write keep the older generation
+        long generation = cacheGeneration.getAsLong();
+        result = EntitySearchCacheGenerations.getIfCurrent(cache, cacheKey, generation, SearchResult.class);
         cacheAccess.stop();
         if (result == null) {
           Timer.Context cacheMiss = MetricUtils.timer(this.getClass(), "getBatch_cache_miss").time();
-          result = searcher.apply(batch);
-          cache.put(cacheKey, result);
+          result = singleFlight == null ? searchAndCache(batch, cacheKey, generation)
+              : singleFlight.execute(Pair.with(cacheKey, generation), () -> searchAndCache(batch, cacheKey, generation));
           cacheMiss.stop();
           MetricUtils.counter(this.getClass(), "getBatch_cache_miss_count").inc();
         }
@@ -106,6 +120,12 @@ public class CacheableSearcher<K> {
     }
   }
 
+  private SearchResult searchAndCache(QueryPagination batch, K cacheKey, long generation) {
+    SearchResult result = searcher.apply(batch);
+    EntitySearchCacheGenerations.put(cache, cacheKey, generation, result);
+    return result;
+  }
+
   private boolean enableCache() {
     return enableCache && (searchFlags == null || !searchFlags.isSkipCache());
   }
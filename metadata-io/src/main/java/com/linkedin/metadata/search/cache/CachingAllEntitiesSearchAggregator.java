@@ -16,17 +16,23 @@ import org.springframework.cache.CacheManager;
 @RequiredArgsConstructor
 public class CachingAllEntitiesSearchAggregator {
   private static final String ALL_ENTITIES_SEARCH_AGGREGATOR_CACHE_NAME = "allEntitiesSearchAggregator";
+  // Matches the default socket timeout of the Elasticsearch client
+  private static final long SINGLE_FLIGHT_TIMEOUT_MS = 30000;
 
   private final CacheManager cacheManager;
   private final AllEntitiesSearchAggregator aggregator;
   private final int batchSize;
   private final boolean enableCache;
+  private final EntitySearchCacheGenerations cacheGenerations;
+  private final SingleFlight<Object, SearchResult> searchSingleFlight =
+      new SingleFlight<>(ALL_ENTITIES_SEARCH_AGGREGATOR_CACHE_NAME, SINGLE_FLIGHT_TIMEOUT_MS);
 
   public SearchResult getSearchResults(List<String> entities, @Nonnull String input, @Nullable Filter postFilters,
       @Nullable SortCriterion sortCriterion, int from, int size, @Nullable SearchFlags searchFlags) {
     return new CacheableSearcher<>(cacheManager.getCache(ALL_ENTITIES_SEARCH_AGGREGATOR_CACHE_NAME), batchSize,
         querySize -> aggregator.search(entities, input, postFilters, sortCriterion, querySize.getFrom(),
             querySize.getSize(), searchFlags),
-        querySize -> Quintet.with(entities, input, postFilters, sortCriterion, querySize), searchFlags, enableCache).getSearchResults(from, size);
+        querySize -> Quintet.with(entities, input, postFilters, sortCriterion, querySize), searchFlags, enableCache,
+        () -> cacheGenerations.getGeneration(entities), searchSingleFlight).getSearchResults(from, size);
   }
 }
@@ -1,6 +1,5 @@
 package com.linkedin.metadata.search.cache;
 
-import com.google.common.base.Suppliers;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.EntitySearchService;
 import io.opentelemetry.extension.annotations.WithSpan;
@@ -8,19 +7,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.Value;
 
 
 public class EntityDocCountCache {
+  private static final long EXPIRATION_MS = TimeUnit.MINUTES.toMillis(1);
+  private static final long SINGLE_FLIGHT_TIMEOUT_MS = 30000;
+
   private final EntityRegistry _entityRegistry;
   private final EntitySearchService _entitySearchService;
-  private final Supplier<Map<String, Long>> entityDocCount;
+  // Callers arriving while the counts are refreshed wait for that refresh, up to the timeout
+  private final SingleFlight<Boolean, Map<String, Long>> _refreshSingleFlight =
+      new SingleFlight<>("entityDocCount", SINGLE_FLIGHT_TIMEOUT_MS);
+  private volatile CachedDocCount _entityDocCount;
 
   public EntityDocCountCache(EntityRegistry entityRegistry, EntitySearchService entitySearchService) {
     _entityRegistry = entityRegistry;
     _entitySearchService = entitySearchService;
-    entityDocCount = Suppliers.memoizeWithExpiration(this::fetchEntityDocCount, 1, TimeUnit.MINUTES);
   }
 
   private Map<String, Long> fetchEntityDocCount() {
@@ -30,9 +34,19 @@ public class EntityDocCountCache {
         .collect(Collectors.toMap(Function.identity(), _entitySearchService::docCount));
   }
 
+  private Map<String, Long> refreshEntityDocCount() {
+    Map<String, Long> docCount = fetchEntityDocCount();
+    _entityDocCount = new CachedDocCount(docCount, System.currentTimeMillis());
+    return docCount;
+  }
+
   @WithSpan
   public Map<String, Long> getEntityDocCount() {
-    return entityDocCount.get();
+    CachedDocCount cached = _entityDocCount;
+    if (cached != null && System.currentTimeMillis() - cached.getTimestamp() < EXPIRATION_MS) {
+      return cached.getDocCount();
+    }
+    return _refreshSingleFlight.execute(Boolean.TRUE, this::refreshEntityDocCount);
   }
 
   public List<String> getNonEmptyEntities() {
@@ -42,4 +56,10 @@ public class EntityDocCountCache {
         .map(Map.Entry::getKey)
         .collect(Collectors.toList());
   }
+
+  @Value
+  private static class CachedDocCount {
+    Map<String, Long> docCount;
+    long timestamp;
+  }
 }
@@ -0,0 +1,174 @@
+package com.linkedin.metadata.search.cache;
+
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import org.springframework.cache.Cache;
+
+
+/**
+ * Tracks a cache generation per entity type, so that cached search results can be invalidated as soon as documents of
+ * that entity type are written instead of waiting for the cache TTL.
+ *
+ * Results are cached together with the generation that was current when the query started. A lookup whose stored
+ * generation differs from the current one is treated as a miss. Generations are bumped locally on every write through
+ * {@link com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO}, and from the per-index write counters in
+ * Elasticsearch (see {@link #onWriteCounts(Map)}), which is how writes made by other GMS replicas or by a standalone
+ * MAE consumer reach this one.
+ *
+ * A write only becomes searchable once the bulk processor has sent it and the index has been refreshed, so a query run
+ * right after a bump can still see the old documents and cache them under the new generation. With a settle time, an
+ * entity type is bumped once more when that time has passed since its last write, which drops such results.
+ */
+public class EntitySearchCacheGenerations {
+
+  private final AtomicLong baseGeneration = new AtomicLong();
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastWriteCounts = new ConcurrentHashMap<>();
+
+  private final long settleMillis;
+  @Nullable
+  private final ScheduledExecutorService settleExecutor;
+  // Time of the last write of each entity type with a pending settle bump
+  private final Map<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+  public EntitySearchCacheGenerations() {
+    this(0);
+  }
+
+  /**
+   * @param settleMillis time after a write by which it is searchable, i.e. bulk flush period plus index refresh
+   *                     interval, or 0 to only bump on writes
+   */
+  public EntitySearchCacheGenerations(long settleMillis) {
+    this.settleMillis = settleMillis;
+    this.settleExecutor = settleMillis <= 0 ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "search-cache-generation-settle");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Returns the current cache generation of an entity type.
+   */
+  public long getGeneration(@Nonnull String entityName) {
+    final AtomicLong generation = generations.get(normalize(entityName));
+    return baseGeneration.get() + (generation == null ? 0 : generation.get());
+  }
+
+  /**
+   * Returns a generation that changes whenever the generation of any of the given entity types changes. An empty
+   * collection stands for all entity types.
+   */
+  public long getGeneration(@Nonnull Collection<String> entityNames) {
+    if (entityNames.isEmpty()) {
+      return baseGeneration.get() + generations.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+    return entityNames.stream().mapToLong(this::getGeneration).sum();
+  }
+
+  /**
+   * Invalidates all cached results of an entity type.
+   */
+  public void invalidate(@Nonnull String entityName) {
+    final String normalized = normalize(entityName);
+    bump(normalized);
+    MetricUtils.counter(this.getClass(), "invalidate_count").inc();
+    if (settleExecutor != null && lastWriteMillis.put(normalized, System.currentTimeMillis()) == null) {
+      settleExecutor.schedule(() -> settle(normalized), settleMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Invalidates all cached results of all entity types.
+   */
+  public void invalidateAll() {
+    baseGeneration.incrementAndGet();
+    MetricUtils.counter(this.getClass(), "invalidate_all_count").inc();
+    if (settleExecutor != null) {
+      settleExecutor.schedule(baseGeneration::incrementAndGet, settleMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void bump(@Nonnull String normalizedEntityName) {
+    generations.computeIfAbsent(normalizedEntityName, ignored -> new AtomicLong()).incrementAndGet();
+  }
+
+  /**
+   * Bumps an entity type once its last write has settled, or waits for the writes made in the meantime to settle.
+   */
+  private void settle(@Nonnull String normalizedEntityName) {
+    final long lastWrite = lastWriteMillis.get(normalizedEntityName);
+    final long remaining = lastWrite + settleMillis - System.currentTimeMillis();
+    if (remaining > 0) {
+      settleExecutor.schedule(() -> settle(normalizedEntityName), remaining, TimeUnit.MILLISECONDS);
+      return;
+    }
+    bump(normalizedEntityName);
+    MetricUtils.counter(this.getClass(), "settle_count").inc();
+    // A write racing with this bump either sees no pending settle and schedules its own, or is settled again here
+    if (!lastWriteMillis.remove(normalizedEntityName, lastWrite)) {
+      settleExecutor.schedule(() -> settle(normalizedEntityName), settleMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Invalidates every entity type whose write counter changed since the last call. Counters seen for the first time
+   * only set the baseline.
+   *
+   * @param writeCounts number of documents indexed or deleted so far, by entity name
+   */
+  public void onWriteCounts(@Nonnull Map<String, Long> writeCounts) {
+    writeCounts.forEach((entityName, writeCount) -> {
+      final Long previous = lastWriteCounts.put(normalize(entityName), writeCount);
+      if (previous != null && !previous.equals(writeCount)) {
+        invalidate(entityName);
+      }
+    });
+  }
+
+  /**
+   * Returns the value cached under the given key if it was cached at the given generation, and null otherwise.
+   */
+  @Nullable
+  public static <T> T getIfCurrent(@Nonnull Cache cache, @Nonnull Object key, long generation,
+      @Nonnull Class<T> type) {
+    final GenerationStampedValue cached = cache.get(key, GenerationStampedValue.class);
+    if (cached == null) {
+      return null;
+    }
+    if (cached.getGeneration() != generation) {
+      MetricUtils.counter(EntitySearchCacheGenerations.class, "stale_hit_count").inc();
+      return null;
+    }
+    return type.cast(cached.getValue());
+  }
+
+  /**
+   * Caches a value computed at the given generation.
+   */
+  public static void put(@Nonnull Cache cache, @Nonnull Object key, long generation, @Nonnull Object value) {
+    cache.put(key, new GenerationStampedValue(generation, value));
+  }
+
+  @Nonnull
+  private static String normalize(@Nonnull String entityName) {
+    return entityName.toLowerCase(Locale.ROOT);
+  }
+
+  @Value
+  private static class GenerationStampedValue {
+    long generation;
+    Object value;
+  }
+}
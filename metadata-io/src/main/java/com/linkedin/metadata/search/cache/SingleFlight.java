@@ -0,0 +1,80 @@
+package com.linkedin.metadata.search.cache;
+
+import com.codahale.metrics.Timer;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Coalesces concurrent computations of the same key, typically the loads behind a cache miss. The first caller for a
+ * key computes the value on its own thread while later callers for the same key wait for that result instead of
+ * issuing the same expensive query again.
+ *
+ * Waiters give up after the configured timeout and compute the value themselves, so a slow leader can not stall them
+ * for longer than that. A failure of the leader is rethrown to the callers waiting on it.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+  private final String name;
+  private final long timeoutMillis;
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * @param name name used in metrics, e.g. the name of the cache this single flight sits in front of
+   * @param timeoutMillis how long callers wait for an in-flight computation before computing on their own
+   */
+  public SingleFlight(@Nonnull String name, long timeoutMillis) {
+    this.name = name;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Returns the value of the computation in flight for the key, or runs {@code loader} if there is none.
+   */
+  public V execute(@Nonnull K key, @Nonnull Supplier<V> loader) {
+    final CompletableFuture<V> future = new CompletableFuture<>();
+    final CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      return await(existing, loader);
+    }
+
+    try {
+      final V value = loader.get();
+      future.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private V await(@Nonnull CompletableFuture<V> existing, @Nonnull Supplier<V> loader) {
+    MetricUtils.counter(this.getClass(), name + "_coalesced_count").inc();
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), name + "_coalesced_wait").time()) {
+      return existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      MetricUtils.counter(this.getClass(), name + "_coalesced_timeout_count").inc();
+      log.warn("Timed out after {} ms waiting for in-flight computation of {}, computing it again", timeoutMillis, name);
+      return loader.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(String.format("Interrupted while waiting for in-flight computation of %s", name), e);
+    } catch (ExecutionException e) {
+      MetricUtils.counter(this.getClass(), name + "_coalesced_failure_count").inc();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
@@ -9,7 +9,10 @@ import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.cache.CacheableSearcher;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
+import com.linkedin.metadata.search.cache.SingleFlight;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -21,13 +24,22 @@ import org.springframework.cache.CacheManager;
 @RequiredArgsConstructor
 public class CachingEntitySearchService {
   private static final String ENTITY_SEARCH_SERVICE_SEARCH_CACHE_NAME = "entitySearchServiceSearch";
+  private static final String ENTITY_SEARCH_SERVICE_SEARCH_ACROSS_ENTITIES_CACHE_NAME =
+      "entitySearchServiceSearchAcrossEntities";
   private static final String ENTITY_SEARCH_SERVICE_AUTOCOMPLETE_CACHE_NAME = "entitySearchServiceAutoComplete";
   private static final String ENTITY_SEARCH_SERVICE_BROWSE_CACHE_NAME = "entitySearchServiceBrowse";
+  // Matches the default socket timeout of the Elasticsearch client
+  private static final long SINGLE_FLIGHT_TIMEOUT_MS = 30000;
 
   private final CacheManager cacheManager;
   private final EntitySearchService entitySearchService; // This is a shared component, also used in search aggregation
   private final int batchSize;
   private final boolean enableCache;
+  private final EntitySearchCacheGenerations cacheGenerations;
+  private final SingleFlight<Object, SearchResult> searchSingleFlight =
+      new SingleFlight<>(ENTITY_SEARCH_SERVICE_SEARCH_CACHE_NAME, SINGLE_FLIGHT_TIMEOUT_MS);
+  private final SingleFlight<Object, SearchResult> searchAcrossEntitiesSingleFlight =
+      new SingleFlight<>(ENTITY_SEARCH_SERVICE_SEARCH_ACROSS_ENTITIES_CACHE_NAME, SINGLE_FLIGHT_TIMEOUT_MS);
 
   /**
    * Retrieves cached search results. If the query has been cached, this will return quickly. If not, a full
@@ -54,6 +66,38 @@ public class CachingEntitySearchService {
     return getCachedSearchResults(entityName, query, filters, sortCriterion, from, size, flags);
   }
 
+  /**
+   * Retrieves cached search results of a single search request over several entities, see
+   * {@link EntitySearchService#searchAcrossEntities}. Cached results are invalidated by writes to any of the entities.
+   *
+   * @param entityNames the names of the entities to search
+   * @param query the search query
+   * @param filters the filters to include
+   * @param sortCriterion the sort criterion
+   * @param from the start offset
+   * @param size the count
+   * @param flags additional search flags
+   *
+   * @return a {@link SearchResult} containing the requested batch of search results
+   */
+  public SearchResult searchAcrossEntities(
+      @Nonnull List<String> entityNames,
+      @Nonnull String query,
+      @Nullable Filter filters,
+      @Nullable SortCriterion sortCriterion,
+      int from,
+      int size,
+      @Nullable SearchFlags flags) {
+    return new CacheableSearcher<>(
+        cacheManager.getCache(ENTITY_SEARCH_SERVICE_SEARCH_ACROSS_ENTITIES_CACHE_NAME),
+        batchSize,
+        querySize -> entitySearchService.searchAcrossEntities(entityNames, query, filters, sortCriterion,
+            querySize.getFrom(), querySize.getSize()),
+        querySize -> Quintet.with(entityNames, query, filters, sortCriterion, querySize), flags, enableCache,
+        () -> cacheGenerations.getGeneration(entityNames), searchAcrossEntitiesSingleFlight)
+        .getSearchResults(from, size);
+  }
+
   /**
    * Retrieves cached auto complete results
    *
@@ -115,7 +159,8 @@ public class CachingEntitySearchService {
         cacheManager.getCache(ENTITY_SEARCH_SERVICE_SEARCH_CACHE_NAME),
         batchSize,
         querySize -> getRawSearchResults(entityName, query, filters, sortCriterion, querySize.getFrom(), querySize.getSize()),
-        querySize -> Quintet.with(entityName, query, filters, sortCriterion, querySize), flags, enableCache).getSearchResults(from, size);
+        querySize -> Quintet.with(entityName, query, filters, sortCriterion, querySize), flags, enableCache,
+        () -> cacheGenerations.getGeneration(entityName), searchSingleFlight).getSearchResults(from, size);
   }
 
 
@@ -135,12 +180,13 @@ public class CachingEntitySearchService {
       if (enableCache(flags)) {
         Timer.Context cacheAccess = MetricUtils.timer(this.getClass(), "autocomplete_cache_access").time();
         Object cacheKey = Quintet.with(entityName, input, field, filters, limit);
-        result = cache.get(cacheKey, AutoCompleteResult.class);
+        long generation = cacheGenerations.getGeneration(entityName);
+        result = EntitySearchCacheGenerations.getIfCurrent(cache, cacheKey, generation, AutoCompleteResult.class);
         cacheAccess.stop();
         if (result == null) {
           Timer.Context cacheMiss = MetricUtils.timer(this.getClass(), "autocomplete_cache_miss").time();
           result = getRawAutoCompleteResults(entityName, input, field, filters, limit);
-          cache.put(cacheKey, result);
+          EntitySearchCacheGenerations.put(cache, cacheKey, generation, result);
           cacheMiss.stop();
           MetricUtils.counter(this.getClass(), "autocomplete_cache_miss_count").inc();
         }
@@ -167,12 +213,13 @@ public class CachingEntitySearchService {
       if (enableCache(flags)) {
         Timer.Context cacheAccess = MetricUtils.timer(this.getClass(), "browse_cache_access").time();
         Object cacheKey = Quintet.with(entityName, path, filters, from, size);
-        result = cache.get(cacheKey, BrowseResult.class);
+        long generation = cacheGenerations.getGeneration(entityName);
+        result = EntitySearchCacheGenerations.getIfCurrent(cache, cacheKey, generation, BrowseResult.class);
         cacheAccess.stop();
         if (result == null) {
           Timer.Context cacheMiss = MetricUtils.timer(this.getClass(), "browse_cache_miss").time();
           result = getRawBrowseResults(entityName, path, filters, from, size);
-          cache.put(cacheKey, result);
+          EntitySearchCacheGenerations.put(cache, cacheKey, generation, result);
           cacheMiss.stop();
           MetricUtils.counter(this.getClass(), "browse_cache_miss_count").inc();
         }
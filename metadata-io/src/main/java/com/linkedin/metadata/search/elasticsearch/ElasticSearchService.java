@@ -13,6 +13,7 @@ import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
 import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.search.utils.SearchUtils;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +55,15 @@ public class ElasticSearchService implements EntitySearchService {
     esWriteDAO.upsertDocument(entityName, document, docId);
   }
 
+  @Override
+  public void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId) {
+    if (log.isDebugEnabled()) {
+      log.debug(String.format("Upserting Search document entityName: %s, document: %s, docId: %s", entityName,
+          new String(document, StandardCharsets.UTF_8), docId));
+    }
+    esWriteDAO.upsertDocument(entityName, document, docId);
+  }
+
   @Override
   public void deleteDocument(@Nonnull String entityName, @Nonnull String docId) {
     log.debug(String.format("Deleting Search document entityName: %s, docId: %s", entityName, docId));
@@ -97,6 +107,16 @@ public class ElasticSearchService implements EntitySearchService {
     return esSearchDAO.search(entityName, input, postFilters, sortCriterion, from, size);
   }
 
+  @Nonnull
+  @Override
+  public SearchResult searchAcrossEntities(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size) {
+    log.debug(String.format(
+        "Searching Search documents entityNames: %s, input: %s, postFilters: %s, sortCriterion: %s, from: %s, size: %s",
+        entityNames, input, postFilters, sortCriterion, from, size));
+    return esSearchDAO.searchAcrossEntities(entityNames, input, postFilters, sortCriterion, from, size);
+  }
+
   @Nonnull
   @Override
   public SearchResult filter(@Nonnull String entityName, @Nullable Filter filters,
@@ -1,22 +1,30 @@
 package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksRequest;
 import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
@@ -24,24 +32,43 @@ import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.client.GetAliasesResponse;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetIndexResponse;
 import org.elasticsearch.client.indices.GetMappingsRequest;
 import org.elasticsearch.client.indices.PutMappingRequest;
 import org.elasticsearch.client.tasks.TaskSubmissionResponse;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.AbstractBulkByScrollRequest;
 import org.elasticsearch.index.reindex.ReindexRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class ESIndexBuilder {
 
   private final RestHighLevelClient searchClient;
@@ -63,6 +90,14 @@ public class ESIndexBuilder {
   @Getter
   private final boolean enableIndexSettingsReindex;
 
+  // Number of slices of the reindex task, or 0 to let Elasticsearch pick one per shard
+  @Getter
+  private final int reindexSlices;
+
+  // Throttle of the reindex task, or 0 for none
+  @Getter
+  private final float reindexRequestsPerSecond;
+
   private final static ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
   /*
@@ -75,6 +110,32 @@ public class ESIndexBuilder {
   private static final List<String> SETTINGS = Stream.concat(
           SETTINGS_DYNAMIC.stream(), SETTINGS_STATIC.stream()).collect(Collectors.toList());
 
+  static final String REINDEX_META = "reindex";
+  private static final String SEQ_NO_FIELD = "_seq_no";
+  private static final int CATCH_UP_BATCH_SIZE = 1000;
+  private static final TimeValue CATCH_UP_SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas, int numRetries,
+      int refreshIntervalSeconds, Map<String, Map<String, String>> indexSettingOverrides,
+      boolean enableIndexSettingsReindex) {
+    this(searchClient, numShards, numReplicas, numRetries, refreshIntervalSeconds, indexSettingOverrides,
+        enableIndexSettingsReindex, 0, 0);
+  }
+
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas, int numRetries,
+      int refreshIntervalSeconds, Map<String, Map<String, String>> indexSettingOverrides,
+      boolean enableIndexSettingsReindex, int reindexSlices, float reindexRequestsPerSecond) {
+    this.searchClient = searchClient;
+    this.numShards = numShards;
+    this.numReplicas = numReplicas;
+    this.numRetries = numRetries;
+    this.refreshIntervalSeconds = refreshIntervalSeconds;
+    this.indexSettingOverrides = indexSettingOverrides;
+    this.enableIndexSettingsReindex = enableIndexSettingsReindex;
+    this.reindexSlices = reindexSlices;
+    this.reindexRequestsPerSecond = reindexRequestsPerSecond;
+  }
+
   public void buildIndex(String indexName, Map<String, Object> mappings, Map<String, Object> settings)
       throws IOException {
     // Check if index exists
@@ -176,45 +237,37 @@ public class ESIndexBuilder {
 
   private void reindex(String indexName, Map<String, Object> mappings, Map<String, Object> finalSettings)
           throws IOException {
-    String tempIndexName = indexName + "_" + System.currentTimeMillis();
-    createIndex(tempIndexName, mappings, finalSettings);
-    try {
-      TaskSubmissionResponse reindexTask;
-      reindexTask =
-          searchClient.submitReindexTask(new ReindexRequest().setSourceIndices(indexName).setDestIndex(tempIndexName),
-              RequestOptions.DEFAULT);
-
-      // wait up to 5 minutes for the task to complete
-      long startTime = System.currentTimeMillis();
-      long millisToWait60Minutes = 1000 * 60 * 60;
-      Boolean reindexTaskCompleted = false;
-
-      while ((System.currentTimeMillis() - startTime) < millisToWait60Minutes) {
-        log.info("Reindexing from {} to {} in progress...", indexName, tempIndexName);
-        ListTasksRequest request = new ListTasksRequest();
-        ListTasksResponse tasks = searchClient.tasks().list(request, RequestOptions.DEFAULT);
-        if (tasks.getTasks().stream().noneMatch(task -> task.getTaskId().toString().equals(reindexTask.getTask()))) {
-          log.info("Reindexing {} to {} task has completed, will now check if reindex was successful", indexName,
-              tempIndexName);
-          reindexTaskCompleted = true;
-          break;
-        }
-        try {
-          Thread.sleep(5000);
-        } catch (InterruptedException e) {
-          log.info("Trouble sleeping while reindexing {} to {}: Exception {}. Retrying...", indexName, tempIndexName,
-              e.toString());
-        }
-      }
-      if (!reindexTaskCompleted) {
-        throw new RuntimeException(
-            String.format("Reindex from %s to %s failed-- task exceeded 60 minute limit", indexName, tempIndexName));
-      }
-    } catch (Exception e) {
-      log.info("Failed to reindex {} to {}: Exception {}", indexName, tempIndexName, e.toString());
-      searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
-      throw e;
+    ReindexProgress progress = findResumableReindex(indexName, mappings, finalSettings);
+    if (progress == null) {
+      // The changes after these sequence numbers are caught up with once copied. The refresh makes all changes up to
+      // them visible to the copy.
+      Map<String, List<Long>> seqNos = getLocalCheckpoints(indexName);
+      searchClient.indices().refresh(new RefreshRequest(indexName), RequestOptions.DEFAULT);
+      progress = new ReindexProgress(indexName + "_" + System.currentTimeMillis(), System.currentTimeMillis(), seqNos,
+          null, false);
+      createIndex(progress.getIndex(), withReindexProgress(mappings, indexName, progress),
+          getCopySettings(finalSettings));
+    } else {
+      log.info("Resuming reindex from {} to {}, started at {}", indexName, progress.getIndex(),
+          progress.getStartTime());
     }
+    final String tempIndexName = progress.getIndex();
+
+    if (!progress.isCopied()) {
+      copy(indexName, progress);
+    }
+
+    // Restore the replicas and refresh interval of the target, which are turned off while copying
+    UpdateSettingsRequest restoreRequest = new UpdateSettingsRequest(tempIndexName);
+    restoreRequest.settings(((Map<String, Object>) finalSettings.get("index")).entrySet().stream()
+        .filter(e -> SETTINGS_DYNAMIC.contains(e.getKey()))
+        .collect(Collectors.toMap(e -> "index." + e.getKey(), Map.Entry::getValue)));
+    searchClient.indices().putSettings(restoreRequest, RequestOptions.DEFAULT);
+
+    // Copy the documents changed in the source since the copy started, and delete those deleted from it
+    final Map<String, List<Long>> catchUpSeqNos = getLocalCheckpoints(indexName);
+    catchUp(progress.getSeqNos() != null ? progress.getSeqNos() : getAllChanges(catchUpSeqNos), tempIndexName, null);
+    searchClient.indices().refresh(new RefreshRequest(tempIndexName), RequestOptions.DEFAULT);
 
     // Check whether reindex succeeded by comparing document count
     // There can be some delay between the reindex finishing and count being fully up to date, so try multiple times
@@ -246,24 +299,354 @@ public class ESIndexBuilder {
     // Check if the original index is aliased or not
     GetAliasesResponse aliasesResponse = searchClient.indices()
         .getAlias(new GetAliasesRequest(indexName).indices(indexNamePattern), RequestOptions.DEFAULT);
-    // If not aliased, delete the original index
+    // If not aliased, delete the original index, as the alias cannot be added while an index has its name
     if (aliasesResponse.getAliases().isEmpty()) {
       searchClient.indices().delete(new DeleteIndexRequest().indices(indexName), RequestOptions.DEFAULT);
-    } else {
-      searchClient.indices()
-          .delete(new DeleteIndexRequest().indices(aliasesResponse.getAliases().keySet().toArray(new String[0])),
-              RequestOptions.DEFAULT);
     }
 
+    // Only this builder wrote to the new index so far, later changes to it are made through the alias
+    final List<Long> swapSeqNos = getLocalCheckpoints(tempIndexName).get(tempIndexName);
+
     // Add alias for the new index
     AliasActions removeAction = AliasActions.remove().alias(indexName).index(indexNamePattern);
     AliasActions addAction = AliasActions.add().alias(indexName).index(tempIndexName);
     searchClient.indices()
         .updateAliases(new IndicesAliasesRequest().addAliasAction(removeAction).addAliasAction(addAction),
             RequestOptions.DEFAULT);
+
+    if (!aliasesResponse.getAliases().isEmpty()) {
+      // Writes now go to the new index. Catch up with the old index since the last catch-up, except for the documents
+      // changed again since the swap, whose new index copy is more recent.
+      final String[] oldIndices = aliasesResponse.getAliases().keySet().toArray(new String[0]);
+      catchUp(catchUpSeqNos, tempIndexName, swapSeqNos);
+      searchClient.indices().delete(new DeleteIndexRequest().indices(oldIndices), RequestOptions.DEFAULT);
+    }
     log.info("Finished setting up {}", indexName);
   }
 
+  /**
+   * Copies all documents of the source index to the target with a sliced and throttled reindex task, and waits for it
+   * to complete. Progress is recorded on the target, so that a copy interrupted by a restart is resumed: a running task
+   * is waited for again, otherwise only the documents missing from the target are copied.
+   */
+  private void copy(String indexName, ReindexProgress progress) throws IOException {
+    final String tempIndexName = progress.getIndex();
+    final boolean resumed = progress.getTask() != null;
+    if (!resumed || !isTaskRunning(progress.getTask())) {
+      ReindexRequest reindexRequest = new ReindexRequest().setSourceIndices(indexName)
+          .setDestIndex(tempIndexName)
+          .setSlices(reindexSlices > 0 ? reindexSlices : AbstractBulkByScrollRequest.AUTO_SLICES)
+          .setRequestsPerSecond(reindexRequestsPerSecond > 0 ? reindexRequestsPerSecond : Float.POSITIVE_INFINITY);
+      if (resumed) {
+        // Keep the documents already copied
+        reindexRequest.setDestOpType("create").setAbortOnVersionConflict(false);
+      }
+      TaskSubmissionResponse reindexTask = searchClient.submitReindexTask(reindexRequest, RequestOptions.DEFAULT);
+      progress.setTask(reindexTask.getTask());
+      saveReindexProgress(indexName, progress);
+    }
+
+    long startTime = System.currentTimeMillis();
+    long millisToWait60Minutes = 1000 * 60 * 60;
+    while (isTaskRunning(progress.getTask())) {
+      if ((System.currentTimeMillis() - startTime) >= millisToWait60Minutes) {
+        throw new RuntimeException(String.format(
+            "Reindex from %s to %s exceeded 60 minute limit, it will be resumed on the next run", indexName,
+            tempIndexName));
+      }
+      log.info("Reindexing from {} to {} in progress...", indexName, tempIndexName);
+      try {
+        Thread.sleep(5000);
+      } catch (InterruptedException e) {
+        log.info("Trouble sleeping while reindexing {} to {}: Exception {}. Retrying...", indexName, tempIndexName,
+            e.toString());
+      }
+    }
+    log.info("Reindexing {} to {} task has completed, will now check if reindex was successful", indexName,
+        tempIndexName);
+    progress.setCopied(true);
+    saveReindexProgress(indexName, progress);
+  }
+
+  private boolean isTaskRunning(String taskId) throws IOException {
+    ListTasksResponse tasks = searchClient.tasks().list(new ListTasksRequest(), RequestOptions.DEFAULT);
+    return tasks.getTasks().stream().anyMatch(task -> task.getTaskId().toString().equals(taskId));
+  }
+
+  /**
+   * Copies the documents of the source indices changed after the given sequence numbers to the target, then deletes
+   * the documents of the target missing from the sources. Both go through the documents a page at a time.
+   *
+   * Sequence numbers are given per shard of each concrete source index. They are assigned by Elasticsearch to every
+   * write, updates and deletes included, so unlike a time set by the writer they do not depend on any clock.
+   *
+   * @param swapSeqNos sequence numbers of the target shards when it was swapped in, documents of the target changed
+   *                   after them are left as they are, or null if it was not swapped in yet
+   */
+  private void catchUp(Map<String, List<Long>> sourceSeqNos, String targetIndex, @Nullable List<Long> swapSeqNos)
+      throws IOException {
+    final String[] sourceIndices = sourceSeqNos.keySet().toArray(new String[0]);
+    searchClient.indices().refresh(new RefreshRequest(sourceIndices), RequestOptions.DEFAULT);
+    searchClient.indices().refresh(new RefreshRequest(targetIndex), RequestOptions.DEFAULT);
+    int copied = 0;
+    for (Map.Entry<String, List<Long>> entry : sourceSeqNos.entrySet()) {
+      for (int shard = 0; shard < entry.getValue().size(); shard++) {
+        copied += forEachPage(entry.getKey(), "_shards:" + shard,
+            QueryBuilders.rangeQuery(SEQ_NO_FIELD).gt(entry.getValue().get(shard)), true,
+            hits -> copyPage(hits, targetIndex, swapSeqNos));
+      }
+    }
+    int deleted = 0;
+    if (swapSeqNos == null) {
+      deleted += forEachPage(targetIndex, null, QueryBuilders.matchAllQuery(), false,
+          hits -> deletePage(hits, sourceIndices, targetIndex));
+    } else {
+      for (int shard = 0; shard < swapSeqNos.size(); shard++) {
+        deleted += forEachPage(targetIndex, "_shards:" + shard,
+            QueryBuilders.rangeQuery(SEQ_NO_FIELD).lte(swapSeqNos.get(shard)), false,
+            hits -> deletePage(hits, sourceIndices, targetIndex));
+      }
+    }
+    log.info("Caught up {} documents from {} to {}, deleted {}", copied, Arrays.toString(sourceIndices), targetIndex,
+        deleted);
+  }
+
+  // Writes the source documents to the target, as long as the target documents did not change since they were read
+  private int copyPage(SearchHit[] sourceHits, String targetIndex, @Nullable List<Long> swapSeqNos)
+      throws IOException {
+    final Map<String, SearchHit> targetHits = getHits(new String[]{targetIndex}, null, getIdsQuery(sourceHits));
+    final Set<String> changedIds = new HashSet<>();
+    if (swapSeqNos != null) {
+      for (int shard = 0; shard < swapSeqNos.size(); shard++) {
+        changedIds.addAll(getHits(new String[]{targetIndex}, "_shards:" + shard, QueryBuilders.boolQuery()
+            .filter(getIdsQuery(sourceHits))
+            .filter(QueryBuilders.rangeQuery(SEQ_NO_FIELD).gt(swapSeqNos.get(shard)))).keySet());
+      }
+    }
+    final BulkRequest bulkRequest = new BulkRequest();
+    for (SearchHit hit : sourceHits) {
+      if (changedIds.contains(hit.getId())) {
+        continue;
+      }
+      SearchHit targetHit = targetHits.get(hit.getId());
+      IndexRequest indexRequest = new IndexRequest(targetIndex).id(hit.getId()).source(hit.getSourceAsMap());
+      if (targetHit == null) {
+        indexRequest.opType(DocWriteRequest.OpType.CREATE);
+      } else {
+        indexRequest.setIfSeqNo(targetHit.getSeqNo()).setIfPrimaryTerm(targetHit.getPrimaryTerm());
+      }
+      bulkRequest.add(indexRequest);
+    }
+    return executeCatchUp(bulkRequest);
+  }
+
+  // Deletes the target documents missing from the sources, as long as they did not change since they were read
+  private int deletePage(SearchHit[] targetHits, String[] sourceIndices, String targetIndex) throws IOException {
+    final Map<String, SearchHit> sourceHits = getHits(sourceIndices, null, getIdsQuery(targetHits));
+    final BulkRequest bulkRequest = new BulkRequest();
+    for (SearchHit hit : targetHits) {
+      if (!sourceHits.containsKey(hit.getId())) {
+        bulkRequest.add(new DeleteRequest(targetIndex, hit.getId())
+            .setIfSeqNo(hit.getSeqNo())
+            .setIfPrimaryTerm(hit.getPrimaryTerm()));
+      }
+    }
+    return executeCatchUp(bulkRequest);
+  }
+
+  // Returns the number of documents written, those changed since they were read are skipped
+  private int executeCatchUp(BulkRequest bulkRequest) throws IOException {
+    if (bulkRequest.numberOfActions() == 0) {
+      return 0;
+    }
+    int written = 0;
+    for (BulkItemResponse item : searchClient.bulk(bulkRequest, RequestOptions.DEFAULT).getItems()) {
+      if (!item.isFailed()) {
+        written++;
+      } else if (item.getFailure().getStatus() != RestStatus.CONFLICT) {
+        throw new RuntimeException(String.format("Failed to catch up with document %s in %s: %s", item.getId(),
+            item.getIndex(), item.getFailureMessage()));
+      }
+    }
+    return written;
+  }
+
+  // Returns the documents of the indices matching a query on ids, by id, without their source
+  private Map<String, SearchHit> getHits(String[] indices, @Nullable String preference, QueryBuilder idsQuery)
+      throws IOException {
+    final SearchRequest searchRequest = new SearchRequest(indices).preference(preference)
+        .source(new SearchSourceBuilder()
+            .query(idsQuery)
+            .size(CATCH_UP_BATCH_SIZE)
+            .seqNoAndPrimaryTerm(true)
+            .fetchSource(false));
+    return Arrays.stream(searchClient.search(searchRequest, RequestOptions.DEFAULT).getHits().getHits())
+        .collect(Collectors.toMap(SearchHit::getId, hit -> hit, (first, second) -> second));
+  }
+
+  private static QueryBuilder getIdsQuery(SearchHit[] hits) {
+    return QueryBuilders.idsQuery().addIds(Arrays.stream(hits).map(SearchHit::getId).toArray(String[]::new));
+  }
+
+  // Scrolls through the documents of the index matching the query, and returns the sum of the page results
+  private int forEachPage(String index, @Nullable String preference, QueryBuilder query, boolean fetchSource,
+      PageConsumer consumer) throws IOException {
+    SearchResponse response = searchClient.search(new SearchRequest(index)
+        .preference(preference)
+        .scroll(CATCH_UP_SCROLL_KEEP_ALIVE)
+        .source(new SearchSourceBuilder()
+            .query(query)
+            .size(CATCH_UP_BATCH_SIZE)
+            .seqNoAndPrimaryTerm(true)
+            .fetchSource(fetchSource)
+            .sort(FieldSortBuilder.DOC_FIELD_NAME)), RequestOptions.DEFAULT);
+    int result = 0;
+    try {
+      while (response.getHits().getHits().length > 0) {
+        result += consumer.accept(response.getHits().getHits());
+        response = searchClient.scroll(new SearchScrollRequest(response.getScrollId())
+            .scroll(CATCH_UP_SCROLL_KEEP_ALIVE), RequestOptions.DEFAULT);
+      }
+    } finally {
+      ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+      clearScrollRequest.addScrollId(response.getScrollId());
+      searchClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+    }
+    return result;
+  }
+
+  @FunctionalInterface
+  private interface PageConsumer {
+    int accept(SearchHit[] hits) throws IOException;
+  }
+
+  /**
+   * Returns the local checkpoint of the primary of each shard, by concrete index behind the given name. All writes
+   * with a sequence number up to the local checkpoint are done. Shards without a started primary get -1.
+   */
+  private Map<String, List<Long>> getLocalCheckpoints(String indexName) throws IOException {
+    final Response response = searchClient.getLowLevelClient()
+        .performRequest(new Request("GET", "/" + indexName + "/_stats/docs?level=shards"));
+    final Map<String, List<Long>> checkpoints = new HashMap<>();
+    OBJECT_MAPPER.readTree(response.getEntity().getContent()).get("indices").fields().forEachRemaining(index -> {
+      JsonNode shards = index.getValue().get("shards");
+      List<Long> shardCheckpoints = new ArrayList<>(Collections.nCopies(shards.size(), -1L));
+      shards.fields().forEachRemaining(shard -> {
+        for (JsonNode copy : shard.getValue()) {
+          if (copy.get("routing").get("primary").asBoolean()) {
+            shardCheckpoints.set(Integer.parseInt(shard.getKey()), copy.get("seq_no").get("local_checkpoint").asLong());
+          }
+        }
+      });
+      checkpoints.put(index.getKey(), shardCheckpoints);
+    });
+    return checkpoints;
+  }
+
+  // Sequence numbers before all changes of the same shards, for reindexes resumed without any recorded
+  private static Map<String, List<Long>> getAllChanges(Map<String, List<Long>> seqNos) {
+    return seqNos.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+        entry -> Collections.nCopies(entry.getValue().size(), -1L)));
+  }
+
+  /**
+   * Returns the progress of an earlier reindex of the index to the same mappings and settings, if its target is left.
+   * Targets of earlier reindexes to other mappings or settings are deleted.
+   */
+  @Nullable
+  private ReindexProgress findResumableReindex(String indexName, Map<String, Object> mappings,
+      Map<String, Object> finalSettings) throws IOException {
+    GetIndexResponse response = searchClient.indices()
+        .get(new GetIndexRequest(indexName + "_*"), RequestOptions.DEFAULT);
+    ReindexProgress resumable = null;
+    for (String index : response.getIndices()) {
+      // Skip the index currently serving the alias
+      if (response.getAliases().getOrDefault(index, List.of()).stream()
+          .anyMatch(alias -> alias.alias().equals(indexName))) {
+        continue;
+      }
+      Map<String, Object> indexMappings = response.getMappings().get(index).getSourceAsMap();
+      Map<String, Object> meta = (Map<String, Object>) indexMappings.getOrDefault("_meta", Map.of());
+      if (!meta.containsKey(REINDEX_META) || !indexName.equals(
+          ((Map<String, Object>) meta.get(REINDEX_META)).get("source"))) {
+        continue;
+      }
+      boolean sameMappings = Maps.difference(
+          (Map<String, Object>) indexMappings.getOrDefault("properties", Map.of()),
+          (Map<String, Object>) mappings.getOrDefault("properties", Map.of())).areEqual();
+      if (resumable == null && sameMappings
+          && !isSettingsReindexRequired(finalSettings, response.getSettings().get(index))) {
+        resumable = ReindexProgress.fromMeta(index, (Map<String, Object>) meta.get(REINDEX_META));
+      } else {
+        log.info("Deleting {} left by an earlier reindex of {}", index, indexName);
+        searchClient.indices().delete(new DeleteIndexRequest().indices(index), RequestOptions.DEFAULT);
+      }
+    }
+    return resumable;
+  }
+
+  private void saveReindexProgress(String indexName, ReindexProgress progress) throws IOException {
+    PutMappingRequest request = new PutMappingRequest(progress.getIndex())
+        .source(Map.of("_meta", Map.of(REINDEX_META, progress.toMeta(indexName))));
+    searchClient.indices().putMapping(request, RequestOptions.DEFAULT);
+  }
+
+  private static Map<String, Object> withReindexProgress(Map<String, Object> mappings, String indexName,
+      ReindexProgress progress) {
+    Map<String, Object> result = new HashMap<>(mappings);
+    result.put("_meta", Map.of(REINDEX_META, progress.toMeta(indexName)));
+    return result;
+  }
+
+  // Replicas and refreshes only slow down the copy, they are restored once it is done
+  private static Map<String, Object> getCopySettings(Map<String, Object> finalSettings) {
+    Map<String, Object> indexSettings = new HashMap<>((Map<String, Object>) finalSettings.get("index"));
+    indexSettings.put("number_of_replicas", 0);
+    indexSettings.put("refresh_interval", "-1");
+    return ImmutableMap.of("index", indexSettings);
+  }
+
+  /**
+   * Progress of a reindex, kept in the _meta mapping of its target index.
+   */
+  @Data
+  @AllArgsConstructor
+  static class ReindexProgress {
+    private final String index;
+    private final long startTime;
+    // Sequence numbers of the source shards when the copy started, by concrete index
+    @Nullable
+    private final Map<String, List<Long>> seqNos;
+    @Nullable
+    private String task;
+    private boolean copied;
+
+    Map<String, Object> toMeta(String sourceIndex) {
+      Map<String, Object> meta = new HashMap<>();
+      meta.put("source", sourceIndex);
+      meta.put("startTime", startTime);
+      if (seqNos != null) {
+        meta.put("seqNos", seqNos);
+      }
+      if (task != null) {
+        meta.put("task", task);
+      }
+      meta.put("copied", copied);
+      return meta;
+    }
+
+    static ReindexProgress fromMeta(String index, Map<String, Object> meta) {
+      Map<String, List<Long>> seqNos = null;
+      if (meta.containsKey("seqNos")) {
+        seqNos = ((Map<String, List<Number>>) meta.get("seqNos")).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey,
+                entry -> entry.getValue().stream().map(Number::longValue).collect(Collectors.toList())));
+      }
+      return new ReindexProgress(index, ((Number) meta.get("startTime")).longValue(), seqNos,
+          (String) meta.get("task"), Boolean.TRUE.equals(meta.get("copied")));
+    }
+  }
+
   private long getCount(@Nonnull String indexName) throws IOException {
     return searchClient.count(new CountRequest(indexName).query(QueryBuilders.matchAllQuery()), RequestOptions.DEFAULT)
         .getCount();
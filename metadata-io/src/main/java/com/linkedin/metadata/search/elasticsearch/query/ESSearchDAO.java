@@ -9,12 +9,16 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.query.request.AutocompleteRequestHandler;
+import com.linkedin.metadata.search.elasticsearch.query.request.MultiEntitySearchRequestHandler;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchRequestHandler;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -56,10 +60,18 @@ public class ESSearchDAO {
   @WithSpan
   private SearchResult executeAndExtract(@Nonnull EntitySpec entitySpec, @Nonnull SearchRequest searchRequest, @Nullable Filter filter, int from,
       int size) {
+    return executeAndExtract(searchRequest,
+        searchResponse -> SearchRequestHandler.getBuilder(entitySpec).extractResult(searchResponse, filter, from, size));
+  }
+
+  @Nonnull
+  @WithSpan
+  private SearchResult executeAndExtract(@Nonnull SearchRequest searchRequest,
+      @Nonnull Function<SearchResponse, SearchResult> extractor) {
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "executeAndExtract_search").time()) {
       final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
       // extract results, validated against document model as well
-      return SearchRequestHandler.getBuilder(entitySpec).extractResult(searchResponse, filter, from, size);
+      return extractor.apply(searchResponse);
     } catch (Exception e) {
       if (e instanceof ElasticsearchStatusException) {
         final ElasticsearchStatusException statusException = (ElasticsearchStatusException) e;
@@ -100,6 +112,37 @@ public class ESSearchDAO {
     return executeAndExtract(entitySpec, searchRequest, postFilters, from, size);
   }
 
+  /**
+   * Gets a list of documents of several entities that match given search request, with a single request over the
+   * indices of all entities. The result is equivalent to merging the results of searching each entity, except that
+   * it only holds the requested page of hits, and its aggregations include the number of results per entity.
+   *
+   * @param entityNames names of the entities to search
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param from index to start the search from
+   * @param size the number of search hits to return
+   * @return a {@link com.linkedin.metadata.dao.SearchResult} that contains a list of matched documents and related search result metadata
+   */
+  @Nonnull
+  public SearchResult searchAcrossEntities(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size) {
+    final String finalInput = input.isEmpty() ? "*" : input;
+    Timer.Context searchRequestTimer = MetricUtils.timer(this.getClass(), "searchAcrossEntitiesRequest").time();
+    final Map<String, EntitySpec> entitySpecs = new LinkedHashMap<>();
+    entityNames.forEach(entityName -> entitySpecs.put(entityName, entityRegistry.getEntitySpec(entityName)));
+    // Step 1: construct the query over the indices of all entities
+    final MultiEntitySearchRequestHandler requestHandler =
+        new MultiEntitySearchRequestHandler(entitySpecs, indexConvention);
+    final SearchRequest searchRequest =
+        requestHandler.getSearchRequest(finalInput, postFilters, sortCriterion, from, size);
+    searchRequestTimer.stop();
+    // Step 2: execute the query and extract results, validated against document model as well
+    return executeAndExtract(searchRequest,
+        searchResponse -> requestHandler.extractResult(searchResponse, postFilters, from, size));
+  }
+
   /**
    * Gets a list of documents after applying the input filters.
    *
@@ -0,0 +1,176 @@
+package com.linkedin.metadata.search.elasticsearch.query.request;
+
+import com.linkedin.data.template.LongMap;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.search.AggregationMetadata;
+import com.linkedin.metadata.search.AggregationMetadataArray;
+import com.linkedin.metadata.search.FilterValueArray;
+import com.linkedin.metadata.search.SearchEntity;
+import com.linkedin.metadata.search.SearchEntityArray;
+import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.SearchResultMetadata;
+import com.linkedin.metadata.search.utils.ESUtils;
+import com.linkedin.metadata.search.utils.SearchUtils;
+import com.linkedin.metadata.utils.SearchUtil;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import io.opentelemetry.extension.annotations.WithSpan;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.filter.ParsedFilter;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
+
+
+/**
+ * Builds a single search request over the indices of several entities, and extracts a result equivalent to merging
+ * the results of searching each entity on its own.
+ *
+ * <p>Each entity's query is routed to its own index by a filter on {@code _index}, so that hits are scored exactly as
+ * by the per-entity search. The aggregation tree holds one filter aggregation per entity, with the facet aggregations
+ * of that entity below it, which gives the number of results per entity and the facets in the same response.
+ */
+@Slf4j
+public class MultiEntitySearchRequestHandler {
+
+  /**
+   * Name of the aggregation holding the number of results per entity.
+   */
+  public static final String ENTITY_AGGREGATION = "entity";
+
+  private static final String ENTITY_AGGREGATION_PREFIX = "_entity_";
+  private static final String INDEX_FIELD = "_index";
+
+  // Maps entity name, as requested, to its search request handler and index.
+  private final Map<String, SearchRequestHandler> _handlers = new LinkedHashMap<>();
+  private final Map<String, String> _indexNames = new LinkedHashMap<>();
+  // Maps lowercase entity type, as found in urns, to the search request handler of the entity.
+  private final Map<String, SearchRequestHandler> _handlersByEntityType = new HashMap<>();
+
+  public MultiEntitySearchRequestHandler(@Nonnull Map<String, EntitySpec> entitySpecs,
+      @Nonnull IndexConvention indexConvention) {
+    entitySpecs.forEach((entityName, entitySpec) -> {
+      final SearchRequestHandler handler = SearchRequestHandler.getBuilder(entitySpec);
+      _handlers.put(entityName, handler);
+      _indexNames.put(entityName, indexConvention.getIndexName(entitySpec));
+      _handlersByEntityType.put(entitySpec.getName().toLowerCase(), handler);
+    });
+  }
+
+  /**
+   * Constructs the search request over the indices of all entities.
+   *
+   * @param input the search input text
+   * @param filter the search filter
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param from index to start the search from
+   * @param size the number of search hits to return
+   * @return a valid search request
+   */
+  @Nonnull
+  @WithSpan
+  public SearchRequest getSearchRequest(@Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, int from, int size) {
+    SearchRequest searchRequest = new SearchRequest(_indexNames.values().toArray(new String[0]));
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+
+    searchSourceBuilder.from(from);
+    searchSourceBuilder.size(size);
+    searchSourceBuilder.fetchSource("urn", null);
+
+    BoolQueryBuilder entityQueries = QueryBuilders.boolQuery().minimumShouldMatch(1);
+    HighlightBuilder highlightBuilder = new HighlightBuilder();
+    // Don't set tags to get the original field value
+    highlightBuilder.preTags("");
+    highlightBuilder.postTags("");
+    Set<String> highlightedFields = new HashSet<>();
+
+    _handlers.forEach((entityName, handler) -> {
+      final QueryBuilder indexQuery = QueryBuilders.termQuery(INDEX_FIELD, _indexNames.get(entityName));
+      entityQueries.should(QueryBuilders.boolQuery().filter(indexQuery).must(handler.getQuery(input)));
+
+      final FilterAggregationBuilder entityAggregation =
+          AggregationBuilders.filter(ENTITY_AGGREGATION_PREFIX + entityName, indexQuery);
+      handler.getAggregations().forEach(entityAggregation::subAggregation);
+      searchSourceBuilder.aggregation(entityAggregation);
+
+      handler.getHighlights().fields().stream()
+          .filter(field -> highlightedFields.add(field.name()))
+          .forEach(highlightBuilder::field);
+    });
+
+    BoolQueryBuilder filterQuery = SearchRequestHandler.getFilterQuery(filter);
+    searchSourceBuilder.query(QueryBuilders.boolQuery().must(entityQueries).must(filterQuery));
+    searchSourceBuilder.highlighter(highlightBuilder);
+    ESUtils.buildSortOrder(searchSourceBuilder, sortCriterion);
+    searchRequest.source(searchSourceBuilder);
+    log.debug("Multi-entity search request is: " + searchRequest.toString());
+
+    return searchRequest;
+  }
+
+  /**
+   * Extracts the search result. Its aggregations are the facets merged across entities, and the number of results per
+   * entity as the {@link #ENTITY_AGGREGATION} aggregation.
+   */
+  @Nonnull
+  @WithSpan
+  public SearchResult extractResult(@Nonnull SearchResponse searchResponse, @Nullable Filter filter, int from,
+      int size) {
+    final Map<String, Long> numResultsPerEntity = new LinkedHashMap<>();
+    final Map<String, AggregationMetadata> aggregations = new LinkedHashMap<>();
+    _handlers.forEach((entityName, handler) -> {
+      final ParsedFilter entityAggregation = searchResponse.getAggregations() == null ? null
+          : searchResponse.getAggregations().get(ENTITY_AGGREGATION_PREFIX + entityName);
+      numResultsPerEntity.put(entityName, entityAggregation == null ? 0L : entityAggregation.getDocCount());
+      handler.extractAggregationMetadata(entityAggregation == null ? null : entityAggregation.getAggregations(), filter)
+          .forEach(metadata -> aggregations.merge(metadata.getName(), metadata, SearchUtils::merge));
+    });
+
+    final List<AggregationMetadata> aggregationMetadataList = new ArrayList<>(aggregations.values());
+    aggregationMetadataList.add(new AggregationMetadata().setName(ENTITY_AGGREGATION)
+        .setDisplayName("Type")
+        .setAggregations(new LongMap(numResultsPerEntity))
+        .setFilterValues(new FilterValueArray(SearchUtil.convertToFilters(numResultsPerEntity, Collections.emptySet()))));
+
+    final List<SearchEntity> resultList = new ArrayList<>();
+    for (SearchHit hit : searchResponse.getHits().getHits()) {
+      resultList.add(getHandler(hit).getResult(hit));
+    }
+
+    return new SearchResult().setEntities(new SearchEntityArray(resultList))
+        .setMetadata(new SearchResultMetadata().setAggregations(new AggregationMetadataArray(aggregationMetadataList)))
+        .setFrom(from)
+        .setPageSize(size)
+        .setNumEntities((int) numResultsPerEntity.values().stream().mapToLong(Long::longValue).sum());
+  }
+
+  // Hits may come from a concrete index behind an alias, so their entity is resolved from their urn.
+  @Nonnull
+  private SearchRequestHandler getHandler(@Nonnull SearchHit hit) {
+    final String entityType = SearchRequestHandler.getUrnFromSearchHit(hit).getEntityType().toLowerCase();
+    final SearchRequestHandler handler = _handlersByEntityType.get(entityType);
+    if (handler == null) {
+      throw new IllegalStateException(String.format("Search hit %s is not of a searched entity", hit.getId()));
+    }
+    return handler;
+  }
+}
@@ -54,6 +54,7 @@ import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.bucket.terms.ParsedTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -225,11 +226,11 @@ public class SearchRequestHandler {
     return searchRequest;
   }
 
-  private QueryBuilder getQuery(@Nonnull String query) {
+  QueryBuilder getQuery(@Nonnull String query) {
     return SearchQueryBuilder.buildQuery(_entitySpec, query);
   }
 
-  private List<AggregationBuilder> getAggregations() {
+  List<AggregationBuilder> getAggregations() {
     List<AggregationBuilder> aggregationBuilders = new ArrayList<>();
     for (String facet : _facetFields) {
       // All facet fields must have subField keyword
@@ -240,7 +241,7 @@ public class SearchRequestHandler {
     return aggregationBuilders;
   }
 
-  private HighlightBuilder getHighlights() {
+  HighlightBuilder getHighlights() {
     HighlightBuilder highlightBuilder = new HighlightBuilder();
     // Don't set tags to get the original field value
     highlightBuilder.preTags("");
@@ -296,7 +297,7 @@ public class SearchRequestHandler {
     return ImmutableMap.of(Features.Name.SEARCH_BACKEND_SCORE.toString(), (double) searchHit.getScore());
   }
 
-  private SearchEntity getResult(@Nonnull SearchHit hit) {
+  SearchEntity getResult(@Nonnull SearchHit hit) {
     return new SearchEntity().setEntity(getUrnFromSearchHit(hit))
         .setMatchedFields(new MatchedFieldArray(extractMatchedFields(hit.getHighlightFields())))
         .setScore(hit.getScore())
@@ -315,7 +316,7 @@ public class SearchRequestHandler {
   }
 
   @Nonnull
-  private Urn getUrnFromSearchHit(@Nonnull SearchHit hit) {
+  static Urn getUrnFromSearchHit(@Nonnull SearchHit hit) {
     try {
       return Urn.createFromString(hit.getSourceAsMap().get("urn").toString());
     } catch (URISyntaxException e) {
@@ -343,13 +344,20 @@ public class SearchRequestHandler {
   }
 
   private List<AggregationMetadata> extractAggregationMetadata(@Nonnull SearchResponse searchResponse, @Nullable Filter filter) {
+    return extractAggregationMetadata(searchResponse.getAggregations(), filter);
+  }
+
+  /**
+   * Extracts the facet aggregations of this entity, e.g. from the sub-aggregations of a multi-entity search bucket.
+   */
+  List<AggregationMetadata> extractAggregationMetadata(@Nullable Aggregations aggregations, @Nullable Filter filter) {
     final List<AggregationMetadata> aggregationMetadataList = new ArrayList<>();
 
-    if (searchResponse.getAggregations() == null) {
+    if (aggregations == null) {
       return addFiltersToAggregationMetadata(aggregationMetadataList, filter);
     }
 
-    for (Map.Entry<String, Aggregation> entry : searchResponse.getAggregations().getAsMap().entrySet()) {
+    for (Map.Entry<String, Aggregation> entry : aggregations.getAsMap().entrySet()) {
       final Map<String, Long> oneTermAggResult = extractTermAggregations((ParsedTerms) entry.getValue());
       if (oneTermAggResult.isEmpty()) {
         continue;
@@ -0,0 +1,80 @@
+package com.linkedin.metadata.search.elasticsearch.update;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Sizes bulk requests by bytes and bounds the bulk requests in flight, adapting both to how the cluster keeps up.
+ *
+ * <p>Bulk requests completing well under the target latency grow the batch size and the concurrency, those exceeding it
+ * shrink them. Rejections, i.e. 429 or es_rejected_execution_exception responses, halve both.
+ */
+@Slf4j
+public class AdaptiveBulkController {
+
+  private static final double GROWTH_FACTOR = 1.25;
+  private static final double SHRINK_FACTOR = 0.75;
+  // Bounds of the batch size relative to the configured one
+  private static final int BATCH_BYTES_RANGE = 8;
+  private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+  private final long minBatchBytes;
+  private final long maxBatchBytes;
+  @Getter
+  private final int maxConcurrency;
+  private final long targetLatencyMillis;
+
+  @Getter
+  private volatile long batchBytes;
+  @Getter
+  private volatile int concurrency;
+
+  public AdaptiveBulkController(long batchBytes, int maxConcurrency, long targetLatencyMillis) {
+    this.minBatchBytes = Math.max(1, batchBytes / BATCH_BYTES_RANGE);
+    this.maxBatchBytes = batchBytes * BATCH_BYTES_RANGE;
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.targetLatencyMillis = targetLatencyMillis;
+    this.batchBytes = batchBytes;
+    this.concurrency = 1;
+  }
+
+  /**
+   * Records a bulk request which was not rejected.
+   */
+  public synchronized void onCompleted(long latencyMillis) {
+    if (latencyMillis > targetLatencyMillis) {
+      resize((long) (batchBytes * SHRINK_FACTOR), concurrency - 1);
+    } else if (latencyMillis < targetLatencyMillis / 2) {
+      resize((long) (batchBytes * GROWTH_FACTOR), concurrency + 1);
+    }
+  }
+
+  /**
+   * Records a bulk request which was rejected, wholly or in part.
+   */
+  public synchronized void onRejected() {
+    resize(batchBytes / 2, concurrency / 2);
+  }
+
+  private void resize(long newBatchBytes, int newConcurrency) {
+    final long boundedBatchBytes = Math.min(maxBatchBytes, Math.max(minBatchBytes, newBatchBytes));
+    final int boundedConcurrency = Math.min(maxConcurrency, Math.max(1, newConcurrency));
+    if (boundedBatchBytes != batchBytes || boundedConcurrency != concurrency) {
+      log.debug("Resizing bulk requests from {} bytes x {} to {} bytes x {}", batchBytes, concurrency,
+          boundedBatchBytes, boundedConcurrency);
+    }
+    batchBytes = boundedBatchBytes;
+    concurrency = boundedConcurrency;
+  }
+
+  /**
+   * Returns the delay before retrying a rejected bulk request for the given time, an exponential backoff with jitter:
+   * a random delay between half and all of the retry interval doubled for each earlier retry.
+   */
+  public static long getBackoffMillis(int retry, long retryIntervalMillis) {
+    final long backoff = Math.min(MAX_BACKOFF_MILLIS, retryIntervalMillis << Math.min(retry, 16));
+    return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+  }
+}
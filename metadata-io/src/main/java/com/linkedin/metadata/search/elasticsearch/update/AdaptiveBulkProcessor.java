@@ -0,0 +1,346 @@
+package com.linkedin.metadata.search.elasticsearch.update;
+
+import com.codahale.metrics.Meter;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
+
+
+/**
+ * A replacement for the Elasticsearch {@link BulkProcessor} whose bulk requests are sized by bytes, and whose batch size
+ * and number of concurrent requests follow an {@link AdaptiveBulkController}.
+ *
+ * <p>Requests are routed by index and document id to one of the controller's maximum number of lanes. A lane sends one
+ * bulk request at a time, and only sends the next one once the previous one and its retries have been answered, so
+ * writes to the same document are applied in the order they were added. The controller bounds the number of lanes
+ * sending at once. Rejected requests are retried after an exponential backoff with jitter, up to the number of retries.
+ *
+ * <p>Requests are sent asynchronously. Adding a request blocks while more bulk requests than there are lanes are
+ * waiting to be sent.
+ */
+@Slf4j
+class AdaptiveBulkProcessor implements Closeable {
+
+  private static final String BULK_LATENCY_METRIC = "bulk_latency";
+  private static final String DOCS_METRIC = "docs";
+  private static final String BYTES_METRIC = "bytes";
+  private static final String REJECTIONS_METRIC = "rejections";
+
+  private final RestHighLevelClient searchClient;
+  private final BulkProcessor.Listener listener;
+  private final AdaptiveBulkController controller;
+  private final int maxActions;
+  private final int numRetries;
+  private final long retryIntervalMillis;
+  private final TimeValue closeTimeout;
+  // Retries have their own thread, so that they are never held up behind a flush
+  private final ScheduledExecutorService flushScheduler;
+  private final ScheduledExecutorService retryScheduler;
+  private final AtomicLong executionIds = new AtomicLong();
+  private final Lane[] lanes;
+
+  // Guarded by this
+  private int inFlight;
+  private int numQueued;
+  private int nextLane;
+  private boolean closed;
+
+  AdaptiveBulkProcessor(RestHighLevelClient searchClient, BulkProcessor.Listener listener,
+      AdaptiveBulkController controller, int maxActions, TimeValue flushInterval, int numRetries,
+      long retryIntervalMillis, TimeValue closeTimeout) {
+    this.searchClient = searchClient;
+    this.listener = listener;
+    this.controller = controller;
+    this.maxActions = maxActions;
+    this.numRetries = numRetries;
+    this.retryIntervalMillis = retryIntervalMillis;
+    this.closeTimeout = closeTimeout;
+    this.lanes = new Lane[controller.getMaxConcurrency()];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = new Lane();
+    }
+    this.flushScheduler = newScheduler("elasticsearch-adaptive-bulk-flush");
+    this.retryScheduler = newScheduler("elasticsearch-adaptive-bulk-retry");
+    this.flushScheduler.scheduleWithFixedDelay(this::flush, flushInterval.millis(), flushInterval.millis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void add(DocWriteRequest<?> request) {
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("Bulk processor already closed");
+      }
+      final Lane lane = lanes[Math.floorMod(Objects.hash(request.index(), request.id()), lanes.length)];
+      lane.pending.add(request);
+      if (lane.pending.estimatedSizeInBytes() < controller.getBatchBytes()
+          && lane.pending.numberOfActions() < maxActions) {
+        return;
+      }
+      queuePending(lane);
+    }
+    dispatch();
+    synchronized (this) {
+      try {
+        while (numQueued > lanes.length && !closed) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        // The request is queued already, it is sent all the same
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Sends the buffered requests without waiting for the batches to fill up.
+   */
+  public void flush() {
+    synchronized (this) {
+      for (Lane lane : lanes) {
+        if (lane.pending.numberOfActions() > 0) {
+          queuePending(lane);
+        }
+      }
+    }
+    dispatch();
+  }
+
+  /**
+   * Sends the buffered requests and waits up to the close timeout for the bulk requests in flight and their retries.
+   * Requests still waiting to be sent or retried after the timeout are reported to the listener as failed.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      notifyAll();
+    }
+    flush();
+    final List<BulkRequest> abandoned = new ArrayList<>();
+    final long deadline = System.currentTimeMillis() + closeTimeout.millis();
+    synchronized (this) {
+      try {
+        while ((inFlight > 0 || numQueued > 0) && System.currentTimeMillis() < deadline) {
+          wait(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      for (Lane lane : lanes) {
+        abandoned.addAll(lane.queued);
+        numQueued -= lane.queued.size();
+        lane.queued.clear();
+        // A retry which already started is answered like any request in flight
+        if (lane.retry != null && lane.retry.cancel(false)) {
+          abandoned.add(lane.retryBatch);
+          lane.retry = null;
+          lane.retryBatch = null;
+          lane.sending = false;
+          inFlight--;
+        }
+      }
+    }
+    flushScheduler.shutdownNow();
+    retryScheduler.shutdownNow();
+    for (BulkRequest batch : abandoned) {
+      log.warn("Bulk request of {} actions not sent before closing", batch.numberOfActions());
+      listener.afterBulk(executionIds.incrementAndGet(), batch,
+          new IllegalStateException("Bulk processor closed before the request was sent"));
+    }
+  }
+
+  private void queuePending(Lane lane) {
+    lane.queued.add(lane.pending);
+    lane.pending = new BulkRequest();
+    numQueued++;
+  }
+
+  /**
+   * Sends the next bulk request of each idle lane, as long as the controller allows more bulk requests in flight.
+   */
+  private void dispatch() {
+    final List<Runnable> sends = new ArrayList<>();
+    synchronized (this) {
+      for (int i = 0; i < lanes.length && inFlight < controller.getConcurrency(); i++) {
+        final Lane lane = lanes[(nextLane + i) % lanes.length];
+        if (!lane.sending && !lane.queued.isEmpty()) {
+          final BulkRequest batch = lane.queued.poll();
+          lane.sending = true;
+          numQueued--;
+          inFlight++;
+          sends.add(() -> send(lane, batch, 0));
+        }
+      }
+      // Lanes take turns being first, so that a low concurrency does not starve the last ones
+      nextLane = (nextLane + 1) % lanes.length;
+      notifyAll();
+    }
+    sends.forEach(Runnable::run);
+  }
+
+  private void send(Lane lane, BulkRequest batch, int retry) {
+    final long executionId = executionIds.incrementAndGet();
+    final long startNanos = System.nanoTime();
+    listener.beforeBulk(executionId, batch);
+    try {
+      searchClient.bulkAsync(batch, RequestOptions.DEFAULT, ActionListener.wrap(
+          response -> onResponse(lane, executionId, batch, response, retry, startNanos),
+          failure -> onFailure(lane, executionId, batch, failure, retry)));
+    } catch (RuntimeException e) {
+      onFailure(lane, executionId, batch, e, retry);
+    }
+  }
+
+  private void onResponse(Lane lane, long executionId, BulkRequest batch, BulkResponse response, int retry,
+      long startNanos) {
+    boolean retrying = false;
+    try {
+      final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      MetricUtils.timer(this.getClass(), BULK_LATENCY_METRIC).update(latencyMillis, TimeUnit.MILLISECONDS);
+
+      final List<BulkItemResponse> reported = new ArrayList<>();
+      final BulkRequest rejected = new BulkRequest();
+      for (BulkItemResponse item : response.getItems()) {
+        final DocWriteRequest<?> request = batch.requests().get(item.getItemId());
+        if (item.isFailed() && item.status() == RestStatus.TOO_MANY_REQUESTS) {
+          indexMeter(item.getIndex(), REJECTIONS_METRIC).mark();
+          if (retry < numRetries) {
+            rejected.add(request);
+            continue;
+          }
+        } else if (!item.isFailed()) {
+          indexMeter(item.getIndex(), DOCS_METRIC).mark();
+          indexMeter(item.getIndex(), BYTES_METRIC).mark(getSizeInBytes(request));
+        }
+        reported.add(item);
+      }
+
+      if (rejected.numberOfActions() > 0) {
+        controller.onRejected();
+        // The retried items are answered with the response to their retry
+        retrying = scheduleRetry(lane, rejected, retry);
+        listener.afterBulk(executionId, batch,
+            new BulkResponse(reported.toArray(new BulkItemResponse[0]), response.getTook().millis()));
+      } else {
+        controller.onCompleted(latencyMillis);
+        listener.afterBulk(executionId, batch, response);
+      }
+    } finally {
+      if (!retrying) {
+        complete(lane);
+      }
+    }
+  }
+
+  private void onFailure(Lane lane, long executionId, BulkRequest batch, Exception failure, int retry) {
+    boolean retrying = false;
+    try {
+      if (ExceptionsHelper.status(failure) == RestStatus.TOO_MANY_REQUESTS) {
+        batch.requests().forEach(request -> indexMeter(request.index(), REJECTIONS_METRIC).mark());
+        controller.onRejected();
+        if (retry < numRetries) {
+          retrying = scheduleRetry(lane, batch, retry);
+          return;
+        }
+      }
+      listener.afterBulk(executionId, batch, failure);
+    } finally {
+      if (!retrying) {
+        complete(lane);
+      }
+    }
+  }
+
+  /**
+   * Schedules the retry of the given requests on their lane, which keeps sending until the retry is answered.
+   *
+   * @return whether the retry was scheduled, if not its requests are reported to the listener as failed
+   */
+  private boolean scheduleRetry(Lane lane, BulkRequest batch, int retry) {
+    final BulkRequest retryBatch = new BulkRequest();
+    batch.requests().forEach(retryBatch::add);
+    final long delay = AdaptiveBulkController.getBackoffMillis(retry, retryIntervalMillis);
+    log.warn("Bulk request of {} actions rejected, retrying in {} ms", retryBatch.numberOfActions(), delay);
+    synchronized (this) {
+      try {
+        lane.retryBatch = retryBatch;
+        lane.retry = retryScheduler.schedule(() -> {
+          synchronized (this) {
+            lane.retry = null;
+            lane.retryBatch = null;
+          }
+          send(lane, retryBatch, retry + 1);
+        }, delay, TimeUnit.MILLISECONDS);
+        return true;
+      } catch (RejectedExecutionException e) {
+        lane.retryBatch = null;
+        log.warn("Bulk processor closed, not retrying bulk request of {} actions", retryBatch.numberOfActions());
+      }
+    }
+    listener.afterBulk(executionIds.incrementAndGet(), retryBatch,
+        new IllegalStateException("Bulk processor closed before the request was retried"));
+    return false;
+  }
+
+  private void complete(Lane lane) {
+    synchronized (this) {
+      lane.sending = false;
+      inFlight--;
+      notifyAll();
+    }
+    dispatch();
+  }
+
+  private static ScheduledExecutorService newScheduler(String threadName) {
+    return Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, threadName);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static long getSizeInBytes(DocWriteRequest<?> request) {
+    final BulkRequest single = new BulkRequest();
+    single.add(request);
+    return single.estimatedSizeInBytes();
+  }
+
+  private static Meter indexMeter(String index, String metric) {
+    return MetricUtils.meter(AdaptiveBulkProcessor.class, index + MetricUtils.DELIMITER + metric);
+  }
+
+  /**
+   * The requests of the documents routed to one lane, sent one bulk request at a time.
+   */
+  private static final class Lane {
+    // All guarded by the processor
+    private BulkRequest pending = new BulkRequest();
+    private final Deque<BulkRequest> queued = new ArrayDeque<>();
+    // Whether a bulk request is in flight or waiting to be retried
+    private boolean sending;
+    private ScheduledFuture<?> retry;
+    private BulkRequest retryBatch;
+  }
+}
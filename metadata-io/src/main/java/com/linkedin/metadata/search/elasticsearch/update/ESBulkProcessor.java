@@ -9,7 +9,9 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.client.RequestOptions;
@@ -21,7 +23,9 @@ import org.elasticsearch.index.reindex.DeleteByQueryRequest;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Builder(builderMethodName = "hiddenBuilder")
@@ -48,16 +52,34 @@ public class ESBulkProcessor implements Closeable {
     private Long retryInterval = 1L;
     @Builder.Default
     private TimeValue defaultTimeout = TimeValue.timeValueMinutes(1);
+    // Size bulk requests by bytes and adapt their size and concurrency to the cluster, see AdaptiveBulkController
+    @Builder.Default
+    private Boolean adaptive = false;
+    @Builder.Default
+    private Long bulkSizeBytes = 5L * 1024 * 1024;
+    @Builder.Default
+    private Integer maxConcurrentRequests = 4;
+    @Builder.Default
+    private Long targetLatencyMillis = 1000L;
     @Getter
     private final WriteRequest.RefreshPolicy writeRequestRefreshPolicy;
     @Setter(AccessLevel.NONE)
     @Getter(AccessLevel.NONE)
     private final BulkProcessor bulkProcessor;
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    private final AdaptiveBulkProcessor adaptiveBulkProcessor;
+    // Counts the requests added and not answered yet, and those which failed
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    private final RequestTracker requestTracker = new RequestTracker();
 
     private ESBulkProcessor(@NonNull RestHighLevelClient searchClient, @NonNull Boolean async, Integer bulkRequestsLimit,
                            Integer bulkFlushPeriod, Integer numRetries, Long retryInterval,
-                           TimeValue defaultTimeout, WriteRequest.RefreshPolicy writeRequestRefreshPolicy,
-                            BulkProcessor ignored) {
+                           TimeValue defaultTimeout, Boolean adaptive, Long bulkSizeBytes,
+                           Integer maxConcurrentRequests, Long targetLatencyMillis,
+                           WriteRequest.RefreshPolicy writeRequestRefreshPolicy,
+                           BulkProcessor ignored, AdaptiveBulkProcessor ignoredAdaptive) {
         this.searchClient = searchClient;
         this.async = async;
         this.bulkRequestsLimit = bulkRequestsLimit;
@@ -65,13 +87,29 @@ public class ESBulkProcessor implements Closeable {
         this.numRetries = numRetries;
         this.retryInterval = retryInterval;
         this.defaultTimeout = defaultTimeout;
+        this.adaptive = adaptive;
+        this.bulkSizeBytes = bulkSizeBytes;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.targetLatencyMillis = targetLatencyMillis;
         this.writeRequestRefreshPolicy = writeRequestRefreshPolicy;
-        this.bulkProcessor = async ? toAsyncBulkProcessor() : toBulkProcessor();
+        this.bulkProcessor = adaptive ? null : async ? toAsyncBulkProcessor() : toBulkProcessor();
+        this.adaptiveBulkProcessor = adaptive ? toAdaptiveBulkProcessor() : null;
     }
 
     public ESBulkProcessor add(DocWriteRequest<?> request) {
         MetricUtils.counter(this.getClass(), ES_WRITES_METRIC).inc();
-        bulkProcessor.add(request);
+        // Counted before it is added, since adding may send the bulk request and answer it right away
+        requestTracker.added();
+        try {
+            if (adaptiveBulkProcessor != null) {
+                adaptiveBulkProcessor.add(request);
+            } else {
+                bulkProcessor.add(request);
+            }
+        } catch (RuntimeException e) {
+            requestTracker.answered(1, 1);
+            throw e;
+        }
         return this;
     }
 
@@ -96,7 +134,7 @@ public class ESBulkProcessor implements Closeable {
 
         try {
             // flush pending writes
-            bulkProcessor.flush();
+            flush();
             // perform delete after local flush
             final BulkByScrollResponse deleteResponse = searchClient.deleteByQuery(deleteByQueryRequest, RequestOptions.DEFAULT);
             MetricUtils.counter(this.getClass(), ES_WRITES_METRIC).inc(deleteResponse.getTotal());
@@ -115,10 +153,10 @@ public class ESBulkProcessor implements Closeable {
                         BulkResponse response = searchClient.bulk(request, RequestOptions.DEFAULT);
                         bulkListener.onResponse(response);
                     } catch (IOException e) {
+                        // Reported once, through the listener: the processor would report a thrown exception again
                         bulkListener.onFailure(e);
-                        throw new RuntimeException(e);
                     }
-                }, BulkListener.getInstance(writeRequestRefreshPolicy))
+                }, requestTracker.track(BulkListener.getInstance(writeRequestRefreshPolicy)))
                 .setBulkActions(bulkRequestsLimit)
                 .setFlushInterval(TimeValue.timeValueSeconds(bulkFlushPeriod))
                 // This retry is ONLY for "resource constraints", i.e. 429 errors (each request has other retry methods)
@@ -129,7 +167,7 @@ public class ESBulkProcessor implements Closeable {
     private BulkProcessor toAsyncBulkProcessor() {
         return BulkProcessor.builder((request, bulkListener) -> {
             searchClient.bulkAsync(request, RequestOptions.DEFAULT, bulkListener);
-            }, BulkListener.getInstance(writeRequestRefreshPolicy))
+            }, requestTracker.track(BulkListener.getInstance(writeRequestRefreshPolicy)))
                 .setBulkActions(bulkRequestsLimit)
                 .setFlushInterval(TimeValue.timeValueSeconds(bulkFlushPeriod))
                 // This retry is ONLY for "resource constraints", i.e. 429 errors (each request has other retry methods)
@@ -137,8 +175,107 @@ public class ESBulkProcessor implements Closeable {
                 .build();
     }
 
+    private AdaptiveBulkProcessor toAdaptiveBulkProcessor() {
+        // The action limit only bounds batches of tiny documents, batches are sized by bytes
+        return new AdaptiveBulkProcessor(searchClient,
+                requestTracker.track(BulkListener.getInstance(writeRequestRefreshPolicy)),
+                new AdaptiveBulkController(bulkSizeBytes, maxConcurrentRequests, targetLatencyMillis),
+                bulkRequestsLimit * 10, TimeValue.timeValueSeconds(bulkFlushPeriod), numRetries,
+                TimeValue.timeValueSeconds(retryInterval).millis(), defaultTimeout);
+    }
+
+    /**
+     * Sends all buffered requests now instead of waiting for the batch size or flush period to be reached.
+     */
+    public void flush() {
+        if (adaptiveBulkProcessor != null) {
+            adaptiveBulkProcessor.flush();
+        } else {
+            bulkProcessor.flush();
+        }
+    }
+
+    /**
+     * Sends all buffered requests and waits until every request added so far has been answered, successfully or not.
+     *
+     * @return whether all requests were answered within the timeout
+     */
+    public boolean flushAndWait(TimeValue timeout) throws InterruptedException {
+        flush();
+        return requestTracker.awaitAnswered(timeout.millis());
+    }
+
+    /**
+     * Returns the number of requests which failed, after their retries, since this processor was built.
+     */
+    public long getFailedRequestCount() {
+        return requestTracker.getFailed();
+    }
+
     @Override
     public void close() throws IOException {
-        bulkProcessor.close();
+        if (adaptiveBulkProcessor != null) {
+            adaptiveBulkProcessor.close();
+        } else {
+            bulkProcessor.close();
+        }
+    }
+
+    /**
+     * Counts requests from the time they are added until the listener is told about their bulk request.
+     */
+    private static final class RequestTracker {
+        private final AtomicLong failed = new AtomicLong();
+        // Guarded by this
+        private long pending;
+
+        synchronized void added() {
+            pending++;
+        }
+
+        synchronized void answered(int numRequests, int numFailed) {
+            pending -= numRequests;
+            failed.addAndGet(numFailed);
+            notifyAll();
+        }
+
+        synchronized boolean awaitAnswered(long timeoutMillis) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (pending > 0) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+
+        long getFailed() {
+            return failed.get();
+        }
+
+        BulkProcessor.Listener track(BulkProcessor.Listener listener) {
+            return new BulkProcessor.Listener() {
+                @Override
+                public void beforeBulk(long executionId, BulkRequest request) {
+                    listener.beforeBulk(executionId, request);
+                }
+
+                @Override
+                public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+                    listener.afterBulk(executionId, request, response);
+                    // A response may only hold part of the request's items, the others being retried
+                    answered(response.getItems().length,
+                            (int) Arrays.stream(response.getItems()).filter(BulkItemResponse::isFailed).count());
+                }
+
+                @Override
+                public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+                    listener.afterBulk(executionId, request, failure);
+                    answered(request.numberOfActions(), request.numberOfActions());
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,111 @@
+package com.linkedin.metadata.search.elasticsearch.update;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+
+
+/**
+ * Periodically reads the indexing and delete counters of every entity index and feeds them to
+ * {@link EntitySearchCacheGenerations}. Any change of a counter invalidates the cached search results of that entity
+ * type, whichever process wrote the documents.
+ *
+ * The counters only move once Elasticsearch has applied a write, so this also catches results that were cached
+ * locally between a write being queued in the bulk processor and being applied.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ESWriteCountPoller {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final EntityRegistry entityRegistry;
+  private final RestHighLevelClient searchClient;
+  private final IndexConvention indexConvention;
+  private final EntitySearchCacheGenerations cacheGenerations;
+
+  /**
+   * Starts polling on a daemon thread.
+   *
+   * @param intervalMillis time between two polls
+   */
+  public void start(long intervalMillis) {
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "es-write-count-poller");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::poll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reads the current write counters once and reports them to the cache generations.
+   */
+  public void poll() {
+    try {
+      cacheGenerations.onWriteCounts(getWriteCounts());
+    } catch (Exception e) {
+      // Cached results expire by TTL in the meantime
+      MetricUtils.exceptionCounter(this.getClass(), "poll_failure", e);
+      log.warn("Failed to read write counters of entity indices", e);
+    }
+  }
+
+  @Nonnull
+  private Map<String, Long> getWriteCounts() throws IOException {
+    final Request request = new Request("GET", "/" + indexConvention.getAllEntityIndicesPattern() + "/_stats/indexing");
+    request.addParameter("filter_path", "indices.*.primaries.indexing");
+    final Response response = searchClient.getLowLevelClient().performRequest(request);
+    final JsonNode indices;
+    try (InputStream content = response.getEntity().getContent()) {
+      indices = OBJECT_MAPPER.readTree(content).path("indices");
+    }
+
+    final Map<String, Long> writeCounts = new HashMap<>();
+    final Iterator<Map.Entry<String, JsonNode>> it = indices.fields();
+    while (it.hasNext()) {
+      final Map.Entry<String, JsonNode> index = it.next();
+      final String entityName = getEntityName(index.getKey());
+      if (entityName == null) {
+        continue;
+      }
+      final JsonNode indexing = index.getValue().path("primaries").path("indexing");
+      final long writeCount = indexing.path("index_total").asLong() + indexing.path("delete_total").asLong();
+      writeCounts.merge(entityName, writeCount, Long::sum);
+    }
+    return writeCounts;
+  }
+
+  /**
+   * Maps a concrete index name back to its entity. Reindexed indices carry a suffix after the entity index name, which
+   * is itself the alias.
+   */
+  @Nullable
+  private String getEntityName(@Nonnull String indexName) {
+    for (EntitySpec entitySpec : entityRegistry.getEntitySpecs().values()) {
+      final String entityIndexName = indexConvention.getIndexName(entitySpec);
+      if (indexName.equals(entityIndexName) || indexName.startsWith(entityIndexName + "_")) {
+        return entitySpec.getName();
+      }
+    }
+    return null;
+  }
+}
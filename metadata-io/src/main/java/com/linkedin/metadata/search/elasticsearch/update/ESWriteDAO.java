@@ -1,8 +1,10 @@
 package com.linkedin.metadata.search.elasticsearch.update;
 
 import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +29,7 @@ public class ESWriteDAO {
   private final IndexConvention indexConvention;
   private final ESBulkProcessor bulkProcessor;
   private final int numRetries;
+  private final EntitySearchCacheGenerations cacheGenerations;
 
   /**
    * Updates or inserts the given search document.
@@ -36,6 +39,17 @@ public class ESWriteDAO {
    * @param docId the ID of the document
    */
   public void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId) {
+    upsertDocument(entityName, document.getBytes(StandardCharsets.UTF_8), docId);
+  }
+
+  /**
+   * Updates or inserts the given search document.
+   *
+   * @param entityName name of the entity
+   * @param document the document to update / insert, as UTF-8 JSON
+   * @param docId the ID of the document
+   */
+  public void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
     final IndexRequest indexRequest = new IndexRequest(indexName).id(docId).source(document, XContentType.JSON);
     final UpdateRequest updateRequest =
@@ -44,6 +58,7 @@ public class ESWriteDAO {
                 .retryOnConflict(numRetries)
                 .upsert(indexRequest);
     bulkProcessor.add(updateRequest);
+    cacheGenerations.invalidate(entityName);
   }
 
   /**
@@ -55,6 +70,7 @@ public class ESWriteDAO {
   public void deleteDocument(@Nonnull String entityName, @Nonnull String docId) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
     bulkProcessor.add(new DeleteRequest(indexName).id(docId));
+    cacheGenerations.invalidate(entityName);
   }
 
   /**
@@ -63,6 +79,7 @@ public class ESWriteDAO {
   public void applyScriptUpdate(@Nonnull String entityName, @Nonnull String docId, @Nonnull String script) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
     bulkProcessor.add(new UpdateRequest(indexName, docId).retryOnConflict(numRetries).script(new Script(script)));
+    cacheGenerations.invalidate(entityName);
   }
 
   /**
@@ -71,6 +88,7 @@ public class ESWriteDAO {
   public void clear() {
     String[] indices = getIndices(indexConvention.getAllEntityIndicesPattern());
     bulkProcessor.deleteByQuery(QueryBuilders.matchAllQuery(), indices);
+    cacheGenerations.invalidateAll();
   }
 
   private String[] getIndices(String pattern) {
@@ -1,5 +1,7 @@
 package com.linkedin.metadata.search.transformer;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -9,13 +11,28 @@ import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.FieldSpec;
 import com.linkedin.metadata.models.SearchScoreFieldSpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation.FieldType;
 import com.linkedin.metadata.models.extractor.FieldExtractor;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,6 +44,11 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class SearchDocumentTransformer {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  // Buffers grown past this size by a large document are not kept for the next document
+  private static final int MAX_RETAINED_BUFFER_CHARS = 1024 * 1024;
+  private static final ThreadLocal<DocumentWriter> DOCUMENT_WRITER = ThreadLocal.withInitial(DocumentWriter::new);
+
   // Number of elements to index for a given array.
   // The cap improves search speed when having fields with a large number of elements
   private final int maxArrayLength;
@@ -54,10 +76,22 @@ public class SearchDocumentTransformer {
       final RecordTemplate aspect,
       final AspectSpec aspectSpec,
       final Boolean forDelete) {
+    return transformAspect(urn, aspectSpec, FieldExtractor.extractFields(aspect, aspectSpec), forDelete);
+  }
+
+  /**
+   * Same as {@link #transformAspect(Urn, RecordTemplate, AspectSpec, Boolean)}, from the values already extracted from
+   * the aspect with {@link FieldExtractor#extractFields(RecordTemplate, AspectSpec)}.
+   */
+  public Optional<String> transformAspect(
+      final Urn urn,
+      final AspectSpec aspectSpec,
+      final Map<FieldSpec, List<Object>> extractedFields,
+      final Boolean forDelete) {
     final Map<SearchableFieldSpec, List<Object>> extractedSearchableFields =
-        FieldExtractor.extractFields(aspect, aspectSpec.getSearchableFieldSpecs());
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getSearchableFieldSpecs());
     final Map<SearchScoreFieldSpec, List<Object>> extractedSearchScoreFields =
-        FieldExtractor.extractFields(aspect, aspectSpec.getSearchScoreFieldSpecs());
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getSearchScoreFieldSpecs());
     if (extractedSearchableFields.isEmpty() && extractedSearchScoreFields.isEmpty()) {
       return Optional.empty();
     }
@@ -169,6 +203,306 @@ public class SearchDocumentTransformer {
     }
   }
 
+  public Optional<byte[]> transformAspectToBytes(
+      final Urn urn,
+      final RecordTemplate aspect,
+      final AspectSpec aspectSpec,
+      final Boolean forDelete) {
+    return transformAspectToBytes(urn, aspectSpec, FieldExtractor.extractFields(aspect, aspectSpec), forDelete);
+  }
+
+  /**
+   * Same as {@link #transformAspect(Urn, AspectSpec, Map, Boolean)}, returning the document as UTF-8 JSON bytes.
+   *
+   * <p>The document is written field by field into a generator and buffer reused by the calling thread, rather than
+   * built as a tree and serialized to a String. The bytes are the same as those of the String.
+   */
+  public Optional<byte[]> transformAspectToBytes(
+      final Urn urn,
+      final AspectSpec aspectSpec,
+      final Map<FieldSpec, List<Object>> extractedFields,
+      final Boolean forDelete) {
+    final Map<SearchableFieldSpec, List<Object>> extractedSearchableFields =
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getSearchableFieldSpecs());
+    final Map<SearchScoreFieldSpec, List<Object>> extractedSearchScoreFields =
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getSearchScoreFieldSpecs());
+    if (extractedSearchableFields.isEmpty() && extractedSearchScoreFields.isEmpty()) {
+      return Optional.empty();
+    }
+    if (!isStreamable(aspectSpec)) {
+      return transformAspect(urn, aspectSpec, extractedFields, forDelete)
+          .map(document -> document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    final DocumentWriter writer = DOCUMENT_WRITER.get();
+    boolean reusable = false;
+    try {
+      final JsonGenerator generator = writer.getGenerator();
+      generator.writeStartObject();
+      generator.writeStringField("urn", urn.toString());
+      for (Map.Entry<SearchableFieldSpec, List<Object>> entry : extractedSearchableFields.entrySet()) {
+        writeSearchableValue(entry.getKey(), entry.getValue(), generator, forDelete);
+      }
+      for (Map.Entry<SearchScoreFieldSpec, List<Object>> entry : extractedSearchScoreFields.entrySet()) {
+        writeSearchScoreValue(entry.getKey(), entry.getValue(), generator, forDelete);
+      }
+      generator.writeEndObject();
+      final byte[] document = writer.toByteArray();
+      reusable = writer.getSize() <= MAX_RETAINED_BUFFER_CHARS;
+      return Optional.of(document);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      // A failed document leaves the generator in the middle of it
+      if (!reusable) {
+        DOCUMENT_WRITER.remove();
+      }
+    }
+  }
+
+  /**
+   * An object node keeps the first position and the last value of a field set twice, which a generator cannot do, so
+   * the documents of an aspect with several fields of the same name are built as a tree.
+   */
+  private static boolean isStreamable(final AspectSpec aspectSpec) {
+    final Set<String> fieldNames = new HashSet<>();
+    fieldNames.add("urn");
+    for (SearchableFieldSpec fieldSpec : aspectSpec.getSearchableFieldSpecs()) {
+      final Optional<String> hasValuesFieldName = fieldSpec.getSearchableAnnotation().getHasValuesFieldName();
+      final Optional<String> numValuesFieldName = fieldSpec.getSearchableAnnotation().getNumValuesFieldName();
+      if ((hasValuesFieldName.isPresent() && !fieldNames.add(hasValuesFieldName.get()))
+          || (numValuesFieldName.isPresent() && !fieldNames.add(numValuesFieldName.get()))
+          || !fieldNames.add(fieldSpec.getSearchableAnnotation().getFieldName())) {
+        return false;
+      }
+    }
+    for (SearchScoreFieldSpec fieldSpec : aspectSpec.getSearchScoreFieldSpecs()) {
+      if (!fieldNames.add(fieldSpec.getSearchScoreAnnotation().getFieldName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void writeSearchableValue(final SearchableFieldSpec fieldSpec, final List<Object> fieldValues,
+      final JsonGenerator generator, final Boolean forDelete) throws IOException {
+    DataSchema.Type valueType = fieldSpec.getPegasusSchema().getType();
+    Optional<Object> firstValue = fieldValues.stream().findFirst();
+    boolean isArray = fieldSpec.isArray();
+
+    // Write hasValues field if exists
+    final Optional<String> hasValuesFieldName = fieldSpec.getSearchableAnnotation().getHasValuesFieldName();
+    if (hasValuesFieldName.isPresent()) {
+      if (forDelete) {
+        generator.writeBooleanField(hasValuesFieldName.get(), false);
+      } else if (valueType == DataSchema.Type.BOOLEAN) {
+        generator.writeBooleanField(hasValuesFieldName.get(), (Boolean) firstValue.orElse(false));
+      } else {
+        generator.writeBooleanField(hasValuesFieldName.get(), !fieldValues.isEmpty());
+      }
+    }
+
+    // Write numValues field if exists
+    final Optional<String> numValuesFieldName = fieldSpec.getSearchableAnnotation().getNumValuesFieldName();
+    if (numValuesFieldName.isPresent()) {
+      generator.writeFieldName(numValuesFieldName.get());
+      if (forDelete) {
+        generator.writeNumber(0);
+      } else {
+        switch (valueType) {
+          case INT:
+            writeNumber(generator, (Integer) firstValue.orElse(0));
+            break;
+          case LONG:
+            writeNumber(generator, (Long) firstValue.orElse(0L));
+            break;
+          default:
+            generator.writeNumber(fieldValues.size());
+            break;
+        }
+      }
+    }
+
+    final String fieldName = fieldSpec.getSearchableAnnotation().getFieldName();
+    final FieldType fieldType = fieldSpec.getSearchableAnnotation().getFieldType();
+
+    if (forDelete) {
+      generator.writeNullField(fieldName);
+      return;
+    }
+
+    if (isArray || (valueType == DataSchema.Type.MAP && fieldType != FieldType.OBJECT)) {
+      generator.writeArrayFieldStart(fieldName);
+      for (Object value : fieldValues.subList(0, Math.min(fieldValues.size(), maxArrayLength))) {
+        writeValue(generator, valueType, value, fieldType);
+      }
+      generator.writeEndArray();
+    } else if (valueType == DataSchema.Type.MAP) {
+      // Keys may repeat once split, the last value wins as in an object node
+      final Map<String, String> dict = new LinkedHashMap<>();
+      fieldValues.subList(0, Math.min(fieldValues.size(), maxObjectKeys)).forEach(fieldValue -> {
+        String[] keyValues = fieldValue.toString().split("=");
+        String key = keyValues[0];
+        String value = keyValues[1];
+        dict.put(key, value);
+      });
+      generator.writeObjectFieldStart(fieldName);
+      for (Map.Entry<String, String> entry : dict.entrySet()) {
+        generator.writeStringField(entry.getKey(), entry.getValue());
+      }
+      generator.writeEndObject();
+    } else if (!fieldValues.isEmpty() && hasValue(valueType, fieldValues.get(0), fieldType)) {
+      generator.writeFieldName(fieldName);
+      writeValue(generator, valueType, fieldValues.get(0), fieldType);
+    }
+  }
+
+  private void writeSearchScoreValue(final SearchScoreFieldSpec fieldSpec, final List<Object> fieldValues,
+      final JsonGenerator generator, final Boolean forDelete) throws IOException {
+    DataSchema.Type valueType = fieldSpec.getPegasusSchema().getType();
+
+    final String fieldName = fieldSpec.getSearchScoreAnnotation().getFieldName();
+
+    if (forDelete) {
+      generator.writeNullField(fieldName);
+      return;
+    }
+
+    if (fieldValues.isEmpty()) {
+      return;
+    }
+
+    final Object fieldValue = fieldValues.get(0);
+    switch (valueType) {
+      case INT:
+        generator.writeFieldName(fieldName);
+        writeNumber(generator, (Integer) fieldValue);
+        return;
+      case LONG:
+        generator.writeFieldName(fieldName);
+        writeNumber(generator, (Long) fieldValue);
+        return;
+      case FLOAT:
+        generator.writeFieldName(fieldName);
+        writeNumber(generator, (Float) fieldValue);
+        return;
+      case DOUBLE:
+        generator.writeFieldName(fieldName);
+        writeNumber(generator, (Double) fieldValue);
+        return;
+      default:
+        // Only the above types are supported
+        throw new IllegalArgumentException(
+            String.format("SearchScore fields must be a numeric type: field %s, value %s", fieldName, fieldValue));
+    }
+  }
+
+  // Whether getNodeForValue returns a node for the value
+  private static boolean hasValue(final DataSchema.Type schemaFieldType, final Object fieldValue,
+      final FieldType fieldType) {
+    switch (schemaFieldType) {
+      case BOOLEAN:
+      case INT:
+      case LONG:
+        return true;
+      default:
+        return fieldType == FieldType.BROWSE_PATH || !fieldValue.toString().isEmpty();
+    }
+  }
+
+  // Writes the node getNodeForValue returns for the value, if any
+  private static void writeValue(final JsonGenerator generator, final DataSchema.Type schemaFieldType,
+      final Object fieldValue, final FieldType fieldType) throws IOException {
+    switch (schemaFieldType) {
+      case BOOLEAN:
+        generator.writeBoolean((Boolean) fieldValue);
+        return;
+      case INT:
+        writeNumber(generator, (Integer) fieldValue);
+        return;
+      case LONG:
+        writeNumber(generator, (Long) fieldValue);
+        return;
+      default:
+        if (hasValue(schemaFieldType, fieldValue, fieldType)) {
+          generator.writeString(fieldValue.toString());
+        }
+    }
+  }
+
+  // Writes the number as JsonNodeFactory#numberNode does, which returns a null node for null
+  private static void writeNumber(final JsonGenerator generator, @Nullable final Number value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof Integer) {
+      generator.writeNumber(value.intValue());
+    } else if (value instanceof Long) {
+      generator.writeNumber(value.longValue());
+    } else if (value instanceof Float) {
+      generator.writeNumber(value.floatValue());
+    } else {
+      generator.writeNumber(value.doubleValue());
+    }
+  }
+
+  /**
+   * A generator writing one document after the other into the same buffers, which are emptied for each document.
+   *
+   * <p>The generator writes characters, as when serializing an object node to a String, which are then encoded as
+   * {@link String#getBytes} does: a generator writing UTF-8 would escape supplementary characters instead.
+   */
+  private static final class DocumentWriter {
+    private final DocumentChars chars = new DocumentChars();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final JsonGenerator generator;
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+    DocumentWriter() {
+      try {
+        generator = JSON_FACTORY.createGenerator(chars);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      // Documents are not separated by whitespace as root values of a single stream would be
+      generator.setRootValueSeparator(null);
+    }
+
+    JsonGenerator getGenerator() {
+      chars.reset();
+      return generator;
+    }
+
+    byte[] toByteArray() throws IOException {
+      generator.flush();
+      final int maxBytes = (int) Math.ceil(chars.size() * (double) encoder.maxBytesPerChar());
+      if (bytes.capacity() < maxBytes) {
+        bytes = ByteBuffer.allocate(maxBytes);
+      }
+      bytes.clear();
+      encoder.reset();
+      CoderResult result = encoder.encode(CharBuffer.wrap(chars.getChars(), 0, chars.size()), bytes, true);
+      if (result.isUnderflow()) {
+        result = encoder.flush(bytes);
+      }
+      if (!result.isUnderflow()) {
+        result.throwException();
+      }
+      return Arrays.copyOf(bytes.array(), bytes.position());
+    }
+
+    int getSize() {
+      return chars.size();
+    }
+  }
+
+  private static final class DocumentChars extends CharArrayWriter {
+    char[] getChars() {
+      return buf;
+    }
+  }
+
   private Optional<JsonNode> getNodeForValue(final DataSchema.Type schemaFieldType, final Object fieldValue,
       final FieldType fieldType) {
     switch (schemaFieldType) {
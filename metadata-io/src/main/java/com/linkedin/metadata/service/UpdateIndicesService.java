@@ -0,0 +1,727 @@
+package com.linkedin.metadata.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.InputField;
+import com.linkedin.common.InputFields;
+import com.linkedin.common.Status;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.dataset.FineGrainedLineage;
+import com.linkedin.dataset.UpstreamLineage;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.GraphIndexUtils;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageClosureIndex;
+import com.linkedin.metadata.key.SchemaFieldKey;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.FieldSpec;
+import com.linkedin.metadata.models.RelationshipFieldSpec;
+import com.linkedin.metadata.models.extractor.FieldExtractor;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import com.linkedin.metadata.search.utils.SearchUtils;
+import com.linkedin.metadata.systemmetadata.SystemMetadataService;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
+import com.linkedin.metadata.utils.EntityKeyUtils;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.GenericAspect;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.SystemMetadata;
+import com.linkedin.util.Pair;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies {@link MetadataChangeLog} events to the Search, Graph, Timeseries and System Metadata indices.
+ *
+ * Used by the MAE consumer for events read from Kafka, and by jobs that rebuild the indices straight from the
+ * aspects table.
+ */
+@Slf4j
+public class UpdateIndicesService {
+
+  private static final Set<ChangeType> UPDATE_CHANGE_TYPES = ImmutableSet.of(
+    ChangeType.UPSERT,
+    ChangeType.RESTATE,
+    ChangeType.PATCH);
+  private static final String DOWNSTREAM_OF = "DownstreamOf";
+
+  private final GraphService _graphService;
+  private final EntitySearchService _entitySearchService;
+  private final TimeseriesAspectService _timeseriesAspectService;
+  private final SystemMetadataService _systemMetadataService;
+  private final EntityRegistry _entityRegistry;
+  private final SearchDocumentTransformer _searchDocumentTransformer;
+
+  private boolean _diffMode;
+  private boolean _graphEnabled = true;
+  private boolean _graphOnly;
+  @Nullable
+  private LineageClosureIndex _lineageClosureIndex;
+
+  public UpdateIndicesService(
+      GraphService graphService,
+      EntitySearchService entitySearchService,
+      TimeseriesAspectService timeseriesAspectService,
+      SystemMetadataService systemMetadataService,
+      EntityRegistry entityRegistry,
+      SearchDocumentTransformer searchDocumentTransformer) {
+    _graphService = graphService;
+    _entitySearchService = entitySearchService;
+    _timeseriesAspectService = timeseriesAspectService;
+    _systemMetadataService = systemMetadataService;
+    _entityRegistry = entityRegistry;
+    _searchDocumentTransformer = searchDocumentTransformer;
+  }
+
+  /**
+   * Sets whether graph writes are computed as a diff between the previous and new aspect, instead of wholesale
+   * removing and re-adding the edges of the aspect.
+   */
+  public void setGraphDiffMode(boolean diffMode) {
+    _diffMode = diffMode;
+  }
+
+  /**
+   * Sets whether the graph is updated. It is not when the graph is kept by another consumer, e.g. the embedded graph
+   * of each GMS instance.
+   */
+  public void setGraphEnabled(boolean graphEnabled) {
+    _graphEnabled = graphEnabled;
+  }
+
+  /**
+   * Sets whether only the graph is updated, leaving the search, timeseries and system metadata indices alone. Their
+   * services may then be null.
+   */
+  public void setGraphOnly(boolean graphOnly) {
+    _graphOnly = graphOnly;
+  }
+
+  /**
+   * Sets the index of precomputed lineage to invalidate when lineage edges change, or null if there is none.
+   */
+  public void setLineageClosureIndex(@Nullable LineageClosureIndex lineageClosureIndex) {
+    _lineageClosureIndex = lineageClosureIndex;
+  }
+
+  public void handleChangeEvent(@Nonnull final MetadataChangeLog event) {
+    if (UPDATE_CHANGE_TYPES.contains(event.getChangeType())) {
+      handleUpdateChangeEvent(event);
+    } else if (event.getChangeType() == ChangeType.DELETE) {
+      handleDeleteChangeEvent(event);
+    }
+  }
+
+  /**
+   * Handles a batch of change events, given in per-urn order. Consecutive upserts of the same versioned aspect of an
+   * urn are coalesced into a single event spanning from the first event's previous value to the last event's value,
+   * so that each search and graph document is written once per batch rather than once per event. The system metadata
+   * of every event, with its run id, is still recorded in order.
+   *
+   * Every event is attempted. The first failure is rethrown once the whole batch has been handled.
+   */
+  public void handleChangeEvents(@Nonnull final List<MetadataChangeLog> events) {
+    RuntimeException failure = null;
+    for (CoalescedChangeEvent coalesced : coalesceChangeEvents(events)) {
+      final MetadataChangeLog event = coalesced.getEvent();
+      try {
+        coalesced.getSuperseded().forEach(this::updateSystemMetadata);
+        handleChangeEvent(event);
+      } catch (RuntimeException e) {
+        log.error("Failed to update indices for urn {}, aspect {}", event.getEntityUrn(), event.getAspectName(), e);
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * An event to handle, along with the last of the events it was coalesced from and the earlier ones, in order.
+   */
+  @Value
+  @VisibleForTesting
+  static class CoalescedChangeEvent {
+    MetadataChangeLog event;
+    MetadataChangeLog last;
+    List<MetadataChangeLog> superseded;
+  }
+
+  @VisibleForTesting
+  @Nonnull
+  List<CoalescedChangeEvent> coalesceChangeEvents(@Nonnull final List<MetadataChangeLog> events) {
+    final List<CoalescedChangeEvent> coalesced = new ArrayList<>(events.size());
+    // Position in coalesced of the pending upsert for each urn and aspect
+    final Map<Urn, Map<String, Integer>> pending = new HashMap<>();
+    for (MetadataChangeLog event : events) {
+      if (!event.hasEntityUrn()) {
+        // Cannot tell which urn this event belongs to, so nothing before it may be merged with anything after it
+        pending.clear();
+        coalesced.add(new CoalescedChangeEvent(event, event, new ArrayList<>()));
+        continue;
+      }
+      final Urn urn = event.getEntityUrn();
+      if (!isCoalescable(event)) {
+        // Deletes, timeseries aspects, etc. act as a barrier for the urn
+        pending.remove(urn);
+        coalesced.add(new CoalescedChangeEvent(event, event, new ArrayList<>()));
+        continue;
+      }
+      final Map<String, Integer> pendingForUrn = pending.computeIfAbsent(urn, key -> new HashMap<>());
+      final Integer index = pendingForUrn.get(event.getAspectName());
+      if (index == null) {
+        pendingForUrn.put(event.getAspectName(), coalesced.size());
+        coalesced.add(new CoalescedChangeEvent(event, event, new ArrayList<>()));
+      } else {
+        final CoalescedChangeEvent previous = coalesced.get(index);
+        previous.getSuperseded().add(previous.getLast());
+        coalesced.set(index,
+            new CoalescedChangeEvent(mergeChangeEvents(previous.getEvent(), event), event, previous.getSuperseded()));
+      }
+    }
+    return coalesced;
+  }
+
+  private boolean isCoalescable(@Nonnull final MetadataChangeLog event) {
+    if (event.getChangeType() != ChangeType.UPSERT || !event.hasAspectName() || !event.hasAspect()) {
+      return false;
+    }
+    try {
+      final AspectSpec aspectSpec = _entityRegistry.getEntitySpec(event.getEntityType()).getAspectSpec(event.getAspectName());
+      return aspectSpec != null && !aspectSpec.isTimeseries();
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Merges two upserts of the same aspect into one going from the previous value of the first to the value of the
+   * second, which is what graph diff mode needs to compute the right set of edges.
+   */
+  @Nonnull
+  private static MetadataChangeLog mergeChangeEvents(@Nonnull final MetadataChangeLog first,
+      @Nonnull final MetadataChangeLog last) {
+    // Shallow copy, the events themselves may be shared with other hooks
+    final MetadataChangeLog merged = new MetadataChangeLog(new DataMap(last.data()));
+    if (first.hasPreviousAspectValue()) {
+      merged.setPreviousAspectValue(first.getPreviousAspectValue());
+    } else {
+      merged.removePreviousAspectValue();
+    }
+    if (first.hasPreviousSystemMetadata()) {
+      merged.setPreviousSystemMetadata(first.getPreviousSystemMetadata());
+    } else {
+      merged.removePreviousSystemMetadata();
+    }
+    return merged;
+  }
+
+  /**
+   * This very important method processes {@link MetadataChangeLog} events
+   * that represent changes to the Metadata Graph.
+   *
+   * In particular, it handles updating the Search, Graph, Timeseries, and
+   * System Metadata stores in response to a given change type to reflect
+   * the changes present in the new aspect.
+   *
+   * @param event the change event to be processed.
+   */
+  private void handleUpdateChangeEvent(@Nonnull final MetadataChangeLog event) {
+
+    final EntitySpec entitySpec = getEventEntitySpec(event);
+    final Urn urn = EntityKeyUtils.getUrnFromLog(event, entitySpec.getKeyAspectSpec());
+
+    if (!event.hasAspectName() || !event.hasAspect()) {
+      log.error("Aspect or aspect name is missing. Skipping aspect processing...");
+      return;
+    }
+
+    AspectSpec aspectSpec = entitySpec.getAspectSpec(event.getAspectName());
+    if (aspectSpec == null) {
+      throw new RuntimeException(
+          String.format("Failed to retrieve Aspect Spec for entity with name %s, aspect with name %s. Cannot update indices for MCL.",
+              event.getEntityType(),
+              event.getAspectName()));
+    }
+
+    RecordTemplate aspect = GenericRecordUtils.deserializeAspect(
+        event.getAspect().getValue(),
+        event.getAspect().getContentType(),
+        aspectSpec);
+    GenericAspect previousAspectValue = event.getPreviousAspectValue();
+    RecordTemplate previousAspect = previousAspectValue != null
+        ? GenericRecordUtils.deserializeAspect(previousAspectValue.getValue(), previousAspectValue.getContentType(), aspectSpec)
+        : null;
+
+    if (_graphOnly) {
+      if (!aspectSpec.isTimeseries()) {
+        updateGraph(urn, aspectSpec, previousAspect, aspect, null, event);
+      }
+      return;
+    }
+
+    // Values of all field specs of the aspect, shared by the timeseries, search and graph updates
+    final Map<FieldSpec, List<Object>> extractedFields = extractFields(urn, aspect, aspectSpec);
+
+    // Step 0. If the aspect is timeseries, add to its timeseries index.
+    if (aspectSpec.isTimeseries()) {
+      updateTimeseriesFields(event.getEntityType(), event.getAspectName(), urn, aspect, aspectSpec,
+          fieldsOf(extractedFields, aspect, Stream.concat(aspectSpec.getTimeseriesFieldSpecs().stream(),
+              aspectSpec.getTimeseriesFieldCollectionSpecs().stream()).collect(Collectors.toList())),
+          event.getSystemMetadata());
+    } else {
+      // Inject into the System Metadata Index when an aspect is non-timeseries only.
+      // TODO: Verify whether timeseries aspects can be dropped into System Metadata as well
+      // without impacting rollbacks.
+      updateSystemMetadata(event.getSystemMetadata(), urn, aspectSpec, aspect);
+    }
+
+    // Step 1. For all aspects, attempt to update Search
+    updateSearchService(entitySpec.getName(), urn, aspectSpec, extractedFields,
+        event.hasSystemMetadata() ? event.getSystemMetadata().getRunId() : null);
+
+    // Step 2. For all aspects, attempt to update Graph
+    if (_graphEnabled) {
+      updateGraph(urn, aspectSpec, previousAspect, aspect, extractedFields, event);
+    }
+  }
+
+  private void updateGraph(@Nonnull Urn urn, @Nonnull AspectSpec aspectSpec, @Nullable RecordTemplate previousAspect,
+      @Nonnull RecordTemplate aspect, @Nullable Map<FieldSpec, List<Object>> extractedFields,
+      @Nonnull MetadataChangeLog event) {
+    final Map<FieldSpec, List<Object>> relationshipFields =
+        fieldsOf(extractedFields, aspect, aspectSpec.getRelationshipFieldSpecs());
+    if (_diffMode) {
+      updateGraphServiceDiff(urn, aspectSpec, previousAspect, aspect, relationshipFields, event);
+    } else {
+      updateGraphService(urn, aspectSpec, aspect, relationshipFields, event);
+    }
+  }
+
+  /**
+   * Extracts the values of all field specs of the aspect in one pass, or returns null if that fails. A failure only
+   * costs the aspect its search document: the other updates then extract the fields they need on their own, see
+   * {@link #fieldsOf}, and fail as they would have without the shared extraction.
+   */
+  @Nullable
+  private static Map<FieldSpec, List<Object>> extractFields(@Nonnull Urn urn, @Nonnull RecordTemplate aspect,
+      @Nonnull AspectSpec aspectSpec) {
+    try {
+      return FieldExtractor.extractFields(aspect, aspectSpec);
+    } catch (Exception e) {
+      log.error("Error in extracting fields of aspect {} of {}: {}", aspectSpec.getName(), urn, e);
+      return null;
+    }
+  }
+
+  // Values of the given field specs, out of the shared extraction unless it failed
+  @Nonnull
+  private static Map<FieldSpec, List<Object>> fieldsOf(@Nullable Map<FieldSpec, List<Object>> extractedFields,
+      @Nonnull RecordTemplate aspect, @Nonnull List<? extends FieldSpec> fieldSpecs) {
+    if (extractedFields != null) {
+      return extractedFields;
+    }
+    return new HashMap<FieldSpec, List<Object>>(FieldExtractor.extractFields(aspect, fieldSpecs));
+  }
+
+  /**
+   * This very important method processes {@link MetadataChangeLog} deletion events
+   * to cleanup the Metadata Graph when an aspect or entity is removed.
+   *
+   * In particular, it handles updating the Search, Graph, Timeseries, and
+   * System Metadata stores to reflect the deletion of a particular aspect.
+   *
+   * Note that if an entity's key aspect is deleted, the entire entity will be purged
+   * from search, graph, timeseries, etc.
+   *
+   * @param event the change event to be processed.
+   */
+  private void handleDeleteChangeEvent(@Nonnull final MetadataChangeLog event) {
+
+    final EntitySpec entitySpec = getEventEntitySpec(event);
+    final Urn urn = EntityKeyUtils.getUrnFromLog(event, entitySpec.getKeyAspectSpec());
+
+    if (!event.hasAspectName() || !event.hasPreviousAspectValue()) {
+      log.error("Previous aspect or aspect name is missing. Skipping aspect processing...");
+      return;
+    }
+
+    AspectSpec aspectSpec = entitySpec.getAspectSpec(event.getAspectName());
+    if (aspectSpec == null) {
+      throw new RuntimeException(
+          String.format("Failed to retrieve Aspect Spec for entity with name %s, aspect with name %s. Cannot update indices for MCL.",
+              event.getEntityType(),
+              event.getAspectName()));
+    }
+
+    RecordTemplate aspect = GenericRecordUtils.deserializeAspect(event.getPreviousAspectValue().getValue(),
+        event.getPreviousAspectValue().getContentType(), aspectSpec);
+    Boolean isDeletingKey = event.getAspectName().equals(entitySpec.getKeyAspectName());
+
+    if (!aspectSpec.isTimeseries()) {
+      if (!_graphOnly) {
+        deleteSystemMetadata(urn, aspectSpec, isDeletingKey);
+      }
+      final Map<FieldSpec, List<Object>> extractedFields =
+          isDeletingKey || _graphOnly ? null : extractFields(urn, aspect, aspectSpec);
+      if (_graphEnabled) {
+        deleteGraphData(urn, aspectSpec, aspect,
+            isDeletingKey ? null : fieldsOf(extractedFields, aspect, aspectSpec.getRelationshipFieldSpecs()),
+            isDeletingKey, event);
+      }
+      if (!_graphOnly) {
+        deleteSearchData(urn, entitySpec.getName(), aspectSpec, extractedFields, isDeletingKey);
+      }
+    }
+  }
+
+  // TODO: remove this method once we implement sourceOverride when creating graph edges
+  private void updateFineGrainedEdgesAndRelationships(
+          RecordTemplate aspect,
+          List<Edge> edgesToAdd,
+          HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded
+  ) {
+    UpstreamLineage upstreamLineage = new UpstreamLineage(aspect.data());
+    if (upstreamLineage.getFineGrainedLineages() != null) {
+      for (FineGrainedLineage fineGrainedLineage : upstreamLineage.getFineGrainedLineages()) {
+        if (!fineGrainedLineage.hasDownstreams() || !fineGrainedLineage.hasUpstreams()) {
+          break;
+        }
+        // for every downstream, create an edge with each of the upstreams
+        for (Urn downstream : fineGrainedLineage.getDownstreams()) {
+          for (Urn upstream : fineGrainedLineage.getUpstreams()) {
+            // TODO: add edges uniformly across aspects
+            edgesToAdd.add(new Edge(downstream, upstream, DOWNSTREAM_OF, null, null, null, null, null));
+            Set<String> relationshipTypes = urnToRelationshipTypesBeingAdded.getOrDefault(downstream, new HashSet<>());
+            relationshipTypes.add(DOWNSTREAM_OF);
+            urnToRelationshipTypesBeingAdded.put(downstream, relationshipTypes);
+          }
+        }
+      }
+    }
+  }
+
+  private Urn generateSchemaFieldUrn(@Nonnull final String resourceUrn, @Nonnull final String fieldPath) {
+    // we rely on schemaField fieldPaths to be encoded since we do that with fineGrainedLineage on the ingestion side
+    final String encodedFieldPath = fieldPath.replaceAll("\\(", "%28").replaceAll("\\)", "%29").replaceAll(",", "%2C");
+    final SchemaFieldKey key = new SchemaFieldKey().setParent(UrnUtils.getUrn(resourceUrn)).setFieldPath(encodedFieldPath);
+    return EntityKeyUtils.convertEntityKeyToUrn(key, Constants.SCHEMA_FIELD_ENTITY_NAME);
+  }
+
+  // TODO: remove this method once we implement sourceOverride and update inputFields aspect
+  private void updateInputFieldEdgesAndRelationships(
+          @Nonnull final Urn urn,
+          @Nonnull final InputFields inputFields,
+          @Nonnull final List<Edge> edgesToAdd,
+          @Nonnull final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded
+  ) {
+    if (inputFields.hasFields()) {
+      for (final InputField field : inputFields.getFields()) {
+        if (field.hasSchemaFieldUrn() && field.hasSchemaField() && field.getSchemaField().hasFieldPath()) {
+          final Urn sourceFieldUrn = generateSchemaFieldUrn(urn.toString(), field.getSchemaField().getFieldPath());
+          // TODO: add edges uniformly across aspects
+          edgesToAdd.add(new Edge(sourceFieldUrn, field.getSchemaFieldUrn(), DOWNSTREAM_OF, null, null, null, null, null));
+          final Set<String> relationshipTypes = urnToRelationshipTypesBeingAdded.getOrDefault(sourceFieldUrn, new HashSet<>());
+          relationshipTypes.add(DOWNSTREAM_OF);
+          urnToRelationshipTypesBeingAdded.put(sourceFieldUrn, relationshipTypes);
+        }
+      }
+    }
+  }
+
+  private Pair<List<Edge>, HashMap<Urn, Set<String>>> getEdgesAndRelationshipTypesFromAspect(
+      @Nonnull final Urn urn,
+      @Nonnull final AspectSpec aspectSpec,
+      @Nonnull final RecordTemplate aspect,
+      @Nonnull final Map<FieldSpec, List<Object>> extractedFields,
+      @Nonnull final MetadataChangeLog event
+  ) {
+    final List<Edge> edgesToAdd = new ArrayList<>();
+    final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded = new HashMap<>();
+
+    // we need to manually set schemaField <-> schemaField edges for fineGrainedLineage and inputFields
+    // since @Relationship only links between the parent entity urn and something else.
+    if (aspectSpec.getName().equals(Constants.UPSTREAM_LINEAGE_ASPECT_NAME)) {
+      updateFineGrainedEdgesAndRelationships(aspect, edgesToAdd, urnToRelationshipTypesBeingAdded);
+    }
+    if (aspectSpec.getName().equals(Constants.INPUT_FIELDS_ASPECT_NAME)) {
+      final InputFields inputFields = new InputFields(aspect.data());
+      updateInputFieldEdgesAndRelationships(urn, inputFields, edgesToAdd, urnToRelationshipTypesBeingAdded);
+    }
+
+    Map<RelationshipFieldSpec, List<Object>> extractedRelationshipFields =
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getRelationshipFieldSpecs());
+
+    for (Map.Entry<RelationshipFieldSpec, List<Object>> entry : extractedRelationshipFields.entrySet()) {
+      Set<String> relationshipTypes = urnToRelationshipTypesBeingAdded.getOrDefault(urn, new HashSet<>());
+      relationshipTypes.add(entry.getKey().getRelationshipName());
+      urnToRelationshipTypesBeingAdded.put(urn, relationshipTypes);
+      final List<Edge> newEdges = GraphIndexUtils.extractGraphEdges(entry, aspect, urn, event);
+      edgesToAdd.addAll(newEdges);
+    }
+    return Pair.of(edgesToAdd, urnToRelationshipTypesBeingAdded);
+  }
+
+  /**
+   * Process snapshot and update graph index
+   */
+  private void updateGraphService(
+      @Nonnull final Urn urn,
+      @Nonnull final AspectSpec aspectSpec,
+      @Nonnull final RecordTemplate aspect,
+      @Nonnull final Map<FieldSpec, List<Object>> extractedFields,
+      @Nonnull final MetadataChangeLog event
+  ) {
+    Pair<List<Edge>, HashMap<Urn, Set<String>>> edgeAndRelationTypes =
+        getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, aspect, extractedFields, event);
+
+    final List<Edge> edgesToAdd = edgeAndRelationTypes.getFirst();
+    final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded = edgeAndRelationTypes.getSecond();
+
+    log.debug("Here's the relationship types found {}", urnToRelationshipTypesBeingAdded);
+    if (urnToRelationshipTypesBeingAdded.size() > 0) {
+      final Map<Urn, List<Edge>> edgesBySource = edgesToAdd.stream().collect(Collectors.groupingBy(Edge::getSource));
+      for (Map.Entry<Urn, Set<String>> entry : urnToRelationshipTypesBeingAdded.entrySet()) {
+        _graphService.replaceEdgesFromNode(entry.getKey(), new ArrayList<>(entry.getValue()),
+            edgesBySource.getOrDefault(entry.getKey(), Collections.emptyList()));
+      }
+      if (_lineageClosureIndex != null) {
+        urnToRelationshipTypesBeingAdded.forEach(_lineageClosureIndex::onNodeChanged);
+        _lineageClosureIndex.onEdgesChanged(edgesToAdd);
+      }
+    }
+  }
+
+  private void updateGraphServiceDiff(
+      @Nonnull final Urn urn,
+      @Nonnull final AspectSpec aspectSpec,
+      @Nullable final RecordTemplate oldAspect,
+      @Nonnull final RecordTemplate newAspect,
+      @Nonnull final Map<FieldSpec, List<Object>> newExtractedFields,
+      @Nonnull final MetadataChangeLog event
+  ) {
+    Pair<List<Edge>, HashMap<Urn, Set<String>>> oldEdgeAndRelationTypes = null;
+    if (oldAspect != null) {
+      oldEdgeAndRelationTypes = getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, oldAspect,
+          FieldExtractor.extractFields(oldAspect, aspectSpec), event);
+    }
+
+    final List<Edge> oldEdges = oldEdgeAndRelationTypes != null ? oldEdgeAndRelationTypes.getFirst() : Collections.emptyList();
+    final Set<Edge> oldEdgeSet = new HashSet<>(oldEdges);
+
+    Pair<List<Edge>, HashMap<Urn, Set<String>>> newEdgeAndRelationTypes =
+            getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, newAspect, newExtractedFields, event);
+
+    final List<Edge> newEdges = newEdgeAndRelationTypes.getFirst();
+    final Set<Edge> newEdgeSet = new HashSet<>(newEdges);
+
+    List<Edge> additiveDifference = newEdges.stream()
+            .filter(edge -> !oldEdgeSet.contains(edge))
+            .collect(Collectors.toList());
+
+    List<Edge> subtractiveDifference = oldEdges.stream()
+            .filter(edge -> !newEdgeSet.contains(edge))
+            .collect(Collectors.toList());
+
+    // Remove any old edges that no longer exist first
+    if (subtractiveDifference.size() > 0) {
+      log.debug("Removing edges: {}", subtractiveDifference);
+      subtractiveDifference.forEach(_graphService::removeEdge);
+    }
+
+    // Then add new edges
+    if (additiveDifference.size() > 0) {
+      log.debug("Adding edges: {}", additiveDifference);
+      _graphService.addEdges(additiveDifference);
+    }
+
+    if (_lineageClosureIndex != null && (subtractiveDifference.size() > 0 || additiveDifference.size() > 0)) {
+      _lineageClosureIndex.onEdgesChanged(
+          Stream.concat(subtractiveDifference.stream(), additiveDifference.stream()).collect(Collectors.toList()));
+    }
+  }
+
+  /**
+   * Process snapshot and update search index
+   */
+  private void updateSearchService(String entityName, Urn urn, AspectSpec aspectSpec,
+      @Nullable Map<FieldSpec, List<Object>> extractedFields, @Nullable String runId) {
+    if (extractedFields == null) {
+      return;
+    }
+    Optional<byte[]> searchDocument;
+    try {
+      searchDocument = _searchDocumentTransformer.transformAspectToBytes(urn, aspectSpec, extractedFields, false);
+    } catch (Exception e) {
+      log.error("Error in getting documents from aspect: {} for aspect {}", e, aspectSpec.getName());
+      return;
+    }
+
+    if (!searchDocument.isPresent()) {
+      return;
+    }
+
+    Optional<String> docId = SearchUtils.getDocId(urn);
+
+    if (!docId.isPresent()) {
+      return;
+    }
+
+    _entitySearchService.upsertDocument(entityName, searchDocument.get(), docId.get());
+  }
+
+  /**
+   * Process snapshot and update time-series index
+   */
+  private void updateTimeseriesFields(String entityType, String aspectName, Urn urn, RecordTemplate aspect,
+      AspectSpec aspectSpec, Map<FieldSpec, List<Object>> extractedFields, SystemMetadata systemMetadata) {
+    Map<String, JsonNode> documents;
+    try {
+      documents = TimeseriesAspectTransformer.transform(urn, aspect, aspectSpec, extractedFields, systemMetadata);
+    } catch (JsonProcessingException e) {
+      log.error("Failed to generate timeseries document from aspect: {}", e.toString());
+      return;
+    }
+    documents.entrySet().forEach(document -> {
+      _timeseriesAspectService.upsertDocument(entityType, aspectName, document.getKey(), document.getValue());
+    });
+  }
+
+  /**
+   * Records the system metadata of an upsert whose index writes are covered by a later event of the same batch.
+   */
+  private void updateSystemMetadata(@Nonnull final MetadataChangeLog event) {
+    if (_graphOnly) {
+      return;
+    }
+    final EntitySpec entitySpec = getEventEntitySpec(event);
+    final Urn urn = EntityKeyUtils.getUrnFromLog(event, entitySpec.getKeyAspectSpec());
+    final AspectSpec aspectSpec = entitySpec.getAspectSpec(event.getAspectName());
+    final RecordTemplate aspect = GenericRecordUtils.deserializeAspect(event.getAspect().getValue(),
+        event.getAspect().getContentType(), aspectSpec);
+    updateSystemMetadata(event.getSystemMetadata(), urn, aspectSpec, aspect);
+  }
+
+  private void updateSystemMetadata(SystemMetadata systemMetadata, Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
+    _systemMetadataService.insert(systemMetadata, urn.toString(), aspectSpec.getName());
+
+    // If processing status aspect update all aspects for this urn to removed
+    if (aspectSpec.getName().equals(Constants.STATUS_ASPECT_NAME)) {
+      _systemMetadataService.setDocStatus(urn.toString(), ((Status) aspect).isRemoved());
+    }
+  }
+
+  private void deleteSystemMetadata(Urn urn, AspectSpec aspectSpec, Boolean isKeyAspect) {
+    if (isKeyAspect) {
+      // Delete all aspects
+      log.debug(String.format("Deleting all system metadata for urn: %s", urn));
+      _systemMetadataService.deleteUrn(urn.toString());
+    } else {
+      // Delete all aspects from system metadata service
+      log.debug(String.format("Deleting system metadata for urn: %s, aspect: %s", urn, aspectSpec.getName()));
+      _systemMetadataService.deleteAspect(urn.toString(), aspectSpec.getName());
+    }
+  }
+
+  private void deleteGraphData(
+      @Nonnull final Urn urn,
+      @Nonnull final AspectSpec aspectSpec,
+      @Nonnull final RecordTemplate aspect,
+      @Nullable final Map<FieldSpec, List<Object>> relationshipFields,
+      @Nonnull final Boolean isKeyAspect,
+      @Nonnull final MetadataChangeLog event
+  ) {
+    if (isKeyAspect) {
+      _graphService.removeNode(urn);
+      if (_lineageClosureIndex != null) {
+        _lineageClosureIndex.onNodeChanged(urn, null);
+      }
+      return;
+    }
+
+    Pair<List<Edge>, HashMap<Urn, Set<String>>> edgeAndRelationTypes =
+        getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, aspect, relationshipFields, event);
+
+    final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded = edgeAndRelationTypes.getSecond();
+    if (urnToRelationshipTypesBeingAdded.size() > 0) {
+      for (Map.Entry<Urn, Set<String>> entry : urnToRelationshipTypesBeingAdded.entrySet()) {
+        _graphService.replaceEdgesFromNode(entry.getKey(), new ArrayList<>(entry.getValue()), Collections.emptyList());
+        if (_lineageClosureIndex != null) {
+          _lineageClosureIndex.onNodeChanged(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  private void deleteSearchData(Urn urn, String entityName, AspectSpec aspectSpec,
+      @Nullable Map<FieldSpec, List<Object>> extractedFields, Boolean isKeyAspect) {
+      String docId;
+      try {
+        docId = URLEncoder.encode(urn.toString(), "UTF-8");
+      } catch (UnsupportedEncodingException e) {
+        log.error("Failed to encode the urn with error: {}", e.toString());
+        return;
+      }
+
+      if (isKeyAspect) {
+        _entitySearchService.deleteDocument(entityName, docId);
+        return;
+      }
+
+      if (extractedFields == null) {
+        return;
+      }
+
+      Optional<byte[]> searchDocument;
+      try {
+        searchDocument = _searchDocumentTransformer.transformAspectToBytes(urn, aspectSpec, extractedFields, true); // TODO
+      } catch (Exception e) {
+        log.error("Error in getting documents from aspect: {} for aspect {}", e, aspectSpec.getName());
+        return;
+      }
+
+      if (!searchDocument.isPresent()) {
+        return;
+      }
+
+    _entitySearchService.upsertDocument(entityName, searchDocument.get(), docId);
+  }
+
+  private EntitySpec getEventEntitySpec(@Nonnull final MetadataChangeLog event) {
+    try {
+      return _entityRegistry.getEntitySpec(event.getEntityType());
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException(
+          String.format("Failed to retrieve Entity Spec for entity with name %s. Cannot update indices for MCL.",
+              event.getEntityType()));
+    }
+  }
+}
\ No newline at end of file
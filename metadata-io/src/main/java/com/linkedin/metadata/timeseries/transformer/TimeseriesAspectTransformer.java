@@ -13,6 +13,7 @@ import com.linkedin.data.schema.ArrayDataSchema;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.FieldSpec;
 import com.linkedin.metadata.models.TimeseriesFieldCollectionSpec;
 import com.linkedin.metadata.models.TimeseriesFieldSpec;
 import com.linkedin.metadata.models.extractor.FieldExtractor;
@@ -44,6 +45,17 @@ public class TimeseriesAspectTransformer {
   public static Map<String, JsonNode> transform(@Nonnull final Urn urn, @Nonnull final RecordTemplate timeseriesAspect,
       @Nonnull final AspectSpec aspectSpec, @Nullable final SystemMetadata systemMetadata)
       throws JsonProcessingException {
+    return transform(urn, timeseriesAspect, aspectSpec, FieldExtractor.extractFields(timeseriesAspect, aspectSpec),
+        systemMetadata);
+  }
+
+  /**
+   * Same as {@link #transform(Urn, RecordTemplate, AspectSpec, SystemMetadata)}, from the values already extracted from
+   * the aspect, which have to include those of its timeseries field and field collection specs.
+   */
+  public static Map<String, JsonNode> transform(@Nonnull final Urn urn, @Nonnull final RecordTemplate timeseriesAspect,
+      @Nonnull final AspectSpec aspectSpec, @Nonnull final Map<FieldSpec, List<Object>> extractedFields,
+      @Nullable final SystemMetadata systemMetadata) throws JsonProcessingException {
     ObjectNode commonDocument = getCommonDocument(urn, timeseriesAspect, systemMetadata);
     Map<String, JsonNode> finalDocuments = new HashMap<>();
 
@@ -57,13 +69,13 @@ public class TimeseriesAspectTransformer {
           OBJECT_MAPPER.readTree(RecordUtils.toJsonString(systemMetadata)));
     }
     final Map<TimeseriesFieldSpec, List<Object>> timeseriesFieldValueMap =
-        FieldExtractor.extractFields(timeseriesAspect, aspectSpec.getTimeseriesFieldSpecs());
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getTimeseriesFieldSpecs());
     timeseriesFieldValueMap.forEach((k, v) -> setTimeseriesField(document, k, v));
     finalDocuments.put(getDocId(document, null), document);
 
     // Create new rows for the member collection fields.
     final Map<TimeseriesFieldCollectionSpec, List<Object>> timeseriesFieldCollectionValueMap =
-        FieldExtractor.extractFields(timeseriesAspect, aspectSpec.getTimeseriesFieldCollectionSpecs());
+        FieldExtractor.selectFields(extractedFields, aspectSpec.getTimeseriesFieldCollectionSpecs());
     timeseriesFieldCollectionValueMap.forEach(
         (key, values) -> finalDocuments.putAll(getTimeseriesFieldCollectionDocuments(key, values, commonDocument)));
     return finalDocuments;
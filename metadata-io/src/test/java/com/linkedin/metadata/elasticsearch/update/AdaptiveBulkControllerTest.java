@@ -0,0 +1,62 @@
+package com.linkedin.metadata.elasticsearch.update;
+
+import com.linkedin.metadata.search.elasticsearch.update.AdaptiveBulkController;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AdaptiveBulkControllerTest {
+
+    @Test
+    public void testFastRequestsGrowBatchesAndConcurrency() {
+        AdaptiveBulkController controller = new AdaptiveBulkController(1000, 4, 1000);
+        assertEquals(controller.getConcurrency(), 1);
+
+        controller.onCompleted(100);
+        assertEquals(controller.getBatchBytes(), 1250);
+        assertEquals(controller.getConcurrency(), 2);
+
+        for (int i = 0; i < 100; i++) {
+            controller.onCompleted(100);
+        }
+        assertEquals(controller.getBatchBytes(), 8000);
+        assertEquals(controller.getConcurrency(), 4);
+
+        // Latency around the target keeps the current sizes
+        controller.onCompleted(800);
+        assertEquals(controller.getBatchBytes(), 8000);
+        assertEquals(controller.getConcurrency(), 4);
+    }
+
+    @Test
+    public void testSlowAndRejectedRequestsShrinkBatchesAndConcurrency() {
+        AdaptiveBulkController controller = new AdaptiveBulkController(1000, 4, 1000);
+        controller.onCompleted(100);
+        controller.onCompleted(100);
+        controller.onCompleted(100);
+        assertEquals(controller.getConcurrency(), 4);
+
+        controller.onCompleted(5000);
+        assertEquals(controller.getConcurrency(), 3);
+        assertTrue(controller.getBatchBytes() < 1953);
+
+        controller.onRejected();
+        assertEquals(controller.getConcurrency(), 1);
+
+        for (int i = 0; i < 100; i++) {
+            controller.onRejected();
+        }
+        assertEquals(controller.getBatchBytes(), 125);
+        assertEquals(controller.getConcurrency(), 1);
+    }
+
+    @Test
+    public void testBackoffIsExponentialWithJitter() {
+        for (int retry = 0; retry < 5; retry++) {
+            long backoff = AdaptiveBulkController.getBackoffMillis(retry, 100);
+            assertTrue(backoff >= (100L << retry) / 2 && backoff <= 100L << retry, "Unexpected backoff " + backoff);
+        }
+        assertTrue(AdaptiveBulkController.getBackoffMillis(30, 1000) <= 60_000);
+    }
+}
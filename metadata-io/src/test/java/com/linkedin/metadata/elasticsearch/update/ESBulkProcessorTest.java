@@ -1,18 +1,256 @@
 package com.linkedin.metadata.elasticsearch.update;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.index.shard.ShardId;
 import org.mockito.Mockito;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 
 public class ESBulkProcessorTest {
 
+    private static final String INDEX = "test_index";
+    private static final TimeValue TIMEOUT = TimeValue.timeValueSeconds(10);
+
+    // The documents of each bulk request sent, as id:version
+    private final List<List<String>> sent = Collections.synchronizedList(new ArrayList<>());
+
     @Test
     public void testESBulkProcessorBuilder() {
         RestHighLevelClient mock = Mockito.mock(RestHighLevelClient.class);
         ESBulkProcessor test = ESBulkProcessor.builder(mock).build();
         assertNotNull(test);
     }
+
+    @Test
+    public void testAdaptiveESBulkProcessorBuilder() throws Exception {
+        RestHighLevelClient mock = Mockito.mock(RestHighLevelClient.class);
+        ESBulkProcessor test = ESBulkProcessor.builder(mock).adaptive(true).bulkSizeBytes(1024L).build();
+        assertNotNull(test);
+        test.flush();
+        test.close();
+    }
+
+    @Test
+    public void testAdaptiveRetriesRejectedItems() throws Exception {
+        // Only b is rejected, and only the first time
+        AtomicBoolean rejected = new AtomicBoolean();
+        RestHighLevelClient client = answeringClient(id -> id.equals("b") && rejected.compareAndSet(false, true));
+        ESBulkProcessor processor = adaptiveBuilder(client).maxConcurrentRequests(1).bulkSizeBytes(1024L * 1024)
+                .build();
+
+        processor.add(doc("a", 1)).add(doc("b", 1)).add(doc("c", 1));
+        assertTrue(processor.flushAndWait(TIMEOUT));
+        assertEquals(processor.getFailedRequestCount(), 0);
+        assertEquals(sent, ImmutableList.of(ImmutableList.of("a:1", "b:1", "c:1"), ImmutableList.of("b:1")));
+        processor.close();
+    }
+
+    @Test
+    public void testAdaptiveReportsItemsRejectedAfterRetries() throws Exception {
+        RestHighLevelClient client = answeringClient(id -> id.equals("b"));
+        ESBulkProcessor processor = adaptiveBuilder(client).maxConcurrentRequests(1).bulkSizeBytes(1024L * 1024)
+                .numRetries(1).build();
+
+        processor.add(doc("a", 1)).add(doc("b", 1));
+        assertTrue(processor.flushAndWait(TIMEOUT));
+        assertEquals(processor.getFailedRequestCount(), 1);
+        assertEquals(sent, ImmutableList.of(ImmutableList.of("a:1", "b:1"), ImmutableList.of("b:1")));
+        processor.close();
+    }
+
+    @Test
+    public void testAdaptiveKeepsWritesToADocumentInOrder() throws Exception {
+        AtomicBoolean rejected = new AtomicBoolean();
+        RestHighLevelClient client = answeringClient(id -> id.equals("a") && rejected.compareAndSet(false, true));
+        // Every request is a batch of its own, the retry is delayed by half a second at least
+        ESBulkProcessor processor = adaptiveBuilder(client).bulkSizeBytes(1L).retryInterval(1L).build();
+
+        // Fast responses let the processor send up to four bulk requests at once
+        processor.add(doc("x", 1)).add(doc("y", 1)).add(doc("z", 1));
+        processor.add(doc("a", 1)).add(doc("a", 2)).add(doc("b", 1));
+        assertTrue(processor.flushAndWait(TIMEOUT));
+        assertEquals(processor.getFailedRequestCount(), 0);
+
+        List<String> writesToA = sent.stream()
+                .flatMap(List::stream)
+                .filter(write -> write.startsWith("a:"))
+                .collect(Collectors.toList());
+        assertEquals(writesToA, ImmutableList.of("a:1", "a:1", "a:2"));
+        processor.close();
+    }
+
+    @Test
+    public void testAdaptiveAddBlocksWhileRequestsWaitToBeSent() throws Exception {
+        BlockingQueue<Runnable> answers = new LinkedBlockingQueue<>();
+        ESBulkProcessor processor = adaptiveBuilder(heldClient(answers, id -> false)).maxConcurrentRequests(1)
+                .bulkSizeBytes(1L).build();
+
+        // a is sent and b waits for it, as many requests as there are lanes may wait
+        processor.add(doc("a", 1)).add(doc("b", 1));
+        CountDownLatch added = new CountDownLatch(1);
+        Thread adder = new Thread(() -> {
+            processor.add(doc("c", 1));
+            added.countDown();
+        });
+        adder.start();
+        assertFalse(added.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(sent.size(), 1);
+
+        // Answering the first request sends the second one, which makes room for the blocked request
+        answers.poll(TIMEOUT.millis(), TimeUnit.MILLISECONDS).run();
+        assertTrue(added.await(TIMEOUT.millis(), TimeUnit.MILLISECONDS));
+        answers.poll(TIMEOUT.millis(), TimeUnit.MILLISECONDS).run();
+        answers.poll(TIMEOUT.millis(), TimeUnit.MILLISECONDS).run();
+        assertTrue(processor.flushAndWait(TIMEOUT));
+        assertEquals(sent, ImmutableList.of(ImmutableList.of("a:1"), ImmutableList.of("b:1"),
+                ImmutableList.of("c:1")));
+        processor.close();
+    }
+
+    @Test
+    public void testAdaptiveCloseDrainsRequests() throws Exception {
+        RestHighLevelClient client = Mockito.mock(RestHighLevelClient.class);
+        when(client.bulkAsync(any(BulkRequest.class), any(RequestOptions.class), any())).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            ActionListener<BulkResponse> listener = invocation.getArgument(2);
+            sent.add(writes(request));
+            CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                listener.onResponse(respond(request, id -> false));
+            });
+            return null;
+        });
+        ESBulkProcessor processor = adaptiveBuilder(client).maxConcurrentRequests(2).bulkSizeBytes(256L).build();
+
+        for (int i = 0; i < 10; i++) {
+            processor.add(doc("doc" + i, 1));
+        }
+        processor.close();
+
+        assertTrue(processor.flushAndWait(TimeValue.ZERO));
+        assertEquals(processor.getFailedRequestCount(), 0);
+        assertEquals(sent.stream().mapToInt(List::size).sum(), 10);
+        expectThrows(IllegalStateException.class, () -> processor.add(doc("a", 2)));
+    }
+
+    @Test
+    public void testAdaptiveCloseFailsRequestsLeftUnsent() throws Exception {
+        BlockingQueue<Runnable> answers = new LinkedBlockingQueue<>();
+        ESBulkProcessor processor = adaptiveBuilder(heldClient(answers, id -> true)).maxConcurrentRequests(1)
+                .bulkSizeBytes(1L).retryInterval(1L).defaultTimeout(TimeValue.timeValueMillis(100)).build();
+
+        processor.add(doc("a", 1)).add(doc("b", 1));
+        // a is rejected and waits to be retried while b waits to be sent
+        answers.poll(TIMEOUT.millis(), TimeUnit.MILLISECONDS).run();
+        processor.close();
+        assertTrue(processor.flushAndWait(TimeValue.ZERO));
+        assertEquals(processor.getFailedRequestCount(), 2);
+        assertEquals(sent, ImmutableList.of(ImmutableList.of("a:1")));
+    }
+
+    @Test
+    public void testAdaptiveFailsRejectionAnsweredAfterClose() throws Exception {
+        BlockingQueue<Runnable> answers = new LinkedBlockingQueue<>();
+        ESBulkProcessor processor = adaptiveBuilder(heldClient(answers, id -> true)).bulkSizeBytes(1L)
+                .defaultTimeout(TimeValue.timeValueMillis(100)).build();
+
+        processor.add(doc("a", 1));
+        processor.close();
+        assertFalse(processor.flushAndWait(TimeValue.ZERO));
+
+        // The retry cannot be scheduled any more, the rejected request is reported as failed
+        answers.poll(TIMEOUT.millis(), TimeUnit.MILLISECONDS).run();
+        assertTrue(processor.flushAndWait(TimeValue.ZERO));
+        assertEquals(processor.getFailedRequestCount(), 1);
+        assertEquals(sent, ImmutableList.of(ImmutableList.of("a:1")));
+    }
+
+    private static ESBulkProcessor.ESBulkProcessorBuilder adaptiveBuilder(RestHighLevelClient client) {
+        return ESBulkProcessor.builder(client).adaptive(true).numRetries(3).retryInterval(0L);
+    }
+
+    // Answers each bulk request right away, rejecting the documents matching the predicate
+    private RestHighLevelClient answeringClient(Predicate<String> rejected) {
+        RestHighLevelClient client = Mockito.mock(RestHighLevelClient.class);
+        when(client.bulkAsync(any(BulkRequest.class), any(RequestOptions.class), any())).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            ActionListener<BulkResponse> listener = invocation.getArgument(2);
+            sent.add(writes(request));
+            listener.onResponse(respond(request, rejected));
+            return null;
+        });
+        return client;
+    }
+
+    // Holds up the answer to each bulk request until the test runs it
+    private RestHighLevelClient heldClient(BlockingQueue<Runnable> answers, Predicate<String> rejected) {
+        RestHighLevelClient client = Mockito.mock(RestHighLevelClient.class);
+        when(client.bulkAsync(any(BulkRequest.class), any(RequestOptions.class), any())).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            ActionListener<BulkResponse> listener = invocation.getArgument(2);
+            sent.add(writes(request));
+            answers.add(() -> listener.onResponse(respond(request, rejected)));
+            return null;
+        });
+        return client;
+    }
+
+    private static BulkResponse respond(BulkRequest request, Predicate<String> rejected) {
+        BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+        for (int i = 0; i < items.length; i++) {
+            DocWriteRequest<?> item = request.requests().get(i);
+            items[i] = rejected.test(item.id())
+                    ? new BulkItemResponse(i, item.opType(), new BulkItemResponse.Failure(item.index(), "_doc",
+                            item.id(), new EsRejectedExecutionException("rejected")))
+                    : new BulkItemResponse(i, item.opType(), new IndexResponse(new ShardId(item.index(), "_na_", 0),
+                            "_doc", item.id(), 1, 1, 1, true));
+        }
+        return new BulkResponse(items, 1);
+    }
+
+    private static List<String> writes(BulkRequest request) {
+        return request.requests().stream()
+                .map(item -> item.id() + ":" + ((IndexRequest) item).sourceAsMap().get("version"))
+                .collect(Collectors.toList());
+    }
+
+    private static IndexRequest doc(String id, int version) {
+        return new IndexRequest(INDEX).id(id).source(ImmutableMap.of("version", version));
+    }
 }
@@ -1,7 +1,9 @@
 package com.linkedin.metadata.entity;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.identity.CorpUserInfo;
 import com.linkedin.metadata.AspectGenerationUtils;
@@ -14,7 +16,9 @@ import com.linkedin.metadata.key.CorpUserKey;
 import com.linkedin.metadata.models.registry.EntityRegistryException;
 import com.linkedin.metadata.query.ExtraInfo;
 import com.linkedin.metadata.query.ListUrnsResult;
+import com.linkedin.mxe.SystemMetadata;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +30,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import static com.linkedin.metadata.Constants.ASPECT_LATEST_VERSION;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.*;
 
@@ -176,4 +181,66 @@ public class CassandraEntityServiceTest extends EntityServiceTest<CassandraAspec
   public void testNestedTransactions() {
     // Doesn't look like Cassandra can support nested transactions (or nested batching).
   }
+
+  @Test
+  public void testBatchGet() {
+    SystemMetadata metadata = AspectGenerationUtils.createSystemMetadata();
+    String infoAspect = AspectGenerationUtils.getAspectName(new CorpUserInfo());
+    String keyAspect = AspectGenerationUtils.getAspectName(new CorpUserKey());
+
+    Set<EntityAspectIdentifier> keys = new HashSet<>();
+    for (int i = 0; i < 50; i++) {
+      Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:batchGet" + i);
+      _entityService.ingestAspect(entityUrn, keyAspect, AspectGenerationUtils.createCorpUserKey(entityUrn),
+          TEST_AUDIT_STAMP, metadata);
+      _entityService.ingestAspect(entityUrn, infoAspect,
+          AspectGenerationUtils.createCorpUserInfo("first" + i + "@test.com"), TEST_AUDIT_STAMP, metadata);
+      _entityService.ingestAspect(entityUrn, infoAspect,
+          AspectGenerationUtils.createCorpUserInfo("second" + i + "@test.com"), TEST_AUDIT_STAMP, metadata);
+      // The previous info of even urns together with their key, so that the latest info is selected by the IN clauses
+      // of their partition without being asked for, the latest info of odd urns
+      if (i % 2 == 0) {
+        keys.add(new EntityAspectIdentifier(entityUrn.toString(), infoAspect, 1));
+        keys.add(new EntityAspectIdentifier(entityUrn.toString(), keyAspect, ASPECT_LATEST_VERSION));
+      } else {
+        keys.add(new EntityAspectIdentifier(entityUrn.toString(), infoAspect, ASPECT_LATEST_VERSION));
+      }
+    }
+    keys.add(new EntityAspectIdentifier("urn:li:corpuser:missing", infoAspect, ASPECT_LATEST_VERSION));
+
+    Map<EntityAspectIdentifier, EntityAspect> result = _aspectDao.batchGet(keys);
+
+    assertEquals(result.size(), keys.size() - 1);
+    for (Map.Entry<EntityAspectIdentifier, EntityAspect> entry : result.entrySet()) {
+      EntityAspectIdentifier key = entry.getKey();
+      assertTrue(keys.contains(key));
+      assertEquals(entry.getValue().toAspectIdentifier(), key);
+      if (key.getAspect().equals(infoAspect)) {
+        String email = (key.getVersion() == ASPECT_LATEST_VERSION ? "second" : "first")
+            + key.getUrn().substring("urn:li:corpuser:batchGet".length()) + "@test.com";
+        assertTrue(entry.getValue().getMetadata().contains(email), entry.getValue().getMetadata());
+      }
+    }
+  }
+
+  @Test
+  public void testGetMaxAndNextVersions() {
+    SystemMetadata metadata = AspectGenerationUtils.createSystemMetadata();
+    String infoAspect = AspectGenerationUtils.getAspectName(new CorpUserInfo());
+    // Never written
+    String statusAspect = "corpUserStatus";
+    Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:versions");
+    for (int i = 0; i < 3; i++) {
+      _entityService.ingestAspect(entityUrn, infoAspect,
+          AspectGenerationUtils.createCorpUserInfo("email" + i + "@test.com"), TEST_AUDIT_STAMP, metadata);
+    }
+
+    assertEquals(_aspectDao.getMaxVersion(entityUrn.toString(), infoAspect), 2L);
+    assertEquals(_aspectDao.getMaxVersion(entityUrn.toString(), statusAspect), -1L);
+
+    Map<String, Long> nextVersions =
+        _aspectDao.getNextVersions(entityUrn.toString(), ImmutableSet.of(infoAspect, statusAspect));
+    assertEquals(nextVersions.get(infoAspect).longValue(), 3L);
+    assertEquals(nextVersions.get(statusAspect).longValue(), 0L);
+  }
 }
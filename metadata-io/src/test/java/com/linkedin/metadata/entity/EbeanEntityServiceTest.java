@@ -1,5 +1,6 @@
 package com.linkedin.metadata.entity;
 
+import com.datahub.util.RecordUtils;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.template.DataTemplateUtil;
@@ -7,24 +8,43 @@ import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.identity.CorpUserInfo;
 import com.linkedin.metadata.AspectGenerationUtils;
 import com.linkedin.metadata.EbeanTestUtils;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
 import com.linkedin.metadata.entity.ebean.EbeanRetentionService;
 import com.linkedin.metadata.event.EventProducer;
 import com.linkedin.metadata.key.CorpUserKey;
 import com.linkedin.metadata.models.registry.EntityRegistryException;
 import com.linkedin.metadata.query.ListUrnsResult;
+import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.metadata.utils.PegasusUtils;
+import com.linkedin.mxe.MetadataChangeLog;
 import com.linkedin.mxe.SystemMetadata;
 import io.ebean.EbeanServer;
 import io.ebean.Transaction;
 import io.ebean.TxScope;
 import io.ebean.annotation.TxIsolation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import static com.linkedin.metadata.Constants.ASPECT_LATEST_VERSION;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 
@@ -177,4 +197,125 @@ public class EbeanEntityServiceTest extends EntityServiceTest<EbeanAspectDao, Eb
     }
     System.out.println("done");
   }
+
+  @Test
+  public void testParallelBatchGet() throws AssertionError {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      EbeanAspectDao parallelDao = new EbeanAspectDao(_aspectDao.getServer(), executor);
+      parallelDao.setConnectionValidated(true);
+
+      SystemMetadata metadata = AspectGenerationUtils.createSystemMetadata();
+      String aspectName = PegasusUtils.getAspectNameFromSchema(new CorpUserInfo().schema());
+
+      // More keys than a single UNION ALL statement holds, so the lookup is split across several sub queries
+      Set<EntityAspectIdentifier> keys = new HashSet<>();
+      for (int i = 0; i < 800; i++) {
+        Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:parallel" + i);
+        _entityService.ingestAspect(entityUrn, aspectName,
+            AspectGenerationUtils.createCorpUserInfo("email" + i + "@test.com"), TEST_AUDIT_STAMP, metadata);
+        keys.add(new EntityAspectIdentifier(entityUrn.toString(), aspectName, ASPECT_LATEST_VERSION));
+      }
+      keys.add(new EntityAspectIdentifier("urn:li:corpuser:missing", aspectName, ASPECT_LATEST_VERSION));
+
+      Map<EntityAspectIdentifier, EntityAspect> serialResult = _aspectDao.batchGet(keys);
+      Map<EntityAspectIdentifier, EntityAspect> parallelResult = parallelDao.batchGet(keys);
+
+      assertEquals(parallelResult.size(), 800);
+      assertEquals(parallelResult.keySet(), serialResult.keySet());
+      for (Map.Entry<EntityAspectIdentifier, EntityAspect> entry : serialResult.entrySet()) {
+        assertEquals(parallelResult.get(entry.getKey()).getMetadata(), entry.getValue().getMetadata());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testBatchGetReadsOwnWrites() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    ExecutorService readers = Executors.newFixedThreadPool(4);
+    AtomicBoolean done = new AtomicBoolean();
+    try {
+      EbeanAspectDao parallelDao = new EbeanAspectDao(_aspectDao.getServer(), executor);
+      parallelDao.setConnectionValidated(true);
+
+      SystemMetadata metadata = AspectGenerationUtils.createSystemMetadata();
+      String aspectName = PegasusUtils.getAspectNameFromSchema(new CorpUserInfo().schema());
+      Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:readOwnWrites");
+      EntityAspectIdentifier key = new EntityAspectIdentifier(entityUrn.toString(), aspectName, ASPECT_LATEST_VERSION);
+      Set<EntityAspectIdentifier> keys = Collections.singleton(key);
+
+      // Other callers keep reading the latest version, so a lookup is in flight whenever the writer reads
+      List<Future<?>> readerFutures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        readerFutures.add(readers.submit(() -> {
+          while (!done.get()) {
+            parallelDao.batchGet(keys);
+          }
+        }));
+      }
+
+      for (int i = 0; i < 50; i++) {
+        String email = "email" + i + "@test.com";
+        _entityService.ingestAspect(entityUrn, aspectName, AspectGenerationUtils.createCorpUserInfo(email),
+            TEST_AUDIT_STAMP, metadata);
+        EntityAspect latest = parallelDao.batchGet(keys).get(key);
+        assertTrue(latest.getMetadata().contains(email), latest.getMetadata());
+      }
+
+      done.set(true);
+      for (Future<?> future : readerFutures) {
+        future.get();
+      }
+    } finally {
+      done.set(true);
+      readers.shutdownNow();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testIngestGetAspectsWithDeflatePsonCodec() throws Exception {
+    Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:test");
+    CorpUserInfo writeAspect1 = AspectGenerationUtils.createCorpUserInfo("email@test.com");
+    CorpUserInfo writeAspect2 = AspectGenerationUtils.createCorpUserInfo("email2@test.com");
+    String aspectName = AspectGenerationUtils.getAspectName(writeAspect1);
+    SystemMetadata metadata1 = AspectGenerationUtils.createSystemMetadata(1625792689, "run-123");
+    SystemMetadata metadata2 = AspectGenerationUtils.createSystemMetadata(1635792689, "run-456");
+
+    // The first version is written as JSON, before the codec is switched
+    _entityService.ingestAspect(entityUrn, aspectName, writeAspect1, TEST_AUDIT_STAMP, metadata1);
+    _aspectDao.setAspectCodec(AspectCodecs.DEFLATE_PSON);
+    _entityService.ingestAspect(entityUrn, aspectName, writeAspect2, TEST_AUDIT_STAMP, metadata2);
+
+    EntityAspect storedVersion1 = _aspectDao.getAspect(entityUrn.toString(), aspectName, 1);
+    EntityAspect storedLatest = _aspectDao.getAspect(entityUrn.toString(), aspectName, ASPECT_LATEST_VERSION);
+    assertFalse(AspectCodecs.DEFLATE_PSON.isEncoded(storedVersion1.getEncodedMetadata()));
+    assertTrue(AspectCodecs.DEFLATE_PSON.isEncoded(storedLatest.getEncodedMetadata()));
+    assertTrue(DataTemplateUtil.areEqual(EntityUtils.parseSystemMetadata(storedLatest.getSystemMetadata()), metadata2));
+
+    assertTrue(DataTemplateUtil.areEqual(writeAspect2, _entityService.getLatestAspect(entityUrn, aspectName)));
+    assertTrue(DataTemplateUtil.areEqual(writeAspect1, _entityService.getAspect(entityUrn, aspectName, 1)));
+    assertTrue(DataTemplateUtil.areEqual(writeAspect2,
+        new CorpUserInfo(_entityService.getLatestEnvelopedAspect("corpuser", entityUrn, aspectName).getValue().data())));
+    // Callers that need JSON still get it
+    assertTrue(DataTemplateUtil.areEqual(writeAspect2,
+        RecordUtils.toRecordTemplate(CorpUserInfo.class, storedLatest.getMetadata())));
+
+    // The previous value is decoded from its JSON row for the change log
+    ArgumentCaptor<MetadataChangeLog> mclCaptor = ArgumentCaptor.forClass(MetadataChangeLog.class);
+    verify(_mockProducer, times(2)).produceMetadataChangeLog(Mockito.eq(entityUrn), Mockito.any(),
+        mclCaptor.capture());
+    MetadataChangeLog mcl = mclCaptor.getValue();
+    assertTrue(DataTemplateUtil.areEqual(writeAspect1, GenericRecordUtils.deserializeAspect(
+        mcl.getPreviousAspectValue().getValue(), mcl.getPreviousAspectValue().getContentType(), CorpUserInfo.class)));
+
+    // A third version moves the encoded latest row to version 2 as is
+    _entityService.ingestAspect(entityUrn, aspectName, writeAspect1, TEST_AUDIT_STAMP, metadata1);
+    assertTrue(AspectCodecs.DEFLATE_PSON.isEncoded(
+        _aspectDao.getAspect(entityUrn.toString(), aspectName, 2).getEncodedMetadata()));
+    assertTrue(DataTemplateUtil.areEqual(writeAspect2, _entityService.getAspect(entityUrn, aspectName, 2)));
+    assertTrue(DataTemplateUtil.areEqual(writeAspect1, _entityService.getLatestAspect(entityUrn, aspectName)));
+  }
 }
@@ -489,6 +489,78 @@ abstract public class EntityServiceTest<T_AD extends AspectDao, T_RS extends Ret
         verify(_mockProducer, times(0)).produceMetadataChangeProposal(Mockito.eq(gmce));
     }
 
+    @Test
+    public void testIngestProposals() throws Exception {
+        Urn entityUrn1 = UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)");
+        Urn entityUrn2 = UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:foo,baz,PROD)");
+        JacksonDataTemplateCodec dataTemplateCodec = new JacksonDataTemplateCodec();
+
+        List<MetadataChangeProposal> proposals = new ArrayList<>();
+        for (Pair<Urn, String> pair : Arrays.asList(new Pair<>(entityUrn1, "First"), new Pair<>(entityUrn2, "Other"),
+            new Pair<>(entityUrn1, "Second"))) {
+            DatasetProperties datasetProperties = new DatasetProperties();
+            datasetProperties.setName(pair.getSecond());
+            MetadataChangeProposal gmce = new MetadataChangeProposal();
+            gmce.setEntityUrn(pair.getFirst());
+            gmce.setChangeType(ChangeType.UPSERT);
+            gmce.setEntityType("dataset");
+            gmce.setAspectName("datasetProperties");
+            GenericAspect genericAspect = new GenericAspect();
+            genericAspect.setValue(ByteString.unsafeWrap(dataTemplateCodec.dataTemplateToBytes(datasetProperties)));
+            genericAspect.setContentType("application/json");
+            gmce.setAspect(genericAspect);
+            proposals.add(gmce);
+        }
+
+        List<EntityService.IngestProposalResult> results =
+            _entityService.ingestProposals(proposals, TEST_AUDIT_STAMP, false);
+
+        assertEquals(results.size(), 3);
+        assertEquals(results.get(0).getUrn(), entityUrn1);
+        assertEquals(results.get(1).getUrn(), entityUrn2);
+        assertEquals(results.get(2).getUrn(), entityUrn1);
+        assertTrue(results.stream().allMatch(EntityService.IngestProposalResult::isDidUpdate));
+
+        // Later proposals for the same urn win, as if they had been ingested one at a time
+        DatasetProperties latest = (DatasetProperties) _entityService.getLatestAspect(entityUrn1, "datasetProperties");
+        assertEquals(latest.getName(), "Second");
+
+        verify(_mockProducer, times(2)).produceMetadataChangeLog(Mockito.eq(entityUrn1),
+            Mockito.any(), Mockito.any());
+        verify(_mockProducer, times(1)).produceMetadataChangeLog(Mockito.eq(entityUrn2),
+            Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testIngestProposalsNotCommitted() throws Exception {
+        Urn entityUrn = UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)");
+        JacksonDataTemplateCodec dataTemplateCodec = new JacksonDataTemplateCodec();
+
+        DatasetProperties datasetProperties = new DatasetProperties();
+        datasetProperties.setName("First");
+        MetadataChangeProposal valid = new MetadataChangeProposal();
+        valid.setEntityUrn(entityUrn);
+        valid.setChangeType(ChangeType.UPSERT);
+        valid.setEntityType("dataset");
+        valid.setAspectName("datasetProperties");
+        GenericAspect genericAspect = new GenericAspect();
+        genericAspect.setValue(ByteString.unsafeWrap(dataTemplateCodec.dataTemplateToBytes(datasetProperties)));
+        genericAspect.setContentType("application/json");
+        valid.setAspect(genericAspect);
+        MetadataChangeProposal unknownAspect = valid.copy().setAspectName("notAnAspect");
+
+        try {
+            _entityService.ingestProposals(Arrays.asList(valid, unknownAspect), TEST_AUDIT_STAMP, false);
+            fail("Expected the batch to fail");
+        } catch (ProposalsNotCommittedException e) {
+            // expected
+        }
+
+        // The valid proposal is not written on its own
+        assertNull(_entityService.getLatestAspect(entityUrn, "datasetProperties"));
+        verify(_mockProducer, times(0)).produceMetadataChangeLog(Mockito.eq(entityUrn), Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void testUpdateGetAspect() throws AssertionError {
         // Test Writing a CorpUser Entity
@@ -0,0 +1,77 @@
+package com.linkedin.metadata.entity.codec;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class AspectCodecsTest {
+
+  @Test
+  public void testRoundTrip() {
+    final DataMap aspect = buildWideAspect(500);
+    for (AspectCodec codec : new AspectCodec[]{AspectCodecs.JSON, AspectCodecs.DEFLATE_PSON}) {
+      final String stored = codec.encode(aspect);
+      assertTrue(codec.isEncoded(stored));
+      assertSame(AspectCodecs.getCodec(stored), codec);
+      assertEquals(codec.decode(stored), aspect);
+      assertEquals(AspectCodecs.decode(stored), aspect);
+    }
+  }
+
+  @Test
+  public void testRowsOfEitherFormatAreReadable() {
+    final DataMap aspect = buildWideAspect(10);
+    final String json = AspectCodecs.JSON.encode(aspect);
+    final String encoded = AspectCodecs.DEFLATE_PSON.encode(aspect);
+
+    assertTrue(encoded.startsWith(DeflatePsonAspectCodec.MARKER));
+    assertEquals(AspectCodecs.decode(json), AspectCodecs.decode(encoded));
+    // JSON is returned as stored, encoded rows are converted
+    assertSame(AspectCodecs.toJson(json), json);
+    assertEquals(AspectCodecs.JSON.decode(AspectCodecs.toJson(encoded)), aspect);
+  }
+
+  @Test
+  public void testWideAspectIsCompressed() {
+    final DataMap aspect = buildWideAspect(500);
+    final String json = AspectCodecs.JSON.encode(aspect);
+    final String encoded = AspectCodecs.DEFLATE_PSON.encode(aspect);
+    assertTrue(encoded.length() * 4 < json.length(),
+        String.format("Expected %s encoded chars to be far less than %s JSON chars", encoded.length(), json.length()));
+  }
+
+  @Test
+  public void testForName() {
+    assertSame(AspectCodecs.forName(JsonAspectCodec.NAME), AspectCodecs.JSON);
+    assertSame(AspectCodecs.forName(DeflatePsonAspectCodec.NAME), AspectCodecs.DEFLATE_PSON);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testForUnknownName() {
+    AspectCodecs.forName("zstd");
+  }
+
+  // Shaped like a schemaMetadata aspect, with the same field names repeated in every element
+  private static DataMap buildWideAspect(int numFields) {
+    final DataList fields = new DataList();
+    for (int i = 0; i < numFields; i++) {
+      final DataMap field = new DataMap();
+      field.put("fieldPath", "column_" + i);
+      field.put("nativeDataType", "VARCHAR(255)");
+      field.put("nullable", i % 2 == 0);
+      field.put("description", "Description of column " + i);
+      field.put("recursive", false);
+      fields.add(field);
+    }
+    final DataMap aspect = new DataMap();
+    aspect.put("schemaName", "table");
+    aspect.put("version", 0L);
+    aspect.put("fields", fields);
+    return aspect;
+  }
+}
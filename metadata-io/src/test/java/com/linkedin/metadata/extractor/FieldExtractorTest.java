@@ -1,15 +1,52 @@
 package com.linkedin.metadata.extractor;
 
 import com.datahub.test.TestEntityInfo;
+import com.datahub.util.RecordUtils;
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.FabricType;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.GlossaryTermAssociation;
+import com.linkedin.common.GlossaryTermAssociationArray;
+import com.linkedin.common.GlossaryTerms;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.urn.DataPlatformUrn;
+import com.linkedin.common.urn.DatasetUrn;
+import com.linkedin.common.urn.GlossaryTermUrn;
+import com.linkedin.common.urn.TagUrn;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.dataset.DatasetLineageType;
+import com.linkedin.dataset.FineGrainedLineage;
+import com.linkedin.dataset.FineGrainedLineageArray;
+import com.linkedin.dataset.FineGrainedLineageDownstreamType;
+import com.linkedin.dataset.FineGrainedLineageUpstreamType;
+import com.linkedin.dataset.Upstream;
+import com.linkedin.dataset.UpstreamArray;
+import com.linkedin.dataset.UpstreamLineage;
 import com.linkedin.metadata.TestEntitySpecBuilder;
 import com.linkedin.metadata.TestEntityUtil;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.FieldSpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.extractor.FieldExtractor;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.schema.MySqlDDL;
+import com.linkedin.schema.SchemaField;
+import com.linkedin.schema.SchemaFieldArray;
+import com.linkedin.schema.SchemaFieldDataType;
+import com.linkedin.schema.SchemaMetadata;
+import com.linkedin.schema.StringType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.testcontainers.shaded.com.google.common.collect.ImmutableList;
@@ -47,4 +84,111 @@ public class FieldExtractorTest {
     assertEquals(result.get(nameToSpec.get("customProperties")), ImmutableList.of("key1=value1", "key2=value2"));
     assertEquals(result.get(nameToSpec.get("esObjectField")), ImmutableList.of("key1=value1", "key2=value2"));
   }
+
+  @Test
+  public void testExtractFieldsOfAspectSpecMatchesExtractingEachField() {
+    EntitySpec testEntitySpec = TestEntitySpecBuilder.getSpec();
+    AspectSpec testEntityInfoSpec = testEntitySpec.getAspectSpec("testEntityInfo");
+    assertExtractsSameAsEachField(new TestEntityInfo(), testEntityInfoSpec);
+    assertExtractsSameAsEachField(TestEntityUtil.getTestEntityInfo(TestEntityUtil.getTestEntityUrn()),
+        testEntityInfoSpec);
+
+    EntitySpec datasetSpec = SnapshotEntityRegistry.getInstance().getEntitySpec("dataset");
+    assertExtractsSameAsEachField(getSchemaMetadata(500), datasetSpec.getAspectSpec("schemaMetadata"));
+    assertExtractsSameAsEachField(getUpstreamLineage(200), datasetSpec.getAspectSpec("upstreamLineage"));
+  }
+
+  private static void assertExtractsSameAsEachField(RecordTemplate aspect, AspectSpec aspectSpec) {
+    List<FieldSpec> fieldSpecs = new ArrayList<>();
+    fieldSpecs.addAll(aspectSpec.getSearchableFieldSpecs());
+    fieldSpecs.addAll(aspectSpec.getSearchScoreFieldSpecs());
+    fieldSpecs.addAll(aspectSpec.getRelationshipFieldSpecs());
+    fieldSpecs.addAll(aspectSpec.getTimeseriesFieldSpecs());
+    fieldSpecs.addAll(aspectSpec.getTimeseriesFieldCollectionSpecs());
+
+    Map<FieldSpec, List<Object>> expected = new HashMap<>();
+    fieldSpecs.forEach(fieldSpec -> expected.put(fieldSpec, extractField(aspect, fieldSpec)));
+    assertEquals(FieldExtractor.extractFields(aspect, aspectSpec), expected);
+    assertEquals(FieldExtractor.selectFields(FieldExtractor.extractFields(aspect, aspectSpec),
+        aspectSpec.getRelationshipFieldSpecs()), FieldExtractor.extractFields(aspect,
+        aspectSpec.getRelationshipFieldSpecs()));
+  }
+
+  // Extracts a single field with its own traversal of the record
+  @SuppressWarnings("unchecked")
+  private static List<Object> extractField(RecordTemplate record, FieldSpec fieldSpec) {
+    Optional<Object> value = RecordUtils.getFieldValue(record, fieldSpec.getPath());
+    if (!value.isPresent()) {
+      return Collections.emptyList();
+    }
+    long numArrayWildcards = fieldSpec.getPath().getPathComponents().stream().filter("*"::equals).count();
+    if (numArrayWildcards == 0) {
+      if (value.get() instanceof Map) {
+        return ((Map<?, ?>) value.get()).entrySet()
+            .stream()
+            .filter(entry -> entry.getValue().toString().length() < 200)
+            .map(entry -> entry.getKey() + "=" + entry.getValue())
+            .collect(Collectors.toList());
+      }
+      return Collections.singletonList(value.get());
+    }
+    List<Object> valueList = (List<Object>) value.get();
+    for (int i = 0; i < numArrayWildcards - 1; i++) {
+      valueList = valueList.stream().flatMap(v -> ((List<Object>) v).stream()).collect(Collectors.toList());
+    }
+    return valueList;
+  }
+
+  private static SchemaMetadata getSchemaMetadata(int numFields) {
+    DatasetUrn datasetUrn = new DatasetUrn(new DataPlatformUrn("hive"), "testDataset", FabricType.TEST);
+    SchemaFieldArray fields = new SchemaFieldArray();
+    for (int i = 0; i < numFields; i++) {
+      SchemaField field = new SchemaField()
+          .setFieldPath("column" + i)
+          .setDescription("description of column " + i)
+          .setType(new SchemaFieldDataType().setType(SchemaFieldDataType.Type.create(new StringType())))
+          .setNativeDataType("string");
+      // Leave some of the optional fields unset
+      if (i % 3 != 0) {
+        field.setGlobalTags(new GlobalTags().setTags(new TagAssociationArray(ImmutableList.of(
+            new TagAssociation().setTag(new TagUrn("tag" + i)), new TagAssociation().setTag(new TagUrn("pii"))))));
+      }
+      if (i % 2 == 0) {
+        field.setGlossaryTerms(new GlossaryTerms()
+            .setTerms(new GlossaryTermAssociationArray(ImmutableList.of(
+                new GlossaryTermAssociation().setUrn(new GlossaryTermUrn("term" + i)))))
+            .setAuditStamp(new AuditStamp().setTime(0L).setActor(UrnUtils.getUrn("urn:li:corpuser:tester"))));
+      }
+      fields.add(field);
+    }
+    return new SchemaMetadata().setSchemaName("testSchema")
+        .setPlatformSchema(SchemaMetadata.PlatformSchema.create(new MySqlDDL().setTableSchema("foo")))
+        .setPlatform(new DataPlatformUrn("hive"))
+        .setHash("")
+        .setVersion(0L)
+        .setDataset(datasetUrn)
+        .setFields(fields);
+  }
+
+  private static UpstreamLineage getUpstreamLineage(int numUpstreams) {
+    UpstreamArray upstreams = new UpstreamArray();
+    FineGrainedLineageArray fineGrainedLineages = new FineGrainedLineageArray();
+    for (int i = 0; i < numUpstreams; i++) {
+      DatasetUrn upstreamUrn = new DatasetUrn(new DataPlatformUrn("hive"), "upstream" + i, FabricType.TEST);
+      Upstream upstream = new Upstream().setDataset(upstreamUrn).setType(DatasetLineageType.TRANSFORMED);
+      if (i % 2 == 0) {
+        upstream.setCreated(new AuditStamp().setTime((long) i).setActor(UrnUtils.getUrn("urn:li:corpuser:tester")));
+        upstream.setProperties(new StringMap(Collections.singletonMap("query", "select * from upstream" + i)));
+      }
+      upstreams.add(upstream);
+      fineGrainedLineages.add(new FineGrainedLineage()
+          .setUpstreamType(FineGrainedLineageUpstreamType.FIELD_SET)
+          .setUpstreams(new UrnArray(ImmutableList.of(
+              UrnUtils.getUrn("urn:li:schemaField:(" + upstreamUrn + ",column" + i + ")"))))
+          .setDownstreamType(FineGrainedLineageDownstreamType.FIELD)
+          .setDownstreams(new UrnArray(ImmutableList.of(UrnUtils.getUrn(
+              "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,testDataset,TEST),column" + i + ")")))));
+    }
+    return new UpstreamLineage().setUpstreams(upstreams).setFineGrainedLineages(fineGrainedLineages);
+  }
 }
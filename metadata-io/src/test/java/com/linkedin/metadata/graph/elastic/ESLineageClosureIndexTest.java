@@ -0,0 +1,207 @@
+package com.linkedin.metadata.graph.elastic;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.ElasticSearchTestConfiguration;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.EntityLineageResult;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineageRelationship;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+@Import(ElasticSearchTestConfiguration.class)
+public class ESLineageClosureIndexTest extends AbstractTestNGSpringContextTests {
+
+  private static final String DOWNSTREAM_OF = "DownstreamOf";
+  private static final int MAX_HOPS = 10;
+  private static final long GRACE_MILLIS = 4000;
+
+  private static final Urn DATASET_A = datasetUrn("A");
+  private static final Urn DATASET_B = datasetUrn("B");
+  private static final Urn DATASET_C = datasetUrn("C");
+  private static final Urn DATASET_D = datasetUrn("D");
+  private static final Urn DATASET_E = datasetUrn("E");
+
+  @Autowired
+  private RestHighLevelClient _searchClient;
+  @Autowired
+  private ESBulkProcessor _bulkProcessor;
+  @Autowired
+  private ESIndexBuilder _esIndexBuilder;
+
+  private final IndexConvention _indexConvention = new IndexConventionImpl("closure_test");
+  private ElasticSearchGraphService _graphService;
+  private LineageRegistry _lineageRegistry;
+  private ESLineageClosureIndex _closureIndex;
+
+  @BeforeClass
+  public void setup() {
+    _lineageRegistry = new LineageRegistry(SnapshotEntityRegistry.getInstance());
+    _graphService = new ElasticSearchGraphService(_lineageRegistry, _bulkProcessor, _indexConvention,
+        new ESGraphWriteDAO(_indexConvention, _bulkProcessor, 1),
+        new ESGraphQueryDAO(_searchClient, _lineageRegistry, _indexConvention), _esIndexBuilder);
+    _graphService.configure();
+    // The second invalidation pass does not run during the tests, except for the one building its own index
+    _closureIndex = buildClosureIndex(TimeUnit.HOURS.toMillis(1));
+    _closureIndex.configure();
+  }
+
+  // Invalidations are only applied when the tests flush them
+  @Nonnull
+  private ESLineageClosureIndex buildClosureIndex(long invalidationGraceMillis) {
+    return new ESLineageClosureIndex(_searchClient, _esIndexBuilder, _indexConvention, _bulkProcessor,
+        _lineageRegistry, SnapshotEntityRegistry.getInstance().getEntitySpecs().keySet(), 1000,
+        TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1), invalidationGraceMillis);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _closureIndex.close();
+  }
+
+  @BeforeMethod
+  public void wipe() throws Exception {
+    _graphService.clear();
+    _closureIndex.onNodeChanged(DATASET_A, null);
+    _closureIndex.onNodeChanged(DATASET_C, null);
+    _closureIndex.flushInvalidations();
+    syncAfterWrite();
+  }
+
+  @Test
+  public void testClosureInvalidatedOnEdgeAddAndRemove() throws Exception {
+    _graphService.addEdge(edge(DATASET_B, DATASET_A));
+    _graphService.addEdge(edge(DATASET_D, DATASET_C));
+    syncAfterWrite();
+    computeAndStore(DATASET_A);
+    computeAndStore(DATASET_C);
+    assertEquals(storedDegrees(DATASET_A), Collections.singletonMap(DATASET_B, 1));
+
+    // E becomes a downstream of B, and so a second degree downstream of A
+    final Edge added = edge(DATASET_E, DATASET_B);
+    _graphService.addEdge(added);
+    _closureIndex.onEdgesChanged(Collections.singletonList(added));
+    _closureIndex.flushInvalidations();
+    syncAfterWrite();
+    assertFalse(_closureIndex.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS).isPresent());
+    // Lineages that do not include either end of the edge are kept
+    assertEquals(storedDegrees(DATASET_C), Collections.singletonMap(DATASET_D, 1));
+
+    computeAndStore(DATASET_A);
+    final Map<Urn, Integer> expected = new HashMap<>();
+    expected.put(DATASET_B, 1);
+    expected.put(DATASET_E, 2);
+    assertEquals(storedDegrees(DATASET_A), expected);
+
+    _graphService.removeEdge(added);
+    _closureIndex.onEdgesChanged(Collections.singletonList(added));
+    _closureIndex.flushInvalidations();
+    syncAfterWrite();
+    assertFalse(_closureIndex.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS).isPresent());
+
+    computeAndStore(DATASET_A);
+    assertEquals(storedDegrees(DATASET_A), Collections.singletonMap(DATASET_B, 1));
+    assertEquals(storedDegrees(DATASET_C), Collections.singletonMap(DATASET_D, 1));
+  }
+
+  @Test
+  public void testRacedLineageRemovedBySecondInvalidation() throws Exception {
+    final ESLineageClosureIndex closureIndex = buildClosureIndex(GRACE_MILLIS);
+    try {
+      _graphService.addEdge(edge(DATASET_B, DATASET_A));
+      syncAfterWrite();
+
+      // The lineage is read before the edge is added, but stored after its invalidation was applied
+      final long computationStartMillis = System.currentTimeMillis();
+      final EntityLineageResult stale = _graphService.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, 0, 1000,
+          MAX_HOPS);
+      final Edge added = edge(DATASET_E, DATASET_B);
+      _graphService.addEdge(added);
+      closureIndex.onEdgesChanged(Collections.singletonList(added));
+      closureIndex.flushInvalidations();
+      closureIndex.putLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS, stale, computationStartMillis);
+      _bulkProcessor.flush();
+      syncAfterWrite();
+      assertEquals(storedDegrees(DATASET_A), Collections.singletonMap(DATASET_B, 1));
+
+      Thread.sleep(GRACE_MILLIS);
+      syncAfterWrite();
+      assertFalse(closureIndex.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS).isPresent());
+    } finally {
+      closureIndex.close();
+    }
+  }
+
+  @Test
+  public void testSlowComputationNotStored() throws Exception {
+    final ESLineageClosureIndex closureIndex = buildClosureIndex(GRACE_MILLIS);
+    try {
+      _graphService.addEdge(edge(DATASET_B, DATASET_A));
+      syncAfterWrite();
+
+      final EntityLineageResult lineage = _graphService.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, 0, 1000,
+          MAX_HOPS);
+      closureIndex.putLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS, lineage,
+          System.currentTimeMillis() - GRACE_MILLIS);
+      _bulkProcessor.flush();
+      syncAfterWrite();
+      assertFalse(closureIndex.getLineage(DATASET_A, LineageDirection.DOWNSTREAM, MAX_HOPS).isPresent());
+    } finally {
+      closureIndex.close();
+    }
+  }
+
+  private void computeAndStore(@Nonnull Urn urn) throws Exception {
+    final long computationStartMillis = System.currentTimeMillis();
+    final EntityLineageResult lineage = _graphService.getLineage(urn, LineageDirection.DOWNSTREAM, 0, 1000, MAX_HOPS);
+    _closureIndex.putLineage(urn, LineageDirection.DOWNSTREAM, MAX_HOPS, lineage, computationStartMillis);
+    _bulkProcessor.flush();
+    syncAfterWrite();
+  }
+
+  @Nonnull
+  private Map<Urn, Integer> storedDegrees(@Nonnull Urn urn) {
+    final Optional<EntityLineageResult> lineage =
+        _closureIndex.getLineage(urn, LineageDirection.DOWNSTREAM, MAX_HOPS);
+    assertTrue(lineage.isPresent(), "Expected a stored lineage for " + urn);
+    return lineage.get().getRelationships().stream()
+        .collect(Collectors.toMap(LineageRelationship::getEntity, LineageRelationship::getDegree));
+  }
+
+  @Nonnull
+  private static Edge edge(@Nonnull Urn downstream, @Nonnull Urn upstream) {
+    return new Edge(downstream, upstream, DOWNSTREAM_OF, null, null, null, null, null);
+  }
+
+  @Nonnull
+  private static Urn datasetUrn(@Nonnull String name) {
+    return UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:type," + name + ",PROD)");
+  }
+
+  private static void syncAfterWrite() throws Exception {
+    ElasticSearchTestConfiguration.syncAfterWrite();
+  }
+}
@@ -1,14 +1,19 @@
 package com.linkedin.metadata.graph.elastic;
 
 import com.linkedin.common.FabricType;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.UrnArrayArray;
 import com.linkedin.common.urn.DataPlatformUrn;
 import com.linkedin.common.urn.DatasetUrn;
 import com.linkedin.common.urn.TagUrn;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.ElasticSearchTestConfiguration;
 import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.EntityLineageResult;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.graph.GraphServiceTestBase;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineageRelationship;
 import com.linkedin.metadata.graph.RelatedEntitiesResult;
 import com.linkedin.metadata.graph.RelatedEntity;
 import com.linkedin.metadata.models.registry.LineageRegistry;
@@ -20,7 +25,14 @@ import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
@@ -37,6 +49,8 @@ import java.util.List;
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
 import static com.linkedin.metadata.search.utils.QueryUtils.*;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 @Import(ElasticSearchTestConfiguration.class)
 public class ElasticSearchGraphServiceTest extends GraphServiceTestBase {
@@ -69,7 +83,12 @@ public class ElasticSearchGraphServiceTest extends GraphServiceTestBase {
   @Nonnull
   private ElasticSearchGraphService buildService() {
     LineageRegistry lineageRegistry = new LineageRegistry(SnapshotEntityRegistry.getInstance());
-    ESGraphQueryDAO readDAO = new ESGraphQueryDAO(_searchClient, lineageRegistry, _indexConvention);
+    return buildService(lineageRegistry, new ESGraphQueryDAO(_searchClient, lineageRegistry, _indexConvention));
+  }
+
+  @Nonnull
+  private ElasticSearchGraphService buildService(@Nonnull LineageRegistry lineageRegistry,
+      @Nonnull ESGraphQueryDAO readDAO) {
     ESGraphWriteDAO writeDAO = new ESGraphWriteDAO(_indexConvention, _bulkProcessor, 1);
     return new ElasticSearchGraphService(lineageRegistry, _bulkProcessor, _indexConvention, writeDAO, readDAO,
         _esIndexBuilder);
@@ -205,6 +224,124 @@ public class ElasticSearchGraphServiceTest extends GraphServiceTestBase {
     assertEquals(result.getTotal(), 0);
   }
 
+  @Test
+  public void testReplaceEdgesFromNodeInEdgeReplacementMode() throws Exception {
+    _client.setEdgeReplacementMode(true);
+    try {
+      _client.addEdge(new Edge(datasetOneUrn, datasetTwoUrn, downstreamOf, null, null, null, null, null));
+      _client.addEdge(new Edge(datasetOneUrn, userOneUrn, hasOwner, null, null, null, null, null));
+      syncAfterWrite();
+
+      _client.replaceEdgesFromNode(datasetOneUrn, Collections.singletonList(downstreamOf), Arrays.asList(
+          new Edge(datasetOneUrn, datasetThreeUrn, downstreamOf, null, null, null, null, null)));
+      // The edge to dataset three is not searchable yet, but has to be removed by the next replacement as well
+      _client.replaceEdgesFromNode(datasetOneUrn, Collections.singletonList(downstreamOf), Arrays.asList(
+          new Edge(datasetOneUrn, datasetTwoUrn, downstreamOf, null, null, null, null, null),
+          new Edge(datasetOneUrn, datasetFourUrn, downstreamOf, null, null, null, null, null)));
+      syncAfterWrite();
+
+      RelatedEntitiesResult downstreams = _client.findRelatedEntities(anyType,
+          newFilter("urn", datasetOneUrnString), anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf),
+          outgoingRelationships, 0, 100);
+      assertEqualsAnyOrder(downstreams.getEntities(),
+          Arrays.asList(downstreamOfDatasetTwoRelatedEntity, downstreamOfDatasetFourRelatedEntity),
+          RELATED_ENTITY_COMPARATOR);
+
+      // Edges of other relationship types are left alone
+      RelatedEntitiesResult owners = _client.findRelatedEntities(anyType,
+          newFilter("urn", datasetOneUrnString), anyType, EMPTY_FILTER, Collections.singletonList(hasOwner),
+          outgoingRelationships, 0, 100);
+      assertEqualsAnyOrder(owners.getEntities(), Collections.singletonList(hasOwnerUserOneRelatedEntity),
+          RELATED_ENTITY_COMPARATOR);
+    } finally {
+      _client.setEdgeReplacementMode(false);
+    }
+  }
+
+  @Test
+  public void testLineagePagesPastOneSearchPage() throws Exception {
+    // A tree of datasets: the root has 12 direct downstreams, each of which has 2 downstreams of its own
+    final Urn root = lineageDatasetUrn("Root");
+    final List<Edge> edges = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      final Urn child = lineageDatasetUrn("Child" + i);
+      edges.add(new Edge(child, root, downstreamOf, null, null, null, null, null));
+      for (int j = 0; j < 2; j++) {
+        edges.add(new Edge(lineageDatasetUrn("Grandchild" + i + "_" + j), child, downstreamOf, null, null, null, null,
+            null));
+      }
+    }
+    edges.forEach(_client::addEdge);
+    syncAfterWrite();
+
+    // Each hop has more edges than fit into one page of 5 edges
+    final LineageRegistry lineageRegistry = new LineageRegistry(SnapshotEntityRegistry.getInstance());
+    final ElasticSearchGraphService pagedClient = buildService(lineageRegistry,
+        new ESGraphQueryDAO(_searchClient, lineageRegistry, _indexConvention, 8, 10, 5));
+
+    final Map<Urn, List<Urn>> expectedDownstreamPaths = traverseDownstreams(root);
+    assertEquals(expectedDownstreamPaths.size(), 36);
+    for (GraphService service : Arrays.asList(_client, pagedClient)) {
+      final EntityLineageResult downstreams = service.getLineage(root, LineageDirection.DOWNSTREAM, 0, 1000, 3);
+      assertEquals(downstreams.getTotal().intValue(), expectedDownstreamPaths.size());
+      assertLineagePaths(downstreams, expectedDownstreamPaths);
+    }
+
+    // Upstream paths are ordered the same way, from the most upstream entity to the start of the traversal
+    final Urn leaf = lineageDatasetUrn("Grandchild7_1");
+    final Map<Urn, List<Urn>> expectedUpstreamPaths = new HashMap<>();
+    expectedUpstreamPaths.put(lineageDatasetUrn("Child7"), Arrays.asList(lineageDatasetUrn("Child7"), leaf));
+    expectedUpstreamPaths.put(root, Arrays.asList(root, lineageDatasetUrn("Child7"), leaf));
+    for (GraphService service : Arrays.asList(_client, pagedClient)) {
+      assertLineagePaths(service.getLineage(leaf, LineageDirection.UPSTREAM, 0, 1000, 3), expectedUpstreamPaths);
+    }
+  }
+
+  // Walks the downstreams of the root hop by hop with the single hop related entities query and returns the path
+  // from the root to every entity reached
+  @Nonnull
+  private Map<Urn, List<Urn>> traverseDownstreams(@Nonnull Urn root) {
+    final Map<Urn, List<Urn>> paths = new HashMap<>();
+    final Deque<Urn> queue = new ArrayDeque<>(Collections.singletonList(root));
+    paths.put(root, Collections.singletonList(root));
+    while (!queue.isEmpty()) {
+      final Urn parent = queue.poll();
+      final RelatedEntitiesResult downstreams = _client.findRelatedEntities(anyType,
+          newFilter("urn", parent.toString()), anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf),
+          incomingRelationships, 0, 1000);
+      for (RelatedEntity downstream : downstreams.getEntities()) {
+        final Urn child = createFromString(downstream.getUrn());
+        if (!paths.containsKey(child)) {
+          final List<Urn> path = new ArrayList<>(paths.get(parent));
+          path.add(child);
+          paths.put(child, path);
+          queue.add(child);
+        }
+      }
+    }
+    paths.remove(root);
+    return paths;
+  }
+
+  private static void assertLineagePaths(@Nonnull EntityLineageResult lineage,
+      @Nonnull Map<Urn, List<Urn>> expectedPaths) {
+    final Set<Urn> seen = new HashSet<>();
+    for (LineageRelationship relationship : lineage.getRelationships()) {
+      assertTrue(seen.add(relationship.getEntity()), "Duplicate lineage entity " + relationship.getEntity());
+      final List<Urn> expectedPath = expectedPaths.get(relationship.getEntity());
+      assertNotNull(expectedPath, "Unexpected lineage entity " + relationship.getEntity());
+      assertEquals(relationship.getDegree().intValue(), expectedPath.size() - 1);
+      assertEquals(relationship.getPaths(),
+          new UrnArrayArray(Collections.singletonList(new UrnArray(expectedPath))));
+    }
+    assertEquals(seen, expectedPaths.keySet());
+  }
+
+  @Nonnull
+  private static Urn lineageDatasetUrn(@Nonnull String name) {
+    return createFromString("urn:li:" + datasetType + ":(urn:li:dataPlatform:type," + name + ",PROD)");
+  }
+
   @Test
   @Override
   public void testConcurrentAddEdge() {
@@ -0,0 +1,119 @@
+package com.linkedin.metadata.graph.embedded;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.EntityLineageResult;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.GraphServiceTestBase;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.RelatedEntitiesResult;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.annotation.Nonnull;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+
+public class EmbeddedGraphServiceTest extends GraphServiceTestBase {
+
+  // Low enough for the tests of the base class to go through compactions
+  private static final int COMPACTION_THRESHOLD = 2;
+
+  private EmbeddedGraphService _client;
+
+  @BeforeMethod
+  public void wipe() {
+    _client = buildService();
+  }
+
+  @Nonnull
+  private static EmbeddedGraphService buildService() {
+    return new EmbeddedGraphService(new LineageRegistry(SnapshotEntityRegistry.getInstance()), COMPACTION_THRESHOLD);
+  }
+
+  @Override
+  @Nonnull
+  protected GraphService getGraphService() {
+    return _client;
+  }
+
+  @Override
+  protected void syncAfterWrite() {
+  }
+
+  @Test
+  public void testRemoveEdge() throws Exception {
+    Edge edge = new Edge(datasetOneUrn, datasetTwoUrn, downstreamOf, null, null, null, null, null);
+    _client.addEdge(edge);
+    _client.addEdge(new Edge(datasetOneUrn, datasetThreeUrn, downstreamOf, null, null, null, null, null));
+    _client.addEdge(new Edge(datasetOneUrn, userOneUrn, hasOwner, null, null, null, null, null));
+
+    _client.removeEdge(edge);
+
+    RelatedEntitiesResult downstreams = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Arrays.asList(downstreamOf, hasOwner), outgoingRelationships, 0, 100);
+    assertEqualsAnyOrder(downstreams.getEntities(),
+        Arrays.asList(downstreamOfDatasetThreeRelatedEntity, hasOwnerUserOneRelatedEntity), RELATED_ENTITY_COMPARATOR);
+    RelatedEntitiesResult upstreams = _client.findRelatedEntities(anyType, newFilter("urn", datasetTwoUrnString),
+        anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf), incomingRelationships, 0, 100);
+    assertEquals(upstreams.getTotal(), 0);
+  }
+
+  @Test
+  public void testSnapshotRoundTrip() throws Exception {
+    getLineagePopulatedGraphService();
+    // Edges written after the last compaction are part of the snapshot as well
+    _client.addEdge(new Edge(datasetOneUrn, userTwoUrn, hasOwner, null, null, null, null, null));
+
+    _client.setOffset(0, 42L);
+    _client.setOffset(3, 7L);
+
+    Path snapshot = Files.createTempFile("graph", ".snapshot");
+    try {
+      _client.writeSnapshot(snapshot);
+      EntityLineageResult expectedLineage = _client.getLineage(datasetOneUrn, LineageDirection.DOWNSTREAM, 0, 1000, 2);
+      EmbeddedGraphService loaded = buildService();
+      loaded.loadSnapshot(snapshot);
+
+      assertEquals(loaded.getOffsets(), ImmutableMap.of(0, 42L, 3, 7L));
+      assertEquals(loaded.getLineage(datasetOneUrn, LineageDirection.DOWNSTREAM, 0, 1000, 2), expectedLineage);
+      RelatedEntitiesResult owners = loaded.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+          anyType, EMPTY_FILTER, Collections.singletonList(hasOwner), outgoingRelationships, 0, 100);
+      assertEqualsAnyOrder(owners.getEntities(),
+          Arrays.asList(hasOwnerUserOneRelatedEntity, hasOwnerUserTwoRelatedEntity), RELATED_ENTITY_COMPARATOR);
+
+      // The loaded graph keeps taking writes on top of the mapped snapshot
+      loaded.removeNode(datasetTwoUrn);
+      loaded.addEdge(new Edge(datasetThreeUrn, datasetOneUrn, downstreamOf, null, null, null, null, null));
+      RelatedEntitiesResult downstreams = loaded.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+          anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf), incomingRelationships, 0, 100);
+      assertEqualsAnyOrder(downstreams.getEntities(), Collections.singletonList(downstreamOfDatasetThreeRelatedEntity),
+          RELATED_ENTITY_COMPARATOR);
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+
+  @Test
+  public void testReadsFailWhileNotReady() throws Exception {
+    getLineagePopulatedGraphService();
+    _client.setReady(false);
+
+    assertThrows(IllegalStateException.class,
+        () -> _client.getLineage(datasetOneUrn, LineageDirection.DOWNSTREAM, 0, 1000, 2));
+    assertThrows(IllegalStateException.class, () -> _client.findRelatedEntities(anyType,
+        newFilter("urn", datasetOneUrnString), anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf),
+        outgoingRelationships, 0, 100));
+
+    _client.setReady(true);
+    assertEquals(_client.getLineage(datasetOneUrn, LineageDirection.DOWNSTREAM, 0, 1000, 1).getTotal().intValue(), 3);
+  }
+}
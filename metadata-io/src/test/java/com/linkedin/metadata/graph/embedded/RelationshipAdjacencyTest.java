@@ -0,0 +1,80 @@
+package com.linkedin.metadata.graph.embedded;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class RelationshipAdjacencyTest {
+
+  @Test
+  public void testDeltaSizeCountsEdgesChangedSinceFreeze() {
+    RelationshipAdjacency adjacency = new RelationshipAdjacency();
+    assertTrue(adjacency.add(1, 2));
+    assertTrue(adjacency.add(1, 3));
+    assertEquals(adjacency.deltaSize(), 2);
+
+    // Removing an added edge undoes its addition
+    assertTrue(adjacency.remove(1, 2));
+    assertFalse(adjacency.remove(1, 2));
+    assertEquals(adjacency.deltaSize(), 1);
+
+    adjacency.freeze();
+    assertEquals(adjacency.deltaSize(), 0);
+
+    // Adding back an edge removed from the layers below undoes its removal
+    assertTrue(adjacency.remove(1, 3));
+    assertEquals(adjacency.deltaSize(), 1);
+    assertTrue(adjacency.add(1, 3));
+    assertEquals(adjacency.deltaSize(), 0);
+    assertEquals(adjacency.neighbors(1), new int[]{3});
+  }
+
+  @Test
+  public void testCompactionKeepsWritesMadeWhileItRuns() {
+    RelationshipAdjacency adjacency = new RelationshipAdjacency();
+    adjacency.add(5, 1);
+    adjacency.add(5, 9);
+    adjacency.add(2, 7);
+
+    RelationshipAdjacency.Compaction compaction = adjacency.freeze();
+    // Written after the freeze, so on top of whichever base the compaction produces
+    adjacency.remove(5, 9);
+    adjacency.add(5, 4);
+    adjacency.add(8, 2);
+
+    CsrAdjacency compacted = compaction.build();
+    assertEquals(compacted.numNodes(), 2);
+    assertEquals(compacted.numEdges(), 3);
+    assertEquals(compacted.indexOf(3), -1);
+    adjacency.finishCompaction(compaction, compacted);
+
+    assertEquals(adjacency.neighbors(5), new int[]{1, 4});
+    assertEquals(adjacency.neighbors(2), new int[]{7});
+    assertEquals(adjacency.neighbors(8), new int[]{2});
+    assertEquals(adjacency.deltaSize(), 3);
+
+    // Nodes left without edges are dropped from the base
+    adjacency.remove(2, 7);
+    RelationshipAdjacency.Compaction next = adjacency.freeze();
+    adjacency.finishCompaction(next, next.build());
+    assertEquals(adjacency.neighbors(2), new int[0]);
+    assertEquals(adjacency.neighbors(5), new int[]{1, 4});
+  }
+
+  @Test
+  public void testFinishingAnOutdatedCompactionIsIgnored() {
+    RelationshipAdjacency adjacency = new RelationshipAdjacency();
+    adjacency.add(1, 2);
+    RelationshipAdjacency.Compaction first = adjacency.freeze();
+    adjacency.add(1, 3);
+    RelationshipAdjacency.Compaction second = adjacency.freeze();
+
+    // The second compaction covers the deltas of the first, which then finishes too late to apply
+    adjacency.finishCompaction(second, second.build());
+    adjacency.finishCompaction(first, first.build());
+    assertEquals(adjacency.neighbors(1), new int[]{2, 3});
+  }
+}
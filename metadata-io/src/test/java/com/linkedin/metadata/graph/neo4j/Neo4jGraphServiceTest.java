@@ -1,5 +1,7 @@
 package com.linkedin.metadata.graph.neo4j;
 
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.Edge;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.graph.GraphServiceTestBase;
 import com.linkedin.metadata.graph.RelatedEntitiesResult;
@@ -16,10 +18,14 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 
+import static com.linkedin.metadata.search.utils.QueryUtils.*;
 import static org.testng.Assert.assertEquals;
 
 
@@ -139,6 +145,55 @@ public class Neo4jGraphServiceTest extends GraphServiceTestBase {
     throw new SkipException("Neo4jGraphService does not support empty list of relationship types");
   }
 
+  @Test
+  public void testAddEdgesAcrossBatches() {
+    List<Edge> edges = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      Urn downstream = createFromString("urn:li:" + datasetType + ":(urn:li:dataPlatform:type,Downstream" + i + ",PROD)");
+      edges.add(new Edge(downstream, datasetOneUrn, downstreamOf, null, null, null, null, null));
+    }
+    edges.add(new Edge(datasetOneUrn, userOneUrn, hasOwner, null, null, null, null, null));
+    // Edges added twice are merged
+    edges.add(new Edge(datasetOneUrn, userOneUrn, hasOwner, null, null, null, null, null));
+
+    _client.addEdges(edges);
+
+    RelatedEntitiesResult downstreams = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf), incomingRelationships, 0, 10);
+    assertEquals(downstreams.getTotal(), 1500);
+    RelatedEntitiesResult owners = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Collections.singletonList(hasOwner), outgoingRelationships, 0, 10);
+    assertEquals(owners.getEntities(), Collections.singletonList(hasOwnerUserOneRelatedEntity));
+  }
+
+  @Test
+  public void testReplaceEdgesFromNode() {
+    _client.addEdges(Arrays.asList(
+        new Edge(datasetOneUrn, datasetTwoUrn, downstreamOf, null, null, null, null, null),
+        new Edge(datasetOneUrn, userOneUrn, hasOwner, null, null, null, null, null)));
+
+    _client.replaceEdgesFromNode(datasetOneUrn, Collections.singletonList(downstreamOf), Arrays.asList(
+        new Edge(datasetOneUrn, datasetThreeUrn, downstreamOf, null, null, null, null, null),
+        new Edge(datasetOneUrn, datasetFourUrn, downstreamOf, null, null, null, null, null)));
+
+    RelatedEntitiesResult downstreams = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Collections.singletonList(downstreamOf), outgoingRelationships, 0, 100);
+    assertEqualsAnyOrder(downstreams.getEntities(),
+        Arrays.asList(downstreamOfDatasetThreeRelatedEntity, downstreamOfDatasetFourRelatedEntity),
+        RELATED_ENTITY_COMPARATOR);
+    // Edges of other relationship types are left alone
+    RelatedEntitiesResult owners = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Collections.singletonList(hasOwner), outgoingRelationships, 0, 100);
+    assertEquals(owners.getEntities(), Collections.singletonList(hasOwnerUserOneRelatedEntity));
+
+    // No relationship types replaces the outgoing edges of every type, like removeEdgesFromNode
+    _client.replaceEdgesFromNode(datasetOneUrn, Collections.emptyList(), Collections.singletonList(
+        new Edge(datasetOneUrn, datasetTwoUrn, downstreamOf, null, null, null, null, null)));
+    RelatedEntitiesResult related = _client.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString),
+        anyType, EMPTY_FILTER, Arrays.asList(downstreamOf, hasOwner), outgoingRelationships, 0, 100);
+    assertEquals(related.getEntities(), Collections.singletonList(downstreamOfDatasetTwoRelatedEntity));
+  }
+
   @Test
   @Override
   public void testConcurrentAddEdge() {
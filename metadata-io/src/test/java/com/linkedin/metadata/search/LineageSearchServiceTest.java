@@ -19,6 +19,7 @@ import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
 import com.linkedin.metadata.search.aggregator.AllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.cache.CachingAllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.cache.EntityDocCountCache;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.search.client.CachingEntitySearchService;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
@@ -69,6 +70,7 @@ public class LineageSearchServiceTest extends AbstractTestNGSpringContextTests {
   private ElasticSearchService _elasticSearchService;
   private GraphService _graphService;
   private CacheManager _cacheManager;
+  private final EntitySearchCacheGenerations _cacheGenerations = new EntitySearchCacheGenerations();
   private LineageSearchService _lineageSearchService;
 
   private static final String ENTITY_NAME = "testEntity";
@@ -93,7 +95,8 @@ public class LineageSearchServiceTest extends AbstractTestNGSpringContextTests {
   }
 
   private void resetService(boolean withCache) {
-    CachingEntitySearchService cachingEntitySearchService = new CachingEntitySearchService(_cacheManager, _elasticSearchService, 100, true);
+    CachingEntitySearchService cachingEntitySearchService = new CachingEntitySearchService(_cacheManager, _elasticSearchService, 100, true,
+        _cacheGenerations);
     _lineageSearchService = new LineageSearchService(
         new SearchService(
             new EntityDocCountCache(_entityRegistry, _elasticSearchService),
@@ -102,7 +105,8 @@ public class LineageSearchServiceTest extends AbstractTestNGSpringContextTests {
                 _cacheManager,
                 new AllEntitiesSearchAggregator(_entityRegistry, _elasticSearchService, cachingEntitySearchService,  new SimpleRanker()),
                 100,
-                true),
+                true,
+                _cacheGenerations),
             new SimpleRanker()),
         _graphService, _cacheManager.getCache("test"), withCache);
   }
@@ -121,7 +125,8 @@ public class LineageSearchServiceTest extends AbstractTestNGSpringContextTests {
             _indexConvention, _settingsBuilder);
     ESSearchDAO searchDAO = new ESSearchDAO(_entityRegistry, _searchClient, _indexConvention);
     ESBrowseDAO browseDAO = new ESBrowseDAO(_entityRegistry, _searchClient, _indexConvention);
-    ESWriteDAO writeDAO = new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention, _bulkProcessor, 1);
+    ESWriteDAO writeDAO = new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention, _bulkProcessor, 1,
+        _cacheGenerations);
     return new ElasticSearchService(indexBuilders, searchDAO, browseDAO, writeDAO);
   }
 
@@ -4,12 +4,21 @@ import com.datahub.test.Snapshot;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
+import com.linkedin.common.FabricType;
+import com.linkedin.common.urn.ChartUrn;
+import com.linkedin.common.urn.DataPlatformUrn;
+import com.linkedin.common.urn.DatasetUrn;
 import com.linkedin.common.urn.TestEntityUrn;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.StringArray;
 import com.linkedin.metadata.ElasticSearchTestConfiguration;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.EventSpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.models.registry.template.AspectTemplateEngine;
+import com.linkedin.metadata.query.SearchFlags;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
@@ -19,6 +28,7 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.aggregator.AllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.cache.CachingAllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.cache.EntityDocCountCache;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.search.client.CachingEntitySearchService;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
@@ -42,7 +52,12 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.linkedin.metadata.ElasticSearchTestConfiguration.syncAfterWrite;
 import static org.testng.Assert.assertEquals;
@@ -61,9 +76,12 @@ public class SearchServiceTest extends AbstractTestNGSpringContextTests {
   private SettingsBuilder _settingsBuilder;
   private ElasticSearchService _elasticSearchService;
   private CacheManager _cacheManager;
+  private final EntitySearchCacheGenerations _cacheGenerations = new EntitySearchCacheGenerations();
   private SearchService _searchService;
 
   private static final String ENTITY_NAME = "testEntity";
+  private static final String DATASET = "dataset";
+  private static final String CHART = "chart";
 
   @BeforeClass
   public void setup() {
@@ -81,7 +99,8 @@ public class SearchServiceTest extends AbstractTestNGSpringContextTests {
         _cacheManager,
         _elasticSearchService,
         100,
-        true);
+        true,
+        _cacheGenerations);
     _searchService = new SearchService(
       new EntityDocCountCache(_entityRegistry, _elasticSearchService),
       cachingEntitySearchService,
@@ -93,7 +112,8 @@ public class SearchServiceTest extends AbstractTestNGSpringContextTests {
               cachingEntitySearchService,
               new SimpleRanker()),
           100,
-          true),
+          true,
+          _cacheGenerations),
       new SimpleRanker());
   }
 
@@ -105,13 +125,19 @@ public class SearchServiceTest extends AbstractTestNGSpringContextTests {
 
   @Nonnull
   private ElasticSearchService buildEntitySearchService() {
+    return buildEntitySearchService(_entityRegistry, _indexConvention);
+  }
+
+  @Nonnull
+  private ElasticSearchService buildEntitySearchService(@Nonnull EntityRegistry entityRegistry,
+      @Nonnull IndexConvention indexConvention) {
     EntityIndexBuilders indexBuilders =
-        new EntityIndexBuilders(_esIndexBuilder, _entityRegistry,
-            _indexConvention, _settingsBuilder);
-    ESSearchDAO searchDAO = new ESSearchDAO(_entityRegistry, _searchClient, _indexConvention);
-    ESBrowseDAO browseDAO = new ESBrowseDAO(_entityRegistry, _searchClient, _indexConvention);
-    ESWriteDAO writeDAO = new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention,
-        _bulkProcessor, 1);
+        new EntityIndexBuilders(_esIndexBuilder, entityRegistry,
+            indexConvention, _settingsBuilder);
+    ESSearchDAO searchDAO = new ESSearchDAO(entityRegistry, _searchClient, indexConvention);
+    ESBrowseDAO browseDAO = new ESBrowseDAO(entityRegistry, _searchClient, indexConvention);
+    ESWriteDAO writeDAO = new ESWriteDAO(entityRegistry, _searchClient, indexConvention,
+        _bulkProcessor, 1, _cacheGenerations);
     return new ElasticSearchService(indexBuilders, searchDAO, browseDAO, writeDAO);
   }
 
@@ -362,4 +388,132 @@ public class SearchServiceTest extends AbstractTestNGSpringContextTests {
     assertEquals(searchResult.getEntities().get(0).getEntity(), urn3);
     clearCache();
   }
+
+  @Test
+  public void testMultiIndexQueryMatchesPerEntityQueries() throws Exception {
+    // Datasets and charts have different mappings and facets
+    EntityRegistry entityRegistry = new EntitySubsetRegistry(SnapshotEntityRegistry.getInstance(), DATASET, CHART);
+    ElasticSearchService elasticSearchService =
+        buildEntitySearchService(entityRegistry, new IndexConventionImpl("multi_index_search_test"));
+    elasticSearchService.configure();
+    elasticSearchService.clear();
+    for (int i = 0; i < 5; i++) {
+      Urn urn = new DatasetUrn(new DataPlatformUrn("hive"), "test.table" + i, i % 2 == 0 ? FabricType.PROD
+          : FabricType.DEV);
+      ObjectNode document = JsonNodeFactory.instance.objectNode();
+      document.set("urn", JsonNodeFactory.instance.textNode(urn.toString()));
+      document.set("name", JsonNodeFactory.instance.textNode(i % 2 == 0 ? "test" : "test test"));
+      document.set("origin", JsonNodeFactory.instance.textNode(i % 2 == 0 ? "PROD" : "DEV"));
+      document.set("platform", JsonNodeFactory.instance.textNode("urn:li:dataPlatform:hive"));
+      elasticSearchService.upsertDocument(DATASET, document.toString(), urn.toString());
+    }
+    for (int i = 0; i < 3; i++) {
+      Urn urn = new ChartUrn("looker", "chart" + i);
+      ObjectNode document = JsonNodeFactory.instance.objectNode();
+      document.set("urn", JsonNodeFactory.instance.textNode(urn.toString()));
+      document.set("title", JsonNodeFactory.instance.textNode("test chart " + i));
+      document.set("tool", JsonNodeFactory.instance.textNode("looker"));
+      document.set("type", JsonNodeFactory.instance.textNode(i == 0 ? "BAR" : "LINE"));
+      elasticSearchService.upsertDocument(CHART, document.toString(), urn.toString());
+    }
+    syncAfterWrite();
+
+    CachingEntitySearchService cachingEntitySearchService =
+        new CachingEntitySearchService(_cacheManager, elasticSearchService, 100, true, _cacheGenerations);
+    AllEntitiesSearchAggregator aggregator = new AllEntitiesSearchAggregator(entityRegistry, elasticSearchService,
+        cachingEntitySearchService, new SimpleRanker());
+    SearchResult perEntityResult = aggregator.search(ImmutableList.of(), "test", null, null, 0, 10,
+        new SearchFlags().setSkipCache(true).setMultiIndexQuery(false));
+    SearchResult multiIndexResult = aggregator.search(ImmutableList.of(), "test", null, null, 0, 10,
+        new SearchFlags().setSkipCache(true).setMultiIndexQuery(true));
+
+    assertEquals(multiIndexResult.getNumEntities(), perEntityResult.getNumEntities());
+    assertEquals(multiIndexResult.getNumEntities().intValue(), 8);
+    assertEquals(multiIndexResult.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toSet()),
+        perEntityResult.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toSet()));
+    assertEquals(multiIndexResult.getEntities().stream().map(SearchEntity::getScore).collect(Collectors.toList()),
+        perEntityResult.getEntities().stream().map(SearchEntity::getScore).collect(Collectors.toList()));
+    assertEquals(getAggregations(multiIndexResult), getAggregations(perEntityResult));
+    assertEquals(getAggregations(multiIndexResult).get("entity").get(DATASET).longValue(), 5L);
+    assertEquals(getAggregations(multiIndexResult).get("entity").get(CHART).longValue(), 3L);
+    assertEquals(getAggregations(multiIndexResult).get("origin").get("PROD").longValue(), 3L);
+    assertEquals(getAggregations(multiIndexResult).get("type").get("LINE").longValue(), 2L);
+
+    // A facet of one entity only matches documents of that entity
+    SearchResult filteredResult = aggregator.search(ImmutableList.of(), "test",
+        new Filter().setOr(new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(new CriterionArray(
+            ImmutableList.of(new Criterion().setField("origin").setCondition(Condition.EQUAL)
+                .setValue("PROD")
+                .setValues(new StringArray(ImmutableList.of("PROD")))))))),
+        null, 0, 10, new SearchFlags().setSkipCache(true).setMultiIndexQuery(true));
+    assertEquals(filteredResult.getNumEntities().intValue(), 3);
+
+    // Cached results are dropped once one of the searched entities is written
+    SearchFlags cachedMultiIndexQuery = new SearchFlags().setSkipCache(false).setMultiIndexQuery(true);
+    assertEquals(aggregator.search(ImmutableList.of(), "test", null, null, 0, 10, cachedMultiIndexQuery)
+        .getNumEntities().intValue(), 8);
+    Urn urn = new ChartUrn("looker", "chart3");
+    ObjectNode document = JsonNodeFactory.instance.objectNode();
+    document.set("urn", JsonNodeFactory.instance.textNode(urn.toString()));
+    document.set("title", JsonNodeFactory.instance.textNode("test chart 3"));
+    elasticSearchService.upsertDocument(CHART, document.toString(), urn.toString());
+    syncAfterWrite();
+    assertEquals(aggregator.search(ImmutableList.of(), "test", null, null, 0, 10, cachedMultiIndexQuery)
+        .getNumEntities().intValue(), 9);
+  }
+
+  private static Map<String, Map<String, Long>> getAggregations(SearchResult searchResult) {
+    return searchResult.getMetadata().getAggregations().stream()
+        .collect(Collectors.toMap(AggregationMetadata::getName, AggregationMetadata::getAggregations));
+  }
+
+  /**
+   * Exposes only some entities of a registry, so that tests do not create the indices of all other entities.
+   */
+  private static class EntitySubsetRegistry implements EntityRegistry {
+    private final EntityRegistry _entityRegistry;
+    private final Map<String, EntitySpec> _entitySpecs;
+
+    EntitySubsetRegistry(@Nonnull EntityRegistry entityRegistry, @Nonnull String... entityNames) {
+      _entityRegistry = entityRegistry;
+      _entitySpecs = Arrays.stream(entityNames)
+          .collect(Collectors.toMap(Function.identity(), entityRegistry::getEntitySpec));
+    }
+
+    @Nonnull
+    @Override
+    public EntitySpec getEntitySpec(@Nonnull String entityName) {
+      return _entityRegistry.getEntitySpec(entityName);
+    }
+
+    @Nullable
+    @Override
+    public EventSpec getEventSpec(@Nonnull String eventName) {
+      return _entityRegistry.getEventSpec(eventName);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, EntitySpec> getEntitySpecs() {
+      return _entitySpecs;
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, AspectSpec> getAspectSpecs() {
+      return _entityRegistry.getAspectSpecs();
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, EventSpec> getEventSpecs() {
+      return _entityRegistry.getEventSpecs();
+    }
+
+    @Nonnull
+    @Override
+    public AspectTemplateEngine getAspectTemplateEngine() {
+      return _entityRegistry.getAspectTemplateEngine();
+    }
+  }
 }
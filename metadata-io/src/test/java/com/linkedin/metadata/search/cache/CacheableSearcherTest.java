@@ -1,5 +1,6 @@
 package com.linkedin.metadata.search.cache;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
 import com.linkedin.common.urn.TestEntityUrn;
 import com.linkedin.common.urn.Urn;
@@ -9,6 +10,7 @@ import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchResultMetadata;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.springframework.cache.CacheManager;
@@ -86,6 +88,73 @@ public class CacheableSearcherTest {
             getUrns(0, 40).stream(), getUrns(0, 5).stream()).collect(Collectors.toList()));
   }
 
+  @Test
+  public void testCacheableSearcherInvalidatedByGeneration() {
+    EntitySearchCacheGenerations cacheGenerations = new EntitySearchCacheGenerations();
+    AtomicInteger numSearches = new AtomicInteger();
+    CacheableSearcher<Integer> searcher =
+        new CacheableSearcher<>(cacheManager.getCache("generationSearcher"), 10, qs -> {
+          numSearches.incrementAndGet();
+          return getSearchResult(qs, 10);
+        }, CacheableSearcher.QueryPagination::getFrom, null, true,
+            () -> cacheGenerations.getGeneration("testEntity"));
+
+    searcher.getSearchResults(0, 10);
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 1);
+
+    // Writes to other entity types keep the cached results
+    cacheGenerations.invalidate("otherEntity");
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 1);
+
+    cacheGenerations.invalidate("testEntity");
+    searcher.getSearchResults(0, 10);
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 2);
+
+    // Write counters only invalidate once they change after the first observation
+    cacheGenerations.onWriteCounts(ImmutableMap.of("testEntity", 5L));
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 2);
+    cacheGenerations.onWriteCounts(ImmutableMap.of("testEntity", 6L));
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 3);
+
+    cacheGenerations.invalidateAll();
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 4);
+  }
+
+  @Test
+  public void testCacheableSearcherInvalidatedAgainOnceWritesSettle() throws Exception {
+    EntitySearchCacheGenerations cacheGenerations = new EntitySearchCacheGenerations(200);
+    AtomicInteger numSearches = new AtomicInteger();
+    CacheableSearcher<Integer> searcher =
+        new CacheableSearcher<>(cacheManager.getCache("settleSearcher"), 10, qs -> {
+          numSearches.incrementAndGet();
+          return getSearchResult(qs, 10);
+        }, CacheableSearcher.QueryPagination::getFrom, null, true,
+            () -> cacheGenerations.getGeneration("testEntity"));
+
+    // A search right after a write may not see it yet, and caches that result
+    cacheGenerations.invalidate("testEntity");
+    searcher.getSearchResults(0, 10);
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 1);
+
+    // Once the write has settled the cached result is dropped
+    Thread.sleep(600);
+    searcher.getSearchResults(0, 10);
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 2);
+
+    // Nothing more to settle, so the result stays cached
+    Thread.sleep(600);
+    searcher.getSearchResults(0, 10);
+    assertEquals(numSearches.get(), 2);
+  }
+
   private SearchResult getEmptySearchResult(CacheableSearcher.QueryPagination queryPagination) {
     return new SearchResult().setEntities(new SearchEntityArray())
         .setNumEntities(0)
@@ -0,0 +1,112 @@
+package com.linkedin.metadata.search.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class SingleFlightTest {
+
+  @Test
+  public void testConcurrentCallersShareComputation() throws Exception {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", 10000);
+    AtomicInteger numComputations = new AtomicInteger();
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+        leaderStarted.countDown();
+        await(release);
+        return numComputations.incrementAndGet();
+      }), executor);
+      assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+
+      List<CompletableFuture<Integer>> followers = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        followers.add(CompletableFuture.supplyAsync(
+            () -> singleFlight.execute("key", numComputations::incrementAndGet), executor));
+      }
+      // Give the followers time to join the in-flight computation
+      Thread.sleep(200);
+      release.countDown();
+
+      assertEquals(leader.get(10, TimeUnit.SECONDS).intValue(), 1);
+      for (CompletableFuture<Integer> follower : followers) {
+        assertEquals(follower.get(10, TimeUnit.SECONDS).intValue(), 1);
+      }
+      assertEquals(numComputations.get(), 1);
+
+      // Once completed, the next call computes again
+      assertEquals(singleFlight.execute("key", numComputations::incrementAndGet).intValue(), 2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testWaiterComputesAfterTimeout() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>("test", 50);
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+      leaderStarted.countDown();
+      await(release);
+      return "leader";
+    }));
+    assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+
+    assertEquals(singleFlight.execute("key", () -> "waiter"), "waiter");
+    release.countDown();
+    assertEquals(leader.get(10, TimeUnit.SECONDS), "leader");
+  }
+
+  @Test
+  public void testLeaderFailureIsPropagated() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>("test", 10000);
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+      leaderStarted.countDown();
+      await(release);
+      throw new IllegalStateException("search failed");
+    }));
+    assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+
+    CompletableFuture<String> follower =
+        CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> "follower"));
+    Thread.sleep(200);
+    release.countDown();
+
+    try {
+      follower.join();
+      fail("Expected the leader's failure");
+    } catch (Exception e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    try {
+      leader.join();
+      fail("Expected the leader to fail");
+    } catch (Exception e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -10,6 +10,7 @@ import com.linkedin.metadata.browse.BrowseResult;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
 import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
@@ -72,7 +73,8 @@ public class ElasticSearchServiceTest extends AbstractTestNGSpringContextTests {
     ESSearchDAO searchDAO = new ESSearchDAO(_entityRegistry, _searchClient, _indexConvention);
     ESBrowseDAO browseDAO = new ESBrowseDAO(_entityRegistry, _searchClient, _indexConvention);
     ESWriteDAO writeDAO =
-        new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention, _bulkProcessor, 1);
+        new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention, _bulkProcessor, 1,
+            new EntitySearchCacheGenerations());
     return new ElasticSearchService(indexBuilders, searchDAO, browseDAO, writeDAO);
   }
 
@@ -6,7 +6,12 @@ import com.linkedin.metadata.systemmetadata.SystemMetadataMappingsBuilder;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.client.IndicesClient;
 import org.elasticsearch.client.RequestOptions;
@@ -26,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
@@ -196,4 +202,52 @@ public class ESIndexBuilderTest extends AbstractTestNGSpringContextTests {
         }
     }
 
+    @Test
+    public void testMappingReindexResumesInterruptedReindex() throws Exception {
+        testDefaultBuilder.buildIndex(TEST_INDEX_NAME, SystemMetadataMappingsBuilder.getMappings(), Map.of());
+        for (int i = 0; i < 3; i++) {
+            _searchClient.index(new IndexRequest(TEST_INDEX_NAME).id(String.valueOf(i))
+                    .source(Map.of("urn", "urn:li:test:" + i, "lastUpdated", i))
+                    .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE), RequestOptions.DEFAULT);
+        }
+
+        // A reindex to the changed mappings which was interrupted after copying one document, and a document which
+        // was deleted from the source since
+        Map<String, Object> newProps = ((Map<String, Object>) SystemMetadataMappingsBuilder.getMappings().get("properties"))
+                .entrySet().stream()
+                .map(m -> !m.getKey().equals("urn") ? m
+                        : Map.entry("urn", ImmutableMap.<String, Object>builder().put("type", "wildcard").build()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        String interruptedIndexName = TEST_INDEX_NAME + "_1";
+        ESIndexBuilder.ReindexProgress progress = new ESIndexBuilder.ReindexProgress(interruptedIndexName, 0L,
+                Map.of(TEST_INDEX_NAME, List.of(2L)), "unknown:1", false);
+        _indexClient.create(new CreateIndexRequest(interruptedIndexName)
+                .mapping(Map.of("properties", newProps,
+                        "_meta", Map.of(ESIndexBuilder.REINDEX_META, progress.toMeta(TEST_INDEX_NAME))))
+                .settings(Map.of("index", Map.of("number_of_shards", 1, "number_of_replicas", 0,
+                        "refresh_interval", "-1"))), RequestOptions.DEFAULT);
+        _searchClient.index(new IndexRequest(interruptedIndexName).id("0")
+                .source(Map.of("urn", "urn:li:test:0", "lastUpdated", 0)), RequestOptions.DEFAULT);
+        _searchClient.index(new IndexRequest(interruptedIndexName).id("99")
+                .source(Map.of("urn", "urn:li:test:99", "lastUpdated", 0)), RequestOptions.DEFAULT);
+
+        // A document changed in the source after the copy started
+        _searchClient.index(new IndexRequest(TEST_INDEX_NAME).id("0")
+                .source(Map.of("urn", "urn:li:test:0", "lastUpdated", 10))
+                .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE), RequestOptions.DEFAULT);
+
+        testDefaultBuilder.buildIndex(TEST_INDEX_NAME, Map.of("properties", newProps), Map.of());
+
+        Map.Entry<String, List<AliasMetadata>> newIndex = getTestIndex().getAliases().entrySet().stream()
+                .filter(e -> e.getValue().stream().anyMatch(aliasMeta -> aliasMeta.alias().equals(TEST_INDEX_NAME)))
+                .findFirst().get();
+        assertEquals(newIndex.getKey(), interruptedIndexName, "Expected interrupted reindex to be resumed");
+        assertEquals(_searchClient.count(new CountRequest(TEST_INDEX_NAME), RequestOptions.DEFAULT).getCount(), 3L);
+        assertFalse(_searchClient.exists(new GetRequest(TEST_INDEX_NAME, "99"), RequestOptions.DEFAULT));
+        assertEquals(_searchClient.get(new GetRequest(TEST_INDEX_NAME, "0"), RequestOptions.DEFAULT)
+                .getSourceAsMap().get("lastUpdated"), 10);
+        assertEquals("0", getTestIndex().getSetting(interruptedIndexName, "index.number_of_replicas"));
+        assertEquals("0s", getTestIndex().getSetting(interruptedIndexName, "index.refresh_interval"));
+    }
+
 }
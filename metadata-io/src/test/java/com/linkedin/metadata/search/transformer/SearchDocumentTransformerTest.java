@@ -1,14 +1,31 @@
 package com.linkedin.metadata.search.transformer;
 
+import com.datahub.test.TestEntityInfo;
 import com.datahub.test.TestEntitySnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.schema.DataSchema;
 import com.linkedin.metadata.TestEntitySpecBuilder;
 import com.linkedin.metadata.TestEntityUtil;
+import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.FieldSpec;
+import com.linkedin.metadata.models.SearchScoreFieldSpec;
+import com.linkedin.metadata.models.SearchableFieldSpec;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.snapshot.Snapshot;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.testng.annotations.Test;
 
@@ -72,4 +89,86 @@ public class SearchDocumentTransformerTest {
     parsedJson.get("feature1").getNodeType().equals(JsonNodeType.NULL);
     parsedJson.get("feature2").getNodeType().equals(JsonNodeType.NULL);
   }
+
+  @Test
+  public void testTransformAspectToBytes() {
+    SearchDocumentTransformer searchDocumentTransformer = new SearchDocumentTransformer(1000, 1000);
+    EntityRegistry entityRegistry =
+        new ConfigEntityRegistry(Snapshot.class.getClassLoader().getResourceAsStream("entity-registry.yml"));
+    List<EntitySpec> entitySpecs = new ArrayList<>(entityRegistry.getEntitySpecs().values());
+    entitySpecs.add(TestEntitySpecBuilder.getSpec());
+    Urn urn = TestEntityUtil.getTestEntityUrn();
+
+    int numAspects = 0;
+    for (EntitySpec entitySpec : entitySpecs) {
+      for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+        if (aspectSpec.getSearchableFieldSpecs().isEmpty() && aspectSpec.getSearchScoreFieldSpecs().isEmpty()) {
+          continue;
+        }
+        numAspects++;
+        for (Map<FieldSpec, List<Object>> extractedFields : ImmutableList.of(getSampleFields(aspectSpec),
+            Collections.<FieldSpec, List<Object>>emptyMap())) {
+          for (boolean forDelete : new boolean[]{false, true}) {
+            Optional<String> expected =
+                searchDocumentTransformer.transformAspect(urn, aspectSpec, extractedFields, forDelete);
+            Optional<byte[]> result =
+                searchDocumentTransformer.transformAspectToBytes(urn, aspectSpec, extractedFields, forDelete);
+            assertEquals(result.isPresent(), expected.isPresent());
+            assertEquals(result.get(), expected.get().getBytes(StandardCharsets.UTF_8),
+                String.format("Document of aspect %s of entity %s, forDelete %s: %s", aspectSpec.getName(),
+                    entitySpec.getName(), forDelete, expected.get()));
+          }
+        }
+      }
+    }
+    assertTrue(numAspects > 0);
+
+    AspectSpec testEntityInfoSpec = TestEntitySpecBuilder.getSpec().getAspectSpec("testEntityInfo");
+    TestEntityInfo testEntityInfo = TestEntityUtil.getTestEntityInfo(urn);
+    assertEquals(searchDocumentTransformer.transformAspectToBytes(urn, testEntityInfo, testEntityInfoSpec, false).get(),
+        searchDocumentTransformer.transformAspect(urn, testEntityInfo, testEntityInfoSpec, false)
+            .get()
+            .getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Values of the types extracted for each schema type, including text to escape and empty text
+  private static Map<FieldSpec, List<Object>> getSampleFields(AspectSpec aspectSpec) {
+    Map<FieldSpec, List<Object>> extractedFields = new HashMap<>();
+    for (SearchableFieldSpec fieldSpec : aspectSpec.getSearchableFieldSpecs()) {
+      DataSchema.Type type = fieldSpec.getPegasusSchema().getType();
+      List<Object> values = new ArrayList<>();
+      values.add(getSampleValue(type, 1));
+      if (fieldSpec.isArray() || type == DataSchema.Type.MAP) {
+        values.add(getSampleValue(type, 2));
+      }
+      if (fieldSpec.isArray() && getSampleValue(type, 1) instanceof String) {
+        values.add("");
+      }
+      extractedFields.put(fieldSpec, values);
+    }
+    for (SearchScoreFieldSpec fieldSpec : aspectSpec.getSearchScoreFieldSpecs()) {
+      DataSchema.Type type = fieldSpec.getPegasusSchema().getType();
+      extractedFields.put(fieldSpec, Collections.singletonList(getSampleValue(type, 1)));
+    }
+    return extractedFields;
+  }
+
+  private static Object getSampleValue(DataSchema.Type type, int index) {
+    switch (type) {
+      case BOOLEAN:
+        return index % 2 == 1;
+      case INT:
+        return index;
+      case LONG:
+        return (long) index;
+      case FLOAT:
+        return index + 0.5f;
+      case DOUBLE:
+        return index + 0.25;
+      case MAP:
+        return "key" + index + "=\"value\" " + index;
+      default:
+        return "urn:li:corpuser:\u00e9l\u00e8ve/\"quoted\"\n" + index;
+    }
+  }
 }
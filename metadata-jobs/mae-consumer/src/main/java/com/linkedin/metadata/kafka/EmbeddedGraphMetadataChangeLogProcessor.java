@@ -0,0 +1,220 @@
+package com.linkedin.metadata.kafka;
+
+import com.codahale.metrics.Timer;
+import com.linkedin.gms.factory.common.GraphServiceFactory;
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
+import com.linkedin.metadata.graph.embedded.EmbeddedGraphService;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.service.UpdateIndicesService;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.Topics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Keeps the {@link EmbeddedGraphService} of this GMS instance current from a consumer group of its own, so that every
+ * instance holds the whole graph whichever process runs the MCL consumer. The MCL consumer itself leaves the embedded
+ * graph alone.
+ *
+ * Consumption resumes from the offsets stored with the graph snapshot. When there are none, or the topic no longer
+ * retains them, the graph is first rebuilt from the aspect store, and then consumed from the offsets the topic ended at
+ * before the rebuild started. Reads of the graph fail until it is rebuilt.
+ */
+@Slf4j
+@Component
+@Import({GraphServiceFactory.class, EntityRegistryFactory.class, KafkaEventConsumerFactory.class})
+@EnableKafka
+public class EmbeddedGraphMetadataChangeLogProcessor implements ConsumerSeekAware {
+
+  private static final String LISTENER_ID = "embedded-graph-mae-consumer-job-client";
+  private static final String EMBEDDED_GRAPH_SERVICE_TYPE = "embedded";
+
+  private final EmbeddedGraphService graphService;
+  private final UpdateIndicesService updateIndicesService;
+  private final AtomicBoolean started = new AtomicBoolean();
+
+  @Value("${graphService.type}")
+  private String graphServiceType;
+  @Value("${graphService.embedded.rebuildBatchSize:1000}")
+  private int rebuildBatchSize;
+  @Value("${METADATA_CHANGE_LOG_VERSIONED_TOPIC_NAME:" + Topics.METADATA_CHANGE_LOG_VERSIONED + "}")
+  private String topic;
+
+  // Only available within GMS, which is where the embedded graph serves reads
+  @Autowired(required = false)
+  private EntityService entityService;
+  @Autowired(required = false)
+  @Qualifier("entityAspectDao")
+  private AspectDao aspectDao;
+
+  @Autowired
+  @Qualifier("kafkaEventConsumer")
+  private KafkaListenerContainerFactory<?> kafkaEventConsumer;
+  @Autowired
+  private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+  @Autowired
+  public EmbeddedGraphMetadataChangeLogProcessor(
+      @Nonnull @Qualifier("embeddedGraphService") final EmbeddedGraphService graphService,
+      @Nonnull @Qualifier("entityRegistry") final EntityRegistry entityRegistry,
+      @Value("${featureFlags.graphServiceDiffModeEnabled:false}") final boolean graphDiffMode) {
+    this.graphService = graphService;
+    this.updateIndicesService = new UpdateIndicesService(graphService, null, null, null, entityRegistry, null);
+    this.updateIndicesService.setGraphOnly(true);
+    this.updateIndicesService.setGraphDiffMode(graphDiffMode);
+  }
+
+  /**
+   * Starts consuming events, after rebuilding the graph if needed, if the embedded graph serves reads in this process.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  public void start() {
+    if (!EMBEDDED_GRAPH_SERVICE_TYPE.equalsIgnoreCase(graphServiceType) || entityService == null || aspectDao == null
+        || !started.compareAndSet(false, true)) {
+      return;
+    }
+
+    final Map<Integer, Long> offsets = graphService.getOffsets();
+    if (!offsets.isEmpty() && isRetained(offsets)) {
+      log.info("Consuming the change log into the embedded graph from offsets {}", offsets);
+      kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID).start();
+      return;
+    }
+    if (!(aspectDao instanceof EbeanAspectDao)) {
+      throw new IllegalStateException(String.format("The embedded graph has no snapshot to resume from, with change "
+          + "log offsets %s, and can only be rebuilt from the Ebean aspect store", offsets));
+    }
+
+    graphService.setReady(false);
+    final Thread thread = new Thread(this::rebuild, "embedded-graph-rebuild");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Seeks each partition to the offset the graph has applied the change log up to. Partitions the graph has no offset
+   * for, i.e. added since it was built, are consumed from their beginning.
+   */
+  @Override
+  public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+    final Map<Integer, Long> offsets = graphService.getOffsets();
+    assignments.keySet().forEach(partition ->
+        callback.seek(partition.topic(), partition.partition(), offsets.getOrDefault(partition.partition(), 0L)));
+  }
+
+  @KafkaListener(id = LISTENER_ID,
+      groupId = "${METADATA_CHANGE_LOG_EMBEDDED_GRAPH_KAFKA_CONSUMER_GROUP_ID_PREFIX:"
+          + "embedded-graph-mae-consumer-job-client}-#{T(java.util.UUID).randomUUID().toString()}",
+      topics = { "${METADATA_CHANGE_LOG_VERSIONED_TOPIC_NAME:" + Topics.METADATA_CHANGE_LOG_VERSIONED + "}" },
+      containerFactory = "kafkaEventConsumer",
+      properties = { "auto.offset.reset=earliest" },
+      autoStartup = "false")
+  public void consume(final ConsumerRecord<String, GenericRecord> consumerRecord) {
+    try {
+      apply(EventUtils.avroToPegasusMCL(consumerRecord.value()));
+    } catch (Exception e) {
+      MetricUtils.counter(this.getClass(), "avro_to_pegasus_conversion_failure").inc();
+      log.error("Error deserializing message due to: ", e);
+    }
+    graphService.setOffset(consumerRecord.partition(), consumerRecord.offset() + 1);
+  }
+
+  private void rebuild() {
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "rebuild").time()) {
+      // Every change log event before these offsets was written to the aspect store before the rebuild reads it
+      final Map<Integer, Long> endOffsets;
+      try (Consumer<?, ?> consumer = createConsumer()) {
+        endOffsets = consumer.endOffsets(getPartitions(consumer)).entrySet().stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().partition(), Map.Entry::getValue));
+      }
+      log.info("Rebuilding the embedded graph from the aspect store, then consuming the change log from offsets {}",
+          endOffsets);
+
+      graphService.clear();
+      final RestoreIndicesArgs args = new RestoreIndicesArgs().setBatchSize(rebuildBatchSize);
+      int rows = 0;
+      List<EbeanAspectV2> page = aspectDao.getAspectsAfter(args, null, null);
+      while (!page.isEmpty()) {
+        for (EbeanAspectV2 aspect : page) {
+          final MetadataChangeLog event = entityService.buildRestateMetadataChangeLog(aspect, log::warn);
+          if (event != null) {
+            apply(event);
+          }
+        }
+        rows += page.size();
+        log.debug("Rebuilt the embedded graph from {} aspects", rows);
+        final EbeanAspectV2.PrimaryKey lastKey = page.get(page.size() - 1).getKey();
+        page = aspectDao.getAspectsAfter(args, lastKey.getUrn(), lastKey.getAspect());
+      }
+
+      endOffsets.forEach(graphService::setOffset);
+      graphService.setReady(true);
+      log.info("Rebuilt the embedded graph from {} aspects", rows);
+      kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID).start();
+    } catch (RuntimeException e) {
+      MetricUtils.counter(this.getClass(), "rebuild_failure").inc();
+      log.error("Failed to rebuild the embedded graph, it will not serve reads until the next restart", e);
+    }
+  }
+
+  private void apply(@Nonnull final MetadataChangeLog event) {
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "apply_latency").time()) {
+      updateIndicesService.handleChangeEvent(event);
+    } catch (Exception e) {
+      // Just skip this event and continue. - Note that this represents "at most once" processing.
+      MetricUtils.counter(this.getClass(), "apply_failure").inc();
+      log.error("Failed to apply the change log of urn {}, aspect {} to the embedded graph", event.getEntityUrn(),
+          event.getAspectName(), e);
+    }
+  }
+
+  // Whether the topic still holds every event after the offsets, which is not the case once retention removed some
+  private boolean isRetained(@Nonnull final Map<Integer, Long> offsets) {
+    try (Consumer<?, ?> consumer = createConsumer()) {
+      return consumer.beginningOffsets(getPartitions(consumer)).entrySet().stream()
+          .allMatch(entry -> entry.getValue() <= offsets.getOrDefault(entry.getKey().partition(), 0L));
+    }
+  }
+
+  @Nonnull
+  private Consumer<?, ?> createConsumer() {
+    return ((AbstractKafkaListenerContainerFactory<?, ?, ?>) kafkaEventConsumer).getConsumerFactory().createConsumer();
+  }
+
+  @Nonnull
+  private List<TopicPartition> getPartitions(@Nonnull final Consumer<?, ?> consumer) {
+    return consumer.partitionsFor(topic).stream()
+        .map(info -> new TopicPartition(info.topic(), info.partition()))
+        .collect(Collectors.toList());
+  }
+}
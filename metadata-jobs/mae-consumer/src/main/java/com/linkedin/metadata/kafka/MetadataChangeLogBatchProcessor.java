@@ -0,0 +1,177 @@
+package com.linkedin.metadata.kafka;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.kafka.config.MetadataChangeLogBatchProcessorCondition;
+import com.linkedin.metadata.kafka.hook.BatchMetadataChangeLogHook;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
+import com.linkedin.metadata.kafka.hook.UpdateIndicesHook;
+import com.linkedin.metadata.kafka.hook.event.EntityChangeEventGeneratorHook;
+import com.linkedin.metadata.kafka.hook.ingestion.IngestionSchedulerHook;
+import com.linkedin.metadata.kafka.hook.siblings.SiblingAssociationHook;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.Topics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Batch counterpart of {@link MetadataChangeLogProcessor}, enabled with MCL_CONSUMER_BATCH_ENABLED=true.
+ *
+ * Each poll is split into key-affine lanes by urn, so all events for an urn land in the same lane in the order they
+ * were consumed. Every enabled hook then processes every lane concurrently, and each (hook, lane) pair runs
+ * sequentially, which preserves per-urn ordering for each hook. Hooks implementing {@link BatchMetadataChangeLogHook}
+ * receive a whole lane at once, and each event of the lane on its own if that fails. Offsets are committed once all
+ * hooks have finished with the batch.
+ */
+@Slf4j
+@Component
+@Conditional(MetadataChangeLogBatchProcessorCondition.class)
+@Import({
+    UpdateIndicesHook.class,
+    IngestionSchedulerHook.class,
+    EntityChangeEventGeneratorHook.class,
+    KafkaEventConsumerFactory.class,
+    SiblingAssociationHook.class
+})
+@EnableKafka
+public class MetadataChangeLogBatchProcessor {
+
+  private final List<MetadataChangeLogHook> hooks;
+  private final int lanes;
+  private final ExecutorService hookExecutor;
+  private final Histogram kafkaLagStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "kafkaLag"));
+  private final Histogram batchSizeStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "batchSize"));
+
+  @Autowired
+  public MetadataChangeLogBatchProcessor(
+      @Nonnull final UpdateIndicesHook updateIndicesHook,
+      @Nonnull final IngestionSchedulerHook ingestionSchedulerHook,
+      @Nonnull final EntityChangeEventGeneratorHook entityChangeEventHook,
+      @Nonnull final SiblingAssociationHook siblingAssociationHook,
+      @Value("${kafka.listener.batch.lanes:4}") final int lanes
+  ) {
+    this.hooks = ImmutableList.of(updateIndicesHook, ingestionSchedulerHook, entityChangeEventHook, siblingAssociationHook);
+    this.hooks.forEach(MetadataChangeLogHook::init);
+    this.lanes = Math.max(1, lanes);
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.hookExecutor = Executors.newFixedThreadPool(this.lanes * this.hooks.size(), runnable -> {
+      final Thread thread = new Thread(runnable, "mcl-hook-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @KafkaListener(id = "${METADATA_CHANGE_LOG_KAFKA_CONSUMER_GROUP_ID:generic-mae-consumer-job-client}", topics = {
+      "${METADATA_CHANGE_LOG_VERSIONED_TOPIC_NAME:" + Topics.METADATA_CHANGE_LOG_VERSIONED + "}",
+      "${METADATA_CHANGE_LOG_TIMESERIES_TOPIC_NAME:" + Topics.METADATA_CHANGE_LOG_TIMESERIES
+          + "}"}, containerFactory = "kafkaBatchEventConsumer")
+  public void consume(final List<ConsumerRecord<String, GenericRecord>> consumerRecords) {
+    batchSizeStats.update(consumerRecords.size());
+
+    final List<List<MetadataChangeLog>> eventsByLane = new ArrayList<>(lanes);
+    for (int i = 0; i < lanes; i++) {
+      eventsByLane.add(new ArrayList<>());
+    }
+
+    int received = 0;
+    for (ConsumerRecord<String, GenericRecord> consumerRecord : consumerRecords) {
+      kafkaLagStats.update(System.currentTimeMillis() - consumerRecord.timestamp());
+      final GenericRecord record = consumerRecord.value();
+      log.debug("Got Generic MCL on topic: {}, partition: {}, offset: {}", consumerRecord.topic(),
+          consumerRecord.partition(), consumerRecord.offset());
+      MetricUtils.counter(this.getClass(), "received_mcl_count").inc();
+
+      final MetadataChangeLog event;
+      try {
+        event = EventUtils.avroToPegasusMCL(record);
+      } catch (Exception e) {
+        MetricUtils.counter(this.getClass(), "avro_to_pegasus_conversion_failure").inc();
+        log.error("Error deserializing message due to: ", e);
+        log.error("Message: {}", record.toString());
+        continue;
+      }
+
+      final String key = event.hasEntityUrn() ? event.getEntityUrn().toString() : consumerRecord.key();
+      eventsByLane.get(key == null ? 0 : Math.floorMod(key.hashCode(), lanes)).add(event);
+      received++;
+    }
+
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (MetadataChangeLogHook hook : this.hooks) {
+      if (!hook.isEnabled()) {
+        continue;
+      }
+      for (List<MetadataChangeLog> laneEvents : eventsByLane) {
+        if (!laneEvents.isEmpty()) {
+          futures.add(CompletableFuture.runAsync(() -> invokeHook(hook, laneEvents), hookExecutor));
+        }
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+    MetricUtils.counter(this.getClass(), "consumed_mcl_count").inc(received);
+    log.debug("Successfully completed MCL hooks for batch of {} events", received);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    hookExecutor.shutdown();
+    try {
+      // Let hooks finish the batch in flight, its offsets are only committed once they have
+      if (!hookExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+        hookExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      hookExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void invokeHook(@Nonnull MetadataChangeLogHook hook, @Nonnull List<MetadataChangeLog> events) {
+    if (hook instanceof BatchMetadataChangeLogHook) {
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), hook.getClass().getSimpleName() + "_batch_latency")
+          .time()) {
+        ((BatchMetadataChangeLogHook) hook).invoke(events);
+        return;
+      } catch (Exception e) {
+        // Replay the lane one event at a time, so that only the events which fail on their own are skipped
+        MetricUtils.counter(this.getClass(), hook.getClass().getSimpleName() + "_batch_failure").inc();
+        log.warn("Failed to execute MCL hook with name {} on a batch of {} events, retrying them one by one",
+            hook.getClass().getCanonicalName(), events.size(), e);
+      }
+    }
+    for (MetadataChangeLog event : events) {
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), hook.getClass().getSimpleName() + "_latency")
+          .time()) {
+        hook.invoke(event);
+      } catch (Exception e) {
+        // Just skip this hook and continue. - Note that this represents "at most once" processing.
+        MetricUtils.counter(this.getClass(), hook.getClass().getSimpleName() + "_failure").inc();
+        log.error("Failed to execute MCL hook with name {}", hook.getClass().getCanonicalName(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.linkedin.metadata.kafka;
+
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
+import com.linkedin.metadata.kafka.hook.authorization.MembershipCacheInvalidationHook;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.Topics;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Invokes the hooks that every instance must run, see {@link MetadataChangeLogHook#isPerInstance()}, from a consumer
+ * group of this instance's own.
+ *
+ * Unlike {@link MetadataChangeLogProcessor}, it does not depend on the MCL consumer being enabled: it runs wherever one
+ * of its hooks is enabled, e.g. in every GMS instance even when a standalone MAE consumer applies the other hooks.
+ */
+@Slf4j
+@Component
+@Import({
+    KafkaEventConsumerFactory.class,
+    MembershipCacheInvalidationHook.class
+})
+@EnableKafka
+public class PerInstanceMetadataChangeLogProcessor {
+
+  private static final String LISTENER_ID = "per-instance-mae-consumer-job-client";
+
+  private final List<MetadataChangeLogHook> hooks;
+  @Autowired
+  private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+  @Autowired
+  public PerInstanceMetadataChangeLogProcessor(
+      @Nonnull final MembershipCacheInvalidationHook membershipCacheInvalidationHook) {
+    this.hooks = ImmutableList.<MetadataChangeLogHook>of(membershipCacheInvalidationHook).stream()
+        .filter(hook -> hook.isEnabled() && hook.isPerInstance())
+        .collect(Collectors.toList());
+    this.hooks.forEach(MetadataChangeLogHook::init);
+  }
+
+  /**
+   * Starts consuming events if any of the hooks is enabled in this process.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  public void start() {
+    if (!this.hooks.isEmpty()) {
+      kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID).start();
+    }
+  }
+
+  /**
+   * Events published before the instance started are skipped, as there is no state in memory for them to update yet.
+   */
+  @KafkaListener(id = LISTENER_ID,
+      groupId = "${METADATA_CHANGE_LOG_PER_INSTANCE_KAFKA_CONSUMER_GROUP_ID_PREFIX:"
+          + "per-instance-mae-consumer-job-client}-#{T(java.util.UUID).randomUUID().toString()}",
+      topics = { "${METADATA_CHANGE_LOG_VERSIONED_TOPIC_NAME:" + Topics.METADATA_CHANGE_LOG_VERSIONED + "}" },
+      containerFactory = "kafkaEventConsumer",
+      properties = { "auto.offset.reset=latest" },
+      autoStartup = "false")
+  public void consume(final ConsumerRecord<String, GenericRecord> consumerRecord) {
+    final MetadataChangeLog event;
+    try {
+      event = EventUtils.avroToPegasusMCL(consumerRecord.value());
+    } catch (Exception e) {
+      MetricUtils.counter(this.getClass(), "avro_to_pegasus_conversion_failure").inc();
+      log.error("Error deserializing message due to: ", e);
+      return;
+    }
+
+    for (MetadataChangeLogHook hook : this.hooks) {
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), hook.getClass().getSimpleName() + "_latency")
+          .time()) {
+        hook.invoke(event);
+      } catch (Exception e) {
+        // Just skip this hook and continue. - Note that this represents "at most once" processing.
+        MetricUtils.counter(this.getClass(), hook.getClass().getSimpleName() + "_failure").inc();
+        log.error("Failed to execute MCL hook with name {}", hook.getClass().getCanonicalName(), e);
+      }
+    }
+  }
+}
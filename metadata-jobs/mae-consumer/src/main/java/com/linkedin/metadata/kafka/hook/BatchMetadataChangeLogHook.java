@@ -0,0 +1,23 @@
+package com.linkedin.metadata.kafka.hook;
+
+import com.linkedin.mxe.MetadataChangeLog;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A {@link MetadataChangeLogHook} that can handle several {@link MetadataChangeLog} events at once, for example to
+ * coalesce multiple updates to the same document.
+ *
+ * When the MCL consumer runs in batch mode, hooks implementing this interface receive each lane of a batch in a single
+ * call instead of one call per event. Events for any given urn are always delivered in the order they were consumed,
+ * and within a single call. When a batch call throws, each of its events is then passed on its own to
+ * {@link #invoke(MetadataChangeLog)}, so the hook must tolerate events it partly handled already.
+ */
+public interface BatchMetadataChangeLogHook extends MetadataChangeLogHook {
+
+  /**
+   * Invoke the hook with a batch of MetadataChangeLogs, in per-urn order
+   */
+  void invoke(@Nonnull List<MetadataChangeLog> logs) throws Exception;
+}
@@ -25,6 +25,15 @@ public interface MetadataChangeLogHook {
     return true;
   }
 
+  /**
+   * Return whether every instance must see every event, e.g. because the hook updates state held in memory. Such
+   * hooks are invoked by {@link com.linkedin.metadata.kafka.PerInstanceMetadataChangeLogProcessor} from a consumer
+   * group of each instance's own rather than by the processors sharing one consumer group.
+   */
+  default boolean isPerInstance() {
+    return false;
+  }
+
   /**
    * Invoke the hook when a MetadataChangeLog is received
    */
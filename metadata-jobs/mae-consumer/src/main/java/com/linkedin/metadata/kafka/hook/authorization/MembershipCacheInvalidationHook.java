@@ -0,0 +1,57 @@
+package com.linkedin.metadata.kafka.hook.authorization;
+
+import com.datahub.authorization.DataHubAuthorizer;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
+import com.linkedin.mxe.MetadataChangeLog;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * This hook drops the group and role memberships cached by the {@link DataHubAuthorizer} for a user whenever
+ * they change.
+ *
+ * It is only enabled where an authorizer lives in the same process, i.e. inside GMS, whether or not GMS runs the MCL
+ * consumer. Every instance must see every change, so it is invoked per instance.
+ */
+@Slf4j
+@Component
+@Singleton
+public class MembershipCacheInvalidationHook implements MetadataChangeLogHook {
+
+  private static final Set<String> MEMBERSHIP_ASPECT_NAMES = ImmutableSet.of(
+      Constants.GROUP_MEMBERSHIP_ASPECT_NAME,
+      Constants.NATIVE_GROUP_MEMBERSHIP_ASPECT_NAME,
+      Constants.ROLE_MEMBERSHIP_ASPECT_NAME);
+
+  @Autowired(required = false)
+  @Qualifier("dataHubAuthorizer")
+  private DataHubAuthorizer _authorizer;
+
+  @Override
+  public boolean isEnabled() {
+    return _authorizer != null;
+  }
+
+  @Override
+  public boolean isPerInstance() {
+    return true;
+  }
+
+  @Override
+  public void invoke(@Nonnull MetadataChangeLog event) {
+    if (Constants.CORP_USER_ENTITY_NAME.equals(event.getEntityType())
+        && MEMBERSHIP_ASPECT_NAMES.contains(event.getAspectName())
+        && event.hasEntityUrn()) {
+      log.debug("Invalidating cached memberships of {}", event.getEntityUrn());
+      _authorizer.invalidateMembership(event.getEntityUrn());
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.graph.Edge;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageClosureIndex;
 import com.linkedin.metadata.key.ChartKey;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
@@ -30,16 +31,20 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import com.linkedin.metadata.service.UpdateIndicesService;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
 import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.SystemMetadata;
 import com.linkedin.schema.SchemaField;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static com.linkedin.metadata.Constants.DATASET_ENTITY_NAME;
@@ -67,7 +72,8 @@ public class UpdateIndicesHookTest {
     _actorUrn = UrnUtils.getUrn(TEST_ACTOR_URN);
     EntityRegistry registry = new ConfigEntityRegistry(
         UpdateIndicesHookTest.class.getClassLoader().getResourceAsStream("test-entity-registry.yml"));
-    _mockGraphService = Mockito.mock(GraphService.class);
+    // Runs the default replaceEdgesFromNode, which removes and adds edges through the mocked methods
+    _mockGraphService = Mockito.mock(GraphService.class, Mockito.CALLS_REAL_METHODS);
     _mockEntitySearchService = Mockito.mock(EntitySearchService.class);
     _mockTimeseriesAspectService = Mockito.mock(TimeseriesAspectService.class);
     _mockSystemMetadataService = Mockito.mock(SystemMetadataService.class);
@@ -98,6 +104,84 @@ public class UpdateIndicesHookTest {
     );
   }
 
+  @Test
+  public void testBatchCoalescesUpdatesToSameAspect() throws Exception {
+    Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog event = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    _updateIndicesHook.invoke(Arrays.asList(event, event));
+
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
+  }
+
+  @Test
+  public void testBatchRecordsSystemMetadataOfEveryEvent() throws Exception {
+    Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog first = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    first.setSystemMetadata(new SystemMetadata().setRunId("run-1"));
+    MetadataChangeLog second = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    second.setSystemMetadata(new SystemMetadata().setRunId("run-2"));
+    _updateIndicesHook.invoke(Arrays.asList(first, second));
+
+    InOrder inOrder = Mockito.inOrder(_mockSystemMetadataService);
+    inOrder.verify(_mockSystemMetadataService).insert(Mockito.argThat(metadata -> "run-1".equals(metadata.getRunId())),
+        Mockito.eq(TEST_DATASET_URN), Mockito.eq(Constants.UPSTREAM_LINEAGE_ASPECT_NAME));
+    inOrder.verify(_mockSystemMetadataService).insert(Mockito.argThat(metadata -> "run-2".equals(metadata.getRunId())),
+        Mockito.eq(TEST_DATASET_URN), Mockito.eq(Constants.UPSTREAM_LINEAGE_ASPECT_NAME));
+    // The graph is still only written once for the batch
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
+  }
+
+  @Test
+  public void testEmbeddedGraphIsNotUpdated() throws Exception {
+    _updateIndicesHook.setGraphServiceType("embedded");
+    Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    _updateIndicesHook.invoke(createUpstreamLineageMCL(upstreamUrn, downstreamUrn));
+
+    Mockito.verify(_mockGraphService, Mockito.never()).addEdge(Mockito.any());
+    Mockito.verify(_mockGraphService, Mockito.never()).removeEdgesFromNode(Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(_mockSystemMetadataService, Mockito.times(1)).insert(Mockito.any(), Mockito.eq(TEST_DATASET_URN),
+        Mockito.eq(Constants.UPSTREAM_LINEAGE_ASPECT_NAME));
+  }
+
+  @Test
+  public void testGraphOnlyUpdatesOnlyTheGraph() throws Exception {
+    EntityRegistry registry = new ConfigEntityRegistry(
+        UpdateIndicesHookTest.class.getClassLoader().getResourceAsStream("test-entity-registry.yml"));
+    UpdateIndicesService updateIndicesService =
+        new UpdateIndicesService(_mockGraphService, null, null, null, registry, null);
+    updateIndicesService.setGraphOnly(true);
+    Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog event = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    updateIndicesService.handleChangeEvents(Arrays.asList(event, event));
+
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
+  }
+
+  @Test
+  public void testLineageChangesInvalidateLineageClosureIndex() throws Exception {
+    LineageClosureIndex mockLineageClosureIndex = Mockito.mock(LineageClosureIndex.class);
+    _updateIndicesHook.setLineageClosureIndex(mockLineageClosureIndex, true);
+    Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog event = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    _updateIndicesHook.invoke(event);
+
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Mockito.verify(mockLineageClosureIndex, Mockito.times(1)).onEdgesChanged(
+        Mockito.argThat(edges -> edges.contains(edge)));
+    Mockito.verify(mockLineageClosureIndex, Mockito.times(1)).onNodeChanged(
+        Mockito.eq(downstreamUrn),
+        Mockito.eq(Collections.singleton(DOWNSTREAM_OF))
+    );
+  }
+
   @Test
   public void testInputFieldsEdgesAreAdded() throws Exception {
     Urn upstreamUrn = UrnUtils.getUrn("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:looker,thelook.explore.order_items,PROD),users.count)");
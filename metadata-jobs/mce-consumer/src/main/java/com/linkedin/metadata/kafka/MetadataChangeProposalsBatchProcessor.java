@@ -0,0 +1,156 @@
+package com.linkedin.metadata.kafka;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datahub.authentication.Authentication;
+import com.linkedin.entity.client.RestliEntityClient;
+import com.linkedin.gms.factory.auth.SystemAuthenticationFactory;
+import com.linkedin.gms.factory.entity.RestliEntityClientFactory;
+import com.linkedin.gms.factory.kafka.DataHubKafkaProducerFactory;
+import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.kafka.config.MetadataChangeProposalBatchProcessorCondition;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.FailedMetadataChangeProposal;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.Topics;
+import com.linkedin.restli.client.RestLiResponseException;
+import com.linkedin.restli.common.HttpStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Batch counterpart of {@link MetadataChangeProposalsProcessor}, enabled with MCP_CONSUMER_BATCH_ENABLED=true.
+ *
+ * Each poll is ingested through a single batched ingest call. Proposals are grouped by urn, keeping the order in which
+ * they were consumed for each urn, and offsets are committed only once the listener returns for the batch. If the
+ * server reports that nothing of the batch was committed, the batch is replayed one proposal at a time so that only
+ * the failing proposals end up on the failed proposal topic. Any other failure leaves the outcome unknown, so the whole
+ * batch is sent to the failed proposal topic rather than replayed.
+ */
+@Slf4j
+@Component
+@Import({RestliEntityClientFactory.class, SystemAuthenticationFactory.class, KafkaEventConsumerFactory.class,
+    DataHubKafkaProducerFactory.class})
+@Conditional(MetadataChangeProposalBatchProcessorCondition.class)
+@EnableKafka
+@RequiredArgsConstructor
+public class MetadataChangeProposalsBatchProcessor {
+
+  private final Authentication systemAuthentication;
+  private final RestliEntityClient entityClient;
+  private final Producer<String, IndexedRecord> kafkaProducer;
+
+  private final Histogram kafkaLagStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "kafkaLag"));
+  private final Histogram batchSizeStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "batchSize"));
+
+  @Value("${FAILED_METADATA_CHANGE_PROPOSAL_TOPIC_NAME:" + Topics.FAILED_METADATA_CHANGE_PROPOSAL + "}")
+  private String fmcpTopicName;
+
+  @KafkaListener(id = "${METADATA_CHANGE_PROPOSAL_KAFKA_CONSUMER_GROUP_ID:generic-mce-consumer-job-client}", topics =
+      "${METADATA_CHANGE_PROPOSAL_TOPIC_NAME:" + Topics.METADATA_CHANGE_PROPOSAL
+          + "}", containerFactory = "kafkaBatchEventConsumer")
+  public void consume(final List<ConsumerRecord<String, GenericRecord>> consumerRecords) {
+    batchSizeStats.update(consumerRecords.size());
+
+    // Group by urn, preserving first-seen order across urns and consumption order within each urn
+    final Map<String, List<MetadataChangeProposal>> proposalsByUrn = new LinkedHashMap<>();
+    for (ConsumerRecord<String, GenericRecord> consumerRecord : consumerRecords) {
+      kafkaLagStats.update(System.currentTimeMillis() - consumerRecord.timestamp());
+      final GenericRecord record = consumerRecord.value();
+      log.debug("Record {}", record);
+      try {
+        final MetadataChangeProposal event = EventUtils.avroToPegasusMCP(record);
+        final String key = event.hasEntityUrn() ? event.getEntityUrn().toString() : consumerRecord.key();
+        proposalsByUrn.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+      } catch (Throwable throwable) {
+        log.error("MCP Processor Error", throwable);
+        log.error("Message: {}", record);
+        sendFailedMCP(new MetadataChangeProposal(), throwable);
+      }
+    }
+
+    final List<MetadataChangeProposal> proposals = new ArrayList<>(consumerRecords.size());
+    proposalsByUrn.values().forEach(proposals::addAll);
+    if (proposals.isEmpty()) {
+      return;
+    }
+
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "batchIngestProposals").time()) {
+      // TODO: Get this from the event itself.
+      entityClient.ingestProposalBatch(proposals, this.systemAuthentication, false);
+    } catch (RestLiResponseException e) {
+      if (e.getStatus() == HttpStatus.S_422_UNPROCESSABLE_ENTITY.getCode()) {
+        log.warn("Batch ingest of {} proposals was not committed, retrying them one at a time", proposals.size(), e);
+        MetricUtils.counter(this.getClass(), "batchIngestProposalsFallback").inc();
+        proposals.forEach(this::ingestProposal);
+      } else {
+        sendFailedBatch(proposals, e);
+      }
+    } catch (Throwable throwable) {
+      sendFailedBatch(proposals, throwable);
+    }
+  }
+
+  /**
+   * The batch may have been committed in part or in full, so replaying it could duplicate writes and change logs. Every
+   * proposal is sent to the failed proposal topic instead.
+   */
+  private void sendFailedBatch(@Nonnull List<MetadataChangeProposal> proposals, @Nonnull Throwable throwable) {
+    log.error("Batch ingest of {} proposals failed with an unknown outcome", proposals.size(), throwable);
+    MetricUtils.counter(this.getClass(), "batchIngestProposalsFailed").inc();
+    proposals.forEach(proposal -> sendFailedMCP(proposal, throwable));
+  }
+
+  private void ingestProposal(@Nonnull MetadataChangeProposal event) {
+    try {
+      entityClient.ingestProposal(event, this.systemAuthentication, false);
+    } catch (Throwable throwable) {
+      log.error("MCP Processor Error", throwable);
+      log.error("Message: {}", event);
+      sendFailedMCP(event, throwable);
+    }
+  }
+
+  private void sendFailedMCP(@Nonnull MetadataChangeProposal event, @Nonnull Throwable throwable) {
+    final FailedMetadataChangeProposal failedMetadataChangeProposal = createFailedMCPEvent(event, throwable);
+    try {
+      final GenericRecord genericFailedMCERecord = EventUtils.pegasusToAvroFailedMCP(failedMetadataChangeProposal);
+      log.debug("Sending FailedMessages to topic - {}", fmcpTopicName);
+      log.info("Error while processing FMCP: FailedMetadataChangeProposal - {}", failedMetadataChangeProposal);
+      kafkaProducer.send(new ProducerRecord<>(fmcpTopicName, genericFailedMCERecord));
+    } catch (IOException e) {
+      log.error("Error while sending FailedMetadataChangeProposal: Exception  - {}, FailedMetadataChangeProposal - {}",
+          e.getStackTrace(), failedMetadataChangeProposal);
+    }
+  }
+
+  @Nonnull
+  private FailedMetadataChangeProposal createFailedMCPEvent(@Nonnull MetadataChangeProposal event,
+      @Nonnull Throwable throwable) {
+    final FailedMetadataChangeProposal fmcp = new FailedMetadataChangeProposal();
+    fmcp.setError(ExceptionUtils.getStackTrace(throwable));
+    fmcp.setMetadataChangeProposal(event);
+    return fmcp;
+  }
+}
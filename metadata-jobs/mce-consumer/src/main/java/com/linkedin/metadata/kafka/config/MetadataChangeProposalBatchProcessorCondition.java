@@ -0,0 +1,13 @@
+package com.linkedin.metadata.kafka.config;
+
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+
+public class MetadataChangeProposalBatchProcessorCondition extends MetadataChangeProposalProcessorCondition {
+  @Override
+  public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+    return super.matches(context, metadata) && "true".equals(
+        context.getEnvironment().getProperty("MCP_CONSUMER_BATCH_ENABLED"));
+  }
+}
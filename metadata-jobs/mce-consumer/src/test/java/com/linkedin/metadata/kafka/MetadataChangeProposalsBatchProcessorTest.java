@@ -0,0 +1,136 @@
+package com.linkedin.metadata.kafka;
+
+import com.datahub.authentication.Authentication;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.entity.client.RestliEntityClient;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.Topics;
+import com.linkedin.r2.RemoteInvocationException;
+import com.linkedin.restli.client.RestLiResponseException;
+import com.linkedin.restli.common.HttpStatus;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class MetadataChangeProposalsBatchProcessorTest {
+
+  private static final Urn URN_1 = UrnUtils.getUrn("urn:li:corpuser:a");
+  private static final Urn URN_2 = UrnUtils.getUrn("urn:li:corpuser:b");
+
+  private Authentication _authentication;
+  private RestliEntityClient _entityClient;
+  private Producer<String, IndexedRecord> _producer;
+  private MetadataChangeProposalsBatchProcessor _processor;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    _authentication = mock(Authentication.class);
+    _entityClient = mock(RestliEntityClient.class);
+    _producer = mock(Producer.class);
+    _processor = new MetadataChangeProposalsBatchProcessor(_authentication, _entityClient, _producer);
+
+    final Field topicName = MetadataChangeProposalsBatchProcessor.class.getDeclaredField("fmcpTopicName");
+    topicName.setAccessible(true);
+    topicName.set(_processor, Topics.FAILED_METADATA_CHANGE_PROPOSAL);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGroupsBatchByUrn() throws Exception {
+    _processor.consume(records(proposal(URN_1, "a1"), proposal(URN_2, "b1"), proposal(URN_1, "a2")));
+
+    final ArgumentCaptor<Collection<MetadataChangeProposal>> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(_entityClient).ingestProposalBatch(captor.capture(), eq(_authentication), eq(false));
+    final List<MetadataChangeProposal> batch = new ArrayList<>(captor.getValue());
+    assertEquals(batch.size(), 3);
+    assertEquals(batch.get(0).getEntityUrn(), URN_1);
+    assertEquals(batch.get(0).getAspectName(), "a1");
+    assertEquals(batch.get(1).getEntityUrn(), URN_1);
+    assertEquals(batch.get(1).getAspectName(), "a2");
+    assertEquals(batch.get(2).getEntityUrn(), URN_2);
+
+    verify(_entityClient, never()).ingestProposal(any(), any(), anyBoolean());
+    verify(_producer, never()).send(any());
+  }
+
+  @Test
+  public void testFallsBackWhenNothingWasCommitted() throws Exception {
+    final RestLiResponseException notCommitted = mock(RestLiResponseException.class);
+    when(notCommitted.getStatus()).thenReturn(HttpStatus.S_422_UNPROCESSABLE_ENTITY.getCode());
+    when(_entityClient.ingestProposalBatch(any(), any(), anyBoolean())).thenThrow(notCommitted);
+    when(_entityClient.ingestProposal(argThat(proposal -> "b1".equals(proposal.getAspectName())), any(), anyBoolean()))
+        .thenThrow(new RemoteInvocationException("invalid"));
+
+    _processor.consume(records(proposal(URN_1, "a1"), proposal(URN_2, "b1")));
+
+    verify(_entityClient).ingestProposal(argThat(proposal -> "a1".equals(proposal.getAspectName())),
+        eq(_authentication), eq(false));
+    verify(_entityClient).ingestProposal(argThat(proposal -> "b1".equals(proposal.getAspectName())),
+        eq(_authentication), eq(false));
+    // Only the proposal that failed on its own ends up on the failed proposal topic
+    verify(_producer, times(1)).send(any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDoesNotReplayBatchWithUnknownOutcome() throws Exception {
+    final RestLiResponseException serverError = mock(RestLiResponseException.class);
+    when(serverError.getStatus()).thenReturn(HttpStatus.S_500_INTERNAL_SERVER_ERROR.getCode());
+    when(_entityClient.ingestProposalBatch(any(), any(), anyBoolean())).thenThrow(serverError);
+
+    _processor.consume(records(proposal(URN_1, "a1"), proposal(URN_2, "b1")));
+
+    verify(_entityClient, never()).ingestProposal(any(), any(), anyBoolean());
+    final ArgumentCaptor<ProducerRecord<String, IndexedRecord>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(_producer, times(2)).send(captor.capture());
+    captor.getAllValues().forEach(record -> assertEquals(record.topic(), Topics.FAILED_METADATA_CHANGE_PROPOSAL));
+  }
+
+  @Test
+  public void testDoesNotReplayBatchOnTransportFailure() throws Exception {
+    when(_entityClient.ingestProposalBatch(any(), any(), anyBoolean()))
+        .thenThrow(new RemoteInvocationException("timed out"));
+
+    _processor.consume(records(proposal(URN_1, "a1")));
+
+    verify(_entityClient, never()).ingestProposal(any(), any(), anyBoolean());
+    verify(_producer, times(1)).send(any());
+  }
+
+  private static MetadataChangeProposal proposal(Urn urn, String aspectName) {
+    return new MetadataChangeProposal()
+        .setEntityUrn(urn)
+        .setEntityType(urn.getEntityType())
+        .setAspectName(aspectName)
+        .setChangeType(ChangeType.UPSERT);
+  }
+
+  private static List<ConsumerRecord<String, GenericRecord>> records(MetadataChangeProposal... proposals)
+      throws Exception {
+    final List<ConsumerRecord<String, GenericRecord>> records = new ArrayList<>();
+    for (MetadataChangeProposal proposal : Arrays.asList(proposals)) {
+      records.add(new ConsumerRecord<>(Topics.METADATA_CHANGE_PROPOSAL, 0, records.size(),
+          proposal.getEntityUrn().toString(), EventUtils.pegasusToAvroMCP(proposal)));
+    }
+    return records;
+  }
+}
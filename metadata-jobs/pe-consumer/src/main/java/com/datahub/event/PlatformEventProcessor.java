@@ -3,46 +3,94 @@ package com.datahub.event;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.datahub.event.hook.AccessTokenRevocationHook;
 import com.datahub.event.hook.PlatformEventHook;
+import com.google.common.collect.ImmutableList;
 import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
 import com.linkedin.metadata.EventUtils;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import com.linkedin.mxe.PlatformEvent;
 import com.linkedin.mxe.Topics;
-import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.stereotype.Component;
 
 
 @Slf4j
 @Component
 @Conditional(PlatformEventProcessorCondition.class)
-@Import({KafkaEventConsumerFactory.class})
+@Import({AccessTokenRevocationHook.class, KafkaEventConsumerFactory.class})
 @EnableKafka
 public class PlatformEventProcessor {
 
+  private static final String PER_INSTANCE_LISTENER_ID = "per-instance-platform-event-job-client";
+
   private final List<PlatformEventHook> hooks;
+  private final List<PlatformEventHook> perInstanceHooks;
+  @Autowired
+  private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
   private final Histogram kafkaLagStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "kafkaLag"));
 
   @Autowired
-  public PlatformEventProcessor() {
+  public PlatformEventProcessor(@Nonnull final AccessTokenRevocationHook accessTokenRevocationHook) {
     log.info("Creating Platform Event Processor");
-    this.hooks = Collections.emptyList(); // No event hooks (yet)
+    final List<PlatformEventHook> allHooks = ImmutableList.of(accessTokenRevocationHook);
+    this.hooks = allHooks.stream()
+        .filter(hook -> hook.isEnabled() && !hook.isPerInstance())
+        .collect(Collectors.toList());
+    this.perInstanceHooks = allHooks.stream()
+        .filter(hook -> hook.isEnabled() && hook.isPerInstance())
+        .collect(Collectors.toList());
     this.hooks.forEach(PlatformEventHook::init);
+    this.perInstanceHooks.forEach(PlatformEventHook::init);
   }
 
   @KafkaListener(id = "${PLATFORM_EVENT_KAFKA_CONSUMER_GROUP_ID:generic-platform-event-job-client}", topics = {
       "${PLATFORM_EVENT_TOPIC_NAME:" + Topics.PLATFORM_EVENT + "}" },
       containerFactory = "kafkaEventConsumer")
   public void consume(final ConsumerRecord<String, GenericRecord> consumerRecord) {
+    invokeHooks(consumerRecord, this.hooks);
+  }
+
+  /**
+   * Starts consuming events for the per-instance hooks, if any of them is enabled in this process.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  public void startPerInstanceConsumer() {
+    if (!this.perInstanceHooks.isEmpty()) {
+      kafkaListenerEndpointRegistry.getListenerContainer(PER_INSTANCE_LISTENER_ID).start();
+    }
+  }
+
+  /**
+   * Consumes the same events in a consumer group of this instance's own, for hooks that every instance must run.
+   * Events published before the instance started are skipped, as there is no state in memory for them to update yet.
+   */
+  @KafkaListener(id = PER_INSTANCE_LISTENER_ID,
+      groupId = "${PLATFORM_EVENT_PER_INSTANCE_KAFKA_CONSUMER_GROUP_ID_PREFIX:per-instance-platform-event-job-client}-"
+          + "#{T(java.util.UUID).randomUUID().toString()}",
+      topics = { "${PLATFORM_EVENT_TOPIC_NAME:" + Topics.PLATFORM_EVENT + "}" },
+      containerFactory = "kafkaEventConsumer",
+      properties = { "auto.offset.reset=latest" },
+      autoStartup = "false")
+  public void consumePerInstance(final ConsumerRecord<String, GenericRecord> consumerRecord) {
+    invokeHooks(consumerRecord, this.perInstanceHooks);
+  }
+
+  private void invokeHooks(final ConsumerRecord<String, GenericRecord> consumerRecord,
+      final List<PlatformEventHook> hooks) {
 
     log.info("Consuming a Platform Event");
 
@@ -65,7 +113,7 @@ public class PlatformEventProcessor {
 
     log.debug("Invoking PE hooks for event name {}", event.getName());
 
-    for (PlatformEventHook hook : this.hooks) {
+    for (PlatformEventHook hook : hooks) {
       try (Timer.Context ignored = MetricUtils.timer(this.getClass(), hook.getClass().getSimpleName() + "_latency")
           .time()) {
         hook.invoke(event);
@@ -0,0 +1,49 @@
+package com.datahub.event.hook;
+
+import com.datahub.authentication.token.StatefulTokenService;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.key.DataHubAccessTokenKey;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.PlatformEvent;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * This hook stops the local {@link StatefulTokenService} from trusting an access token revoked on another instance.
+ *
+ * It is only enabled where a token service lives in the same process, i.e. when the consumer runs inside GMS. Every
+ * instance must see every revocation, so it is invoked per instance.
+ */
+@Slf4j
+@Component
+public class AccessTokenRevocationHook implements PlatformEventHook {
+
+  @Autowired(required = false)
+  @Qualifier("dataHubTokenService")
+  private StatefulTokenService _tokenService;
+
+  @Override
+  public boolean isEnabled() {
+    return _tokenService != null;
+  }
+
+  @Override
+  public boolean isPerInstance() {
+    return true;
+  }
+
+  @Override
+  public void invoke(@Nonnull PlatformEvent event) {
+    if (!Constants.ACCESS_TOKEN_REVOKED_PLATFORM_EVENT_NAME.equals(event.getName())) {
+      return;
+    }
+    final DataHubAccessTokenKey key =
+        GenericRecordUtils.deserializePayload(event.getPayload().getValue(), DataHubAccessTokenKey.class);
+    log.debug("Invalidating revoked access token {}", key.getId());
+    _tokenService.invalidateAccessToken(key.getId());
+  }
+}
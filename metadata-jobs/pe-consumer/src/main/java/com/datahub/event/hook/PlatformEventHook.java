@@ -17,6 +17,21 @@ public interface PlatformEventHook {
    */
   default void init() { }
 
+  /**
+   * Return whether the hook is enabled or not. If not enabled, the below invoke method is not triggered
+   */
+  default boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Return whether every instance must see every event, e.g. because the hook updates state held in memory. Such
+   * hooks are invoked from a consumer group of each instance's own rather than the one shared by all instances.
+   */
+  default boolean isPerInstance() {
+    return false;
+  }
+
   /**
    * Invoke the hook when a PlatformEvent is received
    */
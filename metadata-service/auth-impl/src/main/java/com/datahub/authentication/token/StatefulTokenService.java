@@ -1,9 +1,12 @@
 package com.datahub.authentication.token;
 
 import com.datahub.authentication.Actor;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
 import com.linkedin.access.token.DataHubAccessTokenInfo;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
@@ -12,10 +15,14 @@ import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.entity.AspectUtils;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.event.EventProducer;
 import com.linkedin.metadata.key.DataHubAccessTokenKey;
 import com.linkedin.metadata.utils.AuditStampUtils;
 import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.PlatformEvent;
+import com.linkedin.mxe.PlatformEventHeader;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,6 +31,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -34,21 +42,42 @@ import org.apache.commons.lang.ArrayUtils;
 /**
  * Service responsible for generating JWT tokens & managing the associated metadata entities in GMS for use within
  * DataHub that are stored in the entity service so that we can list & revoke tokens as needed.
+ *
+ * Validated tokens are cached by hash, so that a token seen again within the revocation check interval skips parsing,
+ * signature verification and the store lookup. A cached token is served only until its expiration time, and only
+ * while it is not in the bloom filter of revoked token hashes. The filter is fed by revocations on this instance and,
+ * through {@link #invalidateAccessToken(String)}, by the revocation platform events of the other instances.
  */
 @Slf4j
 public class StatefulTokenService extends StatelessTokenService {
 
+  private static final long DEFAULT_VALIDATED_TOKEN_CACHE_SIZE = 10000;
+  private static final long REVOCATION_CHECK_INTERVAL_MINUTES = 5;
+  private static final int REVOKED_TOKEN_FILTER_CAPACITY = 10000;
+  private static final double REVOKED_TOKEN_FILTER_FPP = 0.01;
+
   private final EntityService _entityService;
   private final LoadingCache<String, Boolean> _revokedTokenCache;
+  private final Cache<String, TokenClaims> _validatedTokenCache;
+  private volatile BloomFilter<CharSequence> _revokedTokenFilter = createRevokedTokenFilter();
+  // Bumped by every revocation, so that a validation that raced with one does not cache its result
+  private final AtomicLong _revocationVersion = new AtomicLong();
+  private EventProducer _eventProducer;
   private final String salt;
 
   public StatefulTokenService(@Nonnull final String signingKey, @Nonnull final String signingAlgorithm,
       @Nullable final String iss, @Nonnull final EntityService entityService, @Nonnull final String salt) {
+    this(signingKey, signingAlgorithm, iss, entityService, salt, DEFAULT_VALIDATED_TOKEN_CACHE_SIZE);
+  }
+
+  public StatefulTokenService(@Nonnull final String signingKey, @Nonnull final String signingAlgorithm,
+      @Nullable final String iss, @Nonnull final EntityService entityService, @Nonnull final String salt,
+      final long validatedTokenCacheSize) {
     super(signingKey, signingAlgorithm, iss);
     this._entityService = entityService;
     this._revokedTokenCache = CacheBuilder.newBuilder()
         .maximumSize(10000)
-        .expireAfterWrite(5, TimeUnit.MINUTES)
+        .expireAfterWrite(REVOCATION_CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES)
         .build(new CacheLoader<String, Boolean>() {
           @Override
           public Boolean load(final String key) {
@@ -56,9 +85,22 @@ public class StatefulTokenService extends StatelessTokenService {
             return !_entityService.exists(accessUrn);
           }
         });
+    // Entries expire with the revocation check, so a token revoked elsewhere is never trusted for longer than before.
+    this._validatedTokenCache = CacheBuilder.newBuilder()
+        .maximumSize(validatedTokenCacheSize)
+        .expireAfterWrite(REVOCATION_CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES)
+        .build();
     this.salt = salt;
   }
 
+  /**
+   * Sets the producer used to announce revoked tokens to the other instances. Without one, other instances pick up a
+   * revocation once their cached entry for the token expires.
+   */
+  public void setEventProducer(@Nullable final EventProducer eventProducer) {
+    this._eventProducer = eventProducer;
+  }
+
   /**
    * Generates a JWT for an actor with a default expiration time.
    *
@@ -136,18 +178,27 @@ public class StatefulTokenService extends StatelessTokenService {
   @Nonnull
   @Override
   public TokenClaims validateAccessToken(@Nonnull String accessToken) throws TokenException {
+    final String hash = hash(accessToken);
+    final TokenClaims cachedClaims = _validatedTokenCache.getIfPresent(hash);
+    if (cachedClaims != null) {
+      if (!isExpired(cachedClaims) && !_revokedTokenFilter.mightContain(hash)) {
+        return cachedClaims;
+      }
+      _validatedTokenCache.invalidate(hash);
+    }
+    final long revocationVersion = _revocationVersion.get();
     try {
       final TokenClaims tokenClaims = super.validateAccessToken(accessToken);
       if (tokenClaims.getTokenVersion().equals(TokenVersion.TWO)) {
-        final String hash = hash(accessToken);
         if (_revokedTokenCache.get(hash)) {
           throw new TokenException("Failed to validate DataHub token: Token has been revoked");
         }
       }
+      cacheValidatedToken(hash, tokenClaims, revocationVersion);
       return tokenClaims;
     } catch (final TokenExpiredException e) {
-      // delete entity
-      this.revokeAccessToken(hash(accessToken));
+      // delete entity, other instances reject the token as expired on their own
+      this.revokeAccessToken(hash, false);
       throw e;
     } catch (final ExecutionException e) {
       throw new TokenException("Failed to validate DataHub token: Unable to load token information from store", e);
@@ -155,11 +206,18 @@ public class StatefulTokenService extends StatelessTokenService {
   }
 
   public void revokeAccessToken(@Nonnull String hashedToken) throws TokenException {
+    revokeAccessToken(hashedToken, true);
+  }
+
+  private void revokeAccessToken(@Nonnull String hashedToken, boolean announce) throws TokenException {
     try {
       if (!_revokedTokenCache.get(hashedToken)) {
         final Urn tokenUrn = Urn.createFromTuple(Constants.ACCESS_TOKEN_ENTITY_NAME, hashedToken);
         _entityService.deleteUrn(tokenUrn);
-        _revokedTokenCache.put(hashedToken, true);
+        invalidateAccessToken(hashedToken);
+        if (announce) {
+          produceRevokedEvent(hashedToken);
+        }
         return;
       }
     } catch (ExecutionException e) {
@@ -168,6 +226,57 @@ public class StatefulTokenService extends StatelessTokenService {
     throw new TokenException("Access token no longer exists");
   }
 
+  /**
+   * Stops trusting a token that was revoked, possibly by another instance. Safe to call more than once.
+   */
+  public void invalidateAccessToken(@Nonnull String hashedToken) {
+    _revokedTokenCache.put(hashedToken, true);
+    synchronized (this) {
+      // Starting over is safe: a revoked token is evicted from the validated cache below, and validations racing with
+      // the revocation do not cache their result, so it must be validated against the store again before it is cached.
+      if (_revokedTokenFilter.approximateElementCount() >= REVOKED_TOKEN_FILTER_CAPACITY) {
+        _revokedTokenFilter = createRevokedTokenFilter();
+      }
+      _revokedTokenFilter.put(hashedToken);
+      _revocationVersion.incrementAndGet();
+      _validatedTokenCache.invalidate(hashedToken);
+    }
+  }
+
+  // Caches the claims unless a token was revoked since the validation started, as the revoked token may be this one
+  // and the filter may have been reset since.
+  private void cacheValidatedToken(@Nonnull String hash, @Nonnull TokenClaims tokenClaims, long revocationVersion) {
+    synchronized (this) {
+      if (_revocationVersion.get() == revocationVersion) {
+        _validatedTokenCache.put(hash, tokenClaims);
+      }
+    }
+  }
+
+  private void produceRevokedEvent(@Nonnull String hashedToken) {
+    if (_eventProducer == null) {
+      return;
+    }
+    try {
+      final PlatformEvent event = new PlatformEvent();
+      event.setName(Constants.ACCESS_TOKEN_REVOKED_PLATFORM_EVENT_NAME);
+      event.setHeader(new PlatformEventHeader().setTimestampMillis(System.currentTimeMillis()));
+      event.setPayload(GenericRecordUtils.serializePayload(new DataHubAccessTokenKey().setId(hashedToken)));
+      _eventProducer.producePlatformEvent(Constants.ACCESS_TOKEN_REVOKED_PLATFORM_EVENT_NAME, hashedToken, event);
+    } catch (Exception e) {
+      log.error("Failed to produce access token revoked event", e);
+    }
+  }
+
+  private static boolean isExpired(@Nonnull final TokenClaims claims) {
+    return claims.getExpirationInMs() != null && claims.getExpirationInMs() <= System.currentTimeMillis();
+  }
+
+  private static BloomFilter<CharSequence> createRevokedTokenFilter() {
+    return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), REVOKED_TOKEN_FILTER_CAPACITY,
+        REVOKED_TOKEN_FILTER_FPP);
+  }
+
   /**
    * Hashes the input after salting it.
    */
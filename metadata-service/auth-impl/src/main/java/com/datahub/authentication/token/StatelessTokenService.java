@@ -5,6 +5,7 @@ import com.datahub.authentication.ActorType;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.nio.charset.StandardCharsets;
@@ -38,6 +39,9 @@ public class StatelessTokenService {
   private final String signingKey;
   private final SignatureAlgorithm signingAlgorithm;
   private final String iss;
+  // Both are immutable and thread-safe, so they are built once rather than per token.
+  private final Key secretKey;
+  private final JwtParser jwtParser;
 
   public StatelessTokenService(
       @Nonnull final String signingKey,
@@ -54,6 +58,11 @@ public class StatelessTokenService {
     this.signingKey = Objects.requireNonNull(signingKey);
     this.signingAlgorithm = validateAlgorithm(Objects.requireNonNull(signingAlgorithm));
     this.iss = iss;
+    final byte[] apiKeySecretBytes = this.signingKey.getBytes(StandardCharsets.UTF_8);
+    this.secretKey = new SecretKeySpec(apiKeySecretBytes, this.signingAlgorithm.getJcaName());
+    this.jwtParser = Jwts.parserBuilder()
+        .setSigningKey(Base64.getEncoder().encodeToString(apiKeySecretBytes))
+        .build();
   }
 
   /**
@@ -111,9 +120,7 @@ public class StatelessTokenService {
     if (this.iss != null) {
       builder.setIssuer(this.iss);
     }
-    byte [] apiKeySecretBytes = this.signingKey.getBytes(StandardCharsets.UTF_8);
-    final Key signingKey = new SecretKeySpec(apiKeySecretBytes, this.signingAlgorithm.getJcaName());
-    return builder.signWith(signingKey, this.signingAlgorithm).compact();
+    return builder.signWith(this.secretKey, this.signingAlgorithm).compact();
   }
 
   /**
@@ -125,12 +132,7 @@ public class StatelessTokenService {
   public TokenClaims validateAccessToken(@Nonnull final String accessToken) throws TokenException {
     Objects.requireNonNull(accessToken);
     try {
-      byte [] apiKeySecretBytes = this.signingKey.getBytes(StandardCharsets.UTF_8);
-      final String base64Key = Base64.getEncoder().encodeToString(apiKeySecretBytes);
-      final Jws<Claims> jws = Jwts.parserBuilder()
-          .setSigningKey(base64Key)
-          .build()
-          .parseClaimsJws(accessToken);
+      final Jws<Claims> jws = this.jwtParser.parseClaimsJws(accessToken);
       validateTokenAlgorithm(jws.getHeader().getAlgorithm());
       final Claims claims = jws.getBody();
       final String tokenVersion = claims.get(TokenClaims.TOKEN_VERSION_CLAIM_NAME, String.class);
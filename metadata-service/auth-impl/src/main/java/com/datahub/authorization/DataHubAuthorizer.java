@@ -8,8 +8,9 @@ import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.entity.client.EntityClient;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.policy.DataHubPolicyInfo;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -17,6 +18,7 @@ import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,9 +50,9 @@ public class DataHubAuthorizer implements Authorizer {
   // Credentials used to make / authorize requests as the internal system actor.
   private final Authentication _systemAuthentication;
 
-  // Maps privilege name to the associated set of policies for fast access.
-  // Not concurrent data structure because writes are always against the entire thing.
-  private final Map<String, List<DataHubPolicyInfo>> _policyCache = new HashMap<>(); // Shared Policy Cache.
+  // Index of the policies by privilege, resource type and actor for fast access.
+  // Immutable, the refresh swaps in a new index once all policies have been fetched.
+  private final AtomicReference<PolicyIndex> _policyIndex = new AtomicReference<>(PolicyIndex.EMPTY);
 
   private final ScheduledExecutorService _refreshExecutorService = Executors.newScheduledThreadPool(1);
   private final PolicyRefreshRunnable _policyRefreshRunnable;
@@ -66,10 +68,21 @@ public class DataHubAuthorizer implements Authorizer {
       final int delayIntervalSeconds,
       final int refreshIntervalSeconds,
       final AuthorizationMode mode) {
+    this(systemAuthentication, entityClient, delayIntervalSeconds, refreshIntervalSeconds, mode,
+        new PolicyEngine(systemAuthentication, Objects.requireNonNull(entityClient)));
+  }
+
+  public DataHubAuthorizer(
+      final Authentication systemAuthentication,
+      final EntityClient entityClient,
+      final int delayIntervalSeconds,
+      final int refreshIntervalSeconds,
+      final AuthorizationMode mode,
+      final PolicyEngine policyEngine) {
     _systemAuthentication = Objects.requireNonNull(systemAuthentication);
     _mode = Objects.requireNonNull(mode);
-    _policyEngine = new PolicyEngine(systemAuthentication, Objects.requireNonNull(entityClient));
-    _policyRefreshRunnable = new PolicyRefreshRunnable(systemAuthentication, new PolicyFetcher(entityClient), _policyCache);
+    _policyEngine = Objects.requireNonNull(policyEngine);
+    _policyRefreshRunnable = new PolicyRefreshRunnable(systemAuthentication, new PolicyFetcher(entityClient), _policyIndex);
     _refreshExecutorService.scheduleAtFixedRate(_policyRefreshRunnable, delayIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
   }
 
@@ -88,12 +101,36 @@ public class DataHubAuthorizer implements Authorizer {
 
     Optional<ResolvedResourceSpec> resolvedResourceSpec = request.getResourceSpec().map(_resourceSpecResolver::resolve);
 
-    // 1. Fetch the policies relevant to the requested privilege.
-    final List<DataHubPolicyInfo> policiesToEvaluate = _policyCache.getOrDefault(request.getPrivilege(), new ArrayList<>());
+    if (AuthorizationMode.ALLOW_ALL.equals(mode())) {
+      final List<DataHubPolicyInfo> policies = _policyIndex.get().getPolicies(request.getPrivilege());
+      if (!policies.isEmpty()) {
+        return new AuthorizationResult(request, AuthorizationResult.Type.ALLOW,
+            String.format("Granted by policy with type: %s", policies.get(0).getType()));
+      }
+      return new AuthorizationResult(request, AuthorizationResult.Type.DENY,  null);
+    }
+
+    final Urn actor;
+    try {
+      // Currently Actor must be an urn. Consider whether this contract should be pushed up.
+      actor = Urn.createFromString(request.getActorUrn());
+    } catch (URISyntaxException e) {
+      log.error(String.format("Failed to bind actor %s to an URN. Actors must be URNs. Denying the authorization request",
+          request.getActorUrn()));
+      return new AuthorizationResult(request, AuthorizationResult.Type.DENY,  null);
+    }
+
+    // 1. Fetch the policies that may grant the requested privilege to the actor.
+    final Collection<DataHubPolicyInfo> policiesToEvaluate = _policyIndex.get().getCandidatePolicies(
+        request.getPrivilege(),
+        actor,
+        resolvedResourceSpec,
+        () -> _policyEngine.getGroups(actor),
+        () -> _policyEngine.getRoles(actor));
 
     // 2. Evaluate each policy.
     for (DataHubPolicyInfo policy : policiesToEvaluate) {
-      if (isRequestGranted(policy, request, resolvedResourceSpec)) {
+      if (isRequestGranted(policy, actor, request.getPrivilege(), resolvedResourceSpec)) {
         // Short circuit if policy has granted privileges to this actor.
         return new AuthorizationResult(request, AuthorizationResult.Type.ALLOW,
             String.format("Granted by policy with type: %s", policy.getType()));
@@ -105,7 +142,7 @@ public class DataHubAuthorizer implements Authorizer {
   public List<String> getGrantedPrivileges(final String actorUrn, final Optional<ResourceSpec> resourceSpec) {
 
     // 1. Fetch all policies
-    final List<DataHubPolicyInfo> policiesToEvaluate = _policyCache.getOrDefault(ALL, new ArrayList<>());
+    final List<DataHubPolicyInfo> policiesToEvaluate = _policyIndex.get().getPolicies(ALL);
 
     Optional<ResolvedResourceSpec> resolvedResourceSpec = resourceSpec.map(_resourceSpecResolver::resolve);
 
@@ -120,7 +157,7 @@ public class DataHubAuthorizer implements Authorizer {
       final String privilege,
       final Optional<ResourceSpec> resourceSpec) {
     // Step 1: Find policies granting the privilege.
-    final List<DataHubPolicyInfo> policiesToEvaluate = _policyCache.getOrDefault(privilege, new ArrayList<>());
+    final List<DataHubPolicyInfo> policiesToEvaluate = _policyIndex.get().getPolicies(privilege);
 
     Optional<ResolvedResourceSpec> resolvedResourceSpec = resourceSpec.map(_resourceSpecResolver::resolve);
 
@@ -161,6 +198,14 @@ public class DataHubAuthorizer implements Authorizer {
     _refreshExecutorService.execute(_policyRefreshRunnable);
   }
 
+  /**
+   * Invalidates the cached group and role memberships of an actor. Should be invoked
+   * when the actor's group or role membership changes.
+   */
+  public void invalidateMembership(@Nonnull final Urn actor) {
+    _policyEngine.invalidateMembership(actor);
+  }
+
   public AuthorizationMode mode() {
     return _mode;
   }
@@ -180,14 +225,12 @@ public class DataHubAuthorizer implements Authorizer {
   /**
    * Returns true if a policy grants the requested privilege for a given actor and resource.
    */
-  private boolean isRequestGranted(final DataHubPolicyInfo policy, final AuthorizationRequest request, final Optional<ResolvedResourceSpec> resourceSpec) {
-    if (AuthorizationMode.ALLOW_ALL.equals(mode())) {
-      return true;
-    }
+  private boolean isRequestGranted(final DataHubPolicyInfo policy, final Urn actor, final String privilege,
+      final Optional<ResolvedResourceSpec> resourceSpec) {
     final PolicyEngine.PolicyEvaluationResult result = _policyEngine.evaluatePolicy(
         policy,
-        request.getActorUrn(),
-        request.getPrivilege(),
+        actor,
+        privilege,
         resourceSpec
     );
     return result.isGranted();
@@ -197,7 +240,8 @@ public class DataHubAuthorizer implements Authorizer {
    * A {@link Runnable} used to periodically fetch a new instance of the policies Cache.
    *
    * Currently, the refresh logic is not very smart. When the cache is invalidated, we simply re-fetch the
-   * entire cache using Policies stored in the backend.
+   * entire cache using Policies stored in the backend, and swap in a new {@link PolicyIndex} once all of them
+   * have been fetched.
    */
   @VisibleForTesting
   @RequiredArgsConstructor
@@ -205,13 +249,13 @@ public class DataHubAuthorizer implements Authorizer {
 
     private final Authentication _systemAuthentication;
     private final PolicyFetcher _policyFetcher;
-    private final Map<String, List<DataHubPolicyInfo>> _policyCache;
+    private final AtomicReference<PolicyIndex> _policyIndex;
 
     @Override
     public void run() {
       try {
-        // Populate new cache and swap.
-        Map<String, List<DataHubPolicyInfo>> newCache = new HashMap<>();
+        // Populate new index and swap.
+        final List<DataHubPolicyInfo> policies = new ArrayList<>();
 
         int start = 0;
         int count = 30;
@@ -222,7 +266,7 @@ public class DataHubAuthorizer implements Authorizer {
             final PolicyFetcher.PolicyFetchResult
                 policyFetchResult = _policyFetcher.fetchPolicies(start, count, _systemAuthentication);
 
-            addPoliciesToCache(newCache, policyFetchResult.getPolicies());
+            policyFetchResult.getPolicies().forEach(policy -> policies.add(policy.getPolicyInfo()));
 
             total = policyFetchResult.getTotal();
             start = start + count;
@@ -231,32 +275,12 @@ public class DataHubAuthorizer implements Authorizer {
                 "Failed to retrieve policy urns! Skipping updating policy cache until next refresh. start: {}, count: {}", start, count, e);
             return;
           }
-          synchronized (_policyCache) {
-            _policyCache.clear();
-            _policyCache.putAll(newCache);
-          }
         }
+        _policyIndex.set(new PolicyIndex(policies));
         log.debug(String.format("Successfully fetched %s policies.", total));
       } catch (Exception e) {
         log.error("Caught exception while loading Policy cache. Will retry on next scheduled attempt.", e);
       }
     }
-
-    private void addPoliciesToCache(final Map<String, List<DataHubPolicyInfo>> cache,
-        final List<PolicyFetcher.Policy> policies) {
-      policies.forEach(policy -> addPolicyToCache(cache, policy.getPolicyInfo()));
-    }
-
-    private void addPolicyToCache(final Map<String, List<DataHubPolicyInfo>> cache, final DataHubPolicyInfo policy) {
-      final List<String> privileges = policy.getPrivileges();
-      for (String privilege : privileges) {
-        List<DataHubPolicyInfo> existingPolicies = cache.getOrDefault(privilege, new ArrayList<>());
-        existingPolicies.add(policy);
-        cache.put(privilege, existingPolicies);
-      }
-      List<DataHubPolicyInfo> existingPolicies = cache.getOrDefault(ALL, new ArrayList<>());
-      existingPolicies.add(policy);
-      cache.put(ALL, existingPolicies);
-    }
   }
 }
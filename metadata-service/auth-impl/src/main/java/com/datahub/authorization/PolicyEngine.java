@@ -1,6 +1,8 @@
 package com.datahub.authorization;
 
 import com.datahub.authentication.Authentication;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.UrnUtils;
@@ -27,20 +29,52 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.linkedin.metadata.Constants.*;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class PolicyEngine {
 
+  private static final long DEFAULT_MEMBERSHIP_CACHE_SIZE = 10000;
+  private static final long DEFAULT_MEMBERSHIP_CACHE_TTL_SECONDS = 120;
+  private static final int MEMBERSHIP_VERSION_STRIPES = 1024;
+
   private final Authentication _systemAuthentication;
   private final EntityClient _entityClient;
+  // Group and role memberships of recently evaluated actors, invalidated when their membership aspects change.
+  private final Cache<Urn, Set<Urn>> _groupMembershipCache;
+  private final Cache<Urn, Set<Urn>> _roleMembershipCache;
+  // Bumped by every invalidation of the actors hashed to a stripe, so that a load that raced with the invalidation of
+  // its actor does not cache the membership it read before the change
+  private final AtomicLongArray _membershipVersions = new AtomicLongArray(MEMBERSHIP_VERSION_STRIPES);
+
+  public PolicyEngine(final Authentication systemAuthentication, final EntityClient entityClient) {
+    this(systemAuthentication, entityClient, DEFAULT_MEMBERSHIP_CACHE_SIZE, DEFAULT_MEMBERSHIP_CACHE_TTL_SECONDS);
+  }
+
+  public PolicyEngine(
+      final Authentication systemAuthentication,
+      final EntityClient entityClient,
+      final long membershipCacheSize,
+      final long membershipCacheTtlSeconds) {
+    _systemAuthentication = systemAuthentication;
+    _entityClient = entityClient;
+    _groupMembershipCache = CacheBuilder.newBuilder()
+        .maximumSize(membershipCacheSize)
+        .expireAfterWrite(membershipCacheTtlSeconds, TimeUnit.SECONDS)
+        .build();
+    _roleMembershipCache = CacheBuilder.newBuilder()
+        .maximumSize(membershipCacheSize)
+        .expireAfterWrite(membershipCacheTtlSeconds, TimeUnit.SECONDS)
+        .build();
+  }
 
   public PolicyEvaluationResult evaluatePolicy(
       final DataHubPolicyInfo policy,
@@ -343,7 +377,31 @@ public class PolicyEngine {
     if (context.roles != null) {
       return context.roles;
     }
+    final Set<Urn> roles = getRoles(actor);
+    context.setRoles(roles);
+    return roles;
+  }
+
+  private Set<Urn> resolveGroups(Urn actor, PolicyEvaluationContext context) {
+    if (context.groups != null) {
+      return context.groups;
+    }
+    final Set<Urn> groups = getGroups(actor);
+    context.setGroups(groups); // Cache the groups.
+    return groups;
+  }
+
+  /**
+   * Returns the roles of an actor, from the membership cache when possible.
+   */
+  @Nonnull
+  Set<Urn> getRoles(@Nonnull final Urn actor) {
+    final Set<Urn> cachedRoles = _roleMembershipCache.getIfPresent(actor);
+    if (cachedRoles != null) {
+      return cachedRoles;
+    }
 
+    final long version = getMembershipVersion(actor);
     Set<Urn> roles = new HashSet<>();
     final EnvelopedAspectMap aspectMap;
 
@@ -351,31 +409,35 @@ public class PolicyEngine {
       final EntityResponse corpUser = _entityClient.batchGetV2(CORP_USER_ENTITY_NAME, Collections.singleton(actor),
           Collections.singleton(ROLE_MEMBERSHIP_ASPECT_NAME), _systemAuthentication).get(actor);
       if (corpUser == null || !corpUser.hasAspects()) {
-        return roles;
+        return cacheRoles(actor, roles, version);
       }
       aspectMap = corpUser.getAspects();
     } catch (Exception e) {
+      // Not cached, so that the next evaluation tries again.
       log.error(String.format("Failed to fetch %s for urn %s", ROLE_MEMBERSHIP_ASPECT_NAME, actor), e);
       return roles;
     }
 
-    if (!aspectMap.containsKey(ROLE_MEMBERSHIP_ASPECT_NAME)) {
-      return roles;
-    }
-
-    RoleMembership roleMembership = new RoleMembership(aspectMap.get(ROLE_MEMBERSHIP_ASPECT_NAME).getValue().data());
-    if (roleMembership.hasRoles()) {
-      roles.addAll(roleMembership.getRoles());
-      context.setRoles(roles);
+    if (aspectMap.containsKey(ROLE_MEMBERSHIP_ASPECT_NAME)) {
+      RoleMembership roleMembership = new RoleMembership(aspectMap.get(ROLE_MEMBERSHIP_ASPECT_NAME).getValue().data());
+      if (roleMembership.hasRoles()) {
+        roles.addAll(roleMembership.getRoles());
+      }
     }
-    return roles;
+    return cacheRoles(actor, roles, version);
   }
 
-  private Set<Urn> resolveGroups(Urn actor, PolicyEvaluationContext context) {
-    if (context.groups != null) {
-      return context.groups;
+  /**
+   * Returns the groups of an actor, from the membership cache when possible.
+   */
+  @Nonnull
+  Set<Urn> getGroups(@Nonnull final Urn actor) {
+    final Set<Urn> cachedGroups = _groupMembershipCache.getIfPresent(actor);
+    if (cachedGroups != null) {
+      return cachedGroups;
     }
 
+    final long version = getMembershipVersion(actor);
     Set<Urn> groups = new HashSet<>();
     final EnvelopedAspectMap aspectMap;
 
@@ -384,7 +446,7 @@ public class PolicyEngine {
               ImmutableSet.of(GROUP_MEMBERSHIP_ASPECT_NAME, NATIVE_GROUP_MEMBERSHIP_ASPECT_NAME), _systemAuthentication)
           .get(actor);
       if (corpUser == null || !corpUser.hasAspects()) {
-        return groups;
+        return cacheGroups(actor, groups, version);
       }
       aspectMap = corpUser.getAspects();
     } catch (Exception e) {
@@ -399,11 +461,50 @@ public class PolicyEngine {
     maybeNativeGroupMembership.ifPresent(
         nativeGroupMembership -> groups.addAll(nativeGroupMembership.getNativeGroups()));
 
-    context.setGroups(groups); // Cache the groups.
-    return groups;
+    return cacheGroups(actor, groups, version);
+  }
+
+  /**
+   * Drops the cached group and role memberships of an actor. Should be invoked when they change.
+   */
+  public void invalidateMembership(@Nonnull final Urn actor) {
+    synchronized (this) {
+      _membershipVersions.incrementAndGet(getMembershipStripe(actor));
+      _groupMembershipCache.invalidate(actor);
+      _roleMembershipCache.invalidate(actor);
+    }
+  }
+
+  private long getMembershipVersion(final Urn actor) {
+    return _membershipVersions.get(getMembershipStripe(actor));
+  }
+
+  private static int getMembershipStripe(final Urn actor) {
+    return Math.floorMod(actor.hashCode(), MEMBERSHIP_VERSION_STRIPES);
+  }
+
+  // Caches the groups unless the actor's memberships were invalidated since they were read.
+  private Set<Urn> cacheGroups(final Urn actor, final Set<Urn> groups, final long version) {
+    final Set<Urn> unmodifiableGroups = Collections.unmodifiableSet(groups);
+    synchronized (this) {
+      if (getMembershipVersion(actor) == version) {
+        _groupMembershipCache.put(actor, unmodifiableGroups);
+      }
+    }
+    return unmodifiableGroups;
+  }
+
+  // Caches the roles unless the actor's memberships were invalidated since they were read.
+  private Set<Urn> cacheRoles(final Urn actor, final Set<Urn> roles, final long version) {
+    final Set<Urn> unmodifiableRoles = Collections.unmodifiableSet(roles);
+    synchronized (this) {
+      if (getMembershipVersion(actor) == version) {
+        _roleMembershipCache.put(actor, unmodifiableRoles);
+      }
+    }
+    return unmodifiableRoles;
   }
 
-  // TODO: Optimization - Cache the group membership. Refresh periodically.
   private Optional<GroupMembership> resolveGroupMembership(final EnvelopedAspectMap aspectMap) {
     if (aspectMap.containsKey(GROUP_MEMBERSHIP_ASPECT_NAME)) {
       return Optional.of(new GroupMembership(aspectMap.get(GROUP_MEMBERSHIP_ASPECT_NAME).getValue().data()));
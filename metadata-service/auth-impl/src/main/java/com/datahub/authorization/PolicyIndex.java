@@ -0,0 +1,193 @@
+package com.datahub.authorization;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.authorization.PoliciesConfig;
+import com.linkedin.policy.DataHubActorFilter;
+import com.linkedin.policy.DataHubPolicyInfo;
+import com.linkedin.policy.DataHubResourceFilter;
+import com.linkedin.policy.PolicyMatchCondition;
+import com.linkedin.policy.PolicyMatchCriterion;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+import static com.datahub.authorization.DataHubAuthorizer.ALL;
+
+
+/**
+ * An immutable index of DataHub policies, built once per policy refresh.
+ *
+ * Besides the policies granting each privilege, the index keys every active policy on (privilege, resource type,
+ * actor matcher), so that an authorization request only evaluates the policies naming its actor, one of its groups or
+ * roles, resource owners or all actors, and applying to the type of the requested resource.
+ */
+class PolicyIndex {
+
+  static final PolicyIndex EMPTY = new PolicyIndex(Collections.emptyList());
+
+  // Resource type of policies which are not restricted to particular resource types.
+  private static final String ANY_RESOURCE_TYPE = "*";
+
+  enum MatcherType {
+    ANY_ACTOR,
+    USER,
+    GROUP,
+    ROLE,
+    RESOURCE_OWNERS
+  }
+
+  @Value
+  private static class Key {
+    String privilege;
+    String resourceType;
+    MatcherType matcherType;
+    @Nullable
+    Urn actor;
+  }
+
+  // Maps privilege name, or ALL, to the policies granting it, whatever their state.
+  private final Map<String, List<DataHubPolicyInfo>> _policiesByPrivilege = new HashMap<>();
+  private final Map<Key, List<DataHubPolicyInfo>> _activePolicies = new HashMap<>();
+  private final Set<String> _privilegesMatchingGroups = new HashSet<>();
+  private final Set<String> _privilegesMatchingRoles = new HashSet<>();
+
+  PolicyIndex(@Nonnull final List<DataHubPolicyInfo> policies) {
+    policies.forEach(this::addPolicy);
+  }
+
+  /**
+   * Returns all policies granting a privilege, or all policies for {@link DataHubAuthorizer#ALL}.
+   */
+  @Nonnull
+  List<DataHubPolicyInfo> getPolicies(@Nonnull final String privilege) {
+    return _policiesByPrivilege.getOrDefault(privilege, Collections.emptyList());
+  }
+
+  /**
+   * Returns the active policies which may grant a privilege to an actor on a resource. The candidates still need to be
+   * evaluated. The groups and roles of the actor are only resolved when a policy granting the privilege names any.
+   */
+  @Nonnull
+  Collection<DataHubPolicyInfo> getCandidatePolicies(
+      @Nonnull final String privilege,
+      @Nonnull final Urn actor,
+      @Nonnull final Optional<ResolvedResourceSpec> resource,
+      @Nonnull final Supplier<Set<Urn>> groups,
+      @Nonnull final Supplier<Set<Urn>> roles) {
+    final List<String> resourceTypes = new ArrayList<>();
+    resourceTypes.add(ANY_RESOURCE_TYPE);
+    resource.ifPresent(spec -> resourceTypes.addAll(spec.getFieldValues(ResourceFieldType.RESOURCE_TYPE)));
+
+    final Set<DataHubPolicyInfo> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (String resourceType : resourceTypes) {
+      addCandidates(candidates, privilege, resourceType, MatcherType.ANY_ACTOR, null);
+      addCandidates(candidates, privilege, resourceType, MatcherType.USER, actor);
+      if (resource.isPresent()) {
+        addCandidates(candidates, privilege, resourceType, MatcherType.RESOURCE_OWNERS, null);
+      }
+    }
+    if (_privilegesMatchingGroups.contains(privilege)) {
+      for (Urn group : groups.get()) {
+        resourceTypes.forEach(type -> addCandidates(candidates, privilege, type, MatcherType.GROUP, group));
+      }
+    }
+    if (_privilegesMatchingRoles.contains(privilege)) {
+      for (Urn role : roles.get()) {
+        resourceTypes.forEach(type -> addCandidates(candidates, privilege, type, MatcherType.ROLE, role));
+      }
+    }
+    return candidates;
+  }
+
+  private void addCandidates(
+      final Set<DataHubPolicyInfo> candidates,
+      final String privilege,
+      final String resourceType,
+      final MatcherType matcherType,
+      @Nullable final Urn actor) {
+    final List<DataHubPolicyInfo> policies = _activePolicies.get(new Key(privilege, resourceType, matcherType, actor));
+    if (policies != null) {
+      candidates.addAll(policies);
+    }
+  }
+
+  private void addPolicy(final DataHubPolicyInfo policy) {
+    for (String privilege : policy.getPrivileges()) {
+      _policiesByPrivilege.computeIfAbsent(privilege, key -> new ArrayList<>()).add(policy);
+    }
+    _policiesByPrivilege.computeIfAbsent(ALL, key -> new ArrayList<>()).add(policy);
+
+    // Inactive policies never grant anything.
+    if (PoliciesConfig.INACTIVE_POLICY_STATE.equals(policy.getState())) {
+      return;
+    }
+    final Set<String> resourceTypes = getResourceTypes(policy);
+    final DataHubActorFilter actorFilter = policy.getActors();
+    for (String privilege : policy.getPrivileges()) {
+      for (String resourceType : resourceTypes) {
+        if (actorFilter.isAllUsers() || actorFilter.isAllGroups()) {
+          index(policy, privilege, resourceType, MatcherType.ANY_ACTOR, null);
+        }
+        if (actorFilter.isResourceOwners()) {
+          index(policy, privilege, resourceType, MatcherType.RESOURCE_OWNERS, null);
+        }
+        if (actorFilter.hasUsers()) {
+          actorFilter.getUsers().forEach(user -> index(policy, privilege, resourceType, MatcherType.USER, user));
+        }
+        if (actorFilter.hasGroups()) {
+          actorFilter.getGroups().forEach(group -> index(policy, privilege, resourceType, MatcherType.GROUP, group));
+          _privilegesMatchingGroups.add(privilege);
+        }
+        if (actorFilter.hasRoles()) {
+          actorFilter.getRoles().forEach(role -> index(policy, privilege, resourceType, MatcherType.ROLE, role));
+          _privilegesMatchingRoles.add(privilege);
+        }
+      }
+    }
+  }
+
+  private void index(
+      final DataHubPolicyInfo policy,
+      final String privilege,
+      final String resourceType,
+      final MatcherType matcherType,
+      @Nullable final Urn actor) {
+    _activePolicies.computeIfAbsent(new Key(privilege, resourceType, matcherType, actor), key -> new ArrayList<>())
+        .add(policy);
+  }
+
+  /**
+   * Returns the resource types a policy is restricted to, matching how {@link PolicyEngine} reads the resource filter,
+   * or {@link #ANY_RESOURCE_TYPE} if it is not restricted.
+   */
+  private static Set<String> getResourceTypes(final DataHubPolicyInfo policy) {
+    final DataHubResourceFilter resourceFilter = policy.getResources();
+    if (PoliciesConfig.PLATFORM_POLICY_TYPE.equals(policy.getType()) || resourceFilter == null) {
+      return Collections.singleton(ANY_RESOURCE_TYPE);
+    }
+    if (!resourceFilter.hasFilter()) {
+      return resourceFilter.hasType()
+          ? Collections.singleton(resourceFilter.getType())
+          : Collections.singleton(ANY_RESOURCE_TYPE);
+    }
+    // All criteria must match, so the values of any one resource type criterion bound the matching types.
+    for (PolicyMatchCriterion criterion : resourceFilter.getFilter().getCriteria()) {
+      if (ResourceFieldType.RESOURCE_TYPE.name().equalsIgnoreCase(criterion.getField())
+          && criterion.getCondition() == PolicyMatchCondition.EQUALS) {
+        return new HashSet<>(criterion.getValues());
+      }
+    }
+    return Collections.singleton(ANY_RESOURCE_TYPE);
+  }
+}
@@ -174,4 +174,46 @@ public class StatefulTokenServiceTest {
     // Validation should fail.
     assertThrows(TokenException.class, () -> tokenService.validateAccessToken(token));
   }
+
+  @Test
+  public void testValidateAccessTokenCachesClaimsUntilRevoked() throws Exception {
+    final EntityService entityService = Mockito.mock(EntityService.class);
+    Mockito.when(entityService.exists(Mockito.any(Urn.class))).thenReturn(true);
+    StatefulTokenService tokenService = new StatefulTokenService(TEST_SIGNING_KEY, "HS256", null, entityService, TEST_SALTING_KEY);
+    Actor datahub = new Actor(ActorType.USER, "datahub");
+    String token = tokenService.generateAccessToken(TokenType.PERSONAL, datahub, "some token",
+            "A token description",
+            datahub.toUrnStr());
+
+    TokenClaims claims = tokenService.validateAccessToken(token);
+    assertSame(tokenService.validateAccessToken(token), claims);
+    Mockito.verify(entityService, Mockito.times(1)).exists(Mockito.any(Urn.class));
+
+    // Revoked on another instance.
+    tokenService.invalidateAccessToken(tokenService.hash(token));
+
+    assertThrows(TokenException.class, () -> tokenService.validateAccessToken(token));
+  }
+
+  @Test
+  public void testValidateAccessTokenNotCachedWhenRevokedDuringValidation() throws Exception {
+    final EntityService entityService = Mockito.mock(EntityService.class);
+    StatefulTokenService tokenService = new StatefulTokenService(TEST_SIGNING_KEY, "HS256", null, entityService, TEST_SALTING_KEY);
+    Actor datahub = new Actor(ActorType.USER, "datahub");
+    String token = tokenService.generateAccessToken(TokenType.PERSONAL, datahub, "some token",
+            "A token description",
+            datahub.toUrnStr());
+
+    // The token is revoked after the store said it exists, and enough tokens are revoked after it to reset the filter
+    Mockito.when(entityService.exists(Mockito.any(Urn.class))).thenAnswer(invocation -> {
+      tokenService.invalidateAccessToken(tokenService.hash(token));
+      for (int i = 0; i < 10000; i++) {
+        tokenService.invalidateAccessToken("other" + i);
+      }
+      return true;
+    });
+    tokenService.validateAccessToken(token);
+
+    assertThrows(TokenException.class, () -> tokenService.validateAccessToken(token));
+  }
 }
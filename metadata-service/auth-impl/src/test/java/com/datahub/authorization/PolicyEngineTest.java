@@ -1011,6 +1011,64 @@ public class PolicyEngineTest {
     verify(_entityClient, times(0)).batchGetV2(any(), any(), any(), any());
   }
 
+  @Test
+  public void testEvaluatePolicyCachesGroupMembership() throws Exception {
+    final DataHubPolicyInfo dataHubPolicyInfo = new DataHubPolicyInfo();
+    dataHubPolicyInfo.setType(METADATA_POLICY_TYPE);
+    dataHubPolicyInfo.setState(ACTIVE_POLICY_STATE);
+    dataHubPolicyInfo.setPrivileges(new StringArray("EDIT_ENTITY_TAGS"));
+    dataHubPolicyInfo.setDisplayName("My Test Display");
+    dataHubPolicyInfo.setDescription("My test display!");
+    dataHubPolicyInfo.setEditable(true);
+
+    final DataHubActorFilter actorFilter = new DataHubActorFilter();
+    actorFilter.setGroups(new UrnArray(ImmutableList.of(Urn.createFromString(AUTHORIZED_GROUP))));
+    actorFilter.setResourceOwners(false);
+    actorFilter.setAllUsers(false);
+    actorFilter.setAllGroups(false);
+    dataHubPolicyInfo.setActors(actorFilter);
+
+    ResolvedResourceSpec resourceSpec = buildResourceResolvers("dataset", RESOURCE_URN);
+    assertTrue(_policyEngine.evaluatePolicy(dataHubPolicyInfo, AUTHORIZED_PRINCIPAL, "EDIT_ENTITY_TAGS",
+        Optional.of(resourceSpec)).isGranted());
+    assertTrue(_policyEngine.evaluatePolicy(dataHubPolicyInfo, AUTHORIZED_PRINCIPAL, "EDIT_ENTITY_TAGS",
+        Optional.of(resourceSpec)).isGranted());
+
+    // Second evaluation is served from the membership cache.
+    verify(_entityClient, times(1)).batchGetV2(eq(CORP_USER_ENTITY_NAME), eq(Collections.singleton(authorizedUserUrn)),
+        any(), any());
+
+    _policyEngine.invalidateMembership(authorizedUserUrn);
+    assertTrue(_policyEngine.evaluatePolicy(dataHubPolicyInfo, AUTHORIZED_PRINCIPAL, "EDIT_ENTITY_TAGS",
+        Optional.of(resourceSpec)).isGranted());
+    verify(_entityClient, times(2)).batchGetV2(eq(CORP_USER_ENTITY_NAME), eq(Collections.singleton(authorizedUserUrn)),
+        any(), any());
+  }
+
+  @Test
+  public void testMembershipReadBeforeInvalidationIsNotCached() throws Exception {
+    final EntityResponse authorizedEntityResponse = createAuthorizedEntityResponse();
+    authorizedEntityResponse.setUrn(authorizedUserUrn);
+    final Map<Urn, EntityResponse> authorizedEntityResponseMap =
+        Collections.singletonMap(authorizedUserUrn, authorizedEntityResponse);
+    // The membership changes while it is being read, the read returns the membership from before the change
+    when(_entityClient.batchGetV2(eq(CORP_USER_ENTITY_NAME), eq(Collections.singleton(authorizedUserUrn)), any(),
+        any())).thenAnswer(invocation -> {
+          _policyEngine.invalidateMembership(authorizedUserUrn);
+          return authorizedEntityResponseMap;
+        });
+
+    assertEquals(_policyEngine.getGroups(authorizedUserUrn),
+        Collections.singleton(Urn.createFromString(AUTHORIZED_GROUP)));
+    _policyEngine.getGroups(authorizedUserUrn);
+    assertEquals(_policyEngine.getRoles(authorizedUserUrn).size(), 1);
+    _policyEngine.getRoles(authorizedUserUrn);
+
+    // Every lookup went to the entity client again, as none of the raced reads was cached
+    verify(_entityClient, times(4)).batchGetV2(eq(CORP_USER_ENTITY_NAME),
+        eq(Collections.singleton(authorizedUserUrn)), any(), any());
+  }
+
   private Ownership createOwnershipAspect(final Boolean addUserOwner, final Boolean addGroupOwner) throws Exception {
     final Ownership ownershipAspect = new Ownership();
     final OwnerArray owners = new OwnerArray();
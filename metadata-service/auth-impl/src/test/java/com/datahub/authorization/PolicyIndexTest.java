@@ -0,0 +1,106 @@
+package com.datahub.authorization;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.policy.DataHubActorFilter;
+import com.linkedin.policy.DataHubPolicyInfo;
+import com.linkedin.policy.DataHubResourceFilter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.testng.annotations.Test;
+
+import static com.datahub.authorization.PolicyEngineTest.*;
+import static com.linkedin.metadata.authorization.PoliciesConfig.*;
+import static org.testng.Assert.*;
+
+
+public class PolicyIndexTest {
+
+  private static final Urn USER = UrnUtils.getUrn("urn:li:corpuser:user");
+  private static final Urn OTHER_USER = UrnUtils.getUrn("urn:li:corpuser:other");
+  private static final Urn GROUP = UrnUtils.getUrn("urn:li:corpGroup:group");
+
+  private final DataHubPolicyInfo _userPolicy =
+      createPolicy(ACTIVE_POLICY_STATE, "dataset", ImmutableList.of(USER), Collections.emptyList(), false);
+  private final DataHubPolicyInfo _groupPolicy =
+      createPolicy(ACTIVE_POLICY_STATE, "dataset", Collections.emptyList(), ImmutableList.of(GROUP), false);
+  private final DataHubPolicyInfo _chartOwnersPolicy =
+      createPolicy(ACTIVE_POLICY_STATE, "chart", Collections.emptyList(), Collections.emptyList(), true);
+  private final DataHubPolicyInfo _inactivePolicy =
+      createPolicy(INACTIVE_POLICY_STATE, "dataset", ImmutableList.of(USER), Collections.emptyList(), false);
+
+  private final PolicyIndex _index =
+      new PolicyIndex(ImmutableList.of(_userPolicy, _groupPolicy, _chartOwnersPolicy, _inactivePolicy));
+
+  @Test
+  public void testGetPolicies() {
+    assertEquals(_index.getPolicies("EDIT_ENTITY_TAGS").size(), 4);
+    assertEquals(_index.getPolicies(DataHubAuthorizer.ALL).size(), 4);
+    assertTrue(_index.getPolicies("EDIT_ENTITY_OWNERS").isEmpty());
+  }
+
+  @Test
+  public void testCandidatePolicies() {
+    final Optional<ResolvedResourceSpec> dataset =
+        Optional.of(buildResourceResolvers("dataset", "urn:li:dataset:test"));
+    final Optional<ResolvedResourceSpec> chart = Optional.of(buildResourceResolvers("chart", "urn:li:chart:test"));
+
+    assertEquals(candidates(USER, dataset, Collections.emptySet()), ImmutableSet.of(_userPolicy));
+    assertEquals(candidates(USER, dataset, ImmutableSet.of(GROUP)), ImmutableSet.of(_userPolicy, _groupPolicy));
+    assertTrue(candidates(OTHER_USER, dataset, Collections.emptySet()).isEmpty());
+    assertEquals(candidates(OTHER_USER, chart, ImmutableSet.of(GROUP)), ImmutableSet.of(_chartOwnersPolicy));
+    assertTrue(candidates(USER, Optional.empty(), ImmutableSet.of(GROUP)).isEmpty());
+  }
+
+  @Test
+  public void testMembershipResolvedOnlyWhenNeeded() {
+    final AtomicInteger roleLookups = new AtomicInteger();
+    _index.getCandidatePolicies("EDIT_ENTITY_TAGS", USER, Optional.empty(), Collections::emptySet, () -> {
+      roleLookups.incrementAndGet();
+      return Collections.emptySet();
+    });
+    // No policy names a role.
+    assertEquals(roleLookups.get(), 0);
+  }
+
+  private Set<DataHubPolicyInfo> candidates(Urn actor, Optional<ResolvedResourceSpec> resource, Set<Urn> groups) {
+    final Supplier<Set<Urn>> roles = Collections::emptySet;
+    final Collection<DataHubPolicyInfo> candidates =
+        _index.getCandidatePolicies("EDIT_ENTITY_TAGS", actor, resource, () -> groups, roles);
+    return ImmutableSet.copyOf(candidates);
+  }
+
+  private static DataHubPolicyInfo createPolicy(String state, String resourceType, List<Urn> users, List<Urn> groups,
+      boolean resourceOwners) {
+    final DataHubPolicyInfo dataHubPolicyInfo = new DataHubPolicyInfo();
+    dataHubPolicyInfo.setType(METADATA_POLICY_TYPE);
+    dataHubPolicyInfo.setState(state);
+    dataHubPolicyInfo.setPrivileges(new StringArray("EDIT_ENTITY_TAGS"));
+    dataHubPolicyInfo.setDisplayName("My Test Display");
+    dataHubPolicyInfo.setDescription("My test display!");
+    dataHubPolicyInfo.setEditable(true);
+
+    final DataHubActorFilter actorFilter = new DataHubActorFilter();
+    actorFilter.setUsers(new UrnArray(users));
+    actorFilter.setGroups(new UrnArray(groups));
+    actorFilter.setResourceOwners(resourceOwners);
+    actorFilter.setAllUsers(false);
+    actorFilter.setAllGroups(false);
+    dataHubPolicyInfo.setActors(actorFilter);
+
+    final DataHubResourceFilter resourceFilter = new DataHubResourceFilter();
+    resourceFilter.setAllResources(true);
+    resourceFilter.setType(resourceType);
+    dataHubPolicyInfo.setResources(resourceFilter);
+    return dataHubPolicyInfo;
+  }
+}
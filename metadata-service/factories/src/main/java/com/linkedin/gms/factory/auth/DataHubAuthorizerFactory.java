@@ -2,6 +2,7 @@ package com.linkedin.gms.factory.auth;
 
 import com.datahub.authentication.Authentication;
 import com.datahub.authorization.DataHubAuthorizer;
+import com.datahub.authorization.PolicyEngine;
 import com.linkedin.metadata.client.JavaEntityClient;
 import com.linkedin.gms.factory.entity.RestliEntityClientFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
@@ -32,6 +33,12 @@ public class DataHubAuthorizerFactory {
   @Value("${authorization.defaultAuthorizer.cacheRefreshIntervalSecs}")
   private Integer policyCacheRefreshIntervalSeconds;
 
+  @Value("${authorization.defaultAuthorizer.membershipCacheSize:10000}")
+  private Long membershipCacheSize;
+
+  @Value("${authorization.defaultAuthorizer.membershipCacheTtlSecs:120}")
+  private Long membershipCacheTtlSeconds;
+
   @Value("${authorization.defaultAuthorizer.enabled:true}")
   private Boolean policiesEnabled;
 
@@ -43,7 +50,10 @@ public class DataHubAuthorizerFactory {
     final DataHubAuthorizer.AuthorizationMode mode = policiesEnabled ? DataHubAuthorizer.AuthorizationMode.DEFAULT
         : DataHubAuthorizer.AuthorizationMode.ALLOW_ALL;
 
+    final PolicyEngine policyEngine = new PolicyEngine(systemAuthentication, entityClient, membershipCacheSize,
+        membershipCacheTtlSeconds);
+
     return new DataHubAuthorizer(systemAuthentication, entityClient, 10,
-        policyCacheRefreshIntervalSeconds, mode);
+        policyCacheRefreshIntervalSeconds, mode, policyEngine);
   }
 }
@@ -1,19 +1,23 @@
 package com.linkedin.gms.factory.auth;
 
 import com.datahub.authentication.token.StatefulTokenService;
+import com.linkedin.gms.factory.kafka.DataHubKafkaEventProducerFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.event.EventProducer;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.Scope;
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({DataHubKafkaEventProducerFactory.class})
 public class DataHubTokenServiceFactory {
 
   @Value("${authentication.tokenService.signingKey:}")
@@ -28,6 +32,9 @@ public class DataHubTokenServiceFactory {
   @Value("${elasticsearch.tokenService.issuer:datahub-metadata-service}")
   private String issuer;
 
+  @Value("${authentication.tokenService.validatedTokenCacheSize:10000}")
+  private long validatedTokenCacheSize;
+
   /**
    * +  @Inject
    * +  @Named("entityService")
@@ -38,16 +45,23 @@ public class DataHubTokenServiceFactory {
   @Qualifier("entityService")
   private EntityService entityService;
 
+  @Autowired
+  @Qualifier("kafkaEventProducer")
+  private EventProducer eventProducer;
+
   @Bean(name = "dataHubTokenService")
   @Scope("singleton")
   @Nonnull
   protected StatefulTokenService getInstance() {
-    return new StatefulTokenService(
+    final StatefulTokenService tokenService = new StatefulTokenService(
         this.signingKey,
         this.signingAlgorithm,
         this.issuer,
         this.entityService,
-        this.saltingKey
+        this.saltingKey,
+        this.validatedTokenCacheSize
     );
+    tokenService.setEventProducer(this.eventProducer);
+    return tokenService;
   }
 }
@@ -11,6 +11,7 @@ import com.linkedin.metadata.models.registry.EntityRegistry;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -29,13 +30,26 @@ public class ElasticSearchGraphServiceFactory {
   @Qualifier("entityRegistry")
   private EntityRegistry entityRegistry;
 
+  @Value("${elasticsearch.graph.lineageParallelism}")
+  private Integer lineageParallelism;
+
+  @Value("${elasticsearch.graph.lineageTimeoutSeconds}")
+  private Integer lineageTimeoutSeconds;
+
+  @Value("${elasticsearch.graph.edgeReplacementMode}")
+  private Boolean edgeReplacementMode;
+
   @Bean(name = "elasticSearchGraphService")
   @Nonnull
   protected ElasticSearchGraphService getInstance() {
     LineageRegistry lineageRegistry = new LineageRegistry(entityRegistry);
-    return new ElasticSearchGraphService(lineageRegistry, components.getBulkProcessor(), components.getIndexConvention(),
+    ElasticSearchGraphService graphService = new ElasticSearchGraphService(lineageRegistry,
+        components.getBulkProcessor(), components.getIndexConvention(),
         new ESGraphWriteDAO(components.getIndexConvention(), components.getBulkProcessor(), components.getNumRetries()),
-        new ESGraphQueryDAO(components.getSearchClient(), lineageRegistry, components.getIndexConvention()),
+        new ESGraphQueryDAO(components.getSearchClient(), lineageRegistry, components.getIndexConvention(),
+            lineageParallelism, lineageTimeoutSeconds),
         components.getIndexBuilder());
+    graphService.setEdgeReplacementMode(edgeReplacementMode);
+    return graphService;
   }
 }
@@ -0,0 +1,66 @@
+package com.linkedin.gms.factory.common;
+
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.graph.embedded.EmbeddedGraphService;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Slf4j
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({EntityRegistryFactory.class})
+public class EmbeddedGraphServiceFactory {
+  @Autowired
+  @Qualifier("entityRegistry")
+  private EntityRegistry entityRegistry;
+
+  @Value("${graphService.embedded.snapshotPath:}")
+  private String snapshotPath;
+
+  @Value("${graphService.embedded.snapshotIntervalSeconds:300}")
+  private long snapshotIntervalSeconds;
+
+  @Value("${graphService.embedded.compactionThreshold:100000}")
+  private int compactionThreshold;
+
+  @Bean(name = "embeddedGraphService")
+  @Nonnull
+  protected EmbeddedGraphService getInstance() {
+    final EmbeddedGraphService graphService =
+        new EmbeddedGraphService(new LineageRegistry(entityRegistry), compactionThreshold);
+    if (StringUtils.isEmpty(snapshotPath)) {
+      return graphService;
+    }
+
+    final Path path = Paths.get(snapshotPath);
+    if (Files.exists(path)) {
+      try {
+        graphService.loadSnapshot(path);
+      } catch (IOException e) {
+        // Left without change log offsets, the graph is rebuilt from the aspect store before serving reads
+        log.error("Failed to load graph snapshot from {}, the graph will be rebuilt", path, e);
+        graphService.clear();
+      }
+    }
+    if (snapshotIntervalSeconds > 0) {
+      graphService.scheduleSnapshots(path, snapshotIntervalSeconds);
+    }
+    return graphService;
+  }
+}
@@ -0,0 +1,61 @@
+package com.linkedin.gms.factory.common;
+
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.gms.factory.search.BaseElasticSearchComponentsFactory;
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.graph.LineageClosureIndex;
+import com.linkedin.metadata.graph.elastic.ESLineageClosureIndex;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({BaseElasticSearchComponentsFactory.class, EntityRegistryFactory.class})
+public class LineageClosureIndexFactory {
+  @Autowired
+  @Qualifier("baseElasticSearchComponents")
+  private BaseElasticSearchComponentsFactory.BaseElasticSearchComponents components;
+
+  @Autowired
+  @Qualifier("entityRegistry")
+  private EntityRegistry entityRegistry;
+
+  @Value("${graphService.lineageClosureIndex.enabled}")
+  private Boolean enabled;
+
+  @Value("${graphService.lineageClosureIndex.maxRelationships}")
+  private Integer maxRelationships;
+
+  @Value("${graphService.lineageClosureIndex.maxAgeSeconds}")
+  private Long maxAgeSeconds;
+
+  @Value("${graphService.lineageClosureIndex.invalidationBatchMs}")
+  private Long invalidationBatchMs;
+
+  @Value("${graphService.lineageClosureIndex.invalidationGraceSeconds}")
+  private Long invalidationGraceSeconds;
+
+  @Bean(name = "lineageClosureIndex")
+  @Nonnull
+  protected LineageClosureIndex getInstance() {
+    LineageClosureIndex lineageClosureIndex = new ESLineageClosureIndex(components.getSearchClient(),
+        components.getIndexBuilder(), components.getIndexConvention(), components.getBulkProcessor(),
+        new LineageRegistry(entityRegistry), entityRegistry.getEntitySpecs().keySet(), maxRelationships,
+        TimeUnit.SECONDS.toMillis(maxAgeSeconds), invalidationBatchMs,
+        TimeUnit.SECONDS.toMillis(invalidationGraceSeconds));
+    if (enabled) {
+      lineageClosureIndex.configure();
+    }
+    return lineageClosureIndex;
+  }
+}
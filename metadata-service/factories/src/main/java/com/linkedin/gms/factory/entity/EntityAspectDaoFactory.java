@@ -3,8 +3,15 @@ package com.linkedin.gms.factory.entity;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.linkedin.metadata.entity.AspectDao;
 import com.linkedin.metadata.entity.cassandra.CassandraAspectDao;
+import com.linkedin.metadata.entity.codec.AspectCodecs;
 import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
 import io.ebean.EbeanServer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,12 +22,43 @@ import javax.annotation.Nonnull;
 @Configuration
 public class EntityAspectDaoFactory {
 
+  @Value("${ebean.batchGetParallelism:4}")
+  private int batchGetParallelism;
+
+  @Value("${ebean.batchGetQueueSize:100}")
+  private int batchGetQueueSize;
+
+  @Value("${cassandra.maxConcurrentRequests:32}")
+  private int cassandraMaxConcurrentRequests;
+
+  @Value("${entityService.aspectCodec:json}")
+  private String aspectCodec;
+
   @Bean(name = "entityAspectDao")
   @DependsOn({"gmsEbeanServiceConfig"})
   @ConditionalOnProperty(name = "entityService.impl", havingValue = "ebean", matchIfMissing = true)
   @Nonnull
   protected AspectDao createEbeanInstance(EbeanServer server) {
-    return new EbeanAspectDao(server);
+    final EbeanAspectDao aspectDao = new EbeanAspectDao(server, createBatchGetExecutor());
+    aspectDao.setAspectCodec(AspectCodecs.forName(aspectCodec));
+    return aspectDao;
+  }
+
+  /**
+   * Bounded pool running the paged batch get sub queries. When the queue is full the calling thread runs the sub query
+   * itself, which keeps the number of connections taken from the pool bounded.
+   */
+  private ExecutorService createBatchGetExecutor() {
+    if (batchGetParallelism <= 1) {
+      return null;
+    }
+    final AtomicInteger threadCount = new AtomicInteger();
+    return new ThreadPoolExecutor(batchGetParallelism, batchGetParallelism, 60L, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(batchGetQueueSize), runnable -> {
+          final Thread thread = new Thread(runnable, "ebean-batch-get-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
   }
 
   @Bean(name = "entityAspectDao")
@@ -28,6 +66,8 @@ public class EntityAspectDaoFactory {
   @ConditionalOnProperty(name = "entityService.impl", havingValue = "cassandra")
   @Nonnull
   protected AspectDao createCassandraInstance(CqlSession session) {
-    return new CassandraAspectDao(session);
+    final CassandraAspectDao aspectDao = new CassandraAspectDao(session, cassandraMaxConcurrentRequests);
+    aspectDao.setAspectCodec(AspectCodecs.forName(aspectCodec));
+    return aspectDao;
   }
 }
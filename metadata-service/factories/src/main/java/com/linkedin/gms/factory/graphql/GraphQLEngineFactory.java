@@ -146,50 +146,24 @@ public class GraphQLEngineFactory {
   @Value("${platformAnalytics.enabled}") // TODO: Migrate to DATAHUB_ANALYTICS_ENABLED
   private Boolean isAnalyticsEnabled;
 
+  @Value("${graphQL.query.documentCacheSize:1000}")
+  private long documentCacheSize;
+
+  @Value("${graphQL.query.persistedQueryCacheSize:1000}")
+  private long persistedQueryCacheSize;
+
+  @Value("${graphQL.query.tracingSampleRate:0.1}")
+  private double tracingSampleRate;
+
 
   @Bean(name = "graphQLEngine")
   @Nonnull
   protected GraphQLEngine getInstance() {
-    if (isAnalyticsEnabled) {
-      return new GmsGraphQLEngine(
-          _entityClient,
-          _graphClient,
-          _usageClient,
-          new AnalyticsService(elasticClient, indexConvention),
-          _entityService,
-          _recommendationsService,
-          _statefulTokenService,
-          _timeseriesAspectService,
-          _entityRegistry,
-          _secretService,
-          _nativeUserService,
-          _configProvider.getIngestion(),
-          _configProvider.getAuthentication(),
-          _configProvider.getAuthorization(),
-          _gitVersion,
-          _timelineService,
-          _graphService.supportsMultiHop(),
-          _configProvider.getVisualConfig(),
-          _configProvider.getTelemetry(),
-          _configProvider.getMetadataTests(),
-          _configProvider.getDatahub(),
-          _configProvider.getViews(),
-          _siblingGraphService,
-          _groupService,
-          _roleService,
-          _inviteTokenService,
-          _postService,
-          _viewService,
-          _settingsService,
-          _lineageService,
-          _configProvider.getFeatureFlags()
-          ).builder().build();
-    }
     return new GmsGraphQLEngine(
         _entityClient,
         _graphClient,
         _usageClient,
-        null,
+        isAnalyticsEnabled ? new AnalyticsService(elasticClient, indexConvention) : null,
         _entityService,
         _recommendationsService,
         _statefulTokenService,
@@ -217,6 +191,10 @@ public class GraphQLEngineFactory {
         _settingsService,
         _lineageService,
         _configProvider.getFeatureFlags()
-    ).builder().build();
+    ).builder()
+        .setDocumentCacheSize(documentCacheSize)
+        .setPersistedQueryCacheSize(persistedQueryCacheSize)
+        .setTracingSampleRate(tracingSampleRate)
+        .build();
   }
 }
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -23,6 +24,7 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.KafkaListenerContainerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 
 
 @Slf4j
@@ -41,6 +43,15 @@ public class KafkaEventConsumerFactory {
   @Value("${kafka.listener.concurrency:1}")
   private Integer kafkaListenerConcurrency;
 
+  @Value("${kafka.listener.batch.maxRecords:500}")
+  private Integer kafkaListenerBatchMaxRecords;
+
+  @Value("${kafka.listener.batch.maxWaitMs:500}")
+  private Integer kafkaListenerBatchMaxWaitMs;
+
+  @Value("${kafka.listener.batch.minBytes:1048576}")
+  private Integer kafkaListenerBatchMinBytes;
+
   @Autowired
   @Lazy
   @Qualifier("kafkaSchemaRegistry")
@@ -54,6 +65,47 @@ public class KafkaEventConsumerFactory {
   @Bean(name = "kafkaEventConsumer")
   protected KafkaListenerContainerFactory<?> createInstance(KafkaProperties properties) {
 
+    Map<String, Object> props = buildConsumerProperties(properties);
+
+    ConcurrentKafkaListenerContainerFactory<String, GenericRecord> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+    factory.setContainerCustomizer(new ThreadPoolContainerCustomizer());
+    factory.setConcurrency(this.kafkaListenerConcurrency);
+
+    log.info("Event-based KafkaListenerContainerFactory built successfully");
+
+    return factory;
+  }
+
+  /**
+   * Container factory for listeners that consume a whole poll at a time. Each poll waits for up to
+   * kafka.listener.batch.maxRecords records or kafka.listener.batch.maxWaitMs milliseconds, whichever comes first, and
+   * offsets are committed only once the listener has returned for the batch.
+   */
+  @Bean(name = "kafkaBatchEventConsumer")
+  protected KafkaListenerContainerFactory<?> createBatchInstance(KafkaProperties properties) {
+
+    Map<String, Object> props = buildConsumerProperties(properties);
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, kafkaListenerBatchMaxRecords);
+    props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, kafkaListenerBatchMaxWaitMs);
+    props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, kafkaListenerBatchMinBytes);
+
+    ConcurrentKafkaListenerContainerFactory<String, GenericRecord> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+    factory.setContainerCustomizer(new ThreadPoolContainerCustomizer());
+    factory.setConcurrency(this.kafkaListenerConcurrency);
+    factory.setBatchListener(true);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+    log.info("Event-based batch KafkaListenerContainerFactory built successfully");
+
+    return factory;
+  }
+
+  private Map<String, Object> buildConsumerProperties(KafkaProperties properties) {
     KafkaProperties.Consumer consumerProps = properties.getConsumer();
 
     // Specify (de)serializers for record keys and for record values.
@@ -83,14 +135,6 @@ public class KafkaEventConsumerFactory {
       .filter(entry -> entry.getValue() != null && !entry.getValue().toString().isEmpty())
       .forEach(entry -> props.put(entry.getKey(), entry.getValue())); 
 
-    ConcurrentKafkaListenerContainerFactory<String, GenericRecord> factory =
-        new ConcurrentKafkaListenerContainerFactory<>();
-    factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
-    factory.setContainerCustomizer(new ThreadPoolContainerCustomizer());
-    factory.setConcurrency(this.kafkaListenerConcurrency);
-
-    log.info("Event-based KafkaListenerContainerFactory built successfully");
-
-    return factory;
+    return props;
   }
 }
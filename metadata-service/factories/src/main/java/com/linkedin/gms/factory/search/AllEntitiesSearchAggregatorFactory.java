@@ -9,6 +9,7 @@ import com.linkedin.metadata.search.ranker.SearchRanker;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -35,6 +36,9 @@ public class AllEntitiesSearchAggregatorFactory {
   @Qualifier("searchRanker")
   private SearchRanker searchRanker;
 
+  @Value("${searchService.multiIndexQuery:false}")
+  private boolean multiIndexQuery;
+
   @Bean(name = "allEntitiesSearchAggregator")
   @Primary
   @Nonnull
@@ -43,6 +47,7 @@ public class AllEntitiesSearchAggregatorFactory {
         entityRegistry,
         entitySearchService,
         cachingEntitySearchService,
-        searchRanker);
+        searchRanker,
+        multiIndexQuery);
   }
 }
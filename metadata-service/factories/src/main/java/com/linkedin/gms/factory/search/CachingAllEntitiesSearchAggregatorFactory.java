@@ -3,6 +3,7 @@ package com.linkedin.gms.factory.search;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.search.aggregator.AllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.cache.CachingAllEntitiesSearchAggregator;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -10,12 +11,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({EntitySearchCacheGenerationsFactory.class})
 public class CachingAllEntitiesSearchAggregatorFactory {
 
   @Autowired
@@ -31,6 +34,10 @@ public class CachingAllEntitiesSearchAggregatorFactory {
   @Value("${searchService.enableCache}")
   private Boolean enableCache;
 
+  @Autowired
+  @Qualifier("entitySearchCacheGenerations")
+  private EntitySearchCacheGenerations cacheGenerations;
+
   @Bean(name = "cachingAllEntitiesSearchAggregator")
   @Primary
   @Nonnull
@@ -39,6 +46,7 @@ public class CachingAllEntitiesSearchAggregatorFactory {
         cacheManager,
         allEntitiesSearchAggregator,
         batchSize,
-        enableCache);
+        enableCache,
+        cacheGenerations);
   }
 }
@@ -2,6 +2,7 @@ package com.linkedin.gms.factory.search;
 
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.search.client.CachingEntitySearchService;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +11,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({EntitySearchCacheGenerationsFactory.class})
 public class CachingEntitySearchServiceFactory {
 
   @Autowired
@@ -31,6 +34,10 @@ public class CachingEntitySearchServiceFactory {
   @Value("${searchService.enableCache}")
   private Boolean enableCache;
 
+  @Autowired
+  @Qualifier("entitySearchCacheGenerations")
+  private EntitySearchCacheGenerations cacheGenerations;
+
   @Bean(name = "cachingEntitySearchService")
   @Primary
   @Nonnull
@@ -39,6 +46,7 @@ public class CachingEntitySearchServiceFactory {
         cacheManager,
         entitySearchService,
         batchSize,
-        enableCache);
+        enableCache,
+        cacheGenerations);
   }
 }
\ No newline at end of file
@@ -44,6 +44,18 @@ public class ElasticSearchBulkProcessorFactory {
   @Value("${elasticsearch.bulkProcessor.refreshPolicy}")
   private String refreshPolicy;
 
+  @Value("${elasticsearch.bulkProcessor.adaptive:false}")
+  private boolean adaptive;
+
+  @Value("${elasticsearch.bulkProcessor.sizeBytes:5242880}")
+  private Long bulkSizeBytes;
+
+  @Value("${elasticsearch.bulkProcessor.maxConcurrentRequests:4}")
+  private Integer maxConcurrentRequests;
+
+  @Value("${elasticsearch.bulkProcessor.targetLatencyMs:1000}")
+  private Long targetLatencyMillis;
+
   @Bean(name = "elasticSearchBulkProcessor")
   @Nonnull
   protected ESBulkProcessor getInstance() {
@@ -53,6 +65,10 @@ public class ElasticSearchBulkProcessorFactory {
             .bulkRequestsLimit(bulkRequestsLimit)
             .retryInterval(retryInterval)
             .numRetries(numRetries)
+            .adaptive(adaptive)
+            .bulkSizeBytes(bulkSizeBytes)
+            .maxConcurrentRequests(maxConcurrentRequests)
+            .targetLatencyMillis(targetLatencyMillis)
             .writeRequestRefreshPolicy(WriteRequest.RefreshPolicy.valueOf(refreshPolicy))
             .build();
   }
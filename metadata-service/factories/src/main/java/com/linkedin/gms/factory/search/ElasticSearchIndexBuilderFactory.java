@@ -57,6 +57,12 @@ public class ElasticSearchIndexBuilderFactory {
   @Value("#{new Boolean('${elasticsearch.index.enableSettingsReindex}')}")
   private boolean enableSettingsReindex;
 
+  @Value("${elasticsearch.index.reindexSlices:0}")
+  private Integer reindexSlices;
+
+  @Value("${elasticsearch.index.reindexRequestsPerSecond:0}")
+  private Float reindexRequestsPerSecond;
+
   @Bean(name = "elasticSearchIndexSettingsOverrides")
   @Nonnull
   protected Map<String, Map<String, String>> getIndexSettingsOverrides(
@@ -75,7 +81,7 @@ public class ElasticSearchIndexBuilderFactory {
   protected ESIndexBuilder getInstance(
           @Qualifier("elasticSearchIndexSettingsOverrides") Map<String, Map<String, String>> overrides) {
     return new ESIndexBuilder(searchClient, numShards, numReplicas, numRetries, refreshIntervalSeconds, overrides,
-            enableSettingsReindex);
+            enableSettingsReindex, reindexSlices, reindexRequestsPerSecond);
   }
 
   @Nonnull
@@ -3,6 +3,7 @@ package com.linkedin.gms.factory.search;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
@@ -20,7 +21,7 @@ import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
-@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class})
+@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class, EntitySearchCacheGenerationsFactory.class})
 public class ElasticSearchServiceFactory {
   @Autowired
   @Qualifier("baseElasticSearchComponents")
@@ -34,6 +35,10 @@ public class ElasticSearchServiceFactory {
   @Qualifier("settingsBuilder")
   private SettingsBuilder settingsBuilder;
 
+  @Autowired
+  @Qualifier("entitySearchCacheGenerations")
+  private EntitySearchCacheGenerations cacheGenerations;
+
   @Bean(name = "elasticSearchService")
   @Nonnull
   protected ElasticSearchService getInstance() {
@@ -44,6 +49,6 @@ public class ElasticSearchServiceFactory {
             settingsBuilder), esSearchDAO,
         new ESBrowseDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention()),
         new ESWriteDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
-            components.getBulkProcessor(), components.getNumRetries()));
+            components.getBulkProcessor(), components.getNumRetries(), cacheGenerations));
   }
 }
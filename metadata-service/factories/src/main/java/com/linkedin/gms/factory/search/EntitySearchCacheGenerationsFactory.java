@@ -0,0 +1,51 @@
+package com.linkedin.gms.factory.search;
+
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.cache.EntitySearchCacheGenerations;
+import com.linkedin.metadata.search.elasticsearch.update.ESWriteCountPoller;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({EntityRegistryFactory.class})
+public class EntitySearchCacheGenerationsFactory {
+  @Autowired
+  @Qualifier("baseElasticSearchComponents")
+  private BaseElasticSearchComponentsFactory.BaseElasticSearchComponents components;
+
+  @Autowired
+  @Qualifier("entityRegistry")
+  private EntityRegistry entityRegistry;
+
+  @Value("${searchService.enableCache}")
+  private Boolean enableCache;
+
+  @Value("${searchService.cache.generationPollIntervalMs}")
+  private Long generationPollIntervalMs;
+
+  @Value("${searchService.cache.generationSettleMs}")
+  private Long generationSettleMs;
+
+  @Bean(name = "entitySearchCacheGenerations")
+  @Nonnull
+  protected EntitySearchCacheGenerations getInstance() {
+    final EntitySearchCacheGenerations cacheGenerations =
+        new EntitySearchCacheGenerations(enableCache ? generationSettleMs : 0);
+    // Only instances serving cached search results need to hear about writes made elsewhere
+    if (enableCache && generationPollIntervalMs > 0) {
+      new ESWriteCountPoller(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
+          cacheGenerations).start(generationPollIntervalMs);
+    }
+    return cacheGenerations;
+  }
+}
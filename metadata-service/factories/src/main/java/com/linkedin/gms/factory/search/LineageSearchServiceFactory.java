@@ -1,12 +1,15 @@
 package com.linkedin.gms.factory.search;
 
 import com.linkedin.gms.factory.common.GraphServiceFactory;
+import com.linkedin.gms.factory.common.LineageClosureIndexFactory;
 import com.linkedin.gms.factory.config.ConfigurationProvider;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageClosureIndex;
 import com.linkedin.metadata.search.LineageSearchService;
 import com.linkedin.metadata.search.SearchService;
 import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,17 +19,25 @@ import org.springframework.context.annotation.PropertySource;
 
 
 @Configuration
-@Import({GraphServiceFactory.class})
+@Import({GraphServiceFactory.class, LineageClosureIndexFactory.class})
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
 public class LineageSearchServiceFactory {
 
+  @Value("${graphService.lineageClosureIndex.enabled}")
+  private Boolean lineageClosureIndexEnabled;
+
   @Bean(name = "relationshipSearchService")
   @Primary
   @Nonnull
   protected LineageSearchService getInstance(CacheManager cacheManager, GraphService graphService,
-       SearchService searchService, ConfigurationProvider configurationProvider) {
+       SearchService searchService, ConfigurationProvider configurationProvider,
+       LineageClosureIndex lineageClosureIndex) {
     boolean cacheEnabled = configurationProvider.getFeatureFlags().isLineageSearchCacheEnabled();
-    return new LineageSearchService(searchService, graphService,
+    LineageSearchService lineageSearchService = new LineageSearchService(searchService, graphService,
         cacheEnabled ? cacheManager.getCache("relationshipSearchService") : null, cacheEnabled);
+    if (lineageClosureIndexEnabled) {
+      lineageSearchService.setLineageClosureIndex(lineageClosureIndex);
+    }
+    return lineageSearchService;
   }
 }
@@ -34,6 +34,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class GraphQLController {
 
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   public GraphQLController() {
 
   }
@@ -48,10 +50,9 @@ public class GraphQLController {
   CompletableFuture<ResponseEntity<String>> postGraphQL(HttpEntity<String> httpEntity) {
 
     String jsonStr = httpEntity.getBody();
-    ObjectMapper mapper = new ObjectMapper();
     JsonNode bodyJson = null;
     try {
-      bodyJson = mapper.readTree(jsonStr);
+      bodyJson = MAPPER.readTree(jsonStr);
     } catch (JsonProcessingException e) {
       log.error(String.format("Failed to parse json %s", jsonStr));
       return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
@@ -62,10 +63,13 @@ public class GraphQLController {
     }
 
     /*
-     * Extract "query" field
+     * Extract "query" field, which persisted queries may leave out in favor of their hash
      */
     JsonNode queryJson = bodyJson.get("query");
-    if (queryJson == null) {
+    JsonNode persistedQueryHashJson = bodyJson.path("extensions").path("persistedQuery").get("sha256Hash");
+    final String query = queryJson != null && !queryJson.isNull() ? queryJson.asText() : null;
+    final String persistedQueryHash = persistedQueryHashJson != null ? persistedQueryHashJson.asText() : null;
+    if (query == null && persistedQueryHash == null) {
       return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
     }
 
@@ -74,10 +78,11 @@ public class GraphQLController {
      */
     JsonNode variablesJson = bodyJson.get("variables");
     final Map<String, Object> variables = (variablesJson != null && !variablesJson.isNull())
-      ? new ObjectMapper().convertValue(variablesJson, new TypeReference<Map<String, Object>>() { })
+      ? MAPPER.convertValue(variablesJson, new TypeReference<Map<String, Object>>() { })
       : Collections.emptyMap();
 
-    log.debug(String.format("Executing graphQL query: %s, variables: %s", queryJson, variables));
+    log.debug("Executing graphQL query: {}, persisted query hash: {}, variables: {}", queryJson, persistedQueryHash,
+        variables);
 
     /*
      * Init QueryContext
@@ -92,7 +97,7 @@ public class GraphQLController {
       /*
        * Execute GraphQL Query
        */
-      ExecutionResult executionResult = _engine.execute(queryJson.asText(), variables, context);
+      ExecutionResult executionResult = _engine.execute(query, persistedQueryHash, variables, context);
 
       if (executionResult.getErrors().size() != 0) {
         // There were GraphQL errors. Report in error logs.
@@ -101,9 +106,7 @@ public class GraphQLController {
             executionResult.toSpecification(),
             executionResult.getErrors()));
       } else {
-        log.debug(String.format("Executed graphQL query: %s, result: %s",
-            queryJson,
-            executionResult.toSpecification()));
+        log.debug("Executed graphQL query: {}, result: {}", queryJson, executionResult);
       }
 
       /*
@@ -112,8 +115,10 @@ public class GraphQLController {
       try {
         submitMetrics(executionResult);
         // Remove tracing from response to reduce bulk, not used by the frontend
-        executionResult.getExtensions().remove("tracing");
-        String responseBodyStr = new ObjectMapper().writeValueAsString(executionResult.toSpecification());
+        if (executionResult.getExtensions() != null) {
+          executionResult.getExtensions().remove("tracing");
+        }
+        String responseBodyStr = MAPPER.writeValueAsString(executionResult.toSpecification());
         return new ResponseEntity<>(responseBodyStr, HttpStatus.OK);
       } catch (IllegalArgumentException | JsonProcessingException e) {
         log.error(String.format("Failed to convert execution result %s into a JsonNode", executionResult.toSpecification()));
@@ -146,6 +151,10 @@ public class GraphQLController {
   private void submitMetrics(ExecutionResult executionResult) {
     try {
       observeErrors(executionResult);
+      // Only sampled executions are traced
+      if (executionResult.getExtensions() == null) {
+        return;
+      }
       Object tracingInstrumentation = executionResult.getExtensions().get("tracing");
       if (tracingInstrumentation instanceof Map) {
         Map<String, Object> tracingMap = (Map<String, Object>) tracingInstrumentation;
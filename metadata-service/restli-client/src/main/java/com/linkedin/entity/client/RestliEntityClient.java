@@ -11,6 +11,7 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.StringArray;
 import com.linkedin.entity.AspectsDoGetTimeseriesAspectValuesRequestBuilder;
+import com.linkedin.entity.AspectsDoIngestProposalBatchRequestBuilder;
 import com.linkedin.entity.AspectsDoIngestProposalRequestBuilder;
 import com.linkedin.entity.AspectsGetRequestBuilder;
 import com.linkedin.entity.AspectsRequestBuilders;
@@ -59,6 +60,7 @@ import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.LineageSearchResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.MetadataChangeProposalArray;
 import com.linkedin.mxe.PlatformEvent;
 import com.linkedin.mxe.SystemMetadata;
 import com.linkedin.platform.PlatformDoProducePlatformEventRequestBuilder;
@@ -68,6 +70,7 @@ import com.linkedin.restli.client.Client;
 import com.linkedin.restli.client.RestLiResponseException;
 import com.linkedin.restli.common.HttpStatus;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -632,6 +635,23 @@ public class RestliEntityClient extends BaseClient implements EntityClient {
     return sendClientRequest(requestBuilder, authentication).getEntity();
   }
 
+  /**
+   * Ingest a batch of MetadataChangeProposal events in a single transaction. Unlike
+   * {@link #batchIngestProposals(Collection, Authentication, boolean)}, the whole batch fails if any proposal fails. A
+   * {@link RestLiResponseException} with status 422 means that none of the proposals were committed.
+   * @return the urns of the ingested proposals, in request order
+   */
+  public List<String> ingestProposalBatch(@Nonnull final Collection<MetadataChangeProposal> metadataChangeProposals,
+      @Nonnull final Authentication authentication, final boolean async) throws RemoteInvocationException {
+    if (metadataChangeProposals.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final AspectsDoIngestProposalBatchRequestBuilder requestBuilder = ASPECTS_REQUEST_BUILDERS.actionIngestProposalBatch()
+        .proposalsParam(new MetadataChangeProposalArray(metadataChangeProposals))
+        .asyncParam(String.valueOf(async));
+    return new ArrayList<>(sendClientRequest(requestBuilder, authentication).getEntity());
+  }
+
   public <T extends RecordTemplate> Optional<T> getVersionedAspect(@Nonnull String urn, @Nonnull String aspect,
       @Nonnull Long version, @Nonnull Class<T> aspectClass, @Nonnull final Authentication authentication)
       throws RemoteInvocationException {
@@ -3,13 +3,16 @@ package com.linkedin.metadata.resources.entity;
 import com.codahale.metrics.MetricRegistry;
 import com.datahub.authentication.Authentication;
 import com.datahub.authentication.AuthenticationContext;
+import com.google.common.annotations.VisibleForTesting;
 import com.linkedin.aspect.GetTimeseriesAspectValuesResponse;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringArray;
 import com.linkedin.metadata.aspect.EnvelopedAspectArray;
 import com.linkedin.metadata.aspect.VersionedAspect;
 import com.linkedin.metadata.entity.AspectUtils;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ProposalsNotCommittedException;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
 import com.linkedin.metadata.entity.validation.ValidationException;
 import com.linkedin.metadata.query.filter.Filter;
@@ -31,6 +34,7 @@ import com.linkedin.restli.server.resources.CollectionResourceTaskTemplate;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.net.URISyntaxException;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,12 +57,14 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
 
   private static final String ACTION_GET_TIMESERIES_ASPECT = "getTimeseriesAspectValues";
   private static final String ACTION_INGEST_PROPOSAL = "ingestProposal";
+  private static final String ACTION_INGEST_PROPOSAL_BATCH = "ingestProposalBatch";
   private static final String ACTION_GET_COUNT = "getCount";
   private static final String ACTION_RESTORE_INDICES = "restoreIndices";
 
   private static final String PARAM_ENTITY = "entity";
   private static final String PARAM_ASPECT = "aspect";
   private static final String PARAM_PROPOSAL = "proposal";
+  private static final String PARAM_PROPOSALS = "proposals";
   private static final String PARAM_START_TIME_MILLIS = "startTimeMillis";
   private static final String PARAM_END_TIME_MILLIS = "endTimeMillis";
   private static final String PARAM_LATEST_VALUE = "latestValue";
@@ -81,6 +87,16 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
   @Named("timeseriesAspectService")
   private TimeseriesAspectService _timeseriesAspectService;
 
+  @VisibleForTesting
+  void setEntityService(EntityService entityService) {
+    _entityService = entityService;
+  }
+
+  @VisibleForTesting
+  void setEntitySearchService(EntitySearchService entitySearchService) {
+    _entitySearchService = entitySearchService;
+  }
+
   /**
    * Retrieves the value for an entity that is made up of latest versions of specified aspects.
    * TODO: Get rid of this and migrate to getAspect.
@@ -169,6 +185,52 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
     }, MetricRegistry.name(this.getClass(), "ingestProposal"));
   }
 
+  @Action(name = ACTION_INGEST_PROPOSAL_BATCH)
+  @Nonnull
+  @WithSpan
+  public Task<StringArray> ingestProposalBatch(
+      @ActionParam(PARAM_PROPOSALS) @Nonnull MetadataChangeProposal[] metadataChangeProposals,
+      @ActionParam(PARAM_ASYNC) @Optional(UNSET) String async) throws URISyntaxException {
+    log.info("INGEST PROPOSAL BATCH size: {}", metadataChangeProposals.length);
+
+    boolean asyncBool;
+    if (UNSET.equals(async)) {
+      asyncBool = Boolean.parseBoolean(System.getenv(ASYNC_INGEST_DEFAULT_NAME));
+    } else {
+      asyncBool = Boolean.parseBoolean(async);
+    }
+
+    Authentication authentication = AuthenticationContext.getAuthentication();
+    String actorUrnStr = authentication.getActor().toUrnStr();
+    final AuditStamp auditStamp = new AuditStamp().setTime(_clock.millis()).setActor(Urn.createFromString(actorUrnStr));
+
+    return RestliUtil.toTask(() -> {
+      final List<EntityService.IngestProposalResult> results;
+      final List<Integer> requestedIndexes = new ArrayList<>(metadataChangeProposals.length);
+      try {
+        // Each proposal is immediately followed by its additional changes, preserving single-proposal ingest order
+        final List<MetadataChangeProposal> proposals = new ArrayList<>();
+        for (MetadataChangeProposal metadataChangeProposal : metadataChangeProposals) {
+          requestedIndexes.add(proposals.size());
+          proposals.add(metadataChangeProposal);
+          proposals.addAll(AspectUtils.getAdditionalChanges(metadataChangeProposal, _entityService));
+        }
+        results = _entityService.ingestProposals(proposals, auditStamp, asyncBool);
+      } catch (ValidationException | ProposalsNotCommittedException e) {
+        // Nothing was written, so the caller can retry the proposals without duplicating writes
+        throw new RestLiServiceException(HttpStatus.S_422_UNPROCESSABLE_ENTITY, e.getMessage());
+      }
+
+      final StringArray urns = new StringArray(metadataChangeProposals.length);
+      for (int i = 0; i < metadataChangeProposals.length; i++) {
+        Urn urn = results.get(requestedIndexes.get(i)).getUrn();
+        tryIndexRunId(urn, metadataChangeProposals[i].getSystemMetadata(), _entitySearchService);
+        urns.add(urn.toString());
+      }
+      return urns;
+    }, MetricRegistry.name(this.getClass(), "ingestProposalBatch"));
+  }
+
   @Action(name = ACTION_GET_COUNT)
   @Nonnull
   @WithSpan
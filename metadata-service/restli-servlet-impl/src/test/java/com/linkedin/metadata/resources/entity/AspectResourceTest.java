@@ -0,0 +1,118 @@
+package com.linkedin.metadata.resources.entity;
+
+import com.datahub.authentication.Actor;
+import com.datahub.authentication.ActorType;
+import com.datahub.authentication.Authentication;
+import com.datahub.authentication.AuthenticationContext;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ProposalsNotCommittedException;
+import com.linkedin.metadata.entity.validation.ValidationException;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.SystemMetadata;
+import com.linkedin.restli.common.HttpStatus;
+import com.linkedin.restli.server.RestLiServiceException;
+import java.util.Arrays;
+import java.util.List;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class AspectResourceTest {
+
+  private static final Urn URN_1 = UrnUtils.getUrn("urn:li:corpuser:a");
+  private static final Urn URN_2 = UrnUtils.getUrn("urn:li:corpuser:b");
+
+  private final EntityRegistry _entityRegistry = new SnapshotEntityRegistry(new Snapshot());
+  private EntityService _entityService;
+  private EntitySearchService _entitySearchService;
+  private AspectResource _resource;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mock(EntityService.class);
+    when(_entityService.getKeyAspectSpec("corpuser"))
+        .thenReturn(_entityRegistry.getEntitySpec("corpuser").getKeyAspectSpec());
+    _entitySearchService = mock(EntitySearchService.class);
+    _resource = new AspectResource();
+    _resource.setEntityService(_entityService);
+    _resource.setEntitySearchService(_entitySearchService);
+    AuthenticationContext.setAuthentication(new Authentication(new Actor(ActorType.USER, "datahub"), "creds"));
+  }
+
+  @AfterMethod
+  public void cleanup() {
+    AuthenticationContext.remove();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testIngestProposalBatch() throws Exception {
+    when(_entityService.ingestProposals(anyList(), any(), anyBoolean())).thenReturn(Arrays.asList(
+        new EntityService.IngestProposalResult(URN_1, true), new EntityService.IngestProposalResult(URN_2, true)));
+
+    _resource.ingestProposalBatch(new MetadataChangeProposal[]{proposal(URN_1, "run"), proposal(URN_2, null)},
+        "false");
+
+    final ArgumentCaptor<List<MetadataChangeProposal>> captor = ArgumentCaptor.forClass(List.class);
+    verify(_entityService, times(1)).ingestProposals(captor.capture(), any(), eq(false));
+    assertEquals(captor.getValue().size(), 2);
+    assertEquals(captor.getValue().get(0).getEntityUrn(), URN_1);
+    assertEquals(captor.getValue().get(1).getEntityUrn(), URN_2);
+    verify(_entityService, never()).ingestProposal(any(), any(), anyBoolean());
+    verify(_entitySearchService, times(1)).appendRunId("corpuser", URN_1, "run");
+    verify(_entitySearchService, never()).appendRunId(any(), eq(URN_2), any());
+  }
+
+  @Test
+  public void testIngestProposalBatchNotCommitted() throws Exception {
+    when(_entityService.ingestProposals(anyList(), any(), anyBoolean()))
+        .thenThrow(new ProposalsNotCommittedException(new RuntimeException("deadlock")));
+    assertStatus(HttpStatus.S_422_UNPROCESSABLE_ENTITY);
+
+    when(_entityService.ingestProposals(anyList(), any(), anyBoolean()))
+        .thenThrow(new ValidationException("invalid"));
+    assertStatus(HttpStatus.S_422_UNPROCESSABLE_ENTITY);
+  }
+
+  @Test
+  public void testIngestProposalBatchFailedAfterCommit() throws Exception {
+    when(_entityService.ingestProposals(anyList(), any(), anyBoolean()))
+        .thenThrow(new RuntimeException("failed to produce change log"));
+    assertStatus(HttpStatus.S_500_INTERNAL_SERVER_ERROR);
+    verify(_entitySearchService, never()).appendRunId(any(), any(), any());
+  }
+
+  private void assertStatus(HttpStatus status) throws Exception {
+    try {
+      _resource.ingestProposalBatch(new MetadataChangeProposal[]{proposal(URN_1, null)}, "false");
+      fail("Expected the batch to fail");
+    } catch (RestLiServiceException e) {
+      assertEquals(e.getStatus(), status);
+    }
+  }
+
+  private static MetadataChangeProposal proposal(Urn urn, String runId) {
+    final MetadataChangeProposal proposal = new MetadataChangeProposal()
+        .setEntityUrn(urn)
+        .setEntityType(urn.getEntityType())
+        .setAspectName("corpUserInfo")
+        .setChangeType(ChangeType.UPSERT);
+    if (runId != null) {
+      proposal.setSystemMetadata(new SystemMetadata().setRunId(runId));
+    }
+    return proposal;
+  }
+}
@@ -1,6 +1,7 @@
 package com.linkedin.metadata.utils.metrics;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
 import com.codahale.metrics.Timer;
@@ -41,6 +42,10 @@ public class MetricUtils {
     return REGISTRY.counter(MetricRegistry.name(metricName));
   }
 
+  public static Meter meter(Class<?> klass, String metricName) {
+    return REGISTRY.meter(MetricRegistry.name(klass, metricName));
+  }
+
   public static Timer timer(Class<?> klass, String metricName) {
     return REGISTRY.timer(MetricRegistry.name(klass, metricName));
   }